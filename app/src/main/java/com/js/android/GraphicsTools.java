@@ -0,0 +1,100 @@
+package com.js.android;
+
+import com.js.basic.Affine2D;
+import com.js.basic.MyMath;
+import com.js.basic.Point;
+import com.js.basic.Rect;
+
+import android.graphics.Matrix;
+
+/**
+ * Conversions between the geometry classes of com.js.basic (which have no
+ * Android dependencies) and their android.graphics counterparts
+ */
+public final class GraphicsTools {
+
+  /**
+   * Transform a point by a Matrix. This allocates a temporary array, so when
+   * transforming many points, consider using an Affine2D instead
+   */
+  public static void apply(Matrix m, Point pt) {
+    float[] f = new float[9];
+    m.getValues(f);
+    float newX = f[0] * pt.x + f[1] * pt.y + f[2];
+    float newY = f[3] * pt.x + f[4] * pt.y + f[5];
+    pt.setTo(newX, newY);
+  }
+
+  /**
+   * Construct an Affine2D from a Matrix
+   */
+  public static Affine2D toAffine2D(Matrix source) {
+    return setTo(new Affine2D(), source);
+  }
+
+  /**
+   * Set a transform from a Matrix, which is assumed to have no perspective
+   * component
+   *
+   * @return dest
+   */
+  public static Affine2D setTo(Affine2D dest, Matrix m) {
+    float[] v = new float[9];
+    m.getValues(v);
+    return dest.setTo(v[0], v[1], v[2], v[3], v[4], v[5]);
+  }
+
+  /**
+   * Store a transform in a Matrix
+   *
+   * @param dest if not null, where to store the transform
+   * @return the Matrix
+   */
+  public static Matrix toMatrix(Affine2D t, Matrix dest) {
+    if (dest == null)
+      dest = new Matrix();
+    dest.setValues(new float[]{t.m00, t.m01, t.m02, t.m10, t.m11, t.m12, 0, 0,
+        1});
+    return dest;
+  }
+
+  public static Matrix calcRectFitRectTransform(Rect originalRect, Rect fitRect) {
+    return calcRectFitRectTransform(originalRect, fitRect, true);
+  }
+
+  public static Matrix calcRectFitRectTransform(Rect originalRect,
+                                                Rect fitRect, boolean preserveAspectRatio) {
+    return toMatrix(MyMath.calcRectFitRectTransform(originalRect, fitRect,
+        preserveAspectRatio, new Affine2D()), null);
+  }
+
+  public static String dumpMatrix(Matrix m) {
+    if (m == null)
+      return "<null>";
+    float v[] = new float[9];
+    m.getValues(v);
+    return MyMath.dumpMatrix(v, 3, 3, true);
+  }
+
+  public static Rect toRect(android.graphics.Rect source) {
+    return setTo(new Rect(), source);
+  }
+
+  /**
+   * @return dest
+   */
+  public static Rect setTo(Rect dest, android.graphics.Rect source) {
+    dest.setTo(source.left, source.bottom, source.width(), source.height());
+    return dest;
+  }
+
+  public static android.graphics.Rect toAndroid(Rect r) {
+    android.graphics.Rect androidRect = new android.graphics.Rect();
+    androidRect.set((int) r.x, (int) r.y, (int) (r.x + r.width),
+        (int) (r.y + r.height));
+    return androidRect;
+  }
+
+  private GraphicsTools() {
+  }
+}
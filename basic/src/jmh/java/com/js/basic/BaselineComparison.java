@@ -0,0 +1,119 @@
+package com.js.basic;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static com.js.basic.Tools.*;
+
+/**
+ * Compares two JMH result files (in JSON format), printing the scores and
+ * normalized allocation rates of each benchmark present in both. Benchmarks
+ * that have results but no baseline are listed too, marked as new, so they
+ * aren't overlooked until the baseline is regenerated.
+ * <p/>
+ * Usage: BaselineComparison <baseline.json> <results.json>
+ */
+public class BaselineComparison {
+
+  private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+  public static void main(String[] args) throws Exception {
+    if (args.length != 2)
+      die("usage: BaselineComparison <baseline.json> <results.json>");
+    Map<String, JSONObject> baseline = readResults(new File(args[0]));
+    Map<String, JSONObject> current = readResults(new File(args[1]));
+
+    pr(d("benchmark", 60) + d("baseline", 12) + d("current", 12)
+        + d("ratio", 8) + " B/op (baseline -> current)");
+    int newCount = 0;
+    for (String key : sortedKeys(current)) {
+      JSONObject before = baseline.get(key);
+      JSONObject after = current.get(key);
+      double scoreAfter = score(after);
+      String units = after.getJSONObject("primaryMetric").getString(
+          "scoreUnit");
+      if (before == null) {
+        newCount++;
+        pr(d(key, 60) + d("(none)", -13) + d(scoreAfter, 8, 3)
+            + d("new", -8) + " ? -> " + allocation(after) + "  (" + units
+            + ")");
+        continue;
+      }
+      double scoreBefore = score(before);
+      pr(d(key, 60) + d(scoreBefore, 8, 3) + d(scoreAfter, 8, 3)
+          + d(scoreAfter / scoreBefore, 3, 2) + " " + allocation(before)
+          + " -> " + allocation(after) + "  (" + units + ")");
+    }
+    if (newCount != 0)
+      pr(newCount + " benchmark(s) have no baseline; run jmhBaseline to "
+          + "record them");
+  }
+
+  /**
+   * Read a results file, and map each benchmark's name and parameters to its
+   * result
+   */
+  private static Map<String, JSONObject> readResults(File file)
+      throws Exception {
+    JSONArray results = new JSONArray(Files.readString(file));
+    Map<String, JSONObject> map = new HashMap();
+    for (int i = 0; i < results.length(); i++) {
+      JSONObject result = results.getJSONObject(i);
+      String key = result.getString("benchmark");
+      // Strip the package name
+      key = key.substring(key.lastIndexOf('.', key.lastIndexOf('.') - 1) + 1);
+      JSONObject params = result.optJSONObject("params");
+      if (params != null) {
+        for (String name : sortedKeys(params))
+          key += " " + name + "=" + params.get(name);
+      }
+      map.put(key, result);
+    }
+    return map;
+  }
+
+  private static List<String> sortedKeys(Map<String, ?> map) {
+    List<String> keys = new ArrayList(map.keySet());
+    Collections.sort(keys);
+    return keys;
+  }
+
+  private static List<String> sortedKeys(JSONObject object) {
+    List<String> keys = new ArrayList();
+    Iterator<String> iter = object.keys();
+    while (iter.hasNext())
+      keys.add(iter.next());
+    Collections.sort(keys);
+    return keys;
+  }
+
+  private static double score(JSONObject result) {
+    return result.getJSONObject("primaryMetric").getDouble("score");
+  }
+
+  /**
+   * Get the normalized allocation rate (bytes per operation) of a result, as
+   * a string; or "?" if it wasn't recorded (i.e., the GC profiler wasn't
+   * enabled)
+   */
+  private static String allocation(JSONObject result) {
+    JSONObject metrics = result.optJSONObject("secondaryMetrics");
+    if (metrics != null) {
+      // The metric name has a prefix identifying the profiler
+      for (String name : sortedKeys(metrics)) {
+        if (name.endsWith(ALLOCATION_METRIC))
+          return Long.toString(Math.round(metrics.getJSONObject(name)
+              .getDouble("score")));
+      }
+    }
+    return "?";
+  }
+}
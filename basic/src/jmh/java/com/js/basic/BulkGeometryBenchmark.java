@@ -0,0 +1,122 @@
+package com.js.basic;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operations on whole point sets, batches of polynomials, and copies of
+ * Freezable objects. Each invocation processes all 'size' points (or
+ * polynomials)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkGeometryBenchmark {
+
+  @Param({"16", "1024", "65536"})
+  public int size;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(1965);
+    mPointList = new ArrayList(size);
+    for (int i = 0; i < size; i++)
+      mPointList.add(new Point(random.nextFloat() * 100,
+          random.nextFloat() * 100));
+    mPointArray = new PointArray(mPointList);
+    mQuery = new Point(50, 50);
+    mDistances = new float[size];
+    mMutablePolygon = new Polygon(mPointArray);
+    mFrozenPolygon = Tools.frozen(mMutablePolygon);
+    mCoefficients = new float[size * 4];
+    for (int i = 0; i < mCoefficients.length; i++)
+      mCoefficients[i] = random.nextFloat() * 20 - 10;
+    mRoots = new float[size * 3];
+    mRootCounts = new int[size];
+  }
+
+  @Benchmark
+  public Rect rectContainingPointList() {
+    return Rect.rectContainingPoints(mPointList);
+  }
+
+  @Benchmark
+  public Rect rectContainingPointArray() {
+    return Rect.rectContainingPoints(mPointArray);
+  }
+
+  @Benchmark
+  public float[] squaredDistancesTo() {
+    return MyMath.squaredDistancesTo(mPointArray, mQuery, mDistances);
+  }
+
+  @Benchmark
+  public int[] solveQuadratics() {
+    PolynomialSolver.solveQuadratics(mCoefficients, size, mRoots, mRootCounts);
+    return mRootCounts;
+  }
+
+  @Benchmark
+  public int[] solveCubics() {
+    PolynomialSolver.solveCubics(mCoefficients, size, mRoots, mRootCounts);
+    return mRootCounts;
+  }
+
+  /**
+   * Flatten the cubic Beziers whose control points are consecutive groups of
+   * four points
+   */
+  @Benchmark
+  public PointArray flattenCubics() {
+    PointArray p = mPointArray;
+    mVertices.clear();
+    for (int i = 0; i + 3 < size; i += 4)
+      mFlattener.cubic(p.x(i), p.y(i), p.x(i + 1), p.y(i + 1), p.x(i + 2),
+          p.y(i + 2), p.x(i + 3), p.y(i + 3), mVertices);
+    return mVertices;
+  }
+
+  @Benchmark
+  public Polygon copyOfMutable() {
+    return Tools.copyOf(mMutablePolygon);
+  }
+
+  @Benchmark
+  public Polygon copyOfFrozen() {
+    return Tools.copyOf(mFrozenPolygon);
+  }
+
+  @Benchmark
+  public Polygon frozenOfMutable() {
+    return Tools.frozen(mMutablePolygon);
+  }
+
+  private List<Point> mPointList;
+  private PointArray mPointArray;
+  private Point mQuery;
+  private float[] mDistances;
+  private Polygon mMutablePolygon;
+  private Polygon mFrozenPolygon;
+  private float[] mCoefficients;
+  private float[] mRoots;
+  private int[] mRootCounts;
+  private CurveFlattener mFlattener = new CurveFlattener(.05f);
+  private PointArray mVertices = new PointArray();
+}
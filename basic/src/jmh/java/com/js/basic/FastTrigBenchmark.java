@@ -0,0 +1,115 @@
+package com.js.basic;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares FastTrig against the exact MyMath functions. The bulk benchmarks
+ * report the time per element
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FastTrigBenchmark {
+
+  private static final int COUNT = 4096;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(1965);
+    mAngles = new float[COUNT];
+    mXs = new float[COUNT];
+    mYs = new float[COUNT];
+    for (int i = 0; i < COUNT; i++) {
+      mAngles[i] = (random.nextFloat() * 2 - 1) * 10;
+      mXs[i] = random.nextFloat() * 2 - 1;
+      mYs[i] = random.nextFloat() * 2 - 1;
+    }
+    mOutput = new float[COUNT];
+  }
+
+  private int next() {
+    mCursor = (mCursor + 1) & (COUNT - 1);
+    return mCursor;
+  }
+
+  @Benchmark
+  public float sinMyMath() {
+    return MyMath.sin(mAngles[next()]);
+  }
+
+  @Benchmark
+  public float sinFastTrig() {
+    return mTrig.sin(mAngles[next()]);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public float[] sinBulk() {
+    mTrig.sin(mAngles, mOutput, COUNT);
+    return mOutput;
+  }
+
+  @Benchmark
+  public float cosMyMath() {
+    return MyMath.cos(mAngles[next()]);
+  }
+
+  @Benchmark
+  public float cosFastTrig() {
+    return mTrig.cos(mAngles[next()]);
+  }
+
+  @Benchmark
+  public float polarAngleMyMath() {
+    int i = next();
+    return MyMath.polarAngle(mXs[i], mYs[i]);
+  }
+
+  @Benchmark
+  public float atan2FastTrig() {
+    int i = next();
+    return mTrig.atan2(mYs[i], mXs[i]);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(COUNT)
+  public float[] atan2Bulk() {
+    mTrig.atan2(mYs, mXs, mOutput, COUNT);
+    return mOutput;
+  }
+
+  @Benchmark
+  public Point pointOnCircleMyMath() {
+    return MyMath.pointOnCircle(mOrigin, mAngles[next()], 3);
+  }
+
+  @Benchmark
+  public Point pointOnCircleFastTrig() {
+    return mTrig.pointOnCircle(mOrigin, mAngles[next()], 3, mDest);
+  }
+
+  private FastTrig mTrig = FastTrig.DEFAULT;
+  private float[] mAngles;
+  private float[] mXs;
+  private float[] mYs;
+  private float[] mOutput;
+  private Point mOrigin = new Point(5, 7);
+  private Point mDest = new Point();
+  private int mCursor;
+}
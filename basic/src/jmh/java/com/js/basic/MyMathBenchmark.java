@@ -0,0 +1,139 @@
+package com.js.basic;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalar MyMath operations. Each invocation processes one input, cycling
+ * through a working set of 'size' inputs
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MyMathBenchmark {
+
+  @Param({"64", "65536"})
+  public int size;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(1965);
+    mPoints = new Point[size * 4];
+    for (int i = 0; i < mPoints.length; i++)
+      mPoints[i] = new Point(random.nextFloat() * 100, random.nextFloat() * 100);
+    // Construct quadratics from their roots, which are well separated so
+    // rounding can't make them complex
+    mCoefficients = new float[size * 3];
+    for (int i = 0; i < size; i++) {
+      float a = random.nextFloat() * 10 + 1;
+      float r1 = random.nextFloat() * 20 - 10;
+      float r2 = r1 + 1 + random.nextFloat() * 10;
+      mCoefficients[i * 3] = a;
+      mCoefficients[i * 3 + 1] = -a * (r1 + r2);
+      mCoefficients[i * 3 + 2] = a * r1 * r2;
+    }
+    mRects = new Rect[size * 2];
+    for (int i = 0; i < mRects.length; i++)
+      mRects[i] = new Rect(random.nextFloat() * 100, random.nextFloat() * 100,
+          random.nextFloat() * 100 + 1, random.nextFloat() * 100 + 1);
+  }
+
+  /**
+   * Get the index of the next input, in [0, size)
+   */
+  private int next() {
+    int i = mCursor + 1;
+    if (i == size)
+      i = 0;
+    mCursor = i;
+    return i;
+  }
+
+  @Benchmark
+  public int segSegIntersection() {
+    int i = next() * 4;
+    Point[] p = mPoints;
+    return MyMath.segSegIntersection(p[i], p[i + 1], p[i + 2], p[i + 3],
+        mPoint, mParameters);
+  }
+
+  @Benchmark
+  public int lineLineIntersection() {
+    int i = next() * 4;
+    Point[] p = mPoints;
+    return MyMath.lineLineIntersection(p[i], p[i + 1], p[i + 2], p[i + 3],
+        mPoint, mParameters);
+  }
+
+  @Benchmark
+  public float distanceBetween() {
+    int i = next() * 4;
+    return MyMath.distanceBetween(mPoints[i], mPoints[i + 1]);
+  }
+
+  @Benchmark
+  public float ptDistanceToSegment() {
+    int i = next() * 4;
+    Point[] p = mPoints;
+    return MyMath.ptDistanceToSegment(p[i], p[i + 1], p[i + 2], null);
+  }
+
+  @Benchmark
+  public float sideOfLine() {
+    int i = next() * 4;
+    Point[] p = mPoints;
+    return MyMath.sideOfLine(p[i], p[i + 1], p[i + 2]);
+  }
+
+  @Benchmark
+  public double orient2d() {
+    int i = next() * 4;
+    Point[] p = mPoints;
+    return RobustPredicates.orient2d(p[i], p[i + 1], p[i + 2]);
+  }
+
+  @Benchmark
+  public double incircle() {
+    int i = next() * 4;
+    Point[] p = mPoints;
+    return RobustPredicates.incircle(p[i], p[i + 1], p[i + 2], p[i + 3]);
+  }
+
+  @Benchmark
+  public float[] solveQuadratic() {
+    int i = next() * 3;
+    float[] c = mCoefficients;
+    return MyMath.solveQuadratic(c[i], c[i + 1], c[i + 2], mRoots);
+  }
+
+  @Benchmark
+  public Affine2D calcRectFitRectTransform() {
+    int i = next() * 2;
+    return MyMath.calcRectFitRectTransform(mRects[i], mRects[i + 1], true,
+        mTransform);
+  }
+
+  private int mCursor;
+  private Point[] mPoints;
+  private float[] mCoefficients;
+  private Rect[] mRects;
+  private Point mPoint = new Point();
+  private float[] mParameters = new float[2];
+  private float[] mRoots = new float[2];
+  private Affine2D mTransform = new Affine2D();
+}
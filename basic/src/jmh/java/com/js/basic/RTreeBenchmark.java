@@ -0,0 +1,128 @@
+package com.js.basic;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares PackedRTree queries against linear scans of a List<Rect>. Each
+ * query invocation uses the next of a fixed set of query windows or points
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RTreeBenchmark {
+
+  private static final int QUERIES = 1024;
+  private static final float WORLD_SIZE = 10000;
+
+  @Param({"10000", "100000", "1000000"})
+  public int size;
+
+  @Setup
+  public void setUp() {
+    mRandom = new Random(1965);
+    mRects = new ArrayList(size);
+    // Choose rect sizes so a typical point lies within a few of them
+    float maxSize = (float) (WORLD_SIZE * 4 / Math.sqrt(size));
+    for (int i = 0; i < size; i++)
+      mRects.add(new Rect(randomCoordinate(), randomCoordinate(),
+          mRandom.nextFloat() * maxSize, mRandom.nextFloat() * maxSize));
+    mWindows = new Rect[QUERIES];
+    mPoints = new Point[QUERIES];
+    for (int i = 0; i < QUERIES; i++) {
+      mWindows[i] = new Rect(randomCoordinate(), randomCoordinate(),
+          WORLD_SIZE / 100, WORLD_SIZE / 100);
+      mPoints[i] = new Point(randomCoordinate(), randomCoordinate());
+    }
+    mTree = new PackedRTree(mRects);
+  }
+
+  private float randomCoordinate() {
+    return mRandom.nextFloat() * WORLD_SIZE;
+  }
+
+  private int next() {
+    mCursor = (mCursor + 1) & (QUERIES - 1);
+    return mCursor;
+  }
+
+  @Benchmark
+  public PackedRTree build() {
+    return new PackedRTree(mRects);
+  }
+
+  @Benchmark
+  public int windowLinear() {
+    Rect window = mWindows[next()];
+    int count = 0;
+    for (Rect r : mRects)
+      if (r.intersects(window))
+        count++;
+    return count;
+  }
+
+  @Benchmark
+  public int windowTree() {
+    return mTree.findIntersecting(mWindows[next()], mResults).size();
+  }
+
+  @Benchmark
+  public int pointLinear() {
+    Point pt = mPoints[next()];
+    int count = 0;
+    for (Rect r : mRects)
+      if (r.contains(pt))
+        count++;
+    return count;
+  }
+
+  @Benchmark
+  public int pointTree() {
+    return mTree.findContaining(mPoints[next()], mResults).size();
+  }
+
+  @Benchmark
+  public int nearestLinear() {
+    Point pt = mPoints[next()];
+    int nearest = -1;
+    float nearestDistance = 0;
+    for (int i = 0; i < mRects.size(); i++) {
+      float distance = mRects.get(i).distanceFrom(pt);
+      if (nearest < 0 || distance < nearestDistance) {
+        nearest = i;
+        nearestDistance = distance;
+      }
+    }
+    return nearest;
+  }
+
+  @Benchmark
+  public int nearestTree() {
+    return mTree.findNearest(mPoints[next()], 1, mResults).get(0);
+  }
+
+  private Random mRandom;
+  private List<Rect> mRects;
+  private Rect[] mWindows;
+  private Point[] mPoints;
+  private PackedRTree mTree;
+  private IntArray mResults = new IntArray();
+  private int mCursor;
+}
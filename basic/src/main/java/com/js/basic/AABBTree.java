@@ -0,0 +1,611 @@
+package com.js.basic;
+
+import java.util.Arrays;
+
+/**
+ * A dynamic bounding volume hierarchy over a changing set of Rects, for
+ * broad-phase collision detection.
+ * <p/>
+ * Each Rect is represented by a leaf of a binary tree, and is identified by a
+ * proxy id returned when it is inserted. A leaf stores the Rect's bounds
+ * expanded by a margin (its 'fat' bounds), so small movements of the Rect
+ * don't require the tree to change. Insertions choose a sibling that
+ * minimizes the increase in perimeter, and rotations keep the tree balanced,
+ * so insert, move and remove all take O(log n) time.
+ * <p/>
+ * Queries test the exact (not fattened) bounds, with the semantics of
+ * Rect.intersects(). Nodes are stored in primitive arrays, and freed nodes
+ * (and their proxy ids) are recycled. Queries reuse internal buffers, so a
+ * tree must not be used by more than one thread at a time
+ */
+public final class AABBTree {
+
+  public static final float DEFAULT_MARGIN = 4;
+
+  public interface PairListener {
+    /**
+     * Called for each pair of overlapping Rects
+     *
+     * @param proxyA the lower of the two proxy ids
+     * @param proxyB the higher of the two proxy ids
+     */
+    void overlap(int proxyA, int proxyB);
+  }
+
+  public AABBTree() {
+    this(DEFAULT_MARGIN);
+  }
+
+  /**
+   * @param margin amount to expand each Rect by when storing it in a leaf
+   */
+  public AABBTree(float margin) {
+    if (margin < 0)
+      throw new IllegalArgumentException("bad margin: " + margin);
+    mMargin = margin;
+    allocateNodes(16);
+  }
+
+  /**
+   * Get the number of Rects in the tree
+   */
+  public int size() {
+    return mProxyCount;
+  }
+
+  /**
+   * Get the height of the tree; 0 if it's empty or contains a single Rect
+   */
+  public int height() {
+    return mRoot == NIL ? 0 : mHeight[mRoot];
+  }
+
+  /**
+   * Add a Rect to the tree
+   *
+   * @return proxy id
+   */
+  public int insert(Rect bounds) {
+    int leaf = allocateNode();
+    setTightBounds(leaf, bounds);
+    setFatBounds(leaf);
+    mHeight[leaf] = 0;
+    insertLeaf(leaf);
+    markMoved(leaf);
+    mProxyCount++;
+    return leaf;
+  }
+
+  /**
+   * Remove a Rect from the tree; its proxy id becomes invalid
+   */
+  public void remove(int proxy) {
+    checkProxy(proxy);
+    removeLeaf(proxy);
+    freeNode(proxy);
+    mProxyCount--;
+  }
+
+  /**
+   * Update the bounds of a Rect. The tree structure only changes if the new
+   * bounds are not within the leaf's fattened bounds, or are much smaller than
+   * them
+   *
+   * @return true if the leaf was reinserted
+   */
+  public boolean move(int proxy, Rect bounds) {
+    checkProxy(proxy);
+    setTightBounds(proxy, bounds);
+    float slackX = (mTightMinX[proxy] - mMinX[proxy])
+        + (mMaxX[proxy] - mTightMaxX[proxy]);
+    float slackY = (mTightMinY[proxy] - mMinY[proxy])
+        + (mMaxY[proxy] - mTightMaxY[proxy]);
+    if (mMinX[proxy] <= mTightMinX[proxy] && mMinY[proxy] <= mTightMinY[proxy]
+        && mMaxX[proxy] >= mTightMaxX[proxy]
+        && mMaxY[proxy] >= mTightMaxY[proxy]
+        && slackX <= MAX_SLACK_FACTOR * mMargin
+        && slackY <= MAX_SLACK_FACTOR * mMargin)
+      return false;
+    removeLeaf(proxy);
+    setFatBounds(proxy);
+    insertLeaf(proxy);
+    markMoved(proxy);
+    return true;
+  }
+
+  /**
+   * Get the (exact) bounds of a Rect
+   *
+   * @param dest where to store the bounds; if null, one is constructed
+   * @return dest
+   */
+  public Rect getBounds(int proxy, Rect dest) {
+    checkProxy(proxy);
+    if (dest == null)
+      dest = new Rect();
+    dest.setTo(mTightMinX[proxy], mTightMinY[proxy],
+        mTightMaxX[proxy] - mTightMinX[proxy],
+        mTightMaxY[proxy] - mTightMinY[proxy]);
+    return dest;
+  }
+
+  /**
+   * Find the Rects that intersect a window, in the sense of Rect.intersects()
+   *
+   * @param results where to store the proxy ids; it is cleared first; if null,
+   *                one is constructed
+   * @return results
+   */
+  public IntArray query(Rect window, IntArray results) {
+    if (results == null)
+      results = new IntArray();
+    results.clear();
+    float x0 = window.x;
+    float y0 = window.y;
+    float x1 = window.endX();
+    float y1 = window.endY();
+    if (mRoot == NIL)
+      return results;
+    IntArray stack = mStack;
+    stack.clear();
+    stack.add(mRoot);
+    while (!stack.isEmpty()) {
+      int node = stack.pop();
+      if (!(mMinX[node] < x1 && mMaxX[node] > x0 && mMinY[node] < y1
+          && mMaxY[node] > y0))
+        continue;
+      if (isLeaf(node)) {
+        if (mTightMinX[node] < x1 && mTightMaxX[node] > x0
+            && mTightMinY[node] < y1 && mTightMaxY[node] > y0)
+          results.add(node);
+      } else {
+        stack.add(mChild1[node]);
+        stack.add(mChild2[node]);
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Report every pair of intersecting Rects (in the sense of
+   * Rect.intersects()) to a listener; each pair is reported once
+   */
+  public void findOverlappingPairs(PairListener listener) {
+    if (mRoot == NIL)
+      return;
+    // Traverse the tree against itself. The stack holds pairs of subtrees to
+    // compare; a pair whose second element is NIL compares a subtree with
+    // itself
+    IntArray stack = mStack;
+    stack.clear();
+    stack.add(mRoot);
+    stack.add(NIL);
+    while (!stack.isEmpty()) {
+      int b = stack.pop();
+      int a = stack.pop();
+      if (b == NIL) {
+        if (isLeaf(a))
+          continue;
+        int child1 = mChild1[a];
+        int child2 = mChild2[a];
+        stack.add(child1);
+        stack.add(NIL);
+        stack.add(child2);
+        stack.add(NIL);
+        stack.add(child1);
+        stack.add(child2);
+        continue;
+      }
+      if (!fatOverlap(a, b))
+        continue;
+      boolean leafA = isLeaf(a);
+      boolean leafB = isLeaf(b);
+      if (leafA && leafB) {
+        if (tightOverlap(a, b))
+          listener.overlap(Math.min(a, b), Math.max(a, b));
+        continue;
+      }
+      // Descend into the larger subtree
+      if (leafB || (!leafA && perimeter(a) >= perimeter(b))) {
+        stack.add(mChild1[a]);
+        stack.add(b);
+        stack.add(mChild2[a]);
+        stack.add(b);
+      } else {
+        stack.add(a);
+        stack.add(mChild1[b]);
+        stack.add(a);
+        stack.add(mChild2[b]);
+      }
+    }
+  }
+
+  /**
+   * Report pairs of Rects whose fattened bounds overlap, where at least one of
+   * the pair has been inserted or reinserted (see move()) since the last call
+   * to this method. Pairs that don't involve such a Rect have been reported by
+   * an earlier call, and their fattened bounds haven't changed since.
+   * <p/>
+   * This is the incremental form of broad-phase collision detection: the
+   * caller maintains a set of potentially colliding pairs, adding those
+   * reported here, and discarding those whose fattened bounds (see
+   * fatBoundsOverlap()) no longer overlap. Since most Rects move only slightly
+   * from one frame to the next, few are reinserted, and this is much faster
+   * than findOverlappingPairs()
+   */
+  public void findNewPairs(PairListener listener) {
+    IntArray stack = mStack;
+    int[] moved = mMoved.array();
+    int movedCount = mMoved.size();
+    for (int i = 0; i < movedCount; i++) {
+      int leaf = moved[i];
+      // Skip proxies that have since been removed
+      if (mHeight[leaf] != 0)
+        continue;
+      stack.clear();
+      stack.add(mRoot);
+      while (!stack.isEmpty()) {
+        int node = stack.pop();
+        if (!fatOverlap(leaf, node))
+          continue;
+        if (isLeaf(node)) {
+          // If both of the pair were moved, report it only once
+          if (node != leaf && !(mMovedFlag[node] && node < leaf))
+            listener.overlap(Math.min(leaf, node), Math.max(leaf, node));
+        } else {
+          stack.add(mChild1[node]);
+          stack.add(mChild2[node]);
+        }
+      }
+    }
+    for (int i = 0; i < movedCount; i++)
+      mMovedFlag[moved[i]] = false;
+    mMoved.clear();
+  }
+
+  /**
+   * Determine if the fattened bounds of two Rects overlap
+   */
+  public boolean fatBoundsOverlap(int proxyA, int proxyB) {
+    checkProxy(proxyA);
+    checkProxy(proxyB);
+    return fatOverlap(proxyA, proxyB);
+  }
+
+  private boolean fatOverlap(int a, int b) {
+    return mMinX[a] < mMaxX[b] && mMaxX[a] > mMinX[b] && mMinY[a] < mMaxY[b]
+        && mMaxY[a] > mMinY[b];
+  }
+
+  private boolean tightOverlap(int a, int b) {
+    return mTightMinX[a] < mTightMaxX[b] && mTightMaxX[a] > mTightMinX[b]
+        && mTightMinY[a] < mTightMaxY[b] && mTightMaxY[a] > mTightMinY[b];
+  }
+
+  private void markMoved(int leaf) {
+    if (mMovedFlag[leaf])
+      return;
+    mMovedFlag[leaf] = true;
+    mMoved.add(leaf);
+  }
+
+  /**
+   * Verify the tree's structure and bounds; for test purposes
+   */
+  void validate() {
+    if (mRoot == NIL) {
+      if (mProxyCount != 0)
+        throw new IllegalStateException("empty tree has proxies");
+      return;
+    }
+    if (mParent[mRoot] != NIL)
+      throw new IllegalStateException("root has parent");
+    int leafCount = validate(mRoot);
+    if (leafCount != mProxyCount)
+      throw new IllegalStateException("leaf count " + leafCount
+          + " != proxy count " + mProxyCount);
+  }
+
+  private int validate(int node) {
+    if (isLeaf(node)) {
+      if (mHeight[node] != 0)
+        throw new IllegalStateException("bad leaf height");
+      return 1;
+    }
+    int child1 = mChild1[node];
+    int child2 = mChild2[node];
+    if (mParent[child1] != node || mParent[child2] != node)
+      throw new IllegalStateException("bad parent link");
+    if (mHeight[node] != 1 + Math.max(mHeight[child1], mHeight[child2]))
+      throw new IllegalStateException("bad height");
+    if (mMinX[node] != Math.min(mMinX[child1], mMinX[child2])
+        || mMinY[node] != Math.min(mMinY[child1], mMinY[child2])
+        || mMaxX[node] != Math.max(mMaxX[child1], mMaxX[child2])
+        || mMaxY[node] != Math.max(mMaxY[child1], mMaxY[child2]))
+      throw new IllegalStateException("bad bounds");
+    return validate(child1) + validate(child2);
+  }
+
+  private boolean isLeaf(int node) {
+    return mChild1[node] == NIL;
+  }
+
+  private void checkProxy(int proxy) {
+    if (proxy < 0 || proxy >= mNodeCapacity || mHeight[proxy] != 0)
+      throw new IllegalArgumentException("bad proxy: " + proxy);
+  }
+
+  private void setTightBounds(int leaf, Rect bounds) {
+    mTightMinX[leaf] = bounds.x;
+    mTightMinY[leaf] = bounds.y;
+    mTightMaxX[leaf] = bounds.endX();
+    mTightMaxY[leaf] = bounds.endY();
+  }
+
+  private void setFatBounds(int leaf) {
+    mMinX[leaf] = mTightMinX[leaf] - mMargin;
+    mMinY[leaf] = mTightMinY[leaf] - mMargin;
+    mMaxX[leaf] = mTightMaxX[leaf] + mMargin;
+    mMaxY[leaf] = mTightMaxY[leaf] + mMargin;
+  }
+
+  /**
+   * Set a node's bounds to the union of its children's bounds
+   */
+  private void updateBounds(int node) {
+    int a = mChild1[node];
+    int b = mChild2[node];
+    mMinX[node] = Math.min(mMinX[a], mMinX[b]);
+    mMinY[node] = Math.min(mMinY[a], mMinY[b]);
+    mMaxX[node] = Math.max(mMaxX[a], mMaxX[b]);
+    mMaxY[node] = Math.max(mMaxY[a], mMaxY[b]);
+    mHeight[node] = 1 + Math.max(mHeight[a], mHeight[b]);
+  }
+
+  private float perimeter(int node) {
+    return 2 * ((mMaxX[node] - mMinX[node]) + (mMaxY[node] - mMinY[node]));
+  }
+
+  /**
+   * Calculate the perimeter of the union of a node's bounds with a leaf's
+   */
+  private float combinedPerimeter(int node, int leaf) {
+    float w = Math.max(mMaxX[node], mMaxX[leaf])
+        - Math.min(mMinX[node], mMinX[leaf]);
+    float h = Math.max(mMaxY[node], mMaxY[leaf])
+        - Math.min(mMinY[node], mMinY[leaf]);
+    return 2 * (w + h);
+  }
+
+  private void insertLeaf(int leaf) {
+    if (mRoot == NIL) {
+      mRoot = leaf;
+      mParent[leaf] = NIL;
+      return;
+    }
+
+    // Descend the tree, choosing the child whose bounds would grow the least,
+    // until the cost of making the leaf a sibling of the current node is
+    // cheaper than descending further
+    int node = mRoot;
+    while (!isLeaf(node)) {
+      int child1 = mChild1[node];
+      int child2 = mChild2[node];
+      float area = perimeter(node);
+      float combinedArea = combinedPerimeter(node, leaf);
+
+      // Cost of creating a new parent for this node and the leaf
+      float cost = 2 * combinedArea;
+      // Minimum cost of pushing the leaf further down the tree
+      float inheritanceCost = 2 * (combinedArea - area);
+
+      float cost1 = descentCost(child1, leaf) + inheritanceCost;
+      float cost2 = descentCost(child2, leaf) + inheritanceCost;
+      if (cost < cost1 && cost < cost2)
+        break;
+      node = (cost1 < cost2) ? child1 : child2;
+    }
+
+    // Create a new parent for the sibling and the leaf
+    int sibling = node;
+    int oldParent = mParent[sibling];
+    int newParent = allocateNode();
+    mParent[newParent] = oldParent;
+    mChild1[newParent] = sibling;
+    mChild2[newParent] = leaf;
+    mParent[sibling] = newParent;
+    mParent[leaf] = newParent;
+    updateBounds(newParent);
+    if (oldParent == NIL) {
+      mRoot = newParent;
+    } else {
+      if (mChild1[oldParent] == sibling)
+        mChild1[oldParent] = newParent;
+      else
+        mChild2[oldParent] = newParent;
+    }
+
+    fixAncestors(mParent[leaf]);
+  }
+
+  private float descentCost(int child, int leaf) {
+    float cost = combinedPerimeter(child, leaf);
+    if (!isLeaf(child))
+      cost -= perimeter(child);
+    return cost;
+  }
+
+  private void removeLeaf(int leaf) {
+    if (leaf == mRoot) {
+      mRoot = NIL;
+      return;
+    }
+    int parent = mParent[leaf];
+    int grandParent = mParent[parent];
+    int sibling = (mChild1[parent] == leaf) ? mChild2[parent] : mChild1[parent];
+
+    // Replace the parent with the sibling
+    if (grandParent == NIL) {
+      mRoot = sibling;
+      mParent[sibling] = NIL;
+    } else {
+      if (mChild1[grandParent] == parent)
+        mChild1[grandParent] = sibling;
+      else
+        mChild2[grandParent] = sibling;
+      mParent[sibling] = grandParent;
+    }
+    freeNode(parent);
+    fixAncestors(grandParent);
+  }
+
+  /**
+   * Walk up the tree from a node, rebalancing and updating bounds
+   */
+  private void fixAncestors(int node) {
+    while (node != NIL) {
+      node = balance(node);
+      updateBounds(node);
+      node = mParent[node];
+    }
+  }
+
+  /**
+   * If a node is unbalanced, perform a left or right rotation
+   *
+   * @return the node now occupying its position in the tree
+   */
+  private int balance(int a) {
+    if (isLeaf(a) || mHeight[a] < 2)
+      return a;
+    int b = mChild1[a];
+    int c = mChild2[a];
+    int difference = mHeight[c] - mHeight[b];
+    if (difference > 1)
+      return rotateUp(a, c);
+    if (difference < -1)
+      return rotateUp(a, b);
+    return a;
+  }
+
+  /**
+   * Rotate a node's taller child up to replace it
+   *
+   * @param a    the node
+   * @param tall a's taller child
+   * @return tall
+   */
+  private int rotateUp(int a, int tall) {
+    int f = mChild1[tall];
+    int g = mChild2[tall];
+
+    // Move tall up to replace a
+    mChild1[tall] = a;
+    mParent[tall] = mParent[a];
+    mParent[a] = tall;
+    int parent = mParent[tall];
+    if (parent == NIL)
+      mRoot = tall;
+    else if (mChild1[parent] == a)
+      mChild1[parent] = tall;
+    else
+      mChild2[parent] = tall;
+
+    // Keep tall's taller child, and give its shorter one to a
+    int keep = f, give = g;
+    if (mHeight[f] < mHeight[g]) {
+      keep = g;
+      give = f;
+    }
+    mChild2[tall] = keep;
+    if (mChild1[a] == tall)
+      mChild1[a] = give;
+    else
+      mChild2[a] = give;
+    mParent[give] = a;
+    updateBounds(a);
+    updateBounds(tall);
+    return tall;
+  }
+
+  private int allocateNode() {
+    if (mFreeList == NIL)
+      allocateNodes(mNodeCapacity * 2);
+    int node = mFreeList;
+    mFreeList = mParent[node];
+    mParent[node] = NIL;
+    mChild1[node] = NIL;
+    mChild2[node] = NIL;
+    mHeight[node] = 1;
+    return node;
+  }
+
+  private void freeNode(int node) {
+    mParent[node] = mFreeList;
+    mChild1[node] = NIL;
+    mHeight[node] = FREE;
+    mFreeList = node;
+  }
+
+  /**
+   * Grow the node arrays, adding the new nodes to the free list
+   */
+  private void allocateNodes(int capacity) {
+    int oldCapacity = mNodeCapacity;
+    mMinX = grow(mMinX, capacity);
+    mMinY = grow(mMinY, capacity);
+    mMaxX = grow(mMaxX, capacity);
+    mMaxY = grow(mMaxY, capacity);
+    mTightMinX = grow(mTightMinX, capacity);
+    mTightMinY = grow(mTightMinY, capacity);
+    mTightMaxX = grow(mTightMaxX, capacity);
+    mTightMaxY = grow(mTightMaxY, capacity);
+    mParent = grow(mParent, capacity);
+    mChild1 = grow(mChild1, capacity);
+    mChild2 = grow(mChild2, capacity);
+    mHeight = grow(mHeight, capacity);
+    mMovedFlag = mMovedFlag == null ? new boolean[capacity] : Arrays.copyOf(
+        mMovedFlag, capacity);
+    mNodeCapacity = capacity;
+    for (int i = capacity - 1; i >= oldCapacity; i--)
+      freeNode(i);
+  }
+
+  private static float[] grow(float[] array, int capacity) {
+    return array == null ? new float[capacity] : Arrays.copyOf(array, capacity);
+  }
+
+  private static int[] grow(int[] array, int capacity) {
+    return array == null ? new int[capacity] : Arrays.copyOf(array, capacity);
+  }
+
+  private static final int NIL = -1;
+  // A leaf is reinserted if its fattened bounds exceed its exact bounds by
+  // more than this many margins
+  private static final float MAX_SLACK_FACTOR = 4;
+  // Height of a node that is on the free list
+  private static final int FREE = -1;
+
+  private final float mMargin;
+  private int mNodeCapacity;
+  private int mRoot = NIL;
+  private int mFreeList = NIL;
+  private int mProxyCount;
+
+  // Fattened bounds for leaves, union of children's bounds for internal nodes
+  private float[] mMinX, mMinY, mMaxX, mMaxY;
+  // Exact bounds of leaves
+  private float[] mTightMinX, mTightMinY, mTightMaxX, mTightMaxY;
+  private int[] mParent;
+  private int[] mChild1;
+  private int[] mChild2;
+  // 0 for leaves, FREE for unused nodes
+  private int[] mHeight;
+
+  // Leaves inserted or reinserted since the last call to findNewPairs(), some
+  // of which may have been removed (or recycled) since
+  private final IntArray mMoved = new IntArray();
+  // True for nodes that appear in mMoved
+  private boolean[] mMovedFlag;
+  private final IntArray mStack = new IntArray();
+}
@@ -0,0 +1,261 @@
+package com.js.basic;
+
+/**
+ * A 2D affine transformation, represented by the top two rows of a 3x3 matrix:
+ * <p/>
+ * <pre>
+ *   [ m00 m01 m02 ]
+ *   [ m10 m11 m12 ]
+ *   [  0   0   1  ]
+ * </pre>
+ * <p/>
+ * Unlike android.graphics.Matrix, this is plain Java; none of its operations
+ * allocate any memory, so transforming large numbers of points produces no
+ * garbage. Conversions to and from a Matrix are in
+ * com.js.android.GraphicsTools.
+ * <p/>
+ * The concatenation methods follow the conventions of android.graphics.Matrix:
+ * postConcat(t) applies t after this transform, and preConcat(t) applies t
+ * before it
+ */
+public final class Affine2D {
+
+  /**
+   * Construct the identity transform
+   */
+  public Affine2D() {
+    setToIdentity();
+  }
+
+  public Affine2D(Affine2D source) {
+    setTo(source);
+  }
+
+  public Affine2D setToIdentity() {
+    return setTo(1, 0, 0, 0, 1, 0);
+  }
+
+  public Affine2D setTo(float m00, float m01, float m02, float m10, float m11,
+                        float m12) {
+    this.m00 = m00;
+    this.m01 = m01;
+    this.m02 = m02;
+    this.m10 = m10;
+    this.m11 = m11;
+    this.m12 = m12;
+    return this;
+  }
+
+  public Affine2D setTo(Affine2D t) {
+    return setTo(t.m00, t.m01, t.m02, t.m10, t.m11, t.m12);
+  }
+
+  public Affine2D setTranslate(float dx, float dy) {
+    return setTo(1, 0, dx, 0, 1, dy);
+  }
+
+  public Affine2D setScale(float sx, float sy) {
+    return setTo(sx, 0, 0, 0, sy, 0);
+  }
+
+  /**
+   * Set this transform to a ccw rotation about the origin
+   */
+  public Affine2D setRotate(float angle) {
+    float c = MyMath.cos(angle);
+    float s = MyMath.sin(angle);
+    return setTo(c, -s, 0, s, c, 0);
+  }
+
+  /**
+   * Set this transform to one that maps one rectangle to (the center of)
+   * another; this is equivalent to a translation, followed by a scale, followed
+   * by a second translation
+   *
+   * @param preserveAspectRatio if true, the same scale factor is used for both
+   *                            dimensions
+   */
+  public Affine2D setRectFitRect(Rect originalRect, Rect fitRect,
+                                 boolean preserveAspectRatio) {
+    float scaleX = fitRect.width / originalRect.width;
+    float scaleY = fitRect.height / originalRect.height;
+    if (preserveAspectRatio) {
+      scaleX = Math.min(scaleX, scaleY);
+      scaleY = scaleX;
+    }
+    float unusedX = fitRect.width - scaleX * originalRect.width;
+    float unusedY = fitRect.height - scaleY * originalRect.height;
+    return setTo(scaleX, 0, fitRect.x + unusedX / 2 - scaleX * originalRect.x,
+        0, scaleY, fitRect.y + unusedY / 2 - scaleY * originalRect.y);
+  }
+
+  /**
+   * Replace this transform T with (t * T), i.e. t is applied after T
+   */
+  public Affine2D postConcat(Affine2D t) {
+    return multiply(t, this);
+  }
+
+  /**
+   * Replace this transform T with (T * t), i.e. t is applied before T
+   */
+  public Affine2D preConcat(Affine2D t) {
+    return multiply(this, t);
+  }
+
+  /**
+   * Apply a translation after this transform
+   */
+  public Affine2D postTranslate(float dx, float dy) {
+    m02 += dx;
+    m12 += dy;
+    return this;
+  }
+
+  /**
+   * Apply a scale (about the origin) after this transform
+   */
+  public Affine2D postScale(float sx, float sy) {
+    return setTo(m00 * sx, m01 * sx, m02 * sx, m10 * sy, m11 * sy, m12 * sy);
+  }
+
+  /**
+   * Set this transform to the product a * b (i.e., b followed by a); either
+   * argument can be this transform
+   */
+  public Affine2D multiply(Affine2D a, Affine2D b) {
+    return setTo(
+        a.m00 * b.m00 + a.m01 * b.m10,
+        a.m00 * b.m01 + a.m01 * b.m11,
+        a.m00 * b.m02 + a.m01 * b.m12 + a.m02,
+        a.m10 * b.m00 + a.m11 * b.m10,
+        a.m10 * b.m01 + a.m11 * b.m11,
+        a.m10 * b.m02 + a.m11 * b.m12 + a.m12);
+  }
+
+  public float determinant() {
+    return m00 * m11 - m01 * m10;
+  }
+
+  /**
+   * Calculate the inverse of this transform
+   *
+   * @param dest where to store the inverse; can be this transform
+   * @return false if transform is singular (in which case dest is unchanged)
+   */
+  public boolean invert(Affine2D dest) {
+    float det = determinant();
+    if (Math.abs(det) <= 1e-12f)
+      return false;
+    float r = 1 / det;
+    float i00 = m11 * r;
+    float i01 = -m01 * r;
+    float i10 = -m10 * r;
+    float i11 = m00 * r;
+    dest.setTo(i00, i01, -(i00 * m02 + i01 * m12), i10, i11,
+        -(i10 * m02 + i11 * m12));
+    return true;
+  }
+
+  /**
+   * Transform a point, in place
+   */
+  public Point map(Point pt) {
+    return map(pt, pt);
+  }
+
+  /**
+   * Transform a point
+   *
+   * @param dest where to store the result; can be the source point
+   * @return dest
+   */
+  public Point map(Point source, Point dest) {
+    float x = source.x;
+    float y = source.y;
+    dest.setTo(m00 * x + m01 * y + m02, m10 * x + m11 * y + m12);
+    return dest;
+  }
+
+  /**
+   * Transform an array of points stored as interleaved x,y pairs
+   *
+   * @param source source coordinates
+   * @param dest   where to store transformed coordinates; can be the source
+   *               array, and must be at least as long
+   */
+  public void map(float[] source, float[] dest) {
+    map(source, 0, dest, 0, source.length / 2);
+  }
+
+  /**
+   * Transform a range of points stored as interleaved x,y pairs
+   *
+   * @param sourceOffset index of first source x coordinate
+   * @param destOffset   index of first destination x coordinate
+   * @param count        number of points to transform
+   */
+  public void map(float[] source, int sourceOffset, float[] dest,
+                  int destOffset, int count) {
+    float a = m00, b = m01, c = m02, d = m10, e = m11, f = m12;
+    int end = sourceOffset + 2 * count;
+    for (int i = sourceOffset, j = destOffset; i < end; i += 2, j += 2) {
+      float x = source[i];
+      float y = source[i + 1];
+      dest[j] = a * x + b * y + c;
+      dest[j + 1] = d * x + e * y + f;
+    }
+  }
+
+  /**
+   * Transform each point in a PointArray, in place
+   */
+  public void map(PointArray points) {
+    float[] xs = points.xs();
+    float[] ys = points.ys();
+    int start = points.offset();
+    int end = start + points.size();
+    float a = m00, b = m01, c = m02, d = m10, e = m11, f = m12;
+    for (int i = start; i < end; i++) {
+      float x = xs[i];
+      float y = ys[i];
+      xs[i] = a * x + b * y + c;
+      ys[i] = d * x + e * y + f;
+    }
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (!(obj instanceof Affine2D))
+      return false;
+    Affine2D t = (Affine2D) obj;
+    return Float.floatToIntBits(m00) == Float.floatToIntBits(t.m00)
+        && Float.floatToIntBits(m01) == Float.floatToIntBits(t.m01)
+        && Float.floatToIntBits(m02) == Float.floatToIntBits(t.m02)
+        && Float.floatToIntBits(m10) == Float.floatToIntBits(t.m10)
+        && Float.floatToIntBits(m11) == Float.floatToIntBits(t.m11)
+        && Float.floatToIntBits(m12) == Float.floatToIntBits(t.m12);
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = Float.floatToIntBits(m00);
+    hash = hash * 31 + Float.floatToIntBits(m01);
+    hash = hash * 31 + Float.floatToIntBits(m02);
+    hash = hash * 31 + Float.floatToIntBits(m10);
+    hash = hash * 31 + Float.floatToIntBits(m11);
+    hash = hash * 31 + Float.floatToIntBits(m12);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return MyMath.dumpMatrix(new float[]{m00, m01, m02, m10, m11, m12}, 2, 3,
+        true);
+  }
+
+  public float m00, m01, m02;
+  public float m10, m11, m12;
+}
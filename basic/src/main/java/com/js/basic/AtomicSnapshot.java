@@ -0,0 +1,103 @@
+package com.js.basic;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.js.basic.Tools.*;
+
+/**
+ * A holder for the current version of a Freezable object that is shared
+ * between threads (e.g. a scene edited by a worker thread, and drawn by the
+ * render thread).
+ * <p/>
+ * The holder only ever contains frozen objects. Readers call get() to obtain
+ * the current version, without locking; it won't change underneath them, and
+ * its state is safely published. Writers replace the current version with
+ * set(), compareAndSet(), or update(); these never block readers
+ */
+public final class AtomicSnapshot<T extends Freezable> {
+
+  /**
+   * Interface for modifying a mutable copy of the current version; see
+   * update(). May be called more than once, so it shouldn't have side effects
+   * other than modifying the copy
+   */
+  public interface Modifier<T> {
+    void modify(T mutableCopy);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param initialValue
+   *          initial version; if not frozen, a frozen copy is stored instead
+   */
+  public AtomicSnapshot(T initialValue) {
+    mReference = new AtomicReference<T>(frozenVersion(initialValue));
+  }
+
+  /**
+   * Get the current version
+   */
+  public T get() {
+    return mReference.get();
+  }
+
+  /**
+   * Replace the current version
+   *
+   * @param value
+   *          new version; if not frozen, a frozen copy is stored instead
+   * @return the version that was stored
+   */
+  public T set(T value) {
+    T version = frozenVersion(value);
+    mReference.set(version);
+    return version;
+  }
+
+  /**
+   * Replace the current version, but only if it hasn't changed since it was
+   * read
+   *
+   * @param expected
+   *          the version previously returned by get(); compared by identity,
+   *          not equality
+   * @param value
+   *          new version; if not frozen, a frozen copy is stored instead
+   * @return true if the version was replaced
+   */
+  public boolean compareAndSet(T expected, T value) {
+    return mReference.compareAndSet(expected, frozenVersion(value));
+  }
+
+  /**
+   * Replace the current version with a modified copy of it. If another thread
+   * replaces the version while the modifier is running, the modification is
+   * repeated on a copy of the newer version
+   *
+   * @return the version that was stored
+   */
+  public T update(Modifier<T> modifier) {
+    while (true) {
+      T current = mReference.get();
+      T version = mutableCopyOf(current);
+      modifier.modify(version);
+      version.freeze();
+      if (mReference.compareAndSet(current, version))
+        return version;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "AtomicSnapshot[" + get() + "]";
+  }
+
+  private static <T extends Freezable> T frozenVersion(T value) {
+    if (value == null)
+      throw new IllegalArgumentException("value is null");
+    return frozen(value);
+  }
+
+  private final AtomicReference<T> mReference;
+}
@@ -0,0 +1,359 @@
+package com.js.basic;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Calculates convex hulls of point sets.
+ * <p/>
+ * Points are first filtered using the Akl-Toussaint heuristic: the extreme
+ * points in eight directions form an octagon, and points strictly within it
+ * are discarded without sorting. The remaining points are sorted, and the
+ * hull is constructed with Andrew's monotone chain algorithm.
+ * <p/>
+ * Large inputs are split into chunks whose hulls are calculated in parallel
+ * (using a fork/join pool) and then merged pairwise; each merge is linear in
+ * the size of the hulls being merged.
+ * <p/>
+ * Hulls are reported counterclockwise, starting with the lowest point of
+ * those with minimum x; collinear and duplicate points are omitted. Turn
+ * tests are performed in double precision
+ */
+public final class ConvexHull {
+
+  /**
+   * Calculate the hull of a list of points
+   *
+   * @return hull vertices
+   */
+  public static List<Point> hull(List<Point> points) {
+    return hull(new PointArray(points)).toList();
+  }
+
+  /**
+   * Calculate the hull of an array of points
+   *
+   * @return hull vertices
+   */
+  public static PointArray hull(PointArray points) {
+    IntArray indices = hullIndices(points, null);
+    PointArray hull = new PointArray(indices.size());
+    float[] xs = points.xs();
+    float[] ys = points.ys();
+    int offset = points.offset();
+    for (int i = 0; i < indices.size(); i++) {
+      int j = offset + indices.get(i);
+      hull.add(xs[j], ys[j]);
+    }
+    return hull;
+  }
+
+  /**
+   * Calculate the hull of an array of points
+   *
+   * @param results where to store the indices of the hull vertices; it is
+   *                cleared first; if null, one is constructed
+   * @return results
+   */
+  public static IntArray hullIndices(PointArray points, IntArray results) {
+    if (results == null)
+      results = new IntArray();
+    results.clear();
+    ConvexHull h = new ConvexHull(points);
+    int size = points.size();
+    int[] sorted;
+    if (size < PARALLEL_THRESHOLD)
+      sorted = h.chunkHull(0, size);
+    else
+      sorted = Tools.sharedForkJoinPool().invoke(h.new HullTask(0, size));
+    int[] hull = new int[sorted.length + 1];
+    int count = h.monotoneChain(sorted, sorted.length, hull);
+    results.ensureCapacity(count);
+    for (int i = 0; i < count; i++)
+      results.add(hull[i]);
+    return results;
+  }
+
+  private ConvexHull(PointArray points) {
+    mXs = points.xs();
+    mYs = points.ys();
+    mOffset = points.offset();
+  }
+
+  /**
+   * Calculate the hull of a range of points
+   *
+   * @return indices of hull vertices, sorted lexicographically
+   */
+  private int[] chunkHull(int start, int end) {
+    int[] candidates = filterInterior(start, end);
+    sortLexicographically(candidates);
+    return hullInLexicographicOrder(candidates, candidates.length);
+  }
+
+  /**
+   * Merge two hulls, each sorted lexicographically
+   *
+   * @return indices of merged hull's vertices, sorted lexicographically
+   */
+  private int[] mergeHulls(int[] a, int[] b) {
+    int[] merged = new int[a.length + b.length];
+    int i = 0, j = 0, k = 0;
+    while (i < a.length && j < b.length)
+      merged[k++] = (compare(a[i], b[j]) <= 0) ? a[i++] : b[j++];
+    while (i < a.length)
+      merged[k++] = a[i++];
+    while (j < b.length)
+      merged[k++] = b[j++];
+    return hullInLexicographicOrder(merged, k);
+  }
+
+  /**
+   * Calculate the hull of some lexicographically sorted points, and return its
+   * vertices in lexicographic order
+   */
+  private int[] hullInLexicographicOrder(int[] sorted, int count) {
+    int[] hull = new int[count + 1];
+    int hullSize = monotoneChain(sorted, count, hull);
+    // The lower chain runs from the first vertex to the lexicographically
+    // greatest one, in increasing order; the remaining vertices (the upper
+    // chain) are in decreasing order
+    int lower = Math.min(1, hullSize);
+    while (lower < hullSize && compare(hull[lower - 1], hull[lower]) < 0)
+      lower++;
+    int[] result = new int[hullSize];
+    int i = 0, j = hullSize - 1, k = 0;
+    while (i < lower && j >= lower)
+      result[k++] = (compare(hull[i], hull[j]) <= 0) ? hull[i++] : hull[j--];
+    while (i < lower)
+      result[k++] = hull[i++];
+    while (j >= lower)
+      result[k++] = hull[j--];
+    return result;
+  }
+
+  /**
+   * Apply Andrew's monotone chain algorithm to lexicographically sorted points
+   *
+   * @param hull where to store the hull vertices (counterclockwise); must have
+   *             length at least count + 1
+   * @return number of vertices
+   */
+  private int monotoneChain(int[] sorted, int count, int[] hull) {
+    int k = 0;
+    for (int i = 0; i < count; i++) {
+      int p = sorted[i];
+      while (k >= 2 && orientation(hull[k - 2], hull[k - 1], p) <= 0)
+        k--;
+      // Skip duplicates of the first point
+      if (k == 1 && compare(hull[0], p) == 0)
+        continue;
+      hull[k++] = p;
+    }
+    if (k < 2)
+      return k;
+    int lowerEnd = k + 1;
+    for (int i = count - 2; i >= 0; i--) {
+      int p = sorted[i];
+      while (k >= lowerEnd && orientation(hull[k - 2], hull[k - 1], p) <= 0)
+        k--;
+      hull[k++] = p;
+    }
+    // The last vertex duplicates the first; or, if the points are collinear,
+    // the upper chain is just the two endpoints
+    k--;
+    return k;
+  }
+
+  /**
+   * Discard the points of a range that lie strictly within the octagon formed
+   * by its extreme points (the Akl-Toussaint heuristic)
+   *
+   * @return indices of the remaining points
+   */
+  private int[] filterInterior(int start, int end) {
+    int count = end - start;
+    if (count == 0)
+      return new int[0];
+    // Find the extreme points in the directions x, x+y, y, y-x, -x, ...
+    int[] extremes = new int[8];
+    Arrays.fill(extremes, start);
+    float[] best = new float[8];
+    float x0 = x(start), y0 = y(start);
+    best[0] = x0;
+    best[1] = x0 + y0;
+    best[2] = y0;
+    best[3] = y0 - x0;
+    best[4] = -x0;
+    best[5] = -x0 - y0;
+    best[6] = -y0;
+    best[7] = x0 - y0;
+    for (int i = start + 1; i < end; i++) {
+      float x = x(i), y = y(i);
+      if (x > best[0]) {
+        best[0] = x;
+        extremes[0] = i;
+      }
+      if (x + y > best[1]) {
+        best[1] = x + y;
+        extremes[1] = i;
+      }
+      if (y > best[2]) {
+        best[2] = y;
+        extremes[2] = i;
+      }
+      if (y - x > best[3]) {
+        best[3] = y - x;
+        extremes[3] = i;
+      }
+      if (-x > best[4]) {
+        best[4] = -x;
+        extremes[4] = i;
+      }
+      if (-x - y > best[5]) {
+        best[5] = -x - y;
+        extremes[5] = i;
+      }
+      if (-y > best[6]) {
+        best[6] = -y;
+        extremes[6] = i;
+      }
+      if (x - y > best[7]) {
+        best[7] = x - y;
+        extremes[7] = i;
+      }
+    }
+
+    // The extremes are in counterclockwise order; drop repeated vertices
+    int octagonSize = 0;
+    for (int i = 0; i < 8; i++) {
+      int e = extremes[i];
+      if (octagonSize == 0 || compare(extremes[octagonSize - 1], e) != 0)
+        extremes[octagonSize++] = e;
+    }
+    while (octagonSize > 1
+        && compare(extremes[octagonSize - 1], extremes[0]) == 0)
+      octagonSize--;
+
+    int[] survivors = new int[count];
+    int survivorCount = 0;
+    for (int i = start; i < end; i++) {
+      boolean inside = octagonSize >= 3;
+      for (int j = 0; inside && j < octagonSize; j++) {
+        int a = extremes[j];
+        int b = extremes[(j + 1) % octagonSize];
+        if (orientation(a, b, i) <= 0)
+          inside = false;
+      }
+      if (!inside)
+        survivors[survivorCount++] = i;
+    }
+    return Arrays.copyOf(survivors, survivorCount);
+  }
+
+  /**
+   * Sort point indices lexicographically, by x and then by y
+   */
+  private void sortLexicographically(int[] indices) {
+    int count = indices.length;
+    long[] keys = new long[count];
+    for (int i = 0; i < count; i++)
+      keys[i] = sortKey(x(indices[i]), indices[i]);
+    Arrays.sort(keys);
+    for (int i = 0; i < count; i++)
+      indices[i] = (int) keys[i];
+    // Sort each run of points with equal x by y
+    int runStart = 0;
+    while (runStart < count) {
+      float x = x(indices[runStart]);
+      int runEnd = runStart + 1;
+      while (runEnd < count && x(indices[runEnd]) == x)
+        runEnd++;
+      if (runEnd - runStart > 1) {
+        for (int i = runStart; i < runEnd; i++)
+          keys[i] = sortKey(y(indices[i]), indices[i]);
+        Arrays.sort(keys, runStart, runEnd);
+        for (int i = runStart; i < runEnd; i++)
+          indices[i] = (int) keys[i];
+      }
+      runStart = runEnd;
+    }
+  }
+
+  /**
+   * Construct a key that sorts by a float value, with a (non-negative) int
+   * payload in its low 32 bits
+   */
+  private static long sortKey(float value, int payload) {
+    int bits = Float.floatToIntBits(value + 0.0f);
+    // Flip the magnitude bits of negative values so the ints sort in the same
+    // order as the floats
+    bits ^= (bits >> 31) & 0x7fffffff;
+    return ((long) bits << 32) | payload;
+  }
+
+  private float x(int index) {
+    return mXs[mOffset + index];
+  }
+
+  private float y(int index) {
+    return mYs[mOffset + index];
+  }
+
+  private int compare(int a, int b) {
+    float ax = x(a), bx = x(b);
+    if (ax != bx)
+      return ax < bx ? -1 : 1;
+    float ay = y(a), by = y(b);
+    if (ay != by)
+      return ay < by ? -1 : 1;
+    return 0;
+  }
+
+  /**
+   * Determine which side of the directed line a->b a point lies on; see
+   * MyMath.sideOfLine(). The sign is exact, so nearly collinear points are
+   * classified consistently
+   *
+   * @return positive if to the left, negative if to the right, zero if
+   * collinear
+   */
+  private double orientation(int a, int b, int p) {
+    return RobustPredicates.orient2d(x(a), y(a), x(b), y(b), x(p), y(p));
+  }
+
+  /**
+   * Task to calculate the hull of a range of points, splitting it in two if
+   * it's large enough
+   */
+  private class HullTask extends RecursiveTask<int[]> {
+
+    public HullTask(int start, int end) {
+      mStart = start;
+      mEnd = end;
+    }
+
+    @Override
+    protected int[] compute() {
+      if (mEnd - mStart <= CHUNK_SIZE)
+        return chunkHull(mStart, mEnd);
+      int mid = (mStart + mEnd) >>> 1;
+      HullTask second = new HullTask(mid, mEnd);
+      second.fork();
+      int[] first = new HullTask(mStart, mid).compute();
+      return mergeHulls(first, second.join());
+    }
+
+    private final int mStart;
+    private final int mEnd;
+  }
+
+  // Inputs at least this large are processed in parallel
+  private static final int PARALLEL_THRESHOLD = 200000;
+  private static final int CHUNK_SIZE = 65536;
+
+  private final float[] mXs;
+  private final float[] mYs;
+  private final int mOffset;
+}
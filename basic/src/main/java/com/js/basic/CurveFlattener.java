@@ -0,0 +1,214 @@
+package com.js.basic;
+
+/**
+ * Approximates quadratic and cubic Bezier curves and circular arcs by
+ * polylines, whose vertices are within a tolerance of the true curve.
+ * <p/>
+ * Beziers are subdivided adaptively (by de Casteljau's algorithm), so flat
+ * sections produce few vertices and tight turns many; a piece is flat enough
+ * when its inner control points are close enough to its chord that the curve
+ * must be within the tolerance of it. Arcs have constant curvature, so they're
+ * divided into equal steps, the fewest for which each chord's distance from
+ * the arc is within the tolerance.
+ * <p/>
+ * Vertices are appended to a caller-supplied PointArray, which can be cleared
+ * and reused between calls. A curve's start point is appended only if the
+ * array is empty or doesn't already end with it, so consecutive curves of a
+ * path can be flattened into the same array. Apart from growing that array,
+ * flattening doesn't allocate: the subdivision uses an explicit stack owned by
+ * the flattener, so a CurveFlattener must not be shared between threads
+ */
+public final class CurveFlattener {
+
+  /**
+   * @param tolerance maximum distance of the polyline from the curve
+   */
+  public CurveFlattener(float tolerance) {
+    if (!(tolerance > 0))
+      throw new IllegalArgumentException("bad tolerance: " + tolerance);
+    mTolerance = tolerance;
+  }
+
+  public float tolerance() {
+    return mTolerance;
+  }
+
+  /**
+   * Flatten a quadratic Bezier curve
+   *
+   * @param dest where to append the vertices; if null, one is constructed
+   * @return dest
+   */
+  public PointArray quadratic(float x0, float y0, float x1, float y1,
+                              float x2, float y2, PointArray dest) {
+    // Raise to a cubic; this is exact, and the cubic's flatness test is no
+    // more conservative for the raised curve than a quadratic one would be
+    final float TWO_THIRDS = 2 / 3f;
+    return cubic(x0, y0, x0 + TWO_THIRDS * (x1 - x0), y0 + TWO_THIRDS
+        * (y1 - y0), x2 + TWO_THIRDS * (x1 - x2), y2 + TWO_THIRDS * (y1 - y2),
+        x2, y2, dest);
+  }
+
+  public PointArray quadratic(Point p0, Point p1, Point p2, PointArray dest) {
+    return quadratic(p0.x, p0.y, p1.x, p1.y, p2.x, p2.y, dest);
+  }
+
+  /**
+   * Flatten a cubic Bezier curve
+   *
+   * @param dest where to append the vertices; if null, one is constructed
+   * @return dest
+   */
+  public PointArray cubic(float x0, float y0, float x1, float y1, float x2,
+                          float y2, float x3, float y3, PointArray dest) {
+    dest = start(x0, y0, dest);
+    float[] stack = mStack;
+    int[] depths = mDepths;
+    int top = 0;
+    stack[0] = x0;
+    stack[1] = y0;
+    stack[2] = x1;
+    stack[3] = y1;
+    stack[4] = x2;
+    stack[5] = y2;
+    stack[6] = x3;
+    stack[7] = y3;
+    depths[0] = 0;
+
+    while (top >= 0) {
+      int i = top * 8;
+      int depth = depths[top];
+      if (depth == MAX_DEPTH || isFlat(stack, i)) {
+        dest.add(stack[i + 6], stack[i + 7]);
+        top--;
+        continue;
+      }
+      // Split at t = 1/2; the second half replaces the current piece, and the
+      // first half goes above it, so it is processed first
+      int j = i + 8;
+      float ax = stack[i], ay = stack[i + 1];
+      float bx = stack[i + 2], by = stack[i + 3];
+      float cx = stack[i + 4], cy = stack[i + 5];
+      float dx = stack[i + 6], dy = stack[i + 7];
+      float abx = (ax + bx) * .5f, aby = (ay + by) * .5f;
+      float bcx = (bx + cx) * .5f, bcy = (by + cy) * .5f;
+      float cdx = (cx + dx) * .5f, cdy = (cy + dy) * .5f;
+      float abcx = (abx + bcx) * .5f, abcy = (aby + bcy) * .5f;
+      float bcdx = (bcx + cdx) * .5f, bcdy = (bcy + cdy) * .5f;
+      float midX = (abcx + bcdx) * .5f, midY = (abcy + bcdy) * .5f;
+
+      stack[i] = midX;
+      stack[i + 1] = midY;
+      stack[i + 2] = bcdx;
+      stack[i + 3] = bcdy;
+      stack[i + 4] = cdx;
+      stack[i + 5] = cdy;
+
+      stack[j] = ax;
+      stack[j + 1] = ay;
+      stack[j + 2] = abx;
+      stack[j + 3] = aby;
+      stack[j + 4] = abcx;
+      stack[j + 5] = abcy;
+      stack[j + 6] = midX;
+      stack[j + 7] = midY;
+
+      depths[top] = depth + 1;
+      depths[top + 1] = depth + 1;
+      top++;
+    }
+    return dest;
+  }
+
+  public PointArray cubic(Point p0, Point p1, Point p2, Point p3,
+                          PointArray dest) {
+    return cubic(p0.x, p0.y, p1.x, p1.y, p2.x, p2.y, p3.x, p3.y, dest);
+  }
+
+  /**
+   * Flatten a circular arc
+   *
+   * @param startAngle polar angle of the arc's start point, in radians
+   * @param sweepAngle angle swept by the arc, positive for counterclockwise
+   * @param dest       where to append the vertices; if null, one is
+   *                   constructed
+   * @return dest
+   */
+  public PointArray arc(float centerX, float centerY, float radius,
+                        float startAngle, float sweepAngle, PointArray dest) {
+    double startX = Math.cos(startAngle) * radius;
+    double startY = Math.sin(startAngle) * radius;
+    dest = start((float) (centerX + startX), (float) (centerY + startY), dest);
+
+    // A chord subtending angle t lies at most r(1 - cos(t/2)) from the arc;
+    // if t is at most PI, that's at most r, so a small enough arc needs only
+    // enough steps to keep each of them within a half turn
+    double maxStep = Math.PI;
+    if (radius > mTolerance)
+      maxStep = 2 * Math.acos(1 - mTolerance / radius);
+    int steps = (int) Math.ceil(Math.abs(sweepAngle) / maxStep);
+    steps = Math.max(1, Math.min(steps, MAX_ARC_STEPS));
+
+    // Rotate incrementally, rather than evaluating sin and cos per vertex;
+    // the final vertex is calculated directly, so it lands exactly on the
+    // arc's end point
+    double step = sweepAngle / (double) steps;
+    double cos = Math.cos(step), sin = Math.sin(step);
+    double x = startX, y = startY;
+    for (int i = 1; i < steps; i++) {
+      double newX = x * cos - y * sin;
+      y = x * sin + y * cos;
+      x = newX;
+      dest.add((float) (centerX + x), (float) (centerY + y));
+    }
+    double endAngle = (double) startAngle + sweepAngle;
+    dest.add((float) (centerX + Math.cos(endAngle) * radius),
+        (float) (centerY + Math.sin(endAngle) * radius));
+    return dest;
+  }
+
+  public PointArray arc(Point center, float radius, float startAngle,
+                        float sweepAngle, PointArray dest) {
+    return arc(center.x, center.y, radius, startAngle, sweepAngle, dest);
+  }
+
+  /**
+   * Prepare to append a curve to an array, adding its start point if
+   * necessary
+   */
+  private static PointArray start(float x, float y, PointArray dest) {
+    if (dest == null)
+      dest = new PointArray();
+    int last = dest.size() - 1;
+    if (last < 0 || dest.x(last) != x || dest.y(last) != y)
+      dest.add(x, y);
+    return dest;
+  }
+
+  /**
+   * Determine if a cubic is close enough to its chord that the chord can
+   * replace it. The curve's distance from the point on the chord with the same
+   * parameter is 3t(1-t) times a blend of the control points' offsets from the
+   * points at 1/3 and 2/3 along the chord, so it is within 3/4 of the larger
+   * offset
+   */
+  private boolean isFlat(float[] c, int i) {
+    float ax = c[i], ay = c[i + 1];
+    float dx = c[i + 6], dy = c[i + 7];
+    float e1x = 3 * c[i + 2] - 2 * ax - dx, e1y = 3 * c[i + 3] - 2 * ay - dy;
+    float e2x = 3 * c[i + 4] - ax - 2 * dx, e2y = 3 * c[i + 5] - ay - 2 * dy;
+    // The e values are three times the offsets; compare their squares with
+    // (3 * (4/3) * tolerance)^2
+    float limitSquared = 16 * mTolerance * mTolerance;
+    return e1x * e1x + e1y * e1y <= limitSquared
+        && e2x * e2x + e2y * e2y <= limitSquared;
+  }
+
+  // Maximum subdivision depth for Beziers, i.e. at most 2^MAX_DEPTH segments
+  private static final int MAX_DEPTH = 16;
+  private static final int MAX_ARC_STEPS = 1 << MAX_DEPTH;
+
+  private final float mTolerance;
+  private final float[] mStack = new float[(MAX_DEPTH + 1) * 8];
+  private final int[] mDepths = new int[MAX_DEPTH + 1];
+}
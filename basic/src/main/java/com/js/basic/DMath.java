@@ -0,0 +1,409 @@
+package com.js.basic;
+
+import static com.js.basic.MyMath.*;
+
+/**
+ * Double-precision counterparts of the MyMath predicates, distance
+ * calculations and intersections, operating on DPoints.
+ * <p/>
+ * Where MyMath compares values against absolute thresholds (e.g.
+ * testForZero(), with 1e-8), these methods use thresholds relative to the
+ * magnitudes of their inputs; so (for instance) parallel segments are detected
+ * equally well whether their coordinates are near zero or near 1e9. The
+ * intersection methods return the same INTERSECT_xxx codes as MyMath's
+ */
+public final class DMath {
+
+  /**
+   * Relative magnitude below which a quantity is considered to be zero; e.g.,
+   * two lines are parallel if the sine of the angle between them is at most
+   * this
+   */
+  public static final double EPSILON = 1e-12;
+
+  public static double clamp(double value, double min, double max) {
+    if (value < min)
+      value = min;
+    else if (value > max)
+      value = max;
+    return value;
+  }
+
+  public static double squaredMagnitudeOfRay(double x, double y) {
+    return x * x + y * y;
+  }
+
+  public static double magnitudeOfRay(double x, double y) {
+    return Math.sqrt(squaredMagnitudeOfRay(x, y));
+  }
+
+  public static double dotProduct(DPoint s1, DPoint s2) {
+    return s1.x * s2.x + s1.y * s2.y;
+  }
+
+  public static double squaredDistanceBetween(DPoint s1, DPoint s2) {
+    return squaredMagnitudeOfRay(s2.x - s1.x, s2.y - s1.y);
+  }
+
+  public static double squaredDistanceBetween(double x1, double y1, double x2,
+                                              double y2) {
+    return squaredMagnitudeOfRay(x2 - x1, y2 - y1);
+  }
+
+  public static double distanceBetween(DPoint s1, DPoint s2) {
+    return Math.sqrt(squaredDistanceBetween(s1, s2));
+  }
+
+  public static DPoint interpolateBetween(DPoint s1, DPoint s2,
+                                          double parameter) {
+    return new DPoint(s1.x + (s2.x - s1.x) * parameter, s1.y + (s2.y - s1.y)
+        * parameter);
+  }
+
+  public static DPoint pointOnCircle(DPoint origin, double angle,
+                                     double radius) {
+    return new DPoint(origin.x + radius * Math.cos(angle), origin.y + radius
+        * Math.sin(angle));
+  }
+
+  /**
+   * Determine which side of the directed line ln0->ln1 a point lies on
+   *
+   * @return twice the signed area of the triangle ln0, ln1, pt: positive if pt
+   * is to the left of the line, negative if to the right
+   */
+  public static double sideOfLine(DPoint ln0, DPoint ln1, DPoint pt) {
+    return (ln1.x - ln0.x) * (pt.y - ln0.y) - (pt.x - ln0.x) * (ln1.y - ln0.y);
+  }
+
+  /**
+   * Calculate the parameter for a point on a line
+   *
+   * @param pt point, assumed to be on line
+   * @param s0 start point of line segment (t = 0.0)
+   * @param s1 end point of line segment (t = 1.0)
+   * @return t value associated with pt
+   */
+  public static double positionOnSegment(DPoint pt, DPoint s0, DPoint s1) {
+    double sx = s1.x - s0.x;
+    double sy = s1.y - s0.y;
+    double dotProd = (pt.x - s0.x) * sx + (pt.y - s0.y) * sy;
+    if (dotProd == 0)
+      return 0;
+    return dotProd / (sx * sx + sy * sy);
+  }
+
+  /**
+   * Determine distance of a point from a line
+   *
+   * @param e0        one point on line
+   * @param e1        second point on line
+   * @param closestPt if not null, closest point on line is stored here; can be
+   *                  the same as one of the input points
+   */
+  public static double ptDistanceToLine(DPoint pt, DPoint e0, DPoint e1,
+                                        DPoint closestPt) {
+    double bx = e1.x - e0.x;
+    double by = e1.y - e0.y;
+    double bLengthSq = bx * bx + by * by;
+    if (bLengthSq == 0) {
+      double dist = distanceBetween(pt, e0);
+      if (closestPt != null)
+        closestPt.setTo(e0);
+      return dist;
+    }
+    double ax = pt.x - e0.x;
+    double ay = pt.y - e0.y;
+    double crossProd = bx * ay - by * ax;
+    double dist = Math.abs(crossProd) / Math.sqrt(bLengthSq);
+    if (closestPt != null) {
+      double t = (ax * bx + ay * by) / bLengthSq;
+      closestPt.setTo(e0.x + t * bx, e0.y + t * by);
+    }
+    return dist;
+  }
+
+  /**
+   * Determine squared distance of point from segment, without constructing
+   * any objects
+   */
+  public static double squaredPtDistanceToSegment(double px, double py,
+                                                  double x0, double y0, double x1, double y1) {
+    double sx = x1 - x0;
+    double sy = y1 - y0;
+    double ax = px - x0;
+    double ay = py - y0;
+    double dotProd = ax * sx + ay * sy;
+    if (dotProd <= 0)
+      return ax * ax + ay * ay;
+    double lengthSq = sx * sx + sy * sy;
+    if (dotProd >= lengthSq)
+      return squaredDistanceBetween(px, py, x1, y1);
+    double crossProd = sx * ay - sy * ax;
+    return crossProd * crossProd / lengthSq;
+  }
+
+  /**
+   * Determine distance of point from segment
+   *
+   * @param ptOnSeg if not null, closest point on segment to point is stored
+   *                here
+   */
+  public static double ptDistanceToSegment(DPoint pt, DPoint l0, DPoint l1,
+                                           DPoint ptOnSeg) {
+    double t = positionOnSegment(pt, l0, l1);
+    if (t < 0 || t > 1) {
+      DPoint cpt = (t < 0) ? l0 : l1;
+      if (ptOnSeg != null)
+        ptOnSeg.setTo(cpt);
+      return distanceBetween(pt, cpt);
+    }
+    return ptDistanceToLine(pt, l0, l1, ptOnSeg);
+  }
+
+  /**
+   * Calculate the polar angle of a ray
+   *
+   * @throws GeometryException if the ray is the zero vector
+   */
+  public static double polarAngle(double x, double y) {
+    if (x == 0 && y == 0)
+      GeometryException.raise("Polar angle of zero vector");
+    return Math.atan2(y, x);
+  }
+
+  public static double polarAngleOfSegment(DPoint s1, DPoint s2) {
+    return polarAngle(s2.x - s1.x, s2.y - s1.y);
+  }
+
+  /**
+   * Calculate the pseudo polar angle of a ray; see MyMath.pseudoPolarAngle()
+   *
+   * @throws GeometryException if the ray is the zero vector
+   */
+  public static double pseudoPolarAngle(double x, double y) {
+    // For consistency, always insist that y is nonnegative
+    boolean negateFlag = (y <= 0);
+    if (negateFlag)
+      y = -y;
+
+    double ret;
+    if (y > Math.abs(x)) {
+      ret = PSEUDO_ANGLE_RANGE_14 - x / y;
+    } else {
+      if (x == 0)
+        GeometryException.raise("Pseudo polar angle of zero vector");
+      double rat = y / x;
+      ret = (x < 0) ? PSEUDO_ANGLE_RANGE_12 + rat : rat;
+    }
+    return negateFlag ? -ret : ret;
+  }
+
+  public static double pseudoPolarAngleOfSegment(DPoint s1, DPoint s2) {
+    return pseudoPolarAngle(s2.x - s1.x, s2.y - s1.y);
+  }
+
+  /**
+   * Calculate point of intersection of line segment with horizontal line
+   *
+   * @param ipt       if not null, and intersection point found, it is stored
+   *                  here
+   * @param parameter if not null, and intersection point found, parameter of
+   *                  intersection returned here
+   * @return INTERSECT_HIT, INTERSECT_MISS, or (if segment is horizontal)
+   * INTERSECT_PARALLEL or INTERSECT_COLLINEAR
+   */
+  public static int segHorzLineIntersection(DPoint pt1, DPoint pt2,
+                                            double yLine, DPoint ipt, double[] parameter) {
+    double dx = pt2.x - pt1.x;
+    double denom = pt2.y - pt1.y;
+    double numer = yLine - pt1.y;
+    if (denom * denom <= EPSILON * EPSILON * (dx * dx + denom * denom)) {
+      if (Math.abs(numer) <= EPSILON
+          * Math.max(Math.abs(yLine), Math.abs(pt1.y)))
+        return INTERSECT_COLLINEAR;
+      return INTERSECT_PARALLEL;
+    }
+
+    double t = numer / denom;
+    if (t < 0 || t > 1)
+      return INTERSECT_MISS;
+
+    if (parameter != null)
+      parameter[0] = t;
+    if (ipt != null)
+      ipt.setTo(pt1.x + dx * t, yLine);
+    return INTERSECT_HIT;
+  }
+
+  /**
+   * Calculate point of intersection of two line segments, without allocating
+   * any objects or throwing exceptions
+   *
+   * @param ipt        if not null, and intersection point found, it is stored
+   *                   here
+   * @param parameters if not null, and intersection point found, the
+   *                   parameters of the intersection point along each segment
+   *                   are stored here
+   * @return INTERSECT_HIT, INTERSECT_MISS, INTERSECT_PARALLEL or
+   * INTERSECT_COLLINEAR (the latter only if the segments overlap); a
+   * zero-length segment is treated as a point, which hits or misses
+   */
+  public static int segSegIntersection(DPoint s1, DPoint s2, DPoint t1,
+                                       DPoint t2, DPoint ipt, double[] parameters) {
+    return segSegIntersection(s1.x, s1.y, s2.x, s2.y, t1.x, t1.y, t2.x, t2.y,
+        ipt, parameters);
+  }
+
+  /**
+   * Same as segSegIntersection(DPoint, DPoint, DPoint, DPoint, DPoint,
+   * double[]), but with the segment endpoints given as coordinates
+   */
+  public static int segSegIntersection(double s1x, double s1y, double s2x,
+                                       double s2y, double t1x, double t1y, double t2x, double t2y,
+                                       DPoint ipt, double[] parameters) {
+    // If the bounding boxes are disjoint, no intersection is possible
+    if (!(Math.min(s1x, s2x) <= Math.max(t1x, t2x)
+        && Math.max(s1x, s2x) >= Math.min(t1x, t2x)
+        && Math.min(s1y, s2y) <= Math.max(t1y, t2y)
+        && Math.max(s1y, s2y) >= Math.min(t1y, t2y)))
+      return INTERSECT_MISS;
+
+    double sx = s2x - s1x;
+    double sy = s2y - s1y;
+    double tx = t2x - t1x;
+    double ty = t2y - t1y;
+
+    // A zero-length segment has no direction, so it can't be parallel to the
+    // other; it intersects it only if its point lies on it
+    double ua, ub;
+    if (sx == 0 && sy == 0) {
+      ua = 0;
+      ub = parameterOfPointOnSegment(s1x, s1y, t1x, t1y, tx, ty);
+      if (ub < 0)
+        return INTERSECT_MISS;
+    } else if (tx == 0 && ty == 0) {
+      ub = 0;
+      ua = parameterOfPointOnSegment(t1x, t1y, s1x, s1y, sx, sy);
+      if (ua < 0)
+        return INTERSECT_MISS;
+    } else {
+      double denom = ty * sx - tx * sy;
+      double numer1 = tx * (s1y - t1y) - ty * (s1x - t1x);
+
+      int parallel = parallelStatus(sx, sy, tx, ty, s1x - t1x, s1y - t1y,
+          denom, numer1);
+      if (parallel != INTERSECT_HIT)
+        return parallel;
+
+      ua = numer1 / denom;
+      if (ua < 0 || ua > 1)
+        return INTERSECT_MISS;
+      ub = (sx * (s1y - t1y) - sy * (s1x - t1x)) / denom;
+      if (ub < 0 || ub > 1)
+        return INTERSECT_MISS;
+    }
+
+    if (parameters != null) {
+      parameters[0] = ua;
+      parameters[1] = ub;
+    }
+    if (ipt != null)
+      ipt.setTo(s1x + ua * sx, s1y + ua * sy);
+    return INTERSECT_HIT;
+  }
+
+  /**
+   * Determine where a point lies along a segment, if it lies on it (i.e., if
+   * the sine of the angle between the segment and the offset of the point
+   * from its first endpoint is at most EPSILON)
+   *
+   * @param x0 first endpoint of segment
+   * @param dx direction of segment (second endpoint minus first)
+   * @return parameter of point along segment, or -1 if it doesn't lie on it
+   */
+  private static double parameterOfPointOnSegment(double px, double py,
+                                                  double x0, double y0, double dx, double dy) {
+    double ox = px - x0;
+    double oy = py - y0;
+    double lengthSq = dx * dx + dy * dy;
+    if (lengthSq == 0)
+      return (ox == 0 && oy == 0) ? 0 : -1;
+    double cross = dx * oy - dy * ox;
+    if (cross * cross > EPSILON * EPSILON * lengthSq * (ox * ox + oy * oy))
+      return -1;
+    double t = (dx * ox + dy * oy) / lengthSq;
+    if (t < 0 || t > 1)
+      return -1;
+    return t;
+  }
+
+  /**
+   * Calculate point of intersection of two lines, without allocating any
+   * objects or throwing exceptions
+   *
+   * @param ipt       if not null, and intersection point found, it is stored
+   *                  here
+   * @param parameter if not null, and intersection point found, the parameter
+   *                  of the intersection point along the first line is stored
+   *                  here
+   * @return INTERSECT_HIT, INTERSECT_PARALLEL or INTERSECT_COLLINEAR
+   */
+  public static int lineLineIntersection(DPoint s1, DPoint s2, DPoint t1,
+                                         DPoint t2, DPoint ipt, double[] parameter) {
+    return lineLineIntersection(s1.x, s1.y, s2.x, s2.y, t1.x, t1.y, t2.x, t2.y,
+        ipt, parameter);
+  }
+
+  /**
+   * Same as lineLineIntersection(DPoint, DPoint, DPoint, DPoint, DPoint,
+   * double[]), but with the points on each line given as coordinates
+   */
+  public static int lineLineIntersection(double s1x, double s1y, double s2x,
+                                         double s2y, double t1x, double t1y, double t2x, double t2y,
+                                         DPoint ipt, double[] parameter) {
+    double sx = s2x - s1x;
+    double sy = s2y - s1y;
+    double tx = t2x - t1x;
+    double ty = t2y - t1y;
+    double denom = ty * sx - tx * sy;
+    double numer1 = tx * (s1y - t1y) - ty * (s1x - t1x);
+
+    int parallel = parallelStatus(sx, sy, tx, ty, s1x - t1x, s1y - t1y,
+        denom, numer1);
+    if (parallel != INTERSECT_HIT)
+      return parallel;
+
+    double ua = numer1 / denom;
+    if (parameter != null)
+      parameter[0] = ua;
+    if (ipt != null)
+      ipt.setTo(s1x + ua * sx, s1y + ua * sy);
+    return INTERSECT_HIT;
+  }
+
+  /**
+   * Determine if two directions s and t are parallel, relative to their
+   * lengths, and if so, whether the lines are collinear (i.e. the offset d
+   * between them is parallel to t). Neither direction should be zero, since
+   * a zero direction is parallel to (and collinear with) everything
+   *
+   * @param denom  cross product of t and s
+   * @param numer1 cross product of t and d
+   * @return INTERSECT_PARALLEL, INTERSECT_COLLINEAR, or INTERSECT_HIT if not
+   * parallel
+   */
+  private static int parallelStatus(double sx, double sy, double tx,
+                                    double ty, double dx, double dy, double denom, double numer1) {
+    double tLengthSq = tx * tx + ty * ty;
+    double eps2 = EPSILON * EPSILON;
+    if (denom * denom > eps2 * (sx * sx + sy * sy) * tLengthSq)
+      return INTERSECT_HIT;
+    if (numer1 * numer1 <= eps2 * tLengthSq * (dx * dx + dy * dy))
+      return INTERSECT_COLLINEAR;
+    return INTERSECT_PARALLEL;
+  }
+
+  private DMath() {
+  }
+}
@@ -0,0 +1,75 @@
+package com.js.basic;
+
+import static com.js.basic.Tools.*;
+
+/**
+ * Double-precision counterpart of Point, for workloads (e.g. map data with
+ * large coordinates) where float precision would force retries or
+ * perturbation; see DMath
+ */
+public class DPoint {
+
+  public static final DPoint ZERO = new DPoint();
+
+  public DPoint() {
+  }
+
+  public DPoint(double x, double y) {
+    this.x = x;
+    this.y = y;
+  }
+
+  public DPoint(DPoint point) {
+    this(point.x, point.y);
+  }
+
+  public DPoint(Point point) {
+    this(point.x, point.y);
+  }
+
+  public final double x() {
+    return x;
+  }
+
+  public final double y() {
+    return y;
+  }
+
+  public final void setTo(double x, double y) {
+    this.x = x;
+    this.y = y;
+  }
+
+  public final void setTo(DPoint source) {
+    setTo(source.x, source.y);
+  }
+
+  public final void clear() {
+    setTo(0, 0);
+  }
+
+  public final double magnitude() {
+    return Math.sqrt((x * x) + (y * y));
+  }
+
+  public final void add(DPoint point) {
+    x += point.x;
+    y += point.y;
+  }
+
+  /**
+   * Construct a Point with this point's coordinates, rounded to float
+   */
+  public Point toPoint() {
+    return new Point((float) x, (float) y);
+  }
+
+  @Override
+  public String toString() {
+    return d(x) + " " + d(y);
+  }
+
+  public double x;
+  public double y;
+
+}
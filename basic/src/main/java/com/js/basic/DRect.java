@@ -0,0 +1,161 @@
+package com.js.basic;
+
+import java.util.List;
+
+/**
+ * Double-precision counterpart of Rect
+ */
+public class DRect {
+
+  public DRect() {
+  }
+
+  public DRect(double x, double y, double w, double h) {
+    setTo(x, y, w, h);
+  }
+
+  public DRect(DRect r) {
+    this(r.x, r.y, r.width, r.height);
+  }
+
+  public DRect(Rect r) {
+    this(r.x, r.y, r.width, r.height);
+  }
+
+  /**
+   * Construct smallest rectangle containing two points
+   */
+  public DRect(DPoint pt1, DPoint pt2) {
+    x = Math.min(pt1.x, pt2.x);
+    y = Math.min(pt1.y, pt2.y);
+    width = Math.max(pt1.x, pt2.x) - x;
+    height = Math.max(pt1.y, pt2.y) - y;
+  }
+
+  public void setTo(DRect r) {
+    setTo(r.x, r.y, r.width, r.height);
+  }
+
+  public void setTo(double x, double y, double w, double h) {
+    this.x = x;
+    this.y = y;
+    this.width = w;
+    this.height = h;
+  }
+
+  public boolean equals(DRect r) {
+    return r != null && r.x == x && r.y == y && r.width == width
+        && r.height == height;
+  }
+
+  public double midX() {
+    return x + width * .5;
+  }
+
+  public double midY() {
+    return y + height * .5;
+  }
+
+  public double endX() {
+    return x + width;
+  }
+
+  public double endY() {
+    return y + height;
+  }
+
+  public double maxDim() {
+    return Math.max(width, height);
+  }
+
+  public double minDim() {
+    return Math.min(width, height);
+  }
+
+  public DPoint midPoint() {
+    return new DPoint(midX(), midY());
+  }
+
+  public boolean contains(DPoint pt) {
+    return x <= pt.x && y <= pt.y && endX() >= pt.x && endY() >= pt.y;
+  }
+
+  public boolean contains(DRect r) {
+    return x <= r.x && y <= r.y && endX() >= r.endX() && endY() >= r.endY();
+  }
+
+  public boolean intersects(DRect t) {
+    return (x < t.endX() && endX() > t.x && y < t.endY() && endY() > t.y);
+  }
+
+  public void include(DPoint pt) {
+    double ex = endX(), ey = endY();
+    x = Math.min(x, pt.x);
+    y = Math.min(y, pt.y);
+    ex = Math.max(ex, pt.x);
+    ey = Math.max(ey, pt.y);
+    width = ex - x;
+    height = ey - y;
+  }
+
+  public void include(DRect r) {
+    include(new DPoint(r.x, r.y));
+    include(new DPoint(r.endX(), r.endY()));
+  }
+
+  /**
+   * Find the nearest point within the rectangle to a query point
+   */
+  public DPoint nearestPointTo(DPoint queryPoint) {
+    return new DPoint(DMath.clamp(queryPoint.x, x, endX()), DMath.clamp(
+        queryPoint.y, y, endY()));
+  }
+
+  public double distanceFrom(DPoint pt) {
+    return DMath.distanceBetween(pt, nearestPointTo(pt));
+  }
+
+  public void translate(double dx, double dy) {
+    x += dx;
+    y += dy;
+  }
+
+  /**
+   * Scale x,y,width,height by factor
+   */
+  public void scale(double f) {
+    x *= f;
+    y *= f;
+    width *= f;
+    height *= f;
+  }
+
+  /**
+   * Construct a Rect with this rectangle's dimensions, rounded to float
+   */
+  public Rect toRect() {
+    return new Rect((float) x, (float) y, (float) width, (float) height);
+  }
+
+  public static DRect rectContainingPoints(List<DPoint> a) {
+    if (a.isEmpty())
+      throw new IllegalArgumentException();
+    double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+    for (DPoint pt : a) {
+      minX = Math.min(minX, pt.x);
+      minY = Math.min(minY, pt.y);
+      maxX = Math.max(maxX, pt.x);
+      maxY = Math.max(maxY, pt.y);
+    }
+    return new DRect(minX, minY, maxX - minX, maxY - minY);
+  }
+
+  @Override
+  public String toString() {
+    return "(pos=" + new DPoint(x, y) + " size=" + new DPoint(width, height)
+        + ")";
+  }
+
+  public double x, y, width, height;
+}
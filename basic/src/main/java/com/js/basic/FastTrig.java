@@ -0,0 +1,240 @@
+package com.js.basic;
+
+/**
+ * Approximate trigonometric functions, using lookup tables with linear
+ * interpolation; alternatives to MyMath.sin(), cos(), polarAngle() and
+ * pointOnCircle() for code that evaluates them heavily and can tolerate small
+ * errors.
+ * <p/>
+ * The sine table covers one period with tableSize intervals, so the error of
+ * sin() and cos() is at most (2 pi / tableSize)^2 / 8, plus float rounding;
+ * for the default size of 4096, about 4e-7. Angles whose magnitude exceeds
+ * MAX_TABLE_ANGLE (or that aren't finite) are passed to Math.sin() and cos()
+ * instead, since the table index can't be calculated accurately for them;
+ * so the bound holds for every finite angle. The arctangent table covers
+ * [0,1] with tableSize intervals, so the error of atan2() is at most
+ * 0.65 / (8 tableSize^2), plus rounding; for the default size, about 6e-7
+ * radians. See maxSinError() and maxAtanError().
+ * <p/>
+ * Instances are immutable, and can be shared between threads
+ */
+public final class FastTrig {
+
+  public static final int DEFAULT_TABLE_SIZE = 4096;
+
+  /**
+   * Largest angle magnitude evaluated using the table. Beyond this, the
+   * rounding error in the table index (proportional to the angle) becomes
+   * significant, and for the largest table sizes its integer part would
+   * eventually overflow an int
+   */
+  public static final float MAX_TABLE_ANGLE = 65536;
+
+  /**
+   * A shared instance using the default table size
+   */
+  public static final FastTrig DEFAULT = new FastTrig(DEFAULT_TABLE_SIZE);
+
+  /**
+   * @param tableSize number of table intervals; must be a power of two, at
+   *                  least 4
+   */
+  public FastTrig(int tableSize) {
+    if (tableSize < 4 || Integer.bitCount(tableSize) != 1)
+      throw new IllegalArgumentException("bad table size: " + tableSize);
+    mMask = tableSize - 1;
+    mSinScale = tableSize / (2 * Math.PI);
+    mSinTable = new float[tableSize + 1];
+    for (int i = 0; i <= tableSize; i++)
+      mSinTable[i] = (float) Math.sin(i * 2 * Math.PI / tableSize);
+    mAtanScale = tableSize;
+    mAtanTable = new float[tableSize + 1];
+    for (int i = 0; i <= tableSize; i++)
+      mAtanTable[i] = (float) Math.atan(i / (double) tableSize);
+
+    double h = 2 * Math.PI / tableSize;
+    mMaxSinError = (float) (h * h / 8 + 2 * FLOAT_ROUNDING);
+    double k = 1.0 / tableSize;
+    // The maximum magnitude of atan''(x) is 3 sqrt(3) / 8, at x = 1 / sqrt(3)
+    // Reflecting the angle into the other octants adds rounding errors
+    // proportional to pi
+    mMaxAtanError = (float) (3 * Math.sqrt(3) / 8 * k * k / 8 + 2
+        * FLOAT_ROUNDING + 2 * PI_ROUNDING);
+  }
+
+  public int tableSize() {
+    return mMask + 1;
+  }
+
+  /**
+   * Get the maximum absolute error of sin() and cos()
+   */
+  public float maxSinError() {
+    return mMaxSinError;
+  }
+
+  /**
+   * Get the maximum absolute error of atan2(), in radians
+   */
+  public float maxAtanError() {
+    return mMaxAtanError;
+  }
+
+  public float sin(float angle) {
+    if (!(Math.abs(angle) <= MAX_TABLE_ANGLE))
+      return (float) Math.sin(angle);
+    return lookupSin(angle * mSinScale);
+  }
+
+  public float cos(float angle) {
+    if (!(Math.abs(angle) <= MAX_TABLE_ANGLE))
+      return (float) Math.cos(angle);
+    // cos(x) = sin(x + pi/2); add the quarter period in table units, where it
+    // is exact
+    return lookupSin(angle * mSinScale + (mMask + 1) / 4);
+  }
+
+  /**
+   * Calculate the polar angle of a ray, in the range [-pi, pi]; returns zero
+   * for the zero vector
+   */
+  public float atan2(float y, float x) {
+    float ax = Math.abs(x);
+    float ay = Math.abs(y);
+    if (ax == 0 && ay == 0)
+      return 0;
+    // Reduce to an angle in [0, pi/4] by swapping and reflecting
+    float angle;
+    if (ay <= ax)
+      angle = atan01(ay / ax);
+    else
+      angle = HALF_PI - atan01(ax / ay);
+    if (x < 0)
+      angle = PI - angle;
+    return y < 0 ? -angle : angle;
+  }
+
+  /**
+   * Calculate the point at a given angle and distance from an origin
+   *
+   * @param dest where to store the result; if null, one is constructed
+   * @return dest
+   */
+  public Point pointOnCircle(Point origin, float angle, float radius,
+                             Point dest) {
+    if (dest == null)
+      dest = new Point();
+    dest.setTo(origin.x + radius * cos(angle), origin.y + radius * sin(angle));
+    return dest;
+  }
+
+  /**
+   * Calculate the sines of an array of angles
+   *
+   * @param output where to store the results; can be the same as the input
+   */
+  public void sin(float[] angles, float[] output, int count) {
+    float[] table = mSinTable;
+    double scale = mSinScale;
+    int mask = mMask;
+    for (int j = 0; j < count; j++) {
+      float angle = angles[j];
+      if (!(Math.abs(angle) <= MAX_TABLE_ANGLE)) {
+        output[j] = (float) Math.sin(angle);
+        continue;
+      }
+      double t = angle * scale;
+      int i = (int) t;
+      if (t < i)
+        i--;
+      float frac = (float) (t - i);
+      i &= mask;
+      float a = table[i];
+      output[j] = a + (table[i + 1] - a) * frac;
+    }
+  }
+
+  /**
+   * Calculate the cosines of an array of angles
+   *
+   * @param output where to store the results; can be the same as the input
+   */
+  public void cos(float[] angles, float[] output, int count) {
+    float[] table = mSinTable;
+    double scale = mSinScale;
+    int mask = mMask;
+    int quarter = (mask + 1) / 4;
+    for (int j = 0; j < count; j++) {
+      float angle = angles[j];
+      if (!(Math.abs(angle) <= MAX_TABLE_ANGLE)) {
+        output[j] = (float) Math.cos(angle);
+        continue;
+      }
+      double t = angle * scale + quarter;
+      int i = (int) t;
+      if (t < i)
+        i--;
+      float frac = (float) (t - i);
+      i &= mask;
+      float a = table[i];
+      output[j] = a + (table[i + 1] - a) * frac;
+    }
+  }
+
+  /**
+   * Calculate the polar angles of an array of rays
+   *
+   * @param output where to store the results; can be the same as either input
+   */
+  public void atan2(float[] ys, float[] xs, float[] output, int count) {
+    for (int j = 0; j < count; j++)
+      output[j] = atan2(ys[j], xs[j]);
+  }
+
+  /**
+   * Calculate sine by interpolating the table
+   *
+   * @param t angle, in table intervals; its magnitude must be small enough
+   *          for its integer part to fit in an int
+   */
+  private float lookupSin(double t) {
+    int i = (int) t;
+    if (t < i)
+      i--;
+    float frac = (float) (t - i);
+    i &= mMask;
+    float a = mSinTable[i];
+    return a + (mSinTable[i + 1] - a) * frac;
+  }
+
+  /**
+   * Calculate arctangent of a value in [0,1]
+   */
+  private float atan01(float v) {
+    float t = v * mAtanScale;
+    int i = (int) t;
+    // Guard against v slightly exceeding 1 due to rounding
+    if (i >= mAtanTable.length - 1)
+      return mAtanTable[mAtanTable.length - 1];
+    float frac = t - i;
+    float a = mAtanTable[i];
+    return a + (mAtanTable[i + 1] - a) * frac;
+  }
+
+  private static final float PI = (float) Math.PI;
+  private static final float HALF_PI = (float) (Math.PI / 2);
+  // Bound on the error introduced by each float rounding in the range [-1,1]
+  private static final double FLOAT_ROUNDING = 6e-8;
+  // Bound on the error introduced by each float rounding in the range [-pi,pi]
+  private static final double PI_ROUNDING = 2.4e-7;
+
+  private final int mMask;
+  // Table intervals per radian; the table index is calculated in double
+  // precision, since a float would contribute significant rounding error
+  private final double mSinScale;
+  private final float[] mSinTable;
+  private final float mAtanScale;
+  private final float[] mAtanTable;
+  private final float mMaxSinError;
+  private final float mMaxAtanError;
+}
@@ -0,0 +1,313 @@
+package com.js.basic;
+
+/**
+ * Interface representing objects that can be frozen to an immutable state.
+ * <p/>
+ * Sharing between threads: a frozen object may be read by any number of
+ * threads without locking, provided each thread obtains it safely. For
+ * Mutable objects, freeze() writes a volatile flag after all of the object's
+ * state has been written, so any thread that then sees isFrozen() return true
+ * also sees that state (freezing 'happens-before' the check). Alternatively,
+ * publish the object through a volatile field, a final field, a concurrent
+ * collection, or an AtomicSnapshot; these establish the same guarantee. Merely
+ * storing a frozen object in an ordinary field that another thread reads is
+ * not safe, unless the reader calls isFrozen() before using it
+ */
+public interface Freezable {
+
+  /**
+   * Get a copy of this object; if already frozen, returns this
+   */
+  public Freezable getCopy();
+
+  /**
+   * Get a mutable copy of this object
+   */
+  public Freezable getMutableCopy();
+
+  /**
+   * Get a frozen copy of this object; if already frozen, returns this
+   */
+  public Freezable getFrozenCopy();
+
+  /**
+   * Make this object frozen (if not already)
+   */
+  public void freeze();
+
+  /**
+   * Determine if this object is frozen
+   */
+  public boolean isFrozen();
+
+  /**
+   * Prepare for mutating this object; should throw IllegalMutationException if
+   * object is frozen
+   */
+  public void mutate();
+
+  public class IllegalMutationException extends UnsupportedOperationException {
+  }
+
+  /**
+   * Concrete implementation of the Freezable interface, for objects that can be
+   * mutable
+   */
+  public abstract class Mutable implements Freezable {
+
+    @Override
+    public abstract Freezable getMutableCopy();
+
+    @Override
+    public Freezable getFrozenCopy() {
+      if (mFrozen)
+        return this;
+      Freezable copy = getMutableCopy();
+      copy.freeze();
+      return copy;
+    }
+
+    /**
+     * Make this object frozen. Subclasses that override this must write any
+     * state before calling this method, so it's covered by the happens-before
+     * edge that freezing establishes
+     */
+    @Override
+    public void freeze() {
+      if (!mFrozen) {
+        // A frozen object won't change again, so its listeners are of no use
+        if (mChangeTracker != null)
+          mChangeTracker.mListeners = null;
+        mFrozen = true;
+      }
+    }
+
+    @Override
+    public boolean isFrozen() {
+      return mFrozen;
+    }
+
+    @Override
+    public Freezable getCopy() {
+      if (isFrozen())
+        return this;
+      return getMutableCopy();
+    }
+
+    /**
+     * Throws IllegalMutationException if frozen; otherwise, if change tracking
+     * is enabled, advances the version stamp and notifies any ChangeListeners
+     */
+    @Override
+    public void mutate() {
+      if (isFrozen())
+        throw new IllegalMutationException();
+      ChangeTracker tracker = mChangeTracker;
+      if (tracker != null)
+        tracker.objectChanging(this);
+    }
+
+    /**
+     * Get this object's version stamp, which increases each time the object is
+     * modified (more precisely, each time mutate() is called). A cache derived
+     * from the object needs rebuilding only if the version has changed since
+     * it was built. The stamp is only meaningful together with the object's
+     * identity; a new copy starts again at zero.
+     * <p/>
+     * Change tracking is optional, to keep objects that don't use it small and
+     * fast to modify; the first call to this method (or to
+     * addChangeListener()) enables it. Modifications made before then aren't
+     * counted
+     */
+    public long version() {
+      ChangeTracker tracker = mChangeTracker;
+      if (tracker == null) {
+        if (isFrozen())
+          return 0;
+        tracker = changeTracker();
+      }
+      return tracker.mVersion;
+    }
+
+    /**
+     * Interface for objects to be notified when a Mutable object is about to
+     * be modified, e.g. to mark a cache derived from it as dirty
+     */
+    public interface ChangeListener {
+      /**
+       * Called from the object's mutate() method, before the modification takes
+       * place. Must not modify the object
+       */
+      void objectChanging(Mutable object);
+    }
+
+    /**
+     * Add a listener to be notified when this object is about to be modified,
+     * enabling change tracking if necessary. Has no effect if the object is
+     * frozen, since it can no longer change
+     */
+    public void addChangeListener(ChangeListener listener) {
+      if (listener == null)
+        throw new IllegalArgumentException();
+      if (isFrozen())
+        return;
+      changeTracker().addListener(listener);
+    }
+
+    /**
+     * Remove a listener previously added; has no effect if it isn't present
+     */
+    public void removeChangeListener(ChangeListener listener) {
+      if (mChangeTracker != null)
+        mChangeTracker.removeListener(listener);
+    }
+
+    private ChangeTracker changeTracker() {
+      if (mChangeTracker == null)
+        mChangeTracker = new ChangeTracker();
+      return mChangeTracker;
+    }
+
+    /**
+     * The change tracking state of a Mutable object, allocated only if the
+     * object's version or listeners are used
+     */
+    private static final class ChangeTracker {
+
+      void objectChanging(Mutable object) {
+        mVersion++;
+        ChangeListener[] listeners = mListeners;
+        if (listeners != null) {
+          for (ChangeListener listener : listeners)
+            listener.objectChanging(object);
+        }
+      }
+
+      void addListener(ChangeListener listener) {
+        ChangeListener[] listeners = mListeners;
+        int count = (listeners == null) ? 0 : listeners.length;
+        ChangeListener[] newListeners = new ChangeListener[count + 1];
+        if (count != 0)
+          System.arraycopy(listeners, 0, newListeners, 0, count);
+        newListeners[count] = listener;
+        mListeners = newListeners;
+      }
+
+      void removeListener(ChangeListener listener) {
+        ChangeListener[] listeners = mListeners;
+        if (listeners == null)
+          return;
+        for (int i = 0; i < listeners.length; i++) {
+          if (listeners[i] != listener)
+            continue;
+          if (listeners.length == 1) {
+            mListeners = null;
+          } else {
+            ChangeListener[] newListeners = new ChangeListener[listeners.length
+                - 1];
+            System.arraycopy(listeners, 0, newListeners, 0, i);
+            System.arraycopy(listeners, i + 1, newListeners, i,
+                listeners.length - i - 1);
+            mListeners = newListeners;
+          }
+          return;
+        }
+      }
+
+      long mVersion;
+      // Replaced, never modified, so listeners can add or remove listeners
+      // while being notified; null if there are none
+      ChangeListener[] mListeners;
+    }
+
+    public void assertFrozen() {
+      if (!isFrozen())
+        throw new IllegalStateException();
+    }
+
+    public boolean isMutable() {
+      return !mFrozen;
+    }
+
+    /**
+     * A lazily calculated value derived from a Mutable object, which is cached
+     * once the object is frozen (and so can no longer change). For a shared
+     * frozen object, the value is calculated only once, even if several threads
+     * ask for it at the same time.
+     * <p/>
+     * Subclasses of Mutable declare these as fields, e.g.:
+     *
+     * <pre>
+     * private final Memo&lt;Rect&gt; mBounds = new Memo&lt;Rect&gt;(this) {
+     *   protected Rect compute() {
+     *     return ...;
+     *   }
+     * };
+     * </pre>
+     */
+    public abstract static class Memo<T> {
+
+      /**
+       * Construct a memo that, while its owner is mutable, calculates the
+       * value without caching it
+       */
+      public Memo(Mutable owner) {
+        this(owner, false);
+      }
+
+      /**
+       * @param owner         the object from which the value is derived
+       * @param requireFrozen if true, get() throws IllegalStateException while
+       *                      the owner is mutable; otherwise, it calculates the
+       *                      value without caching it
+       */
+      public Memo(Mutable owner, boolean requireFrozen) {
+        mOwner = owner;
+        mRequireFrozen = requireFrozen;
+      }
+
+      /**
+       * Calculate the value from the owner's current state
+       */
+      protected abstract T compute();
+
+      public T get() {
+        Object value = mValue;
+        if (value != UNSET)
+          return (T) value;
+        if (mOwner.isMutable()) {
+          if (mRequireFrozen)
+            throw new IllegalStateException("object is mutable");
+          return compute();
+        }
+        synchronized (this) {
+          value = mValue;
+          if (value == UNSET) {
+            value = compute();
+            mValue = value;
+          }
+        }
+        return (T) value;
+      }
+
+      /**
+       * Determine if the value has been calculated and cached
+       */
+      public boolean isCached() {
+        return mValue != UNSET;
+      }
+
+      private static final Object UNSET = new Object();
+
+      private final Mutable mOwner;
+      private final boolean mRequireFrozen;
+      private volatile Object mValue = UNSET;
+    }
+
+    // Volatile, so freezing safely publishes the object's state; see the
+    // Freezable documentation
+    private volatile boolean mFrozen;
+    // Null unless change tracking is enabled
+    private ChangeTracker mChangeTracker;
+  }
+}
@@ -0,0 +1,370 @@
+package com.js.basic;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static com.js.basic.Tools.*;
+
+/**
+ * A persistent list: a Freezable sequence whose copies share structure.
+ * <p/>
+ * The elements are stored in a trie with 32-way branching (as in Clojure's
+ * PersistentVector), plus a 'tail' node holding the last 1..32 elements. Each
+ * node is tagged with the list that owns it, if any; a mutable list modifies
+ * the nodes it owns in place, and copies the path to any node that it
+ * shares with other lists before modifying it.
+ * <p/>
+ * As a result, freezing, and constructing frozen or mutable copies, take
+ * constant time; and a copy consumes memory only in proportion to the
+ * modifications made to it (or to the original). Access and modification
+ * take O(log32 n) time.
+ * <p/>
+ * Null elements are permitted
+ */
+public final class FrozenList<E> extends Freezable.Mutable implements
+    Iterable<E> {
+
+  public FrozenList() {
+    mEdit = new Object();
+    mRoot = new Node(mEdit);
+    mTail = new Node(mEdit);
+    mShift = BITS;
+  }
+
+  public FrozenList(Collection<? extends E> elements) {
+    this();
+    for (E element : elements)
+      add(element);
+  }
+
+  /**
+   * Construct a copy of another list, sharing its structure
+   */
+  private FrozenList(FrozenList<E> source) {
+    mEdit = new Object();
+    mRoot = source.mRoot;
+    mTail = source.mTail;
+    mShift = source.mShift;
+    mSize = source.mSize;
+  }
+
+  @Override
+  public Freezable getMutableCopy() {
+    // The nodes are now shared, so the source mustn't modify them in place
+    // any more either
+    if (isMutable())
+      mEdit = new Object();
+    return new FrozenList<E>(this);
+  }
+
+  @Override
+  public void freeze() {
+    mEdit = null;
+    super.freeze();
+  }
+
+  public int size() {
+    return mSize;
+  }
+
+  public boolean isEmpty() {
+    return mSize == 0;
+  }
+
+  public E get(int index) {
+    checkIndex(index);
+    return (E) leafFor(index).array[index & MASK];
+  }
+
+  /**
+   * Replace an element
+   *
+   * @return the element previously at the index
+   */
+  public E set(int index, E element) {
+    mutate();
+    checkIndex(index);
+    E previous;
+    if (index >= tailOffset()) {
+      mTail = editable(mTail);
+      previous = (E) mTail.array[index & MASK];
+      mTail.array[index & MASK] = element;
+    } else {
+      mRoot = editable(mRoot);
+      Node node = mRoot;
+      for (int level = mShift; level > 0; level -= BITS) {
+        int slot = (index >>> level) & MASK;
+        Node child = editable((Node) node.array[slot]);
+        node.array[slot] = child;
+        node = child;
+      }
+      previous = (E) node.array[index & MASK];
+      node.array[index & MASK] = element;
+    }
+    return previous;
+  }
+
+  /**
+   * Append an element to the end of the list
+   */
+  public void add(E element) {
+    mutate();
+    if (mSize - tailOffset() < WIDTH) {
+      mTail = editable(mTail);
+      mTail.array[mSize & MASK] = element;
+      mSize++;
+      return;
+    }
+    // The tail is full; push it into the trie, and start a new one
+    Node fullTail = mTail;
+    mTail = new Node(mEdit);
+    mTail.array[0] = element;
+    if ((mSize >>> BITS) > (1 << mShift)) {
+      // No room in the trie; add a level
+      Node newRoot = new Node(mEdit);
+      newRoot.array[0] = mRoot;
+      newRoot.array[1] = newPath(mShift, fullTail);
+      mRoot = newRoot;
+      mShift += BITS;
+    } else {
+      mRoot = pushTail(mShift, mRoot, fullTail);
+    }
+    mSize++;
+  }
+
+  /**
+   * Remove the last element
+   *
+   * @return the removed element
+   */
+  public E removeLast() {
+    mutate();
+    if (mSize == 0)
+      throw new NoSuchElementException();
+    int last = mSize - 1;
+    E element = get(last);
+    if (mSize == 1) {
+      reset();
+      return element;
+    }
+    if ((last & MASK) != 0) {
+      mTail = editable(mTail);
+      mTail.array[last & MASK] = null;
+      mSize--;
+      return element;
+    }
+    // The tail becomes empty; the trie's last leaf becomes the new tail
+    Node newTail = leafFor(last - 1);
+    Node newRoot = popTail(mShift, mRoot);
+    if (newRoot == null)
+      newRoot = new Node(mEdit);
+    if (mShift > BITS && newRoot.array[1] == null) {
+      newRoot = (Node) newRoot.array[0];
+      mShift -= BITS;
+    }
+    mRoot = newRoot;
+    mTail = newTail;
+    mSize--;
+    return element;
+  }
+
+  public void clear() {
+    mutate();
+    reset();
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return new Iterator<E>() {
+      @Override
+      public boolean hasNext() {
+        return mCursor < mSize;
+      }
+
+      @Override
+      public E next() {
+        if (!hasNext())
+          throw new NoSuchElementException();
+        if ((mCursor & MASK) == 0 || mLeaf == null)
+          mLeaf = leafFor(mCursor).array;
+        return (E) mLeaf[mCursor++ & MASK];
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+
+      private int mCursor;
+      private Object[] mLeaf;
+    };
+  }
+
+  /**
+   * Construct an ArrayList containing the elements
+   */
+  public List<E> toList() {
+    List<E> list = new ArrayList(mSize);
+    for (E element : this)
+      list.add(element);
+    return list;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (!(obj instanceof FrozenList))
+      return false;
+    FrozenList other = (FrozenList) obj;
+    if (other.mSize != mSize)
+      return false;
+    Iterator iter = other.iterator();
+    for (E element : this)
+      if (!equal(element, iter.next()))
+        return false;
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = 1;
+    for (E element : this)
+      hash = 31 * hash + (element == null ? 0 : element.hashCode());
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return toList().toString();
+  }
+
+  /**
+   * Make the list empty; the caller must have called mutate()
+   */
+  private void reset() {
+    mRoot = new Node(mEdit);
+    mTail = new Node(mEdit);
+    mShift = BITS;
+    mSize = 0;
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= mSize)
+      throw new IndexOutOfBoundsException("index " + index + ", size "
+          + mSize);
+  }
+
+  /**
+   * Get the index of the first element stored in the tail
+   */
+  private int tailOffset() {
+    if (mSize < WIDTH)
+      return 0;
+    return ((mSize - 1) >>> BITS) << BITS;
+  }
+
+  /**
+   * Get the leaf node containing an element
+   */
+  private Node leafFor(int index) {
+    if (index >= tailOffset())
+      return mTail;
+    Node node = mRoot;
+    for (int level = mShift; level > 0; level -= BITS)
+      node = (Node) node.array[(index >>> level) & MASK];
+    return node;
+  }
+
+  /**
+   * Get a version of a node that this list can modify; the node itself, if
+   * it's owned by the list, otherwise a copy
+   */
+  private Node editable(Node node) {
+    if (node.edit == mEdit)
+      return node;
+    return new Node(mEdit, node.array.clone());
+  }
+
+  /**
+   * Add a full tail node as the last leaf of a subtree
+   *
+   * @return the (possibly copied) subtree
+   */
+  private Node pushTail(int level, Node parent, Node tail) {
+    Node result = editable(parent);
+    int slot = ((mSize - 1) >>> level) & MASK;
+    Node child;
+    if (level == BITS) {
+      child = tail;
+    } else {
+      Node existing = (Node) parent.array[slot];
+      child = (existing != null) ? pushTail(level - BITS, existing, tail)
+          : newPath(level - BITS, tail);
+    }
+    result.array[slot] = child;
+    return result;
+  }
+
+  /**
+   * Construct a chain of nodes leading down to a leaf
+   */
+  private Node newPath(int level, Node leaf) {
+    if (level == 0)
+      return leaf;
+    Node node = new Node(mEdit);
+    node.array[0] = newPath(level - BITS, leaf);
+    return node;
+  }
+
+  /**
+   * Remove the last leaf from a subtree
+   *
+   * @return the (possibly copied) subtree, or null if it is now empty
+   */
+  private Node popTail(int level, Node node) {
+    int slot = ((mSize - 2) >>> level) & MASK;
+    if (level > BITS) {
+      Node child = popTail(level - BITS, (Node) node.array[slot]);
+      if (child == null && slot == 0)
+        return null;
+      Node result = editable(node);
+      result.array[slot] = child;
+      return result;
+    }
+    if (slot == 0)
+      return null;
+    Node result = editable(node);
+    result.array[slot] = null;
+    return result;
+  }
+
+  private static final class Node {
+    Node(Object edit) {
+      this(edit, new Object[WIDTH]);
+    }
+
+    Node(Object edit, Object[] array) {
+      this.edit = edit;
+      this.array = array;
+    }
+
+    // The list that can modify this node in place, or null
+    final Object edit;
+    final Object[] array;
+  }
+
+  private static final int BITS = 5;
+  private static final int WIDTH = 1 << BITS;
+  private static final int MASK = WIDTH - 1;
+
+  // Token identifying the nodes this list owns; null if frozen
+  private Object mEdit;
+  private Node mRoot;
+  private Node mTail;
+  private int mShift;
+  private int mSize;
+}
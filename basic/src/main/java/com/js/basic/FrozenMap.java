@@ -0,0 +1,507 @@
+package com.js.basic;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static com.js.basic.Tools.*;
+
+/**
+ * A persistent map: a Freezable map whose copies share structure.
+ * <p/>
+ * Entries are stored in a hash array mapped trie (HAMT): each node consumes 5
+ * bits of a key's hash, and holds a bitmap of which of its 32 slots are
+ * occupied, plus a compact array of just those slots' entries or child nodes.
+ * Keys whose hashes are identical are stored together in a collision node.
+ * <p/>
+ * As in FrozenList, each node is tagged with the map that owns it, if any; a
+ * mutable map modifies its own nodes in place, and copies shared ones. So
+ * freezing and copying take constant time, and a copy's memory grows only in
+ * proportion to the changes made to it.
+ * <p/>
+ * Keys must not be null; values may be
+ */
+public final class FrozenMap<K, V> extends Freezable.Mutable implements
+    Iterable<Map.Entry<K, V>> {
+
+  public FrozenMap() {
+    mEdit = new Object();
+  }
+
+  public FrozenMap(Map<? extends K, ? extends V> source) {
+    this();
+    for (Map.Entry<? extends K, ? extends V> entry : source.entrySet())
+      put(entry.getKey(), entry.getValue());
+  }
+
+  private FrozenMap(FrozenMap<K, V> source) {
+    mEdit = new Object();
+    mRoot = source.mRoot;
+    mSize = source.mSize;
+  }
+
+  @Override
+  public Freezable getMutableCopy() {
+    // The nodes are now shared, so the source mustn't modify them in place
+    // any more either
+    if (isMutable())
+      mEdit = new Object();
+    return new FrozenMap<K, V>(this);
+  }
+
+  @Override
+  public void freeze() {
+    mEdit = null;
+    super.freeze();
+  }
+
+  public int size() {
+    return mSize;
+  }
+
+  public boolean isEmpty() {
+    return mSize == 0;
+  }
+
+  public V get(K key) {
+    if (mRoot == null)
+      return null;
+    Object value = mRoot.find(0, hash(key), key);
+    return value == NOT_FOUND ? null : (V) value;
+  }
+
+  public boolean containsKey(K key) {
+    return mRoot != null && mRoot.find(0, hash(key), key) != NOT_FOUND;
+  }
+
+  /**
+   * Associate a value with a key
+   *
+   * @return the value previously associated with the key, or null
+   */
+  public V put(K key, V value) {
+    mutate();
+    if (key == null)
+      throw new IllegalArgumentException("null key");
+    Change change = new Change();
+    Node root = (mRoot == null) ? EMPTY : mRoot;
+    mRoot = root.put(mEdit, 0, hash(key), key, value, change);
+    if (change.added)
+      mSize++;
+    return (V) change.previous;
+  }
+
+  /**
+   * Remove a key and its value, if it exists
+   *
+   * @return the value that was associated with the key, or null
+   */
+  public V remove(K key) {
+    mutate();
+    if (mRoot == null)
+      return null;
+    Change change = new Change();
+    mRoot = mRoot.remove(mEdit, 0, hash(key), key, change);
+    if (change.removed)
+      mSize--;
+    return (V) change.previous;
+  }
+
+  public void clear() {
+    mutate();
+    mRoot = null;
+    mSize = 0;
+  }
+
+  /**
+   * Iterate over the entries, in no particular order
+   */
+  @Override
+  public Iterator<Map.Entry<K, V>> iterator() {
+    return new EntryIterator<K, V>(mRoot);
+  }
+
+  /**
+   * Construct a HashMap containing the entries
+   */
+  public Map<K, V> toMap() {
+    Map<K, V> map = new HashMap();
+    for (Map.Entry<K, V> entry : this)
+      map.put(entry.getKey(), entry.getValue());
+    return map;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (!(obj instanceof FrozenMap))
+      return false;
+    FrozenMap<K, V> other = (FrozenMap) obj;
+    if (other.mSize != mSize)
+      return false;
+    for (Map.Entry<K, V> entry : this) {
+      K key = entry.getKey();
+      if (!other.containsKey(key) || !equal(entry.getValue(), other.get(key)))
+        return false;
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    // As specified by Map.hashCode()
+    int hash = 0;
+    for (Map.Entry<K, V> entry : this)
+      hash += entry.hashCode();
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return toMap().toString();
+  }
+
+  private static int hash(Object key) {
+    int h = key.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Records the effect of a put or remove
+   */
+  private static final class Change {
+    boolean added;
+    boolean removed;
+    Object previous;
+  }
+
+  private static abstract class Node {
+    Node(Object edit) {
+      this.edit = edit;
+    }
+
+    /**
+     * @return the key's value, or NOT_FOUND
+     */
+    abstract Object find(int shift, int hash, Object key);
+
+    /**
+     * @return the (possibly modified or copied) node
+     */
+    abstract Node put(Object edit, int shift, int hash, Object key,
+                      Object value, Change change);
+
+    /**
+     * @return the (possibly modified or copied) node, or null if it is now
+     * empty
+     */
+    abstract Node remove(Object edit, int shift, int hash, Object key,
+                         Change change);
+
+    // The map that can modify this node in place, or null
+    final Object edit;
+  }
+
+  /**
+   * A node whose array holds a (key, value) pair for each occupied slot; if
+   * the key is null, the value is a child node
+   */
+  private static final class BitmapNode extends Node {
+
+    BitmapNode(Object edit, int bitmap, Object[] array) {
+      super(edit);
+      this.bitmap = bitmap;
+      this.array = array;
+    }
+
+    private static int bit(int hash, int shift) {
+      return 1 << ((hash >>> shift) & 31);
+    }
+
+    private int index(int bit) {
+      return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    @Override
+    Object find(int shift, int hash, Object key) {
+      int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0)
+        return NOT_FOUND;
+      int i = 2 * index(bit);
+      Object k = array[i];
+      Object v = array[i + 1];
+      if (k == null)
+        return ((Node) v).find(shift + 5, hash, key);
+      return key.equals(k) ? v : NOT_FOUND;
+    }
+
+    @Override
+    Node put(Object edit, int shift, int hash, Object key, Object value,
+             Change change) {
+      int bit = bit(hash, shift);
+      int i = 2 * index(bit);
+      if ((bitmap & bit) != 0) {
+        Object k = array[i];
+        Object v = array[i + 1];
+        if (k == null) {
+          Node child = ((Node) v).put(edit, shift + 5, hash, key, value,
+              change);
+          return child == v ? this : set(edit, i + 1, child);
+        }
+        if (key.equals(k)) {
+          change.previous = v;
+          return v == value ? this : set(edit, i + 1, value);
+        }
+        // Replace the existing entry with a child node holding both
+        change.added = true;
+        Node child = pair(edit, shift + 5, k, v, hash, key, value);
+        BitmapNode node = editable(edit);
+        node.array[i] = null;
+        node.array[i + 1] = child;
+        return node;
+      }
+      change.added = true;
+      Object[] newArray = new Object[array.length + 2];
+      System.arraycopy(array, 0, newArray, 0, i);
+      newArray[i] = key;
+      newArray[i + 1] = value;
+      System.arraycopy(array, i, newArray, i + 2, array.length - i);
+      if (this.edit == edit) {
+        this.array = newArray;
+        this.bitmap |= bit;
+        return this;
+      }
+      return new BitmapNode(edit, bitmap | bit, newArray);
+    }
+
+    @Override
+    Node remove(Object edit, int shift, int hash, Object key, Change change) {
+      int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0)
+        return this;
+      int i = 2 * index(bit);
+      Object k = array[i];
+      Object v = array[i + 1];
+      if (k == null) {
+        Node child = ((Node) v).remove(edit, shift + 5, hash, key, change);
+        if (child == v)
+          return this;
+        if (child != null)
+          return set(edit, i + 1, child);
+      } else {
+        if (!key.equals(k))
+          return this;
+        change.removed = true;
+        change.previous = v;
+      }
+      // Remove the slot
+      if (bitmap == bit)
+        return null;
+      Object[] newArray = new Object[array.length - 2];
+      System.arraycopy(array, 0, newArray, 0, i);
+      System.arraycopy(array, i + 2, newArray, i, array.length - i - 2);
+      if (this.edit == edit) {
+        this.array = newArray;
+        this.bitmap ^= bit;
+        return this;
+      }
+      return new BitmapNode(edit, bitmap ^ bit, newArray);
+    }
+
+    private BitmapNode editable(Object edit) {
+      if (this.edit == edit)
+        return this;
+      return new BitmapNode(edit, bitmap, array.clone());
+    }
+
+    private BitmapNode set(Object edit, int i, Object value) {
+      BitmapNode node = editable(edit);
+      node.array[i] = value;
+      return node;
+    }
+
+    int bitmap;
+    Object[] array;
+  }
+
+  /**
+   * A node holding (key, value) pairs whose keys have the same hash
+   */
+  private static final class CollisionNode extends Node {
+
+    CollisionNode(Object edit, int hash, Object[] array) {
+      super(edit);
+      this.hash = hash;
+      this.array = array;
+    }
+
+    private int indexOf(Object key) {
+      for (int i = 0; i < array.length; i += 2)
+        if (key.equals(array[i]))
+          return i;
+      return -1;
+    }
+
+    @Override
+    Object find(int shift, int hash, Object key) {
+      int i = indexOf(key);
+      return i < 0 ? NOT_FOUND : array[i + 1];
+    }
+
+    @Override
+    Node put(Object edit, int shift, int hash, Object key, Object value,
+             Change change) {
+      if (hash != this.hash) {
+        // Nest this node within a bitmap node, and add the key to that
+        return new BitmapNode(edit, BitmapNode.bit(this.hash, shift),
+            new Object[]{null, this}).put(edit, shift, hash, key, value,
+            change);
+      }
+      int i = indexOf(key);
+      if (i >= 0) {
+        change.previous = array[i + 1];
+        if (array[i + 1] == value)
+          return this;
+        CollisionNode node = editable(edit);
+        node.array[i + 1] = value;
+        return node;
+      }
+      change.added = true;
+      Object[] newArray = new Object[array.length + 2];
+      System.arraycopy(array, 0, newArray, 0, array.length);
+      newArray[array.length] = key;
+      newArray[array.length + 1] = value;
+      if (this.edit == edit) {
+        this.array = newArray;
+        return this;
+      }
+      return new CollisionNode(edit, hash, newArray);
+    }
+
+    @Override
+    Node remove(Object edit, int shift, int hash, Object key, Change change) {
+      int i = indexOf(key);
+      if (i < 0)
+        return this;
+      change.removed = true;
+      change.previous = array[i + 1];
+      if (array.length == 2)
+        return null;
+      Object[] newArray = new Object[array.length - 2];
+      System.arraycopy(array, 0, newArray, 0, i);
+      System.arraycopy(array, i + 2, newArray, i, array.length - i - 2);
+      if (this.edit == edit) {
+        this.array = newArray;
+        return this;
+      }
+      return new CollisionNode(edit, hash, newArray);
+    }
+
+    private CollisionNode editable(Object edit) {
+      if (this.edit == edit)
+        return this;
+      return new CollisionNode(edit, hash, array.clone());
+    }
+
+    final int hash;
+    Object[] array;
+  }
+
+  /**
+   * Construct a node holding two entries
+   */
+  private static Node pair(Object edit, int shift, Object key1, Object value1,
+                           int hash2, Object key2, Object value2) {
+    int hash1 = hash(key1);
+    if (hash1 == hash2)
+      return new CollisionNode(edit, hash1, new Object[]{key1, value1, key2,
+          value2});
+    Change ignored = new Change();
+    return EMPTY.put(edit, shift, hash1, key1, value1, ignored).put(edit,
+        shift, hash2, key2, value2, ignored);
+  }
+
+  /**
+   * Iterates over a trie's entries, using an explicit stack of nodes
+   */
+  private static final class EntryIterator<K, V> implements
+      Iterator<Map.Entry<K, V>> {
+
+    EntryIterator(Node root) {
+      if (root != null)
+        push(root);
+      advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return mNext != null;
+    }
+
+    @Override
+    public Map.Entry<K, V> next() {
+      if (mNext == null)
+        throw new NoSuchElementException();
+      Map.Entry<K, V> entry = mNext;
+      advance();
+      return entry;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+
+    private void push(Node node) {
+      if (mDepth == mArrays.length) {
+        mArrays = Arrays.copyOf(mArrays, mDepth * 2);
+        mCursors = Arrays.copyOf(mCursors, mDepth * 2);
+      }
+      mArrays[mDepth] = (node instanceof BitmapNode) ? ((BitmapNode) node).array
+          : ((CollisionNode) node).array;
+      mCursors[mDepth] = 0;
+      mDepth++;
+    }
+
+    /**
+     * Find the next entry, or set it to null if there are none
+     */
+    private void advance() {
+      mNext = null;
+      while (mDepth > 0) {
+        Object[] array = mArrays[mDepth - 1];
+        int i = mCursors[mDepth - 1];
+        if (i == array.length) {
+          mDepth--;
+          continue;
+        }
+        mCursors[mDepth - 1] = i + 2;
+        if (array[i] == null) {
+          push((Node) array[i + 1]);
+        } else {
+          mNext = new AbstractMap.SimpleImmutableEntry<K, V>((K) array[i],
+              (V) array[i + 1]);
+          return;
+        }
+      }
+    }
+
+    private Object[][] mArrays = new Object[8][];
+    private int[] mCursors = new int[8];
+    private int mDepth;
+    private Map.Entry<K, V> mNext;
+  }
+
+  private static final Object NOT_FOUND = new Object();
+  // Shared empty node; it has no owner, so it's never modified in place
+  private static final Node EMPTY = new BitmapNode(null, 0, new Object[0]);
+
+  // Token identifying the nodes this map owns; null if frozen
+  private Object mEdit;
+  private Node mRoot;
+  private int mSize;
+}
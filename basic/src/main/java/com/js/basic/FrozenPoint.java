@@ -0,0 +1,26 @@
+package com.js.basic;
+
+/**
+ * A Point that is frozen from construction, as returned by
+ * Point.getFrozenCopy() and Tools.frozen(); it caches its hash code. See Point
+ * regarding sharing between threads
+ */
+public final class FrozenPoint extends Point {
+
+  public FrozenPoint(float x, float y) {
+    super(x, y);
+    mHash = super.hashCode();
+    freeze();
+  }
+
+  public FrozenPoint(Point point) {
+    this(point.x, point.y);
+  }
+
+  @Override
+  public int hashCode() {
+    return mHash;
+  }
+
+  private final int mHash;
+}
@@ -0,0 +1,26 @@
+package com.js.basic;
+
+/**
+ * A Rect that is frozen from construction, as returned by Rect.getFrozenCopy()
+ * and Tools.frozen(); it caches its hash code. See Point regarding sharing
+ * between threads
+ */
+public final class FrozenRect extends Rect {
+
+  public FrozenRect(float x, float y, float w, float h) {
+    super(x, y, w, h);
+    mHash = super.hashCode();
+    freeze();
+  }
+
+  public FrozenRect(Rect r) {
+    this(r.x, r.y, r.width, r.height);
+  }
+
+  @Override
+  public int hashCode() {
+    return mHash;
+  }
+
+  private final int mHash;
+}
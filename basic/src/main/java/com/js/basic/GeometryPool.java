@@ -0,0 +1,213 @@
+package com.js.basic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A per-thread pool of temporary Points and Rects, to avoid creating garbage
+ * in code that runs every frame.
+ * <p/>
+ * Objects are acquired within a scope, and all of them are released together
+ * when the scope ends:
+ *
+ * <pre>
+ * GeometryPool pool = GeometryPool.get();
+ * int scope = pool.begin();
+ * try {
+ *   Point mid = rect.midPoint(pool.point());
+ *   ...
+ * } finally {
+ *   pool.end(scope);
+ * }
+ * </pre>
+ *
+ * Scopes can be nested, but must be ended in the reverse order they were
+ * begun. Pooled objects must not be used after their scope ends (or passed to
+ * another thread). A pooled object that was frozen is replaced by a new one
+ * when its slot is next used, so freezing one doesn't affect later scopes.
+ * <p/>
+ * With leak detection enabled, the pool records where each scope began, so
+ * verifyReleased() can report scopes that were never ended; and it sets the
+ * coordinates of released objects to NaN, so an object that outlives its
+ * scope is likely to make itself known
+ */
+public final class GeometryPool {
+
+  /**
+   * Get the current thread's pool
+   */
+  public static GeometryPool get() {
+    return sPools.get();
+  }
+
+  /**
+   * Enable or disable leak detection for pools (on all threads); it applies
+   * to scopes begun afterward
+   */
+  public static void setLeakDetection(boolean enabled) {
+    sLeakDetection = enabled;
+  }
+
+  public static boolean leakDetection() {
+    return sLeakDetection;
+  }
+
+  /**
+   * Begin a scope
+   *
+   * @return an identifier to pass to end()
+   */
+  public int begin() {
+    mScopes.add(mPointCount);
+    mScopes.add(mRectCount);
+    int scope = mScopes.size() / 2;
+    mScopeOrigins.add(sLeakDetection ? new Throwable("scope " + scope
+        + " began here") : null);
+    return scope;
+  }
+
+  /**
+   * End a scope, releasing all objects acquired since it began
+   *
+   * @param scope the value returned by the matching call to begin()
+   * @throws IllegalStateException if it's not the innermost open scope
+   */
+  public void end(int scope) {
+    if (scope != scopeDepth() || scope == 0)
+      throw new IllegalStateException("ending scope " + scope
+          + ", but innermost open scope is " + scopeDepth());
+    int rectCount = mScopes.pop();
+    int pointCount = mScopes.pop();
+    mScopeOrigins.remove(mScopeOrigins.size() - 1);
+    if (sLeakDetection) {
+      for (int i = pointCount; i < mPointCount; i++)
+        if (!mPoints[i].isFrozen())
+          mPoints[i].setTo(Float.NaN, Float.NaN);
+      for (int i = rectCount; i < mRectCount; i++)
+        if (!mRects[i].isFrozen())
+          mRects[i].setTo(Float.NaN, Float.NaN, Float.NaN, Float.NaN);
+    }
+    mPointCount = pointCount;
+    mRectCount = rectCount;
+  }
+
+  /**
+   * Get the number of scopes that are open
+   */
+  public int scopeDepth() {
+    return mScopes.size() / 2;
+  }
+
+  /**
+   * Verify that all scopes have been ended; e.g., call at the end of each
+   * frame
+   *
+   * @throws IllegalStateException if a scope is still open; if leak
+   *                               detection was enabled, its cause indicates
+   *                               where the outermost such scope began
+   */
+  public void verifyReleased() {
+    if (scopeDepth() == 0)
+      return;
+    IllegalStateException e = new IllegalStateException(scopeDepth()
+        + " scope(s) not ended; " + mPointCount + " points, " + mRectCount
+        + " rects in use");
+    for (Throwable origin : mScopeOrigins) {
+      if (origin != null) {
+        e.initCause(origin);
+        break;
+      }
+    }
+    throw e;
+  }
+
+  /**
+   * Acquire a Point, initially (0,0)
+   */
+  public Point point() {
+    return point(0, 0);
+  }
+
+  public Point point(float x, float y) {
+    verifyScopeOpen();
+    if (mPointCount == mPoints.length) {
+      mPoints = Arrays.copyOf(mPoints, mPointCount * 2);
+      for (int i = mPointCount; i < mPoints.length; i++)
+        mPoints[i] = new Point();
+    }
+    Point pt = mPoints[mPointCount];
+    if (pt.isFrozen()) {
+      pt = new Point();
+      mPoints[mPointCount] = pt;
+    }
+    mPointCount++;
+    pt.setTo(x, y);
+    return pt;
+  }
+
+  public Point point(Point source) {
+    return point(source.x, source.y);
+  }
+
+  /**
+   * Acquire a Rect, initially all zeros
+   */
+  public Rect rect() {
+    return rect(0, 0, 0, 0);
+  }
+
+  public Rect rect(float x, float y, float width, float height) {
+    verifyScopeOpen();
+    if (mRectCount == mRects.length) {
+      mRects = Arrays.copyOf(mRects, mRectCount * 2);
+      for (int i = mRectCount; i < mRects.length; i++)
+        mRects[i] = new Rect();
+    }
+    Rect r = mRects[mRectCount];
+    if (r.isFrozen()) {
+      r = new Rect();
+      mRects[mRectCount] = r;
+    }
+    mRectCount++;
+    r.setTo(x, y, width, height);
+    return r;
+  }
+
+  public Rect rect(Rect source) {
+    return rect(source.x, source.y, source.width, source.height);
+  }
+
+  private void verifyScopeOpen() {
+    if (mScopes.isEmpty())
+      throw new IllegalStateException("no scope is open");
+  }
+
+  private GeometryPool() {
+    mPoints = new Point[INITIAL_CAPACITY];
+    for (int i = 0; i < mPoints.length; i++)
+      mPoints[i] = new Point();
+    mRects = new Rect[INITIAL_CAPACITY];
+    for (int i = 0; i < mRects.length; i++)
+      mRects[i] = new Rect();
+  }
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private static final ThreadLocal<GeometryPool> sPools = new ThreadLocal<GeometryPool>() {
+    @Override
+    protected GeometryPool initialValue() {
+      return new GeometryPool();
+    }
+  };
+  private static volatile boolean sLeakDetection;
+
+  private Point[] mPoints;
+  private int mPointCount;
+  private Rect[] mRects;
+  private int mRectCount;
+  // Point and rect counts at the start of each open scope
+  private IntArray mScopes = new IntArray();
+  // Where each open scope began, or null if leak detection was disabled
+  private List<Throwable> mScopeOrigins = new ArrayList();
+}
@@ -17,6 +17,33 @@ public final class IPoint {
     this.y = y;
   }
 
+  /**
+   * Construct from coordinates packed into a long (see pack())
+   */
+  public IPoint(long packed) {
+    this(unpackX(packed), unpackY(packed));
+  }
+
+  /**
+   * Pack a pair of int coordinates into a long; useful as a key that doesn't
+   * require constructing an IPoint
+   */
+  public static long pack(int x, int y) {
+    return ((long) x << 32) | (y & 0xffffffffL);
+  }
+
+  public static int unpackX(long packed) {
+    return (int) (packed >> 32);
+  }
+
+  public static int unpackY(long packed) {
+    return (int) packed;
+  }
+
+  public long pack() {
+    return pack(x, y);
+  }
+
   public int x() {
     return x;
   }
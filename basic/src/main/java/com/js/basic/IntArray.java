@@ -0,0 +1,101 @@
+package com.js.basic;
+
+/**
+ * A growable sequence of ints, for collecting results (e.g. indices) without
+ * boxing them into Integers
+ */
+public final class IntArray {
+
+  private static final int DEFAULT_CAPACITY = 16;
+
+  public IntArray() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public IntArray(int capacity) {
+    if (capacity < 0)
+      throw new IllegalArgumentException();
+    mValues = new int[capacity];
+  }
+
+  public int size() {
+    return mSize;
+  }
+
+  public boolean isEmpty() {
+    return mSize == 0;
+  }
+
+  public int get(int index) {
+    return mValues[checkIndex(index)];
+  }
+
+  public void set(int index, int value) {
+    mValues[checkIndex(index)] = value;
+  }
+
+  public void add(int value) {
+    if (mSize == mValues.length)
+      ensureCapacity(mSize + 1);
+    mValues[mSize++] = value;
+  }
+
+  /**
+   * Remove the last element
+   *
+   * @return the removed element
+   */
+  public int pop() {
+    if (mSize == 0)
+      throw new IllegalStateException("array is empty");
+    return mValues[--mSize];
+  }
+
+  /**
+   * Remove all elements; the storage is retained for reuse
+   */
+  public void clear() {
+    mSize = 0;
+  }
+
+  public void ensureCapacity(int capacity) {
+    if (capacity <= mValues.length)
+      return;
+    int[] values = new int[Math.max(capacity, mValues.length * 2)];
+    System.arraycopy(mValues, 0, values, 0, mSize);
+    mValues = values;
+  }
+
+  /**
+   * Get the backing array; only the first size() elements are meaningful
+   */
+  public int[] array() {
+    return mValues;
+  }
+
+  public int[] toArray() {
+    int[] values = new int[mSize];
+    System.arraycopy(mValues, 0, values, 0, mSize);
+    return values;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("[");
+    for (int i = 0; i < mSize; i++) {
+      sb.append(' ');
+      sb.append(mValues[i]);
+    }
+    sb.append(" ]");
+    return sb.toString();
+  }
+
+  private int checkIndex(int index) {
+    if (index < 0 || index >= mSize)
+      throw new IndexOutOfBoundsException("index " + index + " size " + mSize);
+    return index;
+  }
+
+  private int[] mValues;
+  private int mSize;
+}
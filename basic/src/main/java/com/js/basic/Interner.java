@@ -0,0 +1,49 @@
+package com.js.basic;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import static com.js.basic.Tools.*;
+
+/**
+ * A table of canonical frozen instances of a Freezable type, so equal objects
+ * (e.g. the Points and Rects of a large scene graph) can share a single
+ * instance. Instances are held weakly, so the table doesn't keep unused ones
+ * alive. Thread safe
+ */
+public final class Interner<T extends Freezable> {
+
+  /**
+   * Get the canonical instance equal to an object; if there isn't one yet, a
+   * frozen copy of the object (or the object itself, if already frozen)
+   * becomes it
+   *
+   * @return a frozen object equal to obj
+   */
+  public synchronized T intern(T obj) {
+    WeakReference<T> ref = mMap.get(obj);
+    if (ref != null) {
+      T canonical = ref.get();
+      if (canonical != null)
+        return canonical;
+    }
+    T canonical = frozen(obj);
+    mMap.put(canonical, new WeakReference<T>(canonical));
+    return canonical;
+  }
+
+  /**
+   * Get the number of canonical instances (including any that are no longer
+   * referenced, but haven't been garbage collected yet)
+   */
+  public synchronized int size() {
+    return mMap.size();
+  }
+
+  public synchronized void clear() {
+    mMap.clear();
+  }
+
+  private Map<T, WeakReference<T>> mMap = new WeakHashMap();
+}
@@ -0,0 +1,405 @@
+package com.js.basic;
+
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A static 2d tree over a set of points, for nearest neighbour and radius
+ * queries.
+ * <p/>
+ * The tree is implicit: the points are stored (as coordinates) in an order
+ * such that, for any range of them, the point at the middle of the range
+ * splits the remainder into two subranges along one axis. Small ranges are
+ * left unsplit, and are searched linearly. Queries report points by their
+ * index within the source the tree was built from, and compare squared
+ * distances throughout.
+ * <p/>
+ * Large trees are built in parallel, using a fork/join pool. The tree is a
+ * snapshot; changing the source points has no effect on it. Queries reuse
+ * internal buffers, so a tree must not be queried by more than one thread at
+ * a time
+ */
+public final class KDTree {
+
+  public KDTree(List<Point> points) {
+    this(new PointArray(points));
+  }
+
+  public KDTree(PointArray points) {
+    int size = points.size();
+    mXs = new float[size];
+    mYs = new float[size];
+    mIndex = new int[size];
+    mAxis = new boolean[size];
+    System.arraycopy(points.xs(), points.offset(), mXs, 0, size);
+    System.arraycopy(points.ys(), points.offset(), mYs, 0, size);
+    for (int i = 0; i < size; i++)
+      mIndex[i] = i;
+
+    if (size < PARALLEL_BUILD_THRESHOLD)
+      build(0, size);
+    else
+      Tools.sharedForkJoinPool().invoke(new BuildTask(0, size));
+  }
+
+  public int size() {
+    return mXs.length;
+  }
+
+  /**
+   * Find the point nearest to a query point
+   *
+   * @return index of point, or -1 if tree is empty
+   */
+  public int nearest(Point query) {
+    return nearest(query.x, query.y);
+  }
+
+  public int nearest(float x, float y) {
+    int size = mXs.length;
+    if (size == 0)
+      return -1;
+    mQueryX = x;
+    mQueryY = y;
+    // Seed with the root, so that a point is found even if every squared
+    // distance overflows to infinity
+    mBestPosition = size >>> 1;
+    mBestDistance = distanceTo(mBestPosition);
+    searchNearest(0, size);
+    return mIndex[mBestPosition];
+  }
+
+  /**
+   * Find the k points nearest to a query point
+   *
+   * @param results where to store the indices of the points, in order of
+   *                increasing distance; it is cleared first; if null, one is
+   *                constructed
+   * @return results
+   */
+  public IntArray nearest(Point query, int k, IntArray results) {
+    if (results == null)
+      results = new IntArray();
+    results.clear();
+    if (k <= 0)
+      return results;
+    mQueryX = query.x;
+    mQueryY = query.y;
+    if (mHeapPosition == null || mHeapPosition.length < k) {
+      mHeapPosition = new int[k];
+      mHeapDistance = new float[k];
+    }
+    mHeapSize = 0;
+    mHeapCapacity = k;
+    searchNearestK(0, mXs.length);
+
+    // Extract the points from the heap, farthest first
+    results.ensureCapacity(mHeapSize);
+    int count = mHeapSize;
+    for (int i = 0; i < count; i++)
+      results.add(0);
+    int[] output = results.array();
+    for (int i = count - 1; i >= 0; i--) {
+      output[i] = mIndex[mHeapPosition[0]];
+      popHeap();
+    }
+    return results;
+  }
+
+  /**
+   * Find the points within some distance of a query point
+   *
+   * @param results where to store the indices of the points (in no particular
+   *                order); it is cleared first; if null, one is constructed
+   * @return results
+   */
+  public IntArray withinRadius(Point query, float radius, IntArray results) {
+    if (results == null)
+      results = new IntArray();
+    results.clear();
+    mQueryX = query.x;
+    mQueryY = query.y;
+    mBestDistance = radius * radius;
+    mResults = results;
+    searchRadius(0, mXs.length);
+    mResults = null;
+    return results;
+  }
+
+  private void searchNearest(int start, int end) {
+    while (end - start > LEAF_SIZE) {
+      int mid = (start + end) >>> 1;
+      float distance = distanceTo(mid);
+      if (distance < mBestDistance) {
+        mBestDistance = distance;
+        mBestPosition = mid;
+      }
+      float delta = mAxis[mid] ? mQueryY - mYs[mid] : mQueryX - mXs[mid];
+      // Search the near side first; then the far side, if it's close enough
+      if (delta < 0) {
+        searchNearest(start, mid);
+        if (delta * delta >= mBestDistance)
+          return;
+        start = mid + 1;
+      } else {
+        searchNearest(mid + 1, end);
+        if (delta * delta >= mBestDistance)
+          return;
+        end = mid;
+      }
+    }
+    for (int i = start; i < end; i++) {
+      float distance = distanceTo(i);
+      if (distance < mBestDistance) {
+        mBestDistance = distance;
+        mBestPosition = i;
+      }
+    }
+  }
+
+  private void searchNearestK(int start, int end) {
+    while (end - start > LEAF_SIZE) {
+      int mid = (start + end) >>> 1;
+      offerToHeap(mid);
+      float delta = mAxis[mid] ? mQueryY - mYs[mid] : mQueryX - mXs[mid];
+      if (delta < 0) {
+        searchNearestK(start, mid);
+        if (delta * delta >= heapThreshold())
+          return;
+        start = mid + 1;
+      } else {
+        searchNearestK(mid + 1, end);
+        if (delta * delta >= heapThreshold())
+          return;
+        end = mid;
+      }
+    }
+    for (int i = start; i < end; i++)
+      offerToHeap(i);
+  }
+
+  private void searchRadius(int start, int end) {
+    while (end - start > LEAF_SIZE) {
+      int mid = (start + end) >>> 1;
+      if (distanceTo(mid) <= mBestDistance)
+        mResults.add(mIndex[mid]);
+      float delta = mAxis[mid] ? mQueryY - mYs[mid] : mQueryX - mXs[mid];
+      boolean searchFar = delta * delta <= mBestDistance;
+      if (delta < 0) {
+        if (searchFar)
+          searchRadius(mid + 1, end);
+        end = mid;
+      } else {
+        if (searchFar)
+          searchRadius(start, mid);
+        start = mid + 1;
+      }
+    }
+    for (int i = start; i < end; i++)
+      if (distanceTo(i) <= mBestDistance)
+        mResults.add(mIndex[i]);
+  }
+
+  private float distanceTo(int position) {
+    return MyMath.squaredDistanceBetween(mQueryX, mQueryY, mXs[position],
+        mYs[position]);
+  }
+
+  /**
+   * Get the squared distance a point must be within to be added to the heap
+   */
+  private float heapThreshold() {
+    return mHeapSize < mHeapCapacity ? Float.POSITIVE_INFINITY
+        : mHeapDistance[0];
+  }
+
+  /**
+   * Add a point to the max-heap of nearest points, if it's near enough
+   */
+  private void offerToHeap(int position) {
+    float distance = distanceTo(position);
+    if (mHeapSize < mHeapCapacity) {
+      int i = mHeapSize++;
+      while (i > 0) {
+        int parent = (i - 1) >> 1;
+        if (mHeapDistance[parent] >= distance)
+          break;
+        mHeapPosition[i] = mHeapPosition[parent];
+        mHeapDistance[i] = mHeapDistance[parent];
+        i = parent;
+      }
+      mHeapPosition[i] = position;
+      mHeapDistance[i] = distance;
+    } else if (distance < mHeapDistance[0]) {
+      siftDown(position, distance, mHeapSize);
+    }
+  }
+
+  private void popHeap() {
+    int size = --mHeapSize;
+    siftDown(mHeapPosition[size], mHeapDistance[size], size);
+  }
+
+  /**
+   * Replace the root of the heap with a new entry, and restore the heap
+   * property
+   */
+  private void siftDown(int position, float distance, int size) {
+    int i = 0;
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= size)
+        break;
+      if (child + 1 < size && mHeapDistance[child + 1] > mHeapDistance[child])
+        child++;
+      if (mHeapDistance[child] <= distance)
+        break;
+      mHeapPosition[i] = mHeapPosition[child];
+      mHeapDistance[i] = mHeapDistance[child];
+      i = child;
+    }
+    mHeapPosition[i] = position;
+    mHeapDistance[i] = distance;
+  }
+
+  /**
+   * Arrange a range of points into a subtree
+   */
+  private void build(int start, int end) {
+    while (end - start > LEAF_SIZE) {
+      int mid = splitRange(start, end);
+      build(start, mid);
+      start = mid + 1;
+    }
+  }
+
+  /**
+   * Choose a splitting axis for a range of points, and move the median point
+   * (along that axis) to the middle of the range, with lesser points before it
+   * and greater ones after it
+   *
+   * @return position of the median point
+   */
+  private int splitRange(int start, int end) {
+    float minX = mXs[start], maxX = minX;
+    float minY = mYs[start], maxY = minY;
+    for (int i = start + 1; i < end; i++) {
+      float x = mXs[i];
+      float y = mYs[i];
+      if (x < minX)
+        minX = x;
+      else if (x > maxX)
+        maxX = x;
+      if (y < minY)
+        minY = y;
+      else if (y > maxY)
+        maxY = y;
+    }
+    // Split along the axis with the greater spread
+    boolean axis = (maxY - minY) > (maxX - minX);
+    int mid = (start + end) >>> 1;
+    select(axis ? mYs : mXs, start, end - 1, mid);
+    mAxis[mid] = axis;
+    return mid;
+  }
+
+  /**
+   * Partially sort a range of points so the kth is in its sorted position
+   * (Hoare's selection algorithm)
+   *
+   * @param keys  coordinates to sort by
+   * @param left  first position of range
+   * @param right last position of range
+   */
+  private void select(float[] keys, int left, int right, int k) {
+    while (right > left) {
+      // Use the median of three as the pivot
+      int mid = (left + right) >>> 1;
+      if (keys[mid] < keys[left])
+        swap(mid, left);
+      if (keys[right] < keys[left])
+        swap(right, left);
+      if (keys[right] < keys[mid])
+        swap(right, mid);
+      float pivot = keys[mid];
+      int i = left;
+      int j = right;
+      while (i <= j) {
+        while (keys[i] < pivot)
+          i++;
+        while (keys[j] > pivot)
+          j--;
+        if (i <= j) {
+          swap(i, j);
+          i++;
+          j--;
+        }
+      }
+      if (k <= j)
+        right = j;
+      else if (k >= i)
+        left = i;
+      else
+        break;
+    }
+  }
+
+  private void swap(int i, int j) {
+    float x = mXs[i];
+    mXs[i] = mXs[j];
+    mXs[j] = x;
+    float y = mYs[i];
+    mYs[i] = mYs[j];
+    mYs[j] = y;
+    int index = mIndex[i];
+    mIndex[i] = mIndex[j];
+    mIndex[j] = index;
+  }
+
+  /**
+   * Task to build a subtree, building its two halves in parallel if it's
+   * large enough
+   */
+  private class BuildTask extends RecursiveAction {
+
+    public BuildTask(int start, int end) {
+      mStart = start;
+      mEnd = end;
+    }
+
+    @Override
+    protected void compute() {
+      if (mEnd - mStart < PARALLEL_BUILD_THRESHOLD) {
+        build(mStart, mEnd);
+        return;
+      }
+      int mid = splitRange(mStart, mEnd);
+      invokeAll(new BuildTask(mStart, mid), new BuildTask(mid + 1, mEnd));
+    }
+
+    private final int mStart;
+    private final int mEnd;
+  }
+
+  // Ranges no larger than this are not split
+  private static final int LEAF_SIZE = 8;
+  // Ranges at least this large are built in parallel
+  private static final int PARALLEL_BUILD_THRESHOLD = 50000;
+
+  private final float[] mXs;
+  private final float[] mYs;
+  // Index of each point within the source
+  private final int[] mIndex;
+  // For points that split a range, true if the range is split along the y axis
+  private final boolean[] mAxis;
+
+  private float mQueryX, mQueryY;
+  // Squared distance of nearest point found, or squared radius
+  private float mBestDistance;
+  private int mBestPosition;
+  private IntArray mResults;
+  private int[] mHeapPosition;
+  private float[] mHeapDistance;
+  private int mHeapSize;
+  private int mHeapCapacity;
+}
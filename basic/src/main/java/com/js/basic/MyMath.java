@@ -0,0 +1,924 @@
+package com.js.basic;
+
+import static com.js.basic.Tools.*;
+
+import java.util.Random;
+
+public final class MyMath {
+
+  public static final float MAXVALUE = 1e12f;
+
+  public static float PI = (float) Math.PI;
+  /**
+   * Multiplicative factor that converts angles expressed in degrees to radians
+   */
+  public static final float M_DEG = PI / 180.0f;
+
+  public static final float PSEUDO_ANGLE_RANGE = 8;
+  public static final float PSEUDO_ANGLE_RANGE_12 = (PSEUDO_ANGLE_RANGE * .5f);
+  public static final float PSEUDO_ANGLE_RANGE_14 = (PSEUDO_ANGLE_RANGE * .25f);
+  public static final float PSEUDO_ANGLE_RANGE_34 = (PSEUDO_ANGLE_RANGE * .75f);
+  public static final float PERTURB_AMOUNT_DEFAULT = .5f;
+
+  /**
+   * Status codes returned by the non-throwing intersection methods
+   */
+  public static final int INTERSECT_HIT = 0;
+  public static final int INTERSECT_MISS = 1;
+  public static final int INTERSECT_PARALLEL = 2;
+  public static final int INTERSECT_COLLINEAR = 3;
+
+  /**
+   * Magnitude below which intersection denominators are considered to be zero
+   */
+  private static final float INTERSECT_EPSILON = 1e-8f;
+
+  /**
+   * Test if a value is essentially zero, and raise exception if so
+   */
+  public static void testForZero(float value) {
+    testForZero(value, 1e-8f);
+  }
+
+  /**
+   * Test if a value is essentially zero, and raise exception if so
+   */
+  public static void testForZero(float value, float epsilon) {
+    if (Math.abs(value) <= epsilon) {
+      GeometryException.raise("Value is very near zero: " + value
+          + " (epsilon " + epsilon + ")");
+    }
+  }
+
+  /**
+   * Raise exception if value's magnitude exceeds MAXVALUE
+   */
+  public static void testForOverflow(float value) {
+    if (value > MyMath.MAXVALUE || value < -MyMath.MAXVALUE
+        || Float.isNaN(value)) {
+      GeometryException.raise("Value has overflowed: " + value);
+    }
+  }
+
+  /**
+   * Raise exception if any coordinate's magnitude exceeds MAXVALUE
+   */
+  public static void testForOverflow(PointArray points) {
+    float[] xs = points.xs();
+    float[] ys = points.ys();
+    int start = points.offset();
+    int end = start + points.size();
+    for (int i = start; i < end; i++) {
+      float x = xs[i];
+      float y = ys[i];
+      // Written so that NaN values fail the comparisons
+      if (!(x <= MAXVALUE && x >= -MAXVALUE && y <= MAXVALUE && y >= -MAXVALUE)) {
+        testForOverflow(x);
+        testForOverflow(y);
+      }
+    }
+  }
+
+  public static float myMod(float value, float divisor) {
+    if (divisor <= 0)
+      throw new IllegalArgumentException();
+    float scaledValue = value / divisor;
+    scaledValue -= Math.floor(scaledValue);
+    return scaledValue * divisor;
+  }
+
+  public static float squaredMagnitudeOfRay(float x, float y) {
+    return (x * x) + (y * y);
+  }
+
+  public static float magnitudeOfRay(float x, float y) {
+    return (float) Math.sqrt(squaredMagnitudeOfRay(x, y));
+  }
+
+  public static float sin(float angle) {
+    return (float) Math.sin(angle);
+  }
+
+  public static float cos(float angle) {
+    return (float) Math.cos(angle);
+  }
+
+  /**
+   * Snap a scalar to a grid
+   *
+   * @param n    scalaar
+   * @param size size of grid cells (assumed to be square)
+   * @return point snapped to nearest cell corner
+   */
+  public static float snapToGrid(float n, float size) {
+    return size * Math.round(n / size);
+  }
+
+  /**
+   * Determine which grid cell a scalar lies within, where cell i contains the
+   * scalars that snapToGrid() maps to i * size
+   */
+  public static int gridCell(float n, float size) {
+    return Math.round(n / size);
+  }
+
+  public static float interpolateBetweenScalars(float v1, float v2,
+                                                float parameter) {
+    return (v1 * (1 - parameter)) + v2 * parameter;
+  }
+
+  public static float normalizeAngle(float a) {
+    float kRange = MyMath.PI * 2;
+    float an = myMod(a, kRange);
+    if (an >= MyMath.PI)
+      an -= kRange;
+    return an;
+  }
+
+  public static float interpolateBetweenAngles(float a1, float a2,
+                                               float parameter) {
+    float aDiff = normalizeAngle(a2 - a1) * parameter;
+    return normalizeAngle(a1 + aDiff);
+  }
+
+  public static int clamp(int value, int min, int max) {
+    if (value < min)
+      value = min;
+    else if (value > max)
+      value = max;
+    return value;
+  }
+
+  public static float clamp(float value, float min, float max) {
+    if (value < min)
+      value = min;
+    else if (value > max)
+      value = max;
+    return value;
+  }
+
+  public static Point clampPointToRect(Point pt, Rect r) {
+    float x = clamp(pt.x, r.x, r.x + r.width);
+    float y = clamp(pt.y, r.y, r.y + r.height);
+    return new Point(x, y);
+  }
+
+  /**
+   * @deprecated change type to float
+   */
+  public static double pseudoAngleOfSegment(Point s1, Point s2) {
+    return pseudoPolarAngle(s2.x - s1.x, s2.y - s1.y);
+  }
+
+  /**
+   * @deprecated change type to float
+   */
+  public static double normalizePseudoAngle(double a) {
+    double b = a;
+    if (b < -PSEUDO_ANGLE_RANGE_12) {
+      b += PSEUDO_ANGLE_RANGE;
+      if (b < -PSEUDO_ANGLE_RANGE_12) {
+        throw new GeometryException("range error:" + b);
+      }
+    } else if (b >= PSEUDO_ANGLE_RANGE_12) {
+      b -= PSEUDO_ANGLE_RANGE;
+      if (b >= PSEUDO_ANGLE_RANGE_12) {
+        throw new GeometryException("range error:" + b);
+      }
+    }
+    return b;
+  }
+
+  public static Point add(Point a, Point b) {
+    return add(a, b, null);
+  }
+
+  /**
+   * @param dest if not null, where to store the result (it may be a or b)
+   * @return a + b
+   */
+  public static Point add(Point a, Point b, Point dest) {
+    return store(a.x + b.x, a.y + b.y, dest);
+  }
+
+  /**
+   * Subtract second point from first
+   *
+   * @return a - b
+   */
+  public static Point subtract(Point a, Point b) {
+    return subtract(a, b, null);
+  }
+
+  /**
+   * Subtract second point from first
+   *
+   * @param dest if not null, where to store the result (it may be a or b)
+   * @return a - b
+   */
+  public static Point subtract(Point a, Point b, Point dest) {
+    return store(a.x - b.x, a.y - b.y, dest);
+  }
+
+  public static Point interpolateBetween(Point s1, Point s2, float parameter) {
+    return interpolateBetween(s1, s2, parameter, null);
+  }
+
+  /**
+   * @param dest if not null, where to store the result (it may be s1 or s2)
+   */
+  public static Point interpolateBetween(Point s1, Point s2, float parameter,
+                                         Point dest) {
+    return store(MyMath.interpolateBetweenScalars(s1.x, s2.x, parameter),
+        MyMath.interpolateBetweenScalars(s1.y, s2.y, parameter), dest);
+  }
+
+  public static Point pointOnCircle(Point origin, float angle, float radius) {
+    return pointOnCircle(origin, angle, radius, null);
+  }
+
+  /**
+   * @param dest if not null, where to store the result (it may be origin)
+   */
+  public static Point pointOnCircle(Point origin, float angle, float radius,
+                                    Point dest) {
+    return store(origin.x + radius * (float) Math.cos(angle), origin.y
+        + radius * (float) Math.sin(angle), dest);
+  }
+
+  /**
+   * Store coordinates in a point, constructing one if it's null; for the
+   * methods that have into-variants
+   *
+   * @return the point
+   */
+  static Point store(float x, float y, Point dest) {
+    if (dest == null)
+      return new Point(x, y);
+    dest.setTo(x, y);
+    return dest;
+  }
+
+  public static double dotProduct(Point s1, Point s2) {
+    return s1.x() * s2.x() + s1.y() * s2.y();
+  }
+
+  public static float squaredDistanceBetween(Point s1, Point s2) {
+    return squaredMagnitudeOfRay(s2.x - s1.x, s2.y - s1.y);
+  }
+
+  public static float squaredDistanceBetween(float x1, float y1, float x2,
+                                             float y2) {
+    return squaredMagnitudeOfRay(x2 - x1, y2 - y1);
+  }
+
+  public static float distanceBetween(Point s1, Point s2) {
+    return (float) Math.sqrt(squaredMagnitudeOfRay(s2.x - s1.x, s2.y - s1.y));
+  }
+
+  public static float pointUnitLineSignedDistance(Point pt, Point s1, Point s2) {
+    // Translate so s1 is at origin
+    float sx = s2.x - s1.x;
+    float sy = s2.y - s1.y;
+    float pt_x = pt.x - s1.x;
+    float pt_y = pt.y - s1.y;
+    return -sy * pt_x + sx * pt_y;
+  }
+
+  /**
+   * Determine distance of a point from a line
+   *
+   * @param pt        FPoint2
+   * @param e0        one point on line
+   * @param e1        second point on line
+   * @param closestPt if not null, closest point on line is stored here; can be the same
+   *                  as one of the input points
+   * @return distance
+   */
+  public static float ptDistanceToLine(Point pt, Point e0, Point e1,
+                                       Point closestPt) {
+
+    /*
+     * Let A = pt - l0 B = l1 - l0
+     * 
+     * then
+     * 
+     * |A x B| = |A||B| sin t
+     * 
+     * and the distance is |AxB| / |B|
+     * 
+     * 
+     * The closest point is
+     * 
+     * l0 + (|A| cos t) / |B|
+     */
+    float bLength = distanceBetween(e0, e1);
+    float dist;
+    if (bLength == 0) {
+      dist = distanceBetween(pt, e0);
+      if (closestPt != null)
+        closestPt.setTo(e0);
+    } else {
+      float ax = pt.x - e0.x;
+      float ay = pt.y - e0.y;
+      float bx = e1.x - e0.x;
+      float by = e1.y - e0.y;
+
+      float crossProd = bx * ay - by * ax;
+
+      dist = Math.abs(crossProd / bLength);
+
+      if (closestPt != null) {
+        float scalarProd = ax * bx + ay * by;
+        float t = scalarProd / (bLength * bLength);
+        closestPt.setTo(e0.x + t * bx, e0.y + t * by);
+      }
+    }
+    return dist;
+  }
+
+  /**
+   * Calculate the parameter for a point on a line
+   *
+   * @param pt FPoint2, assumed to be on line
+   * @param s0 start point of line segment (t = 0.0)
+   * @param s1 end point of line segment (t = 1.0)
+   * @return t value associated with pt
+   */
+  public static float positionOnSegment(Point pt, Point s0, Point s1) {
+
+    float sx = s1.x - s0.x;
+    float sy = s1.y - s0.y;
+
+    float t = 0;
+
+    float dotProd = (pt.x - s0.x) * sx + (pt.y - s0.y) * sy;
+    if (dotProd != 0)
+      t = dotProd / (sx * sx + sy * sy);
+
+    return t;
+  }
+
+  /**
+   * Determine squared distance of point from segment; equivalent to the square
+   * of ptDistanceToSegment(), without constructing any Points
+   */
+  public static float squaredPtDistanceToSegment(float px, float py, float x0,
+                                                 float y0, float x1, float y1) {
+    float sx = x1 - x0;
+    float sy = y1 - y0;
+    float ax = px - x0;
+    float ay = py - y0;
+    float dotProd = ax * sx + ay * sy;
+    if (dotProd <= 0)
+      return ax * ax + ay * ay;
+    float lengthSq = sx * sx + sy * sy;
+    if (dotProd >= lengthSq)
+      return squaredDistanceBetween(px, py, x1, y1);
+    float crossProd = sx * ay - sy * ax;
+    return crossProd * crossProd / lengthSq;
+  }
+
+  /**
+   * Determine distance of point from segment
+   *
+   * @param ptOnSeg if not null, closest point on segment to point is stored here
+   */
+  public static float ptDistanceToSegment(Point pt, Point l0, Point l1,
+                                          Point ptOnSeg) {
+
+    float dist;
+    // calculate parameter for position on segment
+    float t = positionOnSegment(pt, l0, l1);
+
+    if (t < 0) {
+      Point cpt = l0;
+      dist = distanceBetween(pt, cpt);
+      if (ptOnSeg != null)
+        ptOnSeg.setTo(cpt);
+    } else if (t > 1) {
+      Point cpt = l1;
+      dist = distanceBetween(pt, cpt);
+      if (ptOnSeg != null)
+        ptOnSeg.setTo(cpt);
+    } else {
+      dist = ptDistanceToLine(pt, l0, l1, ptOnSeg);
+    }
+    return dist;
+  }
+
+  /**
+   * Calculate point of intersection of line segment with horizontal line
+   *
+   * @param parameter if not null, and intersection point found, parameter of
+   *                  intersection returned here
+   * @return point of intersection, or null
+   */
+  public static Point segHorzLineIntersection(Point pt1, Point pt2,
+                                              float yLine, float[] parameter) {
+    Point ipt = new Point();
+    int status = segHorzLineIntersection(pt1, pt2, yLine, ipt, parameter);
+    if (status == INTERSECT_MISS)
+      return null;
+    if (status != INTERSECT_HIT)
+      testForZero(pt2.y - pt1.y);
+    return ipt;
+  }
+
+  /**
+   * Calculate point of intersection of line segment with horizontal line,
+   * without allocating any objects or throwing exceptions
+   *
+   * @param ipt       if not null, and intersection point found, it is stored here
+   * @param parameter if not null, and intersection point found, parameter of
+   *                  intersection returned here
+   * @return INTERSECT_HIT, INTERSECT_MISS, or (if segment is horizontal)
+   * INTERSECT_PARALLEL or INTERSECT_COLLINEAR
+   */
+  public static int segHorzLineIntersection(Point pt1, Point pt2, float yLine,
+                                            Point ipt, float[] parameter) {
+    float denom = pt2.y - pt1.y;
+    float numer = yLine - pt1.y;
+    if (Math.abs(denom) <= INTERSECT_EPSILON) {
+      if (Math.abs(numer) <= INTERSECT_EPSILON)
+        return INTERSECT_COLLINEAR;
+      return INTERSECT_PARALLEL;
+    }
+
+    float t = numer / denom;
+    if (t < 0 || t > 1)
+      return INTERSECT_MISS;
+
+    if (parameter != null)
+      parameter[0] = t;
+    if (ipt != null)
+      ipt.setTo(pt1.x + (pt2.x - pt1.x) * t, pt1.y + denom * t);
+    return INTERSECT_HIT;
+  }
+
+  public static Point segSegIntersection(Point s1, Point s2, Point t1,
+                                         Point t2, float[] parameters) {
+    Point ipt = new Point();
+    int status = segSegIntersection(s1, s2, t1, t2, ipt, parameters);
+    if (status == INTERSECT_MISS)
+      return null;
+    if (status != INTERSECT_HIT)
+      raiseParallel(s1, s2, t1, t2);
+    return ipt;
+  }
+
+  /**
+   * Calculate point of intersection of two line segments, without allocating
+   * any objects or throwing exceptions
+   *
+   * @param ipt        if not null, and intersection point found, it is stored here
+   * @param parameters if not null, and intersection point found, the parameters
+   *                   of the intersection point along each segment are stored here
+   * @return INTERSECT_HIT, INTERSECT_MISS, INTERSECT_PARALLEL or
+   * INTERSECT_COLLINEAR (the latter only if the segments overlap); a
+   * zero-length segment is treated as a point, which hits or misses
+   */
+  public static int segSegIntersection(Point s1, Point s2, Point t1, Point t2,
+                                       Point ipt, float[] parameters) {
+    return segSegIntersection(s1.x, s1.y, s2.x, s2.y, t1.x, t1.y, t2.x, t2.y,
+        ipt, parameters);
+  }
+
+  /**
+   * Same as segSegIntersection(Point, Point, Point, Point, Point, float[]), but
+   * with the segment endpoints given as coordinates
+   */
+  public static int segSegIntersection(float s1x, float s1y, float s2x,
+                                       float s2y, float t1x, float t1y, float t2x, float t2y, Point ipt,
+                                       float[] parameters) {
+    // First see if segment's bounding boxes intersect; if not, no
+    // potentially troubling calculations need be performed.
+    // Add a bit of overlap to one box to ensure a clear separation
+    float eps = INTERSECT_EPSILON;
+    if (!(Math.min(s1x, s2x) - eps < Math.max(t1x, t2x)
+        && Math.max(s1x, s2x) + eps > Math.min(t1x, t2x)
+        && Math.min(s1y, s2y) - eps < Math.max(t1y, t2y)
+        && Math.max(s1y, s2y) + eps > Math.min(t1y, t2y)))
+      return INTERSECT_MISS;
+
+    float ty = (t2y - t1y);
+    float sx = (s2x - s1x);
+    float tx = (t2x - t1x);
+    float sy = (s2y - s1y);
+
+    // A zero-length segment has no direction, so it can't be parallel to the
+    // other; it intersects it only if its point lies on it
+    float ua, ub;
+    if (sx * sx + sy * sy <= eps * eps) {
+      ua = 0;
+      ub = parameterOfPointOnSegment(s1x, s1y, t1x, t1y, tx, ty);
+      if (ub < 0)
+        return INTERSECT_MISS;
+    } else if (tx * tx + ty * ty <= eps * eps) {
+      ub = 0;
+      ua = parameterOfPointOnSegment(t1x, t1y, s1x, s1y, sx, sy);
+      if (ua < 0)
+        return INTERSECT_MISS;
+    } else {
+      float denom = ty * sx - tx * sy;
+      float numer1 = tx * (s1y - t1y) - ty * (s1x - t1x);
+
+      if (Math.abs(denom) <= INTERSECT_EPSILON) {
+        if (Math.abs(numer1) <= INTERSECT_EPSILON)
+          return INTERSECT_COLLINEAR;
+        return INTERSECT_PARALLEL;
+      }
+
+      ua = numer1 / denom;
+      if (ua < 0 || ua > 1)
+        return INTERSECT_MISS;
+      float numer2 = sx * (s1y - t1y) - sy * (s1x - t1x);
+      ub = numer2 / denom;
+      if (ub < 0 || ub > 1)
+        return INTERSECT_MISS;
+    }
+
+    if (parameters != null) {
+      parameters[0] = ua;
+      parameters[1] = ub;
+    }
+    if (ipt != null)
+      ipt.setTo(s1x + ua * sx, s1y + ua * sy);
+    return INTERSECT_HIT;
+  }
+
+  /**
+   * Determine where a point lies along a segment, if it lies on it
+   *
+   * @param x0 first endpoint of segment
+   * @param dx direction of segment (second endpoint minus first)
+   * @return parameter of point along segment, or -1 if it doesn't lie on it
+   */
+  private static float parameterOfPointOnSegment(float px, float py,
+                                                 float x0, float y0, float dx, float dy) {
+    float ox = px - x0;
+    float oy = py - y0;
+    float lengthSq = dx * dx + dy * dy;
+    float eps = INTERSECT_EPSILON;
+    if (lengthSq <= eps * eps)
+      return (ox * ox + oy * oy <= eps * eps) ? 0 : -1;
+    float cross = dx * oy - dy * ox;
+    if (cross * cross > eps * eps * lengthSq)
+      return -1;
+    float t = (dx * ox + dy * oy) / lengthSq;
+    if (t < 0 || t > 1)
+      return -1;
+    return t;
+  }
+
+  public static Point lineLineIntersection(Point s1, Point s2, Point t1,
+                                           Point t2, float[] parameter) {
+    Point ipt = new Point();
+    if (lineLineIntersection(s1, s2, t1, t2, ipt, parameter) != INTERSECT_HIT)
+      raiseParallel(s1, s2, t1, t2);
+    return ipt;
+  }
+
+  /**
+   * Calculate point of intersection of two lines, without allocating any
+   * objects or throwing exceptions
+   *
+   * @param ipt       if not null, and intersection point found, it is stored here
+   * @param parameter if not null, and intersection point found, the parameter of
+   *                  the intersection point along the first line is stored here
+   * @return INTERSECT_HIT, INTERSECT_PARALLEL or INTERSECT_COLLINEAR
+   */
+  public static int lineLineIntersection(Point s1, Point s2, Point t1,
+                                         Point t2, Point ipt, float[] parameter) {
+    return lineLineIntersection(s1.x, s1.y, s2.x, s2.y, t1.x, t1.y, t2.x, t2.y,
+        ipt, parameter);
+  }
+
+  /**
+   * Same as lineLineIntersection(Point, Point, Point, Point, Point, float[]),
+   * but with the points on each line given as coordinates
+   */
+  public static int lineLineIntersection(float s1x, float s1y, float s2x,
+                                         float s2y, float t1x, float t1y, float t2x, float t2y, Point ipt,
+                                         float[] parameter) {
+    float ty = (t2y - t1y);
+    float sx = (s2x - s1x);
+    float tx = (t2x - t1x);
+    float sy = (s2y - s1y);
+
+    float denom = ty * sx - tx * sy;
+    float numer1 = tx * (s1y - t1y) - ty * (s1x - t1x);
+
+    if (Math.abs(denom) <= INTERSECT_EPSILON) {
+      if (Math.abs(numer1) <= INTERSECT_EPSILON)
+        return INTERSECT_COLLINEAR;
+      return INTERSECT_PARALLEL;
+    }
+
+    float ua = numer1 / denom;
+    if (parameter != null)
+      parameter[0] = ua;
+    if (ipt != null)
+      ipt.setTo(s1x + ua * sx, s1y + ua * sy);
+    return INTERSECT_HIT;
+  }
+
+  /**
+   * Raise the exception the intersection methods have traditionally thrown
+   * for parallel lines
+   */
+  private static void raiseParallel(Point s1, Point s2, Point t1, Point t2) {
+    testForZero((t2.y - t1.y) * (s2.x - s1.x) - (t2.x - t1.x) * (s2.y - s1.y),
+        INTERSECT_EPSILON);
+  }
+
+  public static String dumpMatrix(float[] values, int rows, int columns,
+                                  boolean rowMajorOrder) {
+    StringBuilder sb = new StringBuilder();
+    for (int row = 0; row < rows; row++) {
+      sb.append("[ ");
+      for (int col = 0; col < columns; col++) {
+        int index = rowMajorOrder ? row * columns + col : col * rows + row;
+        sb.append(d(values[index], 3, 5));
+        sb.append(' ');
+      }
+      sb.append("]\n");
+    }
+    return sb.toString();
+  }
+
+  public static Point pointBesideSegment(Point s1, Point s2, float distance) {
+    return pointBesideSegment(s1, s2, distance, .5f);
+  }
+
+  public static Point pointBesideSegment(Point s1, Point s2, float distance,
+                                         float t) {
+    Point m = interpolateBetween(s1, s2, t);
+    float a = polarAngleOfSegment(s1, s2);
+    return pointOnCircle(m, a - 90 * M_DEG, distance);
+  }
+
+  /**
+   * Determine which side of a directed line a point lies on, using float
+   * arithmetic; for nearly collinear points the sign may be wrong, so use
+   * RobustPredicates.orient2d() when it matters
+   *
+   * @return positive if to the left, negative if to the right, zero if
+   * collinear
+   */
+  public static float sideOfLine(Point ln0, Point ln1, Point pt) {
+    float area = (ln1.x - ln0.x) * (pt.y - ln0.y) - (pt.x - ln0.x)
+        * (ln1.y - ln0.y);
+    return area;
+  }
+
+  public static float polarAngleOfSegment(Point s1, Point s2) {
+    return polarAngle(s2.x - s1.x, s2.y - s1.y);
+  }
+
+  public static float polarAngle(Point ray) {
+    return polarAngle(ray.x, ray.y);
+  }
+
+  public static float polarAngle(float x, float y) {
+    float max = Math.max(Math.abs(x), Math.abs(y));
+    if (max <= 1e-8f) {
+      GeometryException.raise("Point is too close to origin: " + x + "," + y);
+    }
+    return (float) Math.atan2(y, x);
+  }
+
+  public static float pseudoPolarAngle(Point point) {
+    return pseudoPolarAngle(point.x, point.y);
+  }
+
+  public static float pseudoPolarAngle(float x, float y) {
+    // For consistency, always insist that y is nonnegative
+    boolean negateFlag = (y <= 0);
+    if (negateFlag)
+      y = -y;
+
+    float ret;
+    if (y > Math.abs(x)) {
+      float rat = x / y;
+      ret = PSEUDO_ANGLE_RANGE_14 - rat;
+    } else {
+      testForZero(x);
+      float rat = y / x;
+      if (x < 0) {
+        ret = PSEUDO_ANGLE_RANGE_12 + rat;
+      } else {
+        ret = rat;
+      }
+    }
+    if (negateFlag)
+      ret = -ret;
+
+    return ret;
+  }
+
+  public static float pseudoPolarAngleOfSegment(Point s1, Point s2) {
+    return pseudoPolarAngle(s2.x - s1.x, s2.y - s1.y);
+  }
+
+  public static float normalizePseudoAngle(float a) {
+    float b = a;
+    if (b < -PSEUDO_ANGLE_RANGE_12) {
+      b += PSEUDO_ANGLE_RANGE;
+
+      if ((b < -PSEUDO_ANGLE_RANGE_12)) {
+        GeometryException.raise("Cannot normalize " + a);
+      }
+    } else if (b >= PSEUDO_ANGLE_RANGE_12) {
+      b -= PSEUDO_ANGLE_RANGE;
+      if ((b >= PSEUDO_ANGLE_RANGE_12)) {
+        GeometryException.raise("Cannot normalize " + a);
+      }
+    }
+    return b;
+  }
+
+  /**
+   * Determine if the pseudoangle defined by two rays is convex
+   *
+   * @param startAngle pseudoangle of first ray
+   * @param endAngle   pseudoangle of second ray
+   * @return true iff the ccw angle from startAngle to endAngle is greater than
+   * zero and less than pi
+   */
+  public static boolean pseudoAngleIsConvex(float startAngle, float endAngle) {
+    return normalizePseudoAngle(endAngle - startAngle) > 0;
+  }
+
+  /**
+   * Determine if the angle defined by two rays is convex
+   *
+   * @param startAngle angle of first ray
+   * @param endAngle   angle of second ray
+   * @return true iff the ccw angle from startAngle to endAngle is greater than
+   * zero and less than pi
+   */
+  public static boolean angleIsConvex(float startAngle, float endAngle) {
+    return normalizeAngle(endAngle - startAngle) > 0;
+  }
+
+  public static float perturb(Random random, float val) {
+    final float GRID = PERTURB_AMOUNT_DEFAULT;
+    final float NOISE = GRID * .8f;
+
+    float aligned = (float) Math.floor((val / GRID) + .5f);
+    float frac = random.nextFloat() * (2 * NOISE) - NOISE;
+    float ret = (aligned + frac) * GRID;
+
+    return ret;
+  }
+
+  public static void perturb(Random random, Point pt) {
+    pt.setTo(perturb(random, pt.x), perturb(random, pt.y));
+  }
+
+  public static Point randomPointInDisc(Random random, Point origin,
+                                        float radius) {
+    float val = radius * (float) Math.sqrt(random.nextFloat());
+    return pointOnCircle(origin, random.nextFloat() * PI * 2, val);
+  }
+
+  /**
+   * Find the real roots of a x^2 + b x + c = 0; see PolynomialSolver for a
+   * version (and batch versions) that don't throw exceptions
+   *
+   * @param output if not null, where to store the roots
+   * @return array containing the two roots, in ascending order; if there's
+   * only a single root, it appears twice
+   * @throws GeometryException if there are no roots
+   */
+  public static float[] solveQuadratic(float a, float b, float c, float[] output) {
+    if (output == null)
+      output = new float[2];
+    int count = PolynomialSolver.solveQuadratic(a, b, c, output, 0);
+    if (count == 0)
+      GeometryException.raise("quadratic system has no roots: " + a + " " + b
+          + " " + c);
+    if (count == 1)
+      output[1] = output[0];
+    return output;
+  }
+
+  /**
+   * Calculate transform that maps one rectangle to (the center of) another
+   *
+   * @param dest where to store the transform
+   * @return dest
+   */
+  public static Affine2D calcRectFitRectTransform(Rect originalRect,
+                                                  Rect fitRect, boolean preserveAspectRatio, Affine2D dest) {
+    return dest.setRectFitRect(originalRect, fitRect, preserveAspectRatio);
+  }
+
+  /**
+   * Translate every point in an array
+   */
+  public static void translate(PointArray points, float dx, float dy) {
+    float[] xs = points.xs();
+    float[] ys = points.ys();
+    int start = points.offset();
+    int end = start + points.size();
+    for (int i = start; i < end; i++) {
+      xs[i] += dx;
+      ys[i] += dy;
+    }
+  }
+
+  /**
+   * Scale every point in an array about the origin
+   */
+  public static void scale(PointArray points, float scaleX, float scaleY) {
+    float[] xs = points.xs();
+    float[] ys = points.ys();
+    int start = points.offset();
+    int end = start + points.size();
+    for (int i = start; i < end; i++) {
+      xs[i] *= scaleX;
+      ys[i] *= scaleY;
+    }
+  }
+
+  public static void scale(PointArray points, float factor) {
+    scale(points, factor, factor);
+  }
+
+  /**
+   * Calculate the squared distance from each point in an array to a query
+   * point
+   *
+   * @param output if not null, where to store the distances; must have length at
+   *               least points.size()
+   * @return array containing distances
+   */
+  public static float[] squaredDistancesTo(PointArray points, Point query,
+                                           float[] output) {
+    int size = points.size();
+    if (output == null)
+      output = new float[size];
+    float[] xs = points.xs();
+    float[] ys = points.ys();
+    int offset = points.offset();
+    float qx = query.x;
+    float qy = query.y;
+    for (int i = 0; i < size; i++) {
+      float dx = xs[offset + i] - qx;
+      float dy = ys[offset + i] - qy;
+      output[i] = dx * dx + dy * dy;
+    }
+    return output;
+  }
+
+  /**
+   * Calculate the distance from each point in an array to a query point
+   *
+   * @param output if not null, where to store the distances; must have length at
+   *               least points.size()
+   * @return array containing distances
+   */
+  public static float[] distancesTo(PointArray points, Point query,
+                                    float[] output) {
+    output = squaredDistancesTo(points, query, output);
+    int size = points.size();
+    for (int i = 0; i < size; i++)
+      output[i] = (float) Math.sqrt(output[i]);
+    return output;
+  }
+
+  /**
+   * Find the point in an array that is nearest to a query point
+   *
+   * @return index of nearest point, or -1 if array is empty
+   */
+  public static int nearestPoint(PointArray points, Point query) {
+    float[] xs = points.xs();
+    float[] ys = points.ys();
+    int start = points.offset();
+    int end = start + points.size();
+    if (start == end)
+      return -1;
+    float qx = query.x;
+    float qy = query.y;
+    // Seed with the first point, so that a nearest point is found even if
+    // every squared distance overflows to infinity
+    int nearest = start;
+    float dx0 = xs[start] - qx;
+    float dy0 = ys[start] - qy;
+    float nearestDist = dx0 * dx0 + dy0 * dy0;
+    for (int i = start + 1; i < end; i++) {
+      float dx = xs[i] - qx;
+      float dy = ys[i] - qy;
+      float dist = dx * dx + dy * dy;
+      if (dist < nearestDist) {
+        nearestDist = dist;
+        nearest = i;
+      }
+    }
+    return nearest - start;
+  }
+
+}
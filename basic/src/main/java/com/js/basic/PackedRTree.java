@@ -0,0 +1,372 @@
+package com.js.basic;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A static R-tree over a set of Rects, bulk-loaded using the
+ * Sort-Tile-Recursive (STR) algorithm.
+ * <p/>
+ * Every entry (rect or node) is stored by its position in a set of parallel
+ * arrays: the rects occupy the first positions, followed by the nodes of each
+ * successive level, with the root last. The children of each node are
+ * contiguous, so a node only records the position of its first child. Queries
+ * report rects by their index within the list the tree was built from.
+ * <p/>
+ * The tree is a snapshot; changing the original Rects has no effect on it.
+ * Queries reuse internal buffers, so a tree must not be queried by more than
+ * one thread at a time
+ */
+public final class PackedRTree {
+
+  public static final int DEFAULT_NODE_CAPACITY = 16;
+
+  public PackedRTree(List<Rect> rects) {
+    this(rects, DEFAULT_NODE_CAPACITY);
+  }
+
+  /**
+   * @param nodeCapacity maximum number of children per node
+   */
+  public PackedRTree(List<Rect> rects, int nodeCapacity) {
+    if (nodeCapacity < 2)
+      throw new IllegalArgumentException("bad node capacity: " + nodeCapacity);
+    mNodeCapacity = nodeCapacity;
+    mSize = rects.size();
+
+    // Determine the number of entries at each level
+    int levels = 1;
+    int total = mSize;
+    if (mSize > 0) {
+      int n = mSize;
+      do {
+        n = (n + nodeCapacity - 1) / nodeCapacity;
+        total += n;
+        levels++;
+      } while (n > 1);
+    }
+    mLevelEnd = new int[levels];
+    mMinX = new float[total];
+    mMinY = new float[total];
+    mMaxX = new float[total];
+    mMaxY = new float[total];
+    mIndex = new int[total];
+
+    for (int i = 0; i < mSize; i++) {
+      Rect r = rects.get(i);
+      mMinX[i] = r.x;
+      mMinY[i] = r.y;
+      mMaxX[i] = r.endX();
+      mMaxY[i] = r.endY();
+      mIndex[i] = i;
+    }
+    build();
+  }
+
+  /**
+   * Get the number of rects in the tree
+   */
+  public int size() {
+    return mSize;
+  }
+
+  /**
+   * Get the bounding rect of all the rects in the tree
+   *
+   * @return bounds, or null if tree is empty
+   */
+  public Rect bounds() {
+    if (mSize == 0)
+      return null;
+    int root = mMinX.length - 1;
+    return new Rect(mMinX[root], mMinY[root], mMaxX[root] - mMinX[root],
+        mMaxY[root] - mMinY[root]);
+  }
+
+  /**
+   * Find the rects that intersect a window, in the sense of Rect.intersects()
+   *
+   * @param results where to store the indices of the rects; it is cleared
+   *                first; if null, one is constructed
+   * @return results
+   */
+  public IntArray findIntersecting(Rect window, IntArray results) {
+    return findIntersecting(window.x, window.y, window.endX(), window.endY(),
+        results);
+  }
+
+  /**
+   * Find the rects that contain a point, in the sense of Rect.contains()
+   *
+   * @param results where to store the indices of the rects; it is cleared
+   *                first; if null, one is constructed
+   * @return results
+   */
+  public IntArray findContaining(Point pt, IntArray results) {
+    results = prepareResults(results);
+    if (mSize == 0)
+      return results;
+    float x = pt.x;
+    float y = pt.y;
+    IntArray stack = mStack;
+    stack.clear();
+    stack.add(mMinX.length - 1);
+    while (!stack.isEmpty()) {
+      int node = stack.pop();
+      int first = mIndex[node];
+      int end = childrenEnd(first);
+      if (first < mSize) {
+        for (int i = first; i < end; i++)
+          if (mMinX[i] <= x && mMinY[i] <= y && mMaxX[i] >= x
+              && mMaxY[i] >= y)
+            results.add(mIndex[i]);
+      } else {
+        for (int i = first; i < end; i++)
+          if (mMinX[i] <= x && mMinY[i] <= y && mMaxX[i] >= x
+              && mMaxY[i] >= y)
+            stack.add(i);
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Find the k rects nearest to a point, as measured by Rect.distanceFrom()
+   *
+   * @param k       maximum number of rects to find
+   * @param results where to store the indices of the rects, in order of
+   *                increasing distance; it is cleared first; if null, one is
+   *                constructed
+   * @return results
+   */
+  public IntArray findNearest(Point pt, int k, IntArray results) {
+    results = prepareResults(results);
+    if (mSize == 0 || k <= 0)
+      return results;
+    float x = pt.x;
+    float y = pt.y;
+
+    // Perform a best-first traversal, using a priority queue holding both
+    // nodes and rects. When a rect reaches the front of the queue, nothing
+    // remaining can be closer to the query point
+    mQueueSize = 0;
+    pushQueue(mMinX.length - 1, 0);
+    while (mQueueSize > 0) {
+      int entry = popQueue();
+      if (entry < mSize) {
+        results.add(mIndex[entry]);
+        if (results.size() == k)
+          break;
+        continue;
+      }
+      int first = mIndex[entry];
+      int end = childrenEnd(first);
+      for (int i = first; i < end; i++)
+        pushQueue(i, squaredDistance(i, x, y));
+    }
+    return results;
+  }
+
+  private IntArray findIntersecting(float x0, float y0, float x1, float y1,
+                                    IntArray results) {
+    results = prepareResults(results);
+    if (mSize == 0)
+      return results;
+    IntArray stack = mStack;
+    stack.clear();
+    stack.add(mMinX.length - 1);
+    while (!stack.isEmpty()) {
+      int node = stack.pop();
+      int first = mIndex[node];
+      int end = childrenEnd(first);
+      // If an entry intersects the window, so does every node containing it
+      if (first < mSize) {
+        for (int i = first; i < end; i++)
+          if (mMinX[i] < x1 && mMaxX[i] > x0 && mMinY[i] < y1 && mMaxY[i] > y0)
+            results.add(mIndex[i]);
+      } else {
+        for (int i = first; i < end; i++)
+          if (mMinX[i] < x1 && mMaxX[i] > x0 && mMinY[i] < y1 && mMaxY[i] > y0)
+            stack.add(i);
+      }
+    }
+    return results;
+  }
+
+  private static IntArray prepareResults(IntArray results) {
+    if (results == null)
+      results = new IntArray();
+    results.clear();
+    return results;
+  }
+
+  /**
+   * Get the position following the last child of a node, given its first child
+   */
+  private int childrenEnd(int firstChild) {
+    int level = 0;
+    while (firstChild >= mLevelEnd[level])
+      level++;
+    return Math.min(firstChild + mNodeCapacity, mLevelEnd[level]);
+  }
+
+  /**
+   * Calculate the squared distance from a point to an entry's bounding rect;
+   * zero if the point is within it
+   */
+  private float squaredDistance(int entry, float x, float y) {
+    float dx = MyMath.clamp(x, mMinX[entry], mMaxX[entry]) - x;
+    float dy = MyMath.clamp(y, mMinY[entry], mMaxY[entry]) - y;
+    return dx * dx + dy * dy;
+  }
+
+  private void build() {
+    int start = 0;
+    int end = mSize;
+    int level = 0;
+    mLevelEnd[level++] = end;
+    if (mSize == 0)
+      return;
+    long[] keys = new long[mSize];
+    // Even a single rect gets a root node, so queries needn't treat it as a
+    // special case
+    do {
+      sortTiles(start, end, keys);
+      // Construct the parent nodes of this level's entries
+      int parent = end;
+      for (int first = start; first < end; first += mNodeCapacity, parent++) {
+        int last = Math.min(first + mNodeCapacity, end);
+        float minX = mMinX[first], minY = mMinY[first];
+        float maxX = mMaxX[first], maxY = mMaxY[first];
+        for (int i = first + 1; i < last; i++) {
+          minX = Math.min(minX, mMinX[i]);
+          minY = Math.min(minY, mMinY[i]);
+          maxX = Math.max(maxX, mMaxX[i]);
+          maxY = Math.max(maxY, mMaxY[i]);
+        }
+        mMinX[parent] = minX;
+        mMinY[parent] = minY;
+        mMaxX[parent] = maxX;
+        mMaxY[parent] = maxY;
+        mIndex[parent] = first;
+      }
+      start = end;
+      end = parent;
+      mLevelEnd[level++] = end;
+    } while (end - start > 1);
+  }
+
+  /**
+   * Reorder a level's entries so that each consecutive group of nodeCapacity
+   * entries forms a tile: the entries are sorted by x into vertical slices, and
+   * each slice is sorted by y
+   */
+  private void sortTiles(int start, int end, long[] keys) {
+    int count = end - start;
+    int nodeCount = (count + mNodeCapacity - 1) / mNodeCapacity;
+    int sliceCount = (int) Math.ceil(Math.sqrt(nodeCount));
+    int sliceSize = mNodeCapacity * ((nodeCount + sliceCount - 1) / sliceCount);
+
+    for (int i = 0; i < count; i++) {
+      int e = start + i;
+      keys[i] = sortKey(mMinX[e] + mMaxX[e], i);
+    }
+    Arrays.sort(keys, 0, count);
+    // Replace each key with one for the y coordinate of the same entry
+    for (int i = 0; i < count; i++) {
+      int j = (int) keys[i];
+      int e = start + j;
+      keys[i] = sortKey(mMinY[e] + mMaxY[e], j);
+    }
+    for (int i = 0; i < count; i += sliceSize)
+      Arrays.sort(keys, i, Math.min(i + sliceSize, count));
+
+    float[] minX = new float[count];
+    float[] minY = new float[count];
+    float[] maxX = new float[count];
+    float[] maxY = new float[count];
+    int[] index = new int[count];
+    for (int i = 0; i < count; i++) {
+      int e = start + (int) keys[i];
+      minX[i] = mMinX[e];
+      minY[i] = mMinY[e];
+      maxX[i] = mMaxX[e];
+      maxY[i] = mMaxY[e];
+      index[i] = mIndex[e];
+    }
+    System.arraycopy(minX, 0, mMinX, start, count);
+    System.arraycopy(minY, 0, mMinY, start, count);
+    System.arraycopy(maxX, 0, mMaxX, start, count);
+    System.arraycopy(maxY, 0, mMaxY, start, count);
+    System.arraycopy(index, 0, mIndex, start, count);
+  }
+
+  /**
+   * Construct a key that sorts by a float value, with a (non-negative) int
+   * payload in its low 32 bits
+   */
+  private static long sortKey(float value, int payload) {
+    int bits = Float.floatToIntBits(value);
+    // Flip the magnitude bits of negative values so the ints sort in the same
+    // order as the floats
+    bits ^= (bits >> 31) & 0x7fffffff;
+    return ((long) bits << 32) | payload;
+  }
+
+  private void pushQueue(int entry, float distance) {
+    if (mQueueSize == mQueueEntry.length) {
+      mQueueEntry = Arrays.copyOf(mQueueEntry, mQueueSize * 2);
+      mQueueDistance = Arrays.copyOf(mQueueDistance, mQueueSize * 2);
+    }
+    int i = mQueueSize++;
+    while (i > 0) {
+      int parent = (i - 1) >> 1;
+      if (mQueueDistance[parent] <= distance)
+        break;
+      mQueueEntry[i] = mQueueEntry[parent];
+      mQueueDistance[i] = mQueueDistance[parent];
+      i = parent;
+    }
+    mQueueEntry[i] = entry;
+    mQueueDistance[i] = distance;
+  }
+
+  private int popQueue() {
+    int result = mQueueEntry[0];
+    int size = --mQueueSize;
+    int entry = mQueueEntry[size];
+    float distance = mQueueDistance[size];
+    int i = 0;
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= size)
+        break;
+      if (child + 1 < size && mQueueDistance[child + 1] < mQueueDistance[child])
+        child++;
+      if (mQueueDistance[child] >= distance)
+        break;
+      mQueueEntry[i] = mQueueEntry[child];
+      mQueueDistance[i] = mQueueDistance[child];
+      i = child;
+    }
+    mQueueEntry[i] = entry;
+    mQueueDistance[i] = distance;
+    return result;
+  }
+
+  private final int mNodeCapacity;
+  private final int mSize;
+  // Position following the last entry of each level
+  private final int[] mLevelEnd;
+  private final float[] mMinX;
+  private final float[] mMinY;
+  private final float[] mMaxX;
+  private final float[] mMaxY;
+  // For rects, the index of the original rect; for nodes, the first child
+  private final int[] mIndex;
+
+  private final IntArray mStack = new IntArray();
+  private int[] mQueueEntry = new int[64];
+  private float[] mQueueDistance = new float[64];
+  private int mQueueSize;
+}
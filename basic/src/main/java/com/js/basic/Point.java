@@ -0,0 +1,139 @@
+package com.js.basic;
+
+import static com.js.basic.Tools.*;
+
+/**
+ * A point (or vector) with float coordinates.
+ * <p/>
+ * Points are Freezable; once frozen, the methods that would modify one throw
+ * IllegalMutationException. getFrozenCopy() (or Tools.frozen()) returns a
+ * FrozenPoint, which also caches its hash code. To keep points small, the
+ * frozen flag isn't volatile (it occupies what would otherwise be padding), so
+ * unlike Freezable.Mutable objects, a point frozen in place must be published
+ * safely to be shared between threads (e.g. through a final field or an
+ * AtomicSnapshot). The coordinates are public fields for speed, so freezing
+ * can't prevent them being written directly; code must only do so on points
+ * it knows to be mutable. Points compare equal if their coordinates do (in the
+ * sense of Float.equals())
+ */
+public class Point implements Freezable {
+
+  public static final Point ZERO = new FrozenPoint(0, 0);
+
+  public Point() {
+  }
+
+  public final void apply(Affine2D t) {
+    t.map(this);
+  }
+
+  public Point(float x, float y) {
+    this.x = x;
+    this.y = y;
+  }
+
+  public Point(Point point) {
+    this(point.x, point.y);
+  }
+
+  public final float x() {
+    return x;
+  }
+
+  public final float y() {
+    return y;
+  }
+
+  public final void setTo(float x, float y) {
+    mutate();
+    this.x = x;
+    this.y = y;
+  }
+
+  public final void clear() {
+    setTo(0, 0);
+  }
+
+  public final void setTo(final Point source) {
+    setTo(source.x, source.y);
+  }
+
+  public final float magnitude() {
+    return (float) Math.sqrt((x * x) + (y * y));
+  }
+
+  public final void add(Point point) {
+    mutate();
+    x += point.x;
+    y += point.y;
+  }
+
+  @Override
+  public Freezable getCopy() {
+    if (mFrozen)
+      return this;
+    return new Point(this);
+  }
+
+  @Override
+  public Freezable getMutableCopy() {
+    return new Point(this);
+  }
+
+  @Override
+  public Freezable getFrozenCopy() {
+    if (mFrozen)
+      return this;
+    return new FrozenPoint(this);
+  }
+
+  @Override
+  public void freeze() {
+    mFrozen = true;
+  }
+
+  @Override
+  public boolean isFrozen() {
+    return mFrozen;
+  }
+
+  @Override
+  public void mutate() {
+    if (mFrozen)
+      throw new IllegalMutationException();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (!(obj instanceof Point))
+      return false;
+    Point p = (Point) obj;
+    return Float.floatToIntBits(x) == Float.floatToIntBits(p.x)
+        && Float.floatToIntBits(y) == Float.floatToIntBits(p.y);
+  }
+
+  @Override
+  public int hashCode() {
+    return Float.floatToIntBits(x) * 31 + Float.floatToIntBits(y);
+  }
+
+  @Override
+  public String toString() {
+    return d(x) + " " + d(y);
+  }
+
+  public String toStringAsInts() {
+    return d((int) x, 4)+" " + d((int) y, 4);
+  }
+
+  public String dumpUnlabelled() {
+    return d(x)+" "+d(y)+" ";
+  }
+
+  public float x;
+  public float y;
+  private boolean mFrozen;
+
+}
@@ -0,0 +1,250 @@
+package com.js.basic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.js.basic.Tools.*;
+
+/**
+ * A growable sequence of points, stored as parallel arrays of x and y
+ * coordinates instead of as individual Point objects.
+ * <p/>
+ * The backing arrays are exposed (see {@link #xs()}, {@link #ys()} and
+ * {@link #offset()}) so bulk operations (e.g. those in MyMath) can be written as
+ * tight loops without any per-point allocation. Element i of the array is stored
+ * at index offset() + i of the backing arrays.
+ * <p/>
+ * A view is a PointArray that shares the storage of another PointArray; see
+ * {@link #view(int, int)}
+ */
+public final class PointArray {
+
+  private static final int DEFAULT_CAPACITY = 16;
+
+  public PointArray() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public PointArray(int capacity) {
+    if (capacity < 0)
+      throw new IllegalArgumentException();
+    mXs = new float[capacity];
+    mYs = new float[capacity];
+  }
+
+  public PointArray(List<Point> points) {
+    this(points.size());
+    for (Point pt : points)
+      add(pt.x, pt.y);
+  }
+
+  /**
+   * Construct a copy of another PointArray (which may be a view); the copy
+   * has its own storage
+   */
+  public PointArray(PointArray source) {
+    this(source.mSize);
+    System.arraycopy(source.mXs, source.mOffset, mXs, 0, source.mSize);
+    System.arraycopy(source.mYs, source.mOffset, mYs, 0, source.mSize);
+    mSize = source.mSize;
+  }
+
+  /**
+   * Construct a view of another PointArray's storage
+   */
+  private PointArray(PointArray parent, int offset, int size) {
+    mXs = parent.mXs;
+    mYs = parent.mYs;
+    mOffset = offset;
+    mSize = size;
+    mView = true;
+  }
+
+  public int size() {
+    return mSize;
+  }
+
+  public boolean isEmpty() {
+    return mSize == 0;
+  }
+
+  public float x(int index) {
+    return mXs[mOffset + checkIndex(index)];
+  }
+
+  public float y(int index) {
+    return mYs[mOffset + checkIndex(index)];
+  }
+
+  /**
+   * Construct a Point from one of the elements
+   */
+  public Point get(int index) {
+    return get(index, new Point());
+  }
+
+  /**
+   * Store one of the elements in a Point
+   *
+   * @param dest where to store the coordinates
+   * @return dest
+   */
+  public Point get(int index, Point dest) {
+    int i = mOffset + checkIndex(index);
+    dest.setTo(mXs[i], mYs[i]);
+    return dest;
+  }
+
+  public void set(int index, float x, float y) {
+    int i = mOffset + checkIndex(index);
+    mXs[i] = x;
+    mYs[i] = y;
+  }
+
+  public void set(int index, Point pt) {
+    set(index, pt.x, pt.y);
+  }
+
+  public void add(float x, float y) {
+    assertNotView();
+    if (mSize == mXs.length)
+      ensureCapacity(mSize + 1);
+    mXs[mSize] = x;
+    mYs[mSize] = y;
+    mSize++;
+  }
+
+  public void add(Point pt) {
+    add(pt.x, pt.y);
+  }
+
+  /**
+   * Append all the elements of another PointArray (which may be a view)
+   */
+  public void addAll(PointArray source) {
+    assertNotView();
+    int count = source.mSize;
+    ensureCapacity(mSize + count);
+    System.arraycopy(source.mXs, source.mOffset, mXs, mSize, count);
+    System.arraycopy(source.mYs, source.mOffset, mYs, mSize, count);
+    mSize += count;
+  }
+
+  /**
+   * Remove all elements; the storage is retained for reuse
+   */
+  public void clear() {
+    assertNotView();
+    mSize = 0;
+  }
+
+  /**
+   * Reduce the size of the array
+   *
+   * @param size new size, must not exceed the current size
+   */
+  public void truncate(int size) {
+    assertNotView();
+    if (size < 0 || size > mSize)
+      throw new IllegalArgumentException("bad size: " + size);
+    mSize = size;
+  }
+
+  /**
+   * Ensure the backing arrays can hold at least some number of elements
+   * without reallocating. Any existing views of this array will no longer
+   * share its storage if a reallocation occurs
+   */
+  public void ensureCapacity(int capacity) {
+    if (capacity <= mXs.length)
+      return;
+    assertNotView();
+    int newCapacity = Math.max(capacity, mXs.length * 2);
+    float[] xs = new float[newCapacity];
+    float[] ys = new float[newCapacity];
+    System.arraycopy(mXs, 0, xs, 0, mSize);
+    System.arraycopy(mYs, 0, ys, 0, mSize);
+    mXs = xs;
+    mYs = ys;
+  }
+
+  /**
+   * Construct a view of a contiguous range of this array's elements. The view
+   * shares storage with this array, so changes to the coordinates of one are
+   * visible in the other. A view cannot change its size
+   *
+   * @param start index of first element in view
+   * @param end   one plus index of last element in view
+   */
+  public PointArray view(int start, int end) {
+    if (start < 0 || end > mSize || start > end)
+      throw new IndexOutOfBoundsException("start " + start + " end " + end
+          + " size " + mSize);
+    return new PointArray(this, mOffset + start, end - start);
+  }
+
+  public boolean isView() {
+    return mView;
+  }
+
+  /**
+   * Get the backing array of x coordinates; the first element is at index
+   * offset()
+   */
+  public float[] xs() {
+    return mXs;
+  }
+
+  /**
+   * Get the backing array of y coordinates; the first element is at index
+   * offset()
+   */
+  public float[] ys() {
+    return mYs;
+  }
+
+  /**
+   * Get the index within the backing arrays of the first element
+   */
+  public int offset() {
+    return mOffset;
+  }
+
+  public List<Point> toList() {
+    List<Point> list = new ArrayList(mSize);
+    for (int i = mOffset; i < mOffset + mSize; i++)
+      list.add(new Point(mXs[i], mYs[i]));
+    return list;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("[");
+    for (int i = mOffset; i < mOffset + mSize; i++) {
+      sb.append(' ');
+      sb.append(d(mXs[i]));
+      sb.append(' ');
+      sb.append(d(mYs[i]));
+      sb.append(" |");
+    }
+    sb.append(']');
+    return sb.toString();
+  }
+
+  private int checkIndex(int index) {
+    if (index < 0 || index >= mSize)
+      throw new IndexOutOfBoundsException("index " + index + " size " + mSize);
+    return index;
+  }
+
+  private void assertNotView() {
+    if (mView)
+      throw new IllegalStateException("cannot resize a view");
+  }
+
+  private float[] mXs;
+  private float[] mYs;
+  private int mOffset;
+  private int mSize;
+  private boolean mView;
+}
@@ -0,0 +1,312 @@
+package com.js.basic;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A polygon, represented by its sequence of vertices; the last vertex is
+ * implicitly joined to the first.
+ * <p/>
+ * Derived data (the signed area, the bounding rect, and an index for
+ * point-in-polygon tests) is cached only once the polygon is frozen. A frozen
+ * polygon builds a slab index the first time contains() is called: the
+ * distinct vertex y coordinates divide the plane into horizontal slabs, each
+ * listing the edges that cross it, so a query only examines the edges of a
+ * single slab (found by binary search)
+ */
+public class Polygon extends Freezable.Mutable {
+
+  public Polygon() {
+    mVertices = new PointArray();
+  }
+
+  public Polygon(List<Point> vertices) {
+    mVertices = new PointArray(vertices);
+  }
+
+  public Polygon(PointArray vertices) {
+    mVertices = new PointArray(vertices);
+  }
+
+  @Override
+  public Freezable getMutableCopy() {
+    return new Polygon(mVertices);
+  }
+
+  public int size() {
+    return mVertices.size();
+  }
+
+  public float x(int index) {
+    return mVertices.x(index);
+  }
+
+  public float y(int index) {
+    return mVertices.y(index);
+  }
+
+  public Point vertex(int index) {
+    return mVertices.get(index);
+  }
+
+  public void add(float x, float y) {
+    mutate();
+    mVertices.add(x, y);
+  }
+
+  public void add(Point pt) {
+    add(pt.x, pt.y);
+  }
+
+  public void set(int index, float x, float y) {
+    mutate();
+    mVertices.set(index, x, y);
+  }
+
+  public void set(int index, Point pt) {
+    set(index, pt.x, pt.y);
+  }
+
+  /**
+   * Get a copy of the vertices
+   */
+  public PointArray vertices() {
+    return new PointArray(mVertices);
+  }
+
+  /**
+   * Calculate the signed area of the polygon; positive if its vertices are in
+   * counterclockwise order
+   */
+  public float signedArea() {
+    return mSignedArea.get();
+  }
+
+  private float calculateSignedArea() {
+    float[] xs = mVertices.xs();
+    float[] ys = mVertices.ys();
+    int n = mVertices.size();
+    double sum = 0;
+    for (int i = 0, j = n - 1; i < n; j = i, i++)
+      sum += (double) xs[j] * ys[i] - (double) xs[i] * ys[j];
+    return (float) (sum / 2);
+  }
+
+  public float area() {
+    return Math.abs(signedArea());
+  }
+
+  /**
+   * Determine if the vertices are in counterclockwise order
+   */
+  public boolean isCounterClockwise() {
+    return signedArea() > 0;
+  }
+
+  /**
+   * Calculate the centroid (center of mass) of the polygon
+   *
+   * @throws GeometryException if the polygon has (nearly) zero area
+   */
+  public Point centroid() {
+    float[] xs = mVertices.xs();
+    float[] ys = mVertices.ys();
+    int n = mVertices.size();
+    // Translate the vertices so the first is at the origin, to reduce
+    // rounding errors
+    double ox = n > 0 ? xs[0] : 0;
+    double oy = n > 0 ? ys[0] : 0;
+    double area = 0, cx = 0, cy = 0;
+    for (int i = 0, j = n - 1; i < n; j = i, i++) {
+      double x0 = xs[j] - ox, y0 = ys[j] - oy;
+      double x1 = xs[i] - ox, y1 = ys[i] - oy;
+      double cross = x0 * y1 - x1 * y0;
+      area += cross;
+      cx += (x0 + x1) * cross;
+      cy += (y0 + y1) * cross;
+    }
+    MyMath.testForZero((float) area);
+    return new Point((float) (ox + cx / (3 * area)), (float) (oy + cy
+        / (3 * area)));
+  }
+
+  /**
+   * Get the bounding rect of the vertices
+   *
+   * @return a new Rect; or null if polygon has no vertices
+   */
+  public Rect bounds() {
+    if (mVertices.isEmpty())
+      return null;
+    if (isMutable())
+      return Rect.rectContainingPoints(mVertices);
+    return new Rect(mBounds.get());
+  }
+
+  /**
+   * Determine if a point is within the polygon, using the even-odd rule.
+   * Points on the boundary may be reported as inside or outside.
+   * <p/>
+   * If the polygon is frozen, this takes O(log n + k) time, where k is the
+   * number of edges crossing the query's slab; otherwise, O(n)
+   */
+  public boolean contains(Point pt) {
+    if (isMutable())
+      return containsLinear(pt.x, pt.y);
+    SlabIndex index = mSlabIndex.get();
+    if (!index.isValid())
+      return containsLinear(pt.x, pt.y);
+    return index.contains(mVertices, pt.x, pt.y);
+  }
+
+  @Override
+  public String toString() {
+    return "Polygon" + mVertices;
+  }
+
+  private boolean containsLinear(float px, float py) {
+    float[] xs = mVertices.xs();
+    float[] ys = mVertices.ys();
+    int n = mVertices.size();
+    boolean inside = false;
+    for (int i = 0, j = n - 1; i < n; j = i, i++) {
+      if ((ys[i] > py) != (ys[j] > py)
+          && px < crossingX(xs[j], ys[j], xs[i], ys[i], py))
+        inside = !inside;
+    }
+    return inside;
+  }
+
+  /**
+   * Calculate the x coordinate where an edge crosses a horizontal line; the
+   * edge must not be horizontal
+   */
+  private static float crossingX(float x0, float y0, float x1, float y1,
+                                 float y) {
+    return x0 + (y - y0) * (x1 - x0) / (y1 - y0);
+  }
+
+  /**
+   * Index of the edges crossing each horizontal slab of the polygon
+   */
+  private static class SlabIndex {
+
+    // If the total length of the edge lists would exceed this multiple of the
+    // number of edges, the index isn't built
+    private static final int MAX_SIZE_FACTOR = 32;
+
+    public SlabIndex(PointArray vertices) {
+      int n = vertices.size();
+      float[] xs = vertices.xs();
+      float[] ys = vertices.ys();
+
+      float[] slabY = new float[n];
+      // Adding zero converts -0 to +0, which Arrays.sort() would distinguish
+      for (int i = 0; i < n; i++)
+        slabY[i] = ys[i] + 0.0f;
+      Arrays.sort(slabY);
+      int m = 0;
+      for (int i = 0; i < n; i++)
+        if (m == 0 || slabY[i] != slabY[m - 1])
+          slabY[m++] = slabY[i];
+      mSlabY = Arrays.copyOf(slabY, m);
+
+      // Count the edges crossing each slab; edge i joins vertex i-1 to i
+      int slabCount = Math.max(0, m - 1);
+      int[] start = new int[slabCount + 1];
+      long total = 0;
+      for (int i = 0, j = n - 1; i < n; j = i, i++) {
+        int lo = slabOf(Math.min(ys[i], ys[j]));
+        int hi = slabOf(Math.max(ys[i], ys[j]));
+        for (int s = lo; s < hi; s++)
+          start[s + 1]++;
+        total += hi - lo;
+      }
+      if (total > (long) MAX_SIZE_FACTOR * n + 64) {
+        mSlabStart = null;
+        mEdges = null;
+        return;
+      }
+      for (int s = 0; s < slabCount; s++)
+        start[s + 1] += start[s];
+      int[] edges = new int[(int) total];
+      int[] cursor = Arrays.copyOf(start, slabCount);
+      for (int i = 0, j = n - 1; i < n; j = i, i++) {
+        int lo = slabOf(Math.min(ys[i], ys[j]));
+        int hi = slabOf(Math.max(ys[i], ys[j]));
+        for (int s = lo; s < hi; s++)
+          edges[cursor[s]++] = i;
+      }
+      mSlabStart = start;
+      mEdges = edges;
+    }
+
+    public boolean isValid() {
+      return mEdges != null;
+    }
+
+    public boolean contains(PointArray vertices, float px, float py) {
+      int slab = slabContaining(py);
+      if (slab < 0)
+        return false;
+      float[] xs = vertices.xs();
+      float[] ys = vertices.ys();
+      int n = vertices.size();
+      boolean inside = false;
+      for (int k = mSlabStart[slab]; k < mSlabStart[slab + 1]; k++) {
+        int i = mEdges[k];
+        int j = (i == 0) ? n - 1 : i - 1;
+        if (px < crossingX(xs[j], ys[j], xs[i], ys[i], py))
+          inside = !inside;
+      }
+      return inside;
+    }
+
+    /**
+     * Find the index of a vertex y coordinate
+     */
+    private int slabOf(float y) {
+      return Arrays.binarySearch(mSlabY, y + 0.0f);
+    }
+
+    /**
+     * Find the slab containing a y coordinate, i.e. the s such that
+     * slabY[s] <= y < slabY[s+1]
+     *
+     * @return slab, or -1 if y is outside the polygon's vertical extent
+     */
+    private int slabContaining(float y) {
+      int s = Arrays.binarySearch(mSlabY, y + 0.0f);
+      if (s < 0)
+        s = -s - 2;
+      if (s < 0 || s >= mSlabY.length - 1)
+        return -1;
+      return s;
+    }
+
+    private final float[] mSlabY;
+    // Edges crossing slab s are mEdges[mSlabStart[s] ... mSlabStart[s+1]-1]
+    private final int[] mSlabStart;
+    private final int[] mEdges;
+  }
+
+  private final PointArray mVertices;
+  private final Memo<Float> mSignedArea = new Memo<Float>(this) {
+    @Override
+    protected Float compute() {
+      return calculateSignedArea();
+    }
+  };
+  private final Memo<Rect> mBounds = new Memo<Rect>(this) {
+    @Override
+    protected Rect compute() {
+      return Rect.rectContainingPoints(mVertices);
+    }
+  };
+  private final Memo<SlabIndex> mSlabIndex = new Memo<SlabIndex>(this, true) {
+    @Override
+    protected SlabIndex compute() {
+      return new SlabIndex(mVertices);
+    }
+  };
+}
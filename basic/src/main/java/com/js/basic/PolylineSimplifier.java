@@ -0,0 +1,447 @@
+package com.js.basic;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Simplifies polylines by discarding vertices.
+ * <p/>
+ * The batch methods report the vertices to keep as indices into the source
+ * array, in increasing order; the first and last vertices are always kept.
+ * None of them construct Points, or recurse: Douglas-Peucker uses an explicit
+ * stack, and Visvalingam-Whyatt uses a heap stored in primitive arrays.
+ * <p/>
+ * For input that arrives incrementally, see {@link Stream}
+ */
+public final class PolylineSimplifier {
+
+  /**
+   * Simplify a polyline using the Douglas-Peucker algorithm
+   *
+   * @param tolerance maximum distance of any discarded vertex from the
+   *                  simplified polyline
+   * @param results   where to store the indices of the kept vertices; it is
+   *                  cleared first; if null, one is constructed
+   * @return results
+   */
+  public static IntArray douglasPeucker(PointArray points, float tolerance,
+                                        IntArray results) {
+    int size = points.size();
+    boolean[] keep = new boolean[size];
+    if (size > 0) {
+      keep[0] = true;
+      keep[size - 1] = true;
+      douglasPeucker(points.xs(), points.ys(), points.offset(), 0, size - 1,
+          tolerance * tolerance, keep, new IntArray());
+    }
+    return collectKept(keep, results);
+  }
+
+  /**
+   * Simplify a polyline using the Douglas-Peucker algorithm, processing
+   * separate parts of the polyline in parallel (using a fork/join pool). The
+   * results are the same as those of douglasPeucker()
+   */
+  public static IntArray douglasPeuckerParallel(PointArray points,
+                                                float tolerance,
+                                                IntArray results) {
+    int size = points.size();
+    if (size < PARALLEL_THRESHOLD)
+      return douglasPeucker(points, tolerance, results);
+    boolean[] keep = new boolean[size];
+    keep[0] = true;
+    keep[size - 1] = true;
+    Tools.sharedForkJoinPool().invoke(new DouglasPeuckerTask(points, tolerance * tolerance, keep,
+        0, size - 1));
+    return collectKept(keep, results);
+  }
+
+  /**
+   * Simplify a polyline using the Visvalingam-Whyatt algorithm, which
+   * repeatedly discards the vertex that forms the triangle of least area with
+   * its neighbours
+   *
+   * @param minArea  vertices are discarded until every remaining triangle has
+   *                 at least this area
+   * @param results  where to store the indices of the kept vertices; it is
+   *                 cleared first; if null, one is constructed
+   * @return results
+   */
+  public static IntArray visvalingam(PointArray points, float minArea,
+                                     IntArray results) {
+    int size = points.size();
+    boolean[] keep = new boolean[size];
+    for (int i = 0; i < size; i++)
+      keep[i] = true;
+    if (size > 2)
+      new Visvalingam(points, keep).run(minArea);
+    return collectKept(keep, results);
+  }
+
+  /**
+   * Receives the vertices of a simplified polyline
+   */
+  public interface Listener {
+    /**
+     * @param index index of the vertex within the input sequence
+     */
+    void vertex(int index, float x, float y);
+  }
+
+  /**
+   * Simplifies a polyline whose vertices arrive one at a time, emitting the
+   * simplified vertices as soon as they are determined.
+   * <p/>
+   * Incoming vertices are buffered, and when the buffer is full it is
+   * simplified using Douglas-Peucker. All but the last of the kept vertices are
+   * emitted, and the buffer restarts at the last emitted vertex. As with the
+   * batch algorithm, each discarded vertex lies within the tolerance of the
+   * simplified polyline; but a vertex is emitted at least once per buffer of
+   * input, so long runs of nearly collinear vertices may produce more output
+   * than the batch algorithm would
+   */
+  public static final class Stream {
+
+    public static final int DEFAULT_BUFFER_SIZE = 256;
+
+    public Stream(float tolerance, Listener listener) {
+      this(tolerance, DEFAULT_BUFFER_SIZE, listener);
+    }
+
+    /**
+     * @param bufferSize number of vertices to buffer
+     */
+    public Stream(float tolerance, int bufferSize, Listener listener) {
+      if (bufferSize < 3)
+        throw new IllegalArgumentException("bad buffer size: " + bufferSize);
+      mSquaredTolerance = tolerance * tolerance;
+      mBufferSize = bufferSize;
+      mListener = listener;
+      mBuffer = new PointArray(bufferSize);
+      mIndices = new int[bufferSize];
+      mKeep = new boolean[bufferSize];
+    }
+
+    /**
+     * Add the next vertex of the polyline
+     */
+    public void add(float x, float y) {
+      if (mFinished)
+        throw new IllegalStateException("stream is finished");
+      int index = mInputCount++;
+      if (index == 0)
+        mListener.vertex(index, x, y);
+      mIndices[mBuffer.size()] = index;
+      mBuffer.add(x, y);
+      if (mBuffer.size() == mBufferSize)
+        flush(false);
+    }
+
+    public void add(Point pt) {
+      add(pt.x, pt.y);
+    }
+
+    /**
+     * Indicate that the last vertex has been added; any vertices still pending
+     * are emitted, including the last one
+     */
+    public void finish() {
+      if (mFinished)
+        return;
+      mFinished = true;
+      if (mBuffer.size() > 1)
+        flush(true);
+    }
+
+    /**
+     * Simplify the buffered vertices, and emit those that are final
+     *
+     * @param all if true, emit all the kept vertices; otherwise, all but the
+     *            last
+     */
+    private void flush(boolean all) {
+      int size = mBuffer.size();
+      boolean[] keep = mKeep;
+      for (int i = 0; i < size; i++)
+        keep[i] = false;
+      keep[0] = true;
+      keep[size - 1] = true;
+      douglasPeucker(mBuffer.xs(), mBuffer.ys(), 0, 0, size - 1,
+          mSquaredTolerance, keep, mStack);
+
+      // Find the last vertex to emit; if only the endpoints are kept, emit the
+      // last vertex anyway, so the buffer doesn't grow without bound
+      int last = size - 1;
+      if (!all) {
+        last--;
+        while (!keep[last])
+          last--;
+        if (last == 0)
+          last = size - 1;
+      }
+      float[] xs = mBuffer.xs();
+      float[] ys = mBuffer.ys();
+      for (int i = 1; i <= last; i++)
+        if (keep[i])
+          mListener.vertex(mIndices[i], xs[i], ys[i]);
+
+      // Restart the buffer at the last emitted vertex
+      int remaining = size - last;
+      for (int i = 0; i < remaining; i++) {
+        xs[i] = xs[last + i];
+        ys[i] = ys[last + i];
+        mIndices[i] = mIndices[last + i];
+      }
+      mBuffer.truncate(remaining);
+    }
+
+    private final float mSquaredTolerance;
+    private final int mBufferSize;
+    private final Listener mListener;
+    private final PointArray mBuffer;
+    // Index within input sequence of each buffered vertex
+    private final int[] mIndices;
+    private final boolean[] mKeep;
+    private final IntArray mStack = new IntArray();
+    private int mInputCount;
+    private boolean mFinished;
+  }
+
+  /**
+   * Apply the Douglas-Peucker algorithm to a range of vertices, whose
+   * endpoints are already marked as kept
+   *
+   * @param offset index of the first vertex in the xs and ys arrays
+   * @param stack  work stack (its contents are discarded)
+   */
+  private static void douglasPeucker(float[] xs, float[] ys, int offset,
+                                     int first, int last,
+                                     float squaredTolerance, boolean[] keep,
+                                     IntArray stack) {
+    stack.clear();
+    stack.add(first);
+    stack.add(last);
+    while (!stack.isEmpty()) {
+      last = stack.pop();
+      first = stack.pop();
+      int farthest = farthestVertex(xs, ys, offset, first, last,
+          squaredTolerance);
+      if (farthest < 0)
+        continue;
+      keep[farthest] = true;
+      stack.add(first);
+      stack.add(farthest);
+      stack.add(farthest);
+      stack.add(last);
+    }
+  }
+
+  /**
+   * Find the vertex strictly between two others that is farthest from the
+   * segment joining them
+   *
+   * @return index of the vertex, or -1 if no vertex is farther than the
+   * tolerance
+   */
+  private static int farthestVertex(float[] xs, float[] ys, int offset,
+                                    int first, int last,
+                                    float squaredTolerance) {
+    float x0 = xs[offset + first], y0 = ys[offset + first];
+    float x1 = xs[offset + last], y1 = ys[offset + last];
+    int farthest = -1;
+    float maxDistance = squaredTolerance;
+    for (int i = first + 1; i < last; i++) {
+      float distance = MyMath.squaredPtDistanceToSegment(xs[offset + i],
+          ys[offset + i], x0, y0, x1, y1);
+      if (distance > maxDistance) {
+        maxDistance = distance;
+        farthest = i;
+      }
+    }
+    return farthest;
+  }
+
+  private static IntArray collectKept(boolean[] keep, IntArray results) {
+    if (results == null)
+      results = new IntArray();
+    results.clear();
+    for (int i = 0; i < keep.length; i++)
+      if (keep[i])
+        results.add(i);
+    return results;
+  }
+
+  /**
+   * Task to apply the Douglas-Peucker algorithm to a range of vertices,
+   * splitting it into two tasks if it's large enough
+   */
+  private static class DouglasPeuckerTask extends RecursiveAction {
+
+    public DouglasPeuckerTask(PointArray points, float squaredTolerance,
+                              boolean[] keep, int first, int last) {
+      mPoints = points;
+      mSquaredTolerance = squaredTolerance;
+      mKeep = keep;
+      mFirst = first;
+      mLast = last;
+    }
+
+    @Override
+    protected void compute() {
+      float[] xs = mPoints.xs();
+      float[] ys = mPoints.ys();
+      int offset = mPoints.offset();
+      if (mLast - mFirst < PARALLEL_THRESHOLD) {
+        douglasPeucker(xs, ys, offset, mFirst, mLast, mSquaredTolerance,
+            mKeep, new IntArray());
+        return;
+      }
+      int farthest = farthestVertex(xs, ys, offset, mFirst, mLast,
+          mSquaredTolerance);
+      if (farthest < 0)
+        return;
+      mKeep[farthest] = true;
+      invokeAll(new DouglasPeuckerTask(mPoints, mSquaredTolerance, mKeep,
+          mFirst, farthest), new DouglasPeuckerTask(mPoints,
+          mSquaredTolerance, mKeep, farthest, mLast));
+    }
+
+    private final PointArray mPoints;
+    private final float mSquaredTolerance;
+    private final boolean[] mKeep;
+    private final int mFirst;
+    private final int mLast;
+  }
+
+  /**
+   * State for the Visvalingam-Whyatt algorithm: the remaining vertices form a
+   * doubly-linked list, and the interior ones are in a min-heap ordered by
+   * effective area
+   */
+  private static class Visvalingam {
+
+    public Visvalingam(PointArray points, boolean[] keep) {
+      int size = points.size();
+      mXs = points.xs();
+      mYs = points.ys();
+      mOffset = points.offset();
+      mKeep = keep;
+      mPrev = new int[size];
+      mNext = new int[size];
+      mArea = new float[size];
+      mHeap = new int[size];
+      mHeapPosition = new int[size];
+      for (int i = 0; i < size; i++) {
+        mPrev[i] = i - 1;
+        mNext[i] = i + 1;
+      }
+      for (int i = 1; i < size - 1; i++) {
+        mArea[i] = triangleArea(i - 1, i, i + 1);
+        mHeap[mHeapSize] = i;
+        mHeapPosition[i] = mHeapSize;
+        mHeapSize++;
+      }
+      for (int i = mHeapSize / 2 - 1; i >= 0; i--)
+        siftDown(i);
+    }
+
+    public void run(float minArea) {
+      float maxRemovedArea = 0;
+      while (mHeapSize > 0) {
+        int v = mHeap[0];
+        if (mArea[v] >= minArea)
+          break;
+        removeTop();
+        mKeep[v] = false;
+        // A neighbour's effective area is never less than that of a vertex
+        // removed before it
+        maxRemovedArea = Math.max(maxRemovedArea, mArea[v]);
+        int prev = mPrev[v];
+        int next = mNext[v];
+        mNext[prev] = next;
+        mPrev[next] = prev;
+        updateArea(prev, maxRemovedArea);
+        updateArea(next, maxRemovedArea);
+      }
+    }
+
+    private void updateArea(int v, float minimum) {
+      // Endpoints aren't in the heap
+      if (mPrev[v] < 0 || mNext[v] >= mPrev.length)
+        return;
+      float area = Math.max(minimum, triangleArea(mPrev[v], v, mNext[v]));
+      float oldArea = mArea[v];
+      mArea[v] = area;
+      int position = mHeapPosition[v];
+      if (area < oldArea)
+        siftUp(position);
+      else
+        siftDown(position);
+    }
+
+    private float triangleArea(int a, int b, int c) {
+      float ax = mXs[mOffset + a], ay = mYs[mOffset + a];
+      float cross = (mXs[mOffset + b] - ax) * (mYs[mOffset + c] - ay)
+          - (mXs[mOffset + c] - ax) * (mYs[mOffset + b] - ay);
+      return Math.abs(cross) * .5f;
+    }
+
+    private void removeTop() {
+      mHeapSize--;
+      if (mHeapSize > 0) {
+        setHeap(0, mHeap[mHeapSize]);
+        siftDown(0);
+      }
+    }
+
+    private void siftUp(int position) {
+      int v = mHeap[position];
+      float area = mArea[v];
+      while (position > 0) {
+        int parent = (position - 1) >> 1;
+        if (mArea[mHeap[parent]] <= area)
+          break;
+        setHeap(position, mHeap[parent]);
+        position = parent;
+      }
+      setHeap(position, v);
+    }
+
+    private void siftDown(int position) {
+      int v = mHeap[position];
+      float area = mArea[v];
+      while (true) {
+        int child = 2 * position + 1;
+        if (child >= mHeapSize)
+          break;
+        if (child + 1 < mHeapSize
+            && mArea[mHeap[child + 1]] < mArea[mHeap[child]])
+          child++;
+        if (mArea[mHeap[child]] >= area)
+          break;
+        setHeap(position, mHeap[child]);
+        position = child;
+      }
+      setHeap(position, v);
+    }
+
+    private void setHeap(int position, int v) {
+      mHeap[position] = v;
+      mHeapPosition[v] = position;
+    }
+
+    private final float[] mXs;
+    private final float[] mYs;
+    private final int mOffset;
+    private final boolean[] mKeep;
+    private final int[] mPrev;
+    private final int[] mNext;
+    // Effective area of each vertex
+    private final float[] mArea;
+    private final int[] mHeap;
+    private final int[] mHeapPosition;
+    private int mHeapSize;
+  }
+
+  // Ranges at least this long are processed in parallel
+  private static final int PARALLEL_THRESHOLD = 100000;
+}
@@ -0,0 +1,189 @@
+package com.js.basic;
+
+/**
+ * Finds the real roots of quadratic and cubic polynomials.
+ * <p/>
+ * Unlike MyMath.solveQuadratic(), these methods never throw: a system with no
+ * real roots simply reports a root count of zero. Roots are reported in
+ * increasing order, without repetition; non-finite roots (e.g. from a leading
+ * coefficient that is nearly zero) are discarded. Arithmetic is done in double
+ * precision, with the roots rounded to float.
+ * <p/>
+ * The batch methods read packed coefficients (highest degree first) from a
+ * primitive array, and write the roots of system i to
+ * roots[i * degree ... i * degree + rootCounts[i] - 1]
+ */
+public final class PolynomialSolver {
+
+  /**
+   * Find the real roots of a x^2 + b x + c = 0
+   *
+   * @param roots  where to store the roots
+   * @param offset index within roots of the first root
+   * @return the number of roots (0, 1, or 2); 0 if a and b are both zero
+   */
+  public static int solveQuadratic(float a, float b, float c, float[] roots,
+                                   int offset) {
+    return quadratic(a, b, c, roots, offset);
+  }
+
+  /**
+   * Find the real roots of a x^3 + b x^2 + c x + d = 0
+   *
+   * @param roots  where to store the roots
+   * @param offset index within roots of the first root
+   * @return the number of roots (0 to 3)
+   */
+  public static int solveCubic(float a, float b, float c, float d,
+                               float[] roots, int offset) {
+    return cubic(a, b, c, d, roots, offset);
+  }
+
+  /**
+   * Solve a batch of quadratics
+   *
+   * @param coefficients a, b, c of each system, packed consecutively
+   * @param count        number of systems
+   * @param roots        where to store the roots; must have room for 2 *
+   *                     count
+   * @param rootCounts   where to store the number of roots of each system;
+   *                     must have room for count
+   */
+  public static void solveQuadratics(float[] coefficients, int count,
+                                     float[] roots, int[] rootCounts) {
+    verifyCapacity(coefficients, count, 3, roots, rootCounts);
+    for (int i = 0, j = 0; i < count; i++, j += 3)
+      rootCounts[i] = solveQuadratic(coefficients[j], coefficients[j + 1],
+          coefficients[j + 2], roots, i * 2);
+  }
+
+  /**
+   * Solve a batch of cubics
+   *
+   * @param coefficients a, b, c, d of each system, packed consecutively
+   * @param count        number of systems
+   * @param roots        where to store the roots; must have room for 3 *
+   *                     count
+   * @param rootCounts   where to store the number of roots of each system;
+   *                     must have room for count
+   */
+  public static void solveCubics(float[] coefficients, int count,
+                                 float[] roots, int[] rootCounts) {
+    verifyCapacity(coefficients, count, 4, roots, rootCounts);
+    for (int i = 0, j = 0; i < count; i++, j += 4)
+      rootCounts[i] = solveCubic(coefficients[j], coefficients[j + 1],
+          coefficients[j + 2], coefficients[j + 3], roots, i * 3);
+  }
+
+  private static void verifyCapacity(float[] coefficients, int count,
+                                     int stride, float[] roots, int[] rootCounts) {
+    if (count < 0 || coefficients.length < count * stride
+        || roots.length < count * (stride - 1) || rootCounts.length < count)
+      throw new IllegalArgumentException("arrays too small for " + count
+          + " systems");
+  }
+
+  private static int quadratic(double a, double b, double c,
+                               float[] roots, int offset) {
+    if (a == 0) {
+      if (b == 0)
+        return 0;
+      return insert(-c / b, roots, offset, 0);
+    }
+    double discriminant = b * b - 4 * a * c;
+    if (discriminant < 0)
+      return 0;
+    if (discriminant == 0)
+      return insert(-b / (2 * a), roots, offset, 0);
+    // Avoid cancellation between -b and the square root by computing the
+    // larger root first, and deriving the other from their product c / a
+    double q = -0.5 * (b + Math.copySign(Math.sqrt(discriminant), b));
+    int count = insert(q / a, roots, offset, 0);
+    return insert(c / q, roots, offset, count);
+  }
+
+  private static int cubic(double a, double b, double c, double d,
+                           float[] roots, int offset) {
+    double magnitude = Math.max(Math.max(Math.abs(b), Math.abs(c)),
+        Math.abs(d));
+    // If the leading coefficient is negligible, the third root is too large
+    // to be useful (or representable as a float); solve the quadratic instead
+    if (Math.abs(a) <= DEGENERATE_CUBIC * magnitude)
+      return quadratic(b, c, d, roots, offset);
+
+    // Reduce to the monic form x^3 + a2 x^2 + a1 x + a0, and apply the
+    // trigonometric or Cardano solution
+    double a2 = b / a, a1 = c / a, a0 = d / a;
+    double shift = a2 / 3;
+    double q = (a2 * a2 - 3 * a1) / 9;
+    double r = (2 * a2 * a2 * a2 - 9 * a2 * a1 + 27 * a0) / 54;
+    double q3 = q * q * q;
+    double difference = r * r - q3;
+    int count = 0;
+    if (Math.abs(difference) <= REPEATED_ROOT * Math.max(r * r, Math.abs(q3))) {
+      // A repeated root (or, if q is zero, a triple one)
+      double u = -Math.cbrt(r);
+      count = insert(polish(2 * u - shift, a, b, c, d), roots, offset, count);
+      if (u != 0)
+        count = insert(polish(-u - shift, a, b, c, d), roots, offset, count);
+    } else if (difference < 0) {
+      // Three distinct roots
+      double theta = Math.acos(DMath.clamp(r / Math.sqrt(q3), -1, 1));
+      double scale = -2 * Math.sqrt(q);
+      for (int k = -1; k <= 1; k++)
+        count = insert(polish(scale * Math.cos((theta + k * 2 * Math.PI) / 3)
+            - shift, a, b, c, d), roots, offset, count);
+    } else {
+      // One real root
+      double u = -Math.copySign(Math.cbrt(Math.abs(r) + Math.sqrt(difference)),
+          r);
+      double x = u + (u == 0 ? 0 : q / u) - shift;
+      count = insert(polish(x, a, b, c, d), roots, offset, count);
+    }
+    return count;
+  }
+
+  /**
+   * Improve a root of a cubic with a Newton step, if it reduces the residual
+   */
+  private static double polish(double x, double a, double b, double c,
+                               double d) {
+    double value = ((a * x + b) * x + c) * x + d;
+    double slope = (3 * a * x + 2 * b) * x + c;
+    if (slope == 0)
+      return x;
+    double improved = x - value / slope;
+    double improvedValue = ((a * improved + b) * improved + c) * improved + d;
+    return Math.abs(improvedValue) < Math.abs(value) ? improved : x;
+  }
+
+  /**
+   * Insert a root into the sorted roots stored so far, unless it's not finite
+   * (as a float) or is a duplicate
+   *
+   * @param count number of roots stored so far
+   * @return the new number of roots
+   */
+  private static int insert(double value, float[] roots, int offset, int count) {
+    float root = (float) value;
+    if (Float.isNaN(root) || Float.isInfinite(root))
+      return count;
+    int j = offset + count;
+    while (j > offset && roots[j - 1] > root)
+      j--;
+    if (j > offset && roots[j - 1] == root)
+      return count;
+    System.arraycopy(roots, j, roots, j + 1, offset + count - j);
+    roots[j] = root;
+    return count + 1;
+  }
+
+  // Relative magnitude of a leading coefficient below which a cubic is
+  // treated as a quadratic
+  private static final double DEGENERATE_CUBIC = 1e-9;
+  // Relative tolerance for detecting a repeated root of a cubic
+  private static final double REPEATED_ROOT = 1e-12;
+
+  private PolynomialSolver() {
+  }
+}
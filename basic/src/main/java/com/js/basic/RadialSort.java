@@ -0,0 +1,260 @@
+package com.js.basic;
+
+import java.util.Arrays;
+
+/**
+ * Orders points by their direction from a pivot point, without evaluating
+ * trigonometric functions.
+ * <p/>
+ * Directions are measured by pseudo angle (see MyMath.pseudoPolarAngle()),
+ * normalized to the range [0, 8): zero is the positive x axis, and the angle
+ * increases counterclockwise. Points in the same direction are ordered by
+ * increasing distance from the pivot; points coincident with the pivot come
+ * first. Directions that differ by less than float precision are treated as
+ * equal.
+ * <p/>
+ * Each point is reduced to a long key containing its pseudo angle and its
+ * index, so the sort is a primitive Arrays.sort() with no comparator
+ */
+public final class RadialSort {
+
+  /**
+   * Calculate the pseudo angle of a ray, in the range [0, 8); unlike
+   * MyMath.pseudoPolarAngle(), this returns zero for the zero vector instead
+   * of throwing an exception
+   */
+  public static float pseudoAngle(float x, float y) {
+    if (y < 0) {
+      float angle = PSEUDO_ANGLE_RANGE - pseudoAngleAboveAxis(x, -y);
+      // Rounding may have produced the (excluded) upper limit
+      return angle < PSEUDO_ANGLE_RANGE ? angle : MAX_PSEUDO_ANGLE;
+    }
+    return pseudoAngleAboveAxis(x, y);
+  }
+
+  /**
+   * Sort points by direction from a pivot
+   *
+   * @param results where to store the indices of the points in sorted order;
+   *                it is cleared first; if null, one is constructed
+   * @return results
+   */
+  public static IntArray sort(PointArray points, Point pivot, IntArray results) {
+    if (results == null)
+      results = new IntArray();
+    results.clear();
+    long[] keys = sortedKeys(points, pivot);
+    results.ensureCapacity(keys.length);
+    for (long key : keys)
+      results.add(indexOf(key));
+    return results;
+  }
+
+  /**
+   * Calculate the pseudo angle of a ray with y >= 0, in the range [0, 4]
+   */
+  private static float pseudoAngleAboveAxis(float x, float y) {
+    if (x >= 0) {
+      if (x >= y)
+        return x == 0 ? 0 : y / x;
+      return 2 - x / y;
+    }
+    if (y > -x)
+      return 2 - x / y;
+    return 4 + y / x;
+  }
+
+  /**
+   * Construct the sorted keys for a set of points; the high 32 bits of each
+   * key hold its pseudo angle, the low 32 bits its index
+   */
+  private static long[] sortedKeys(PointArray points, Point pivot) {
+    int count = points.size();
+    float[] xs = points.xs();
+    float[] ys = points.ys();
+    int offset = points.offset();
+    float px = pivot.x, py = pivot.y;
+    long[] keys = new long[count];
+    for (int i = 0; i < count; i++) {
+      float angle = pseudoAngle(xs[offset + i] - px, ys[offset + i] - py);
+      // The angle is nonnegative, so its bits sort in the same order as it
+      // does; adding zero converts -0 to +0
+      keys[i] = ((long) Float.floatToIntBits(angle + 0.0f) << 32) | i;
+    }
+    Arrays.sort(keys);
+
+    // Sort each run of keys with equal angles by distance, using the same
+    // kind of key with distance in place of angle
+    long[] runKeys = null;
+    int runStart = 0;
+    for (int i = 1; i <= count; i++) {
+      if (i < count && (keys[i] >>> 32) == (keys[runStart] >>> 32))
+        continue;
+      int runLength = i - runStart;
+      if (runLength > 1) {
+        if (runKeys == null || runKeys.length < runLength)
+          runKeys = new long[Math.max(runLength, 16)];
+        for (int j = 0; j < runLength; j++) {
+          int index = indexOf(keys[runStart + j]);
+          float distance = MyMath.squaredDistanceBetween(xs[offset + index],
+              ys[offset + index], px, py);
+          runKeys[j] = ((long) Float.floatToIntBits(distance) << 32) | index;
+        }
+        Arrays.sort(runKeys, 0, runLength);
+        for (int j = 0; j < runLength; j++)
+          keys[runStart + j] = (keys[runStart + j] & ANGLE_MASK)
+              | indexOf(runKeys[j]);
+      }
+      runStart = i;
+    }
+    return keys;
+  }
+
+  private static int indexOf(long key) {
+    return (int) key;
+  }
+
+  private static float angleOf(long key) {
+    return Float.intBitsToFloat((int) (key >>> 32));
+  }
+
+  /**
+   * Iterates over points in order of direction from a pivot, optionally
+   * starting from a particular direction and wrapping around. Points
+   * coincident with the pivot are reported first, regardless of the starting
+   * direction.
+   * <p/>
+   * Typical use is in sweep-line algorithms (visibility, hull construction)
+   * that process the points ray by ray; see nextRay()
+   */
+  public static class Sweep {
+
+    public Sweep(PointArray points, Point pivot) {
+      this(points, pivot, 0);
+    }
+
+    /**
+     * @param startAngle pseudo angle (in [0, 8)) at which to start the sweep
+     */
+    public Sweep(PointArray points, Point pivot, float startAngle) {
+      if (!(startAngle >= 0 && startAngle < PSEUDO_ANGLE_RANGE))
+        throw new IllegalArgumentException("bad start angle: " + startAngle);
+      mPoints = points;
+      mPivot = new Point(pivot);
+      mKeys = sortedKeys(points, pivot);
+      int count = mKeys.length;
+      int coincident = 0;
+      while (coincident < count && isCoincident(indexOf(mKeys[coincident])))
+        coincident++;
+      mCoincidentCount = coincident;
+      int start = coincident;
+      while (start < count && angleOf(mKeys[start]) < startAngle)
+        start++;
+      mStart = start;
+    }
+
+    public int size() {
+      return mKeys.length;
+    }
+
+    public boolean hasNext() {
+      return mCursor < mKeys.length;
+    }
+
+    /**
+     * Get the index of the next point
+     */
+    public int next() {
+      if (!hasNext())
+        throw new IllegalStateException();
+      mCurrent = position(mCursor++);
+      return indexOf(mKeys[mCurrent]);
+    }
+
+    /**
+     * Get the pseudo angle of the point most recently returned by next(); zero
+     * if it's coincident with the pivot
+     */
+    public float angle() {
+      if (mCurrent < 0)
+        throw new IllegalStateException();
+      return angleOf(mKeys[mCurrent]);
+    }
+
+    /**
+     * Determine if the point most recently returned by next() is coincident
+     * with the pivot
+     */
+    public boolean coincident() {
+      if (mCurrent < 0)
+        throw new IllegalStateException();
+      return mCurrent < mCoincidentCount;
+    }
+
+    /**
+     * Get the next group of points lying in the same direction from the pivot
+     * (or the group of points coincident with the pivot), ordered by
+     * increasing distance
+     *
+     * @param results where to store the point indices; it is cleared first;
+     *                if null, one is constructed
+     * @return results
+     */
+    public IntArray nextRay(IntArray results) {
+      if (results == null)
+        results = new IntArray();
+      results.clear();
+      results.add(next());
+      boolean coincident = coincident();
+      long angleBits = mKeys[mCurrent] & ANGLE_MASK;
+      while (hasNext()) {
+        int p = position(mCursor);
+        if ((p < mCoincidentCount) != coincident
+            || (mKeys[p] & ANGLE_MASK) != angleBits)
+          break;
+        results.add(next());
+      }
+      return results;
+    }
+
+    /**
+     * Restart the sweep from the beginning
+     */
+    public void reset() {
+      mCursor = 0;
+      mCurrent = -1;
+    }
+
+    /**
+     * Convert a step of the sweep to a position within the sorted keys
+     */
+    private int position(int step) {
+      if (step < mCoincidentCount)
+        return step;
+      int p = mStart + step - mCoincidentCount;
+      if (p >= mKeys.length)
+        p -= mKeys.length - mCoincidentCount;
+      return p;
+    }
+
+    private boolean isCoincident(int index) {
+      return mPoints.x(index) == mPivot.x && mPoints.y(index) == mPivot.y;
+    }
+
+    private final PointArray mPoints;
+    private final Point mPivot;
+    private final long[] mKeys;
+    private final int mCoincidentCount;
+    private final int mStart;
+    private int mCursor;
+    private int mCurrent = -1;
+  }
+
+  private static final float PSEUDO_ANGLE_RANGE = MyMath.PSEUDO_ANGLE_RANGE;
+  private static final float MAX_PSEUDO_ANGLE = Math.nextAfter(
+      PSEUDO_ANGLE_RANGE, 0);
+  private static final long ANGLE_MASK = 0xffffffff00000000L;
+
+  private RadialSort() {
+  }
+}
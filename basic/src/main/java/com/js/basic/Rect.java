@@ -0,0 +1,396 @@
+package com.js.basic;
+
+import java.util.List;
+
+import static com.js.basic.Tools.*;
+
+/**
+ * An axis-aligned rectangle with float coordinates, with (x,y) its bottom left
+ * corner.
+ * <p/>
+ * Like Points, Rects are Freezable, with a frozen flag that isn't volatile
+ * (see Point); getFrozenCopy() (or Tools.frozen()) returns a FrozenRect, which
+ * also caches its hash code. Its public fields must only be written directly
+ * if the rectangle is known to be mutable
+ */
+public class Rect implements Freezable {
+
+  public float midX() {
+    return (x + width * .5f);
+  }
+
+  public float midY() {
+    return (y + height * .5f);
+  }
+
+  public float maxDim() {
+    return Math.max(width, height);
+  }
+
+  public float minDim() {
+    return Math.min(width, height);
+  }
+
+  /**
+   * Determine if an object is a Rect with the same fields, in the sense of
+   * Float.equals() (so NaN fields can compare equal, and 0 and -0 don't)
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (!(obj instanceof Rect))
+      return false;
+    Rect r = (Rect) obj;
+    return Float.floatToIntBits(x) == Float.floatToIntBits(r.x)
+        && Float.floatToIntBits(y) == Float.floatToIntBits(r.y)
+        && Float.floatToIntBits(width) == Float.floatToIntBits(r.width)
+        && Float.floatToIntBits(height) == Float.floatToIntBits(r.height);
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = Float.floatToIntBits(x);
+    hash = hash * 31 + Float.floatToIntBits(y);
+    hash = hash * 31 + Float.floatToIntBits(width);
+    hash = hash * 31 + Float.floatToIntBits(height);
+    return hash;
+  }
+
+  @Override
+  public Freezable getCopy() {
+    if (mFrozen)
+      return this;
+    return new Rect(this);
+  }
+
+  @Override
+  public Freezable getMutableCopy() {
+    return new Rect(this);
+  }
+
+  @Override
+  public Freezable getFrozenCopy() {
+    if (mFrozen)
+      return this;
+    return new FrozenRect(this);
+  }
+
+  @Override
+  public void freeze() {
+    mFrozen = true;
+  }
+
+  @Override
+  public boolean isFrozen() {
+    return mFrozen;
+  }
+
+  @Override
+  public void mutate() {
+    if (mFrozen)
+      throw new IllegalMutationException();
+  }
+
+  public Rect(float x, float y, float w, float h) {
+    this.x = x;
+    this.y = y;
+    this.width = w;
+    this.height = h;
+  }
+
+  public void setTo(Rect r) {
+    setTo(r.x, r.y, r.width, r.height);
+  }
+
+  public void setTo(float x, float y, float w, float h) {
+    mutate();
+    this.x = x;
+    this.y = y;
+    this.width = w;
+    this.height = h;
+  }
+
+  public String toString(boolean digitsOnly) {
+    return toString(new StringBuilder(), digitsOnly).toString();
+  }
+
+  /**
+   * Append a description of the rectangle to a StringBuilder
+   *
+   * @return sb
+   */
+  public StringBuilder toString(StringBuilder sb, boolean digitsOnly) {
+    if (!digitsOnly)
+      sb.append("(pos=");
+    sb.append(d(x)).append(' ').append(d(y));
+    if (!digitsOnly)
+      sb.append(" size=");
+    sb.append(d(width)).append(' ').append(d(height));
+    if (!digitsOnly)
+      sb.append(")");
+    return sb;
+  }
+
+  public String toString() {
+    return toString(false);
+  }
+
+  public Rect() {
+  }
+
+  /**
+   * Construct smallest rectangle containing two points
+   * 
+   * @param pt1
+   * @param pt2
+   */
+  public Rect(Point pt1, Point pt2) {
+    x = Math.min(pt1.x, pt2.x);
+    y = Math.min(pt1.y, pt2.y);
+    width = Math.max(pt1.x, pt2.x) - x;
+    height = Math.max(pt1.y, pt2.y) - y;
+  }
+
+  public Rect(Rect r) {
+    this(r.x, r.y, r.width, r.height);
+  }
+
+  public Point bottomRight() {
+    return bottomRight(null);
+  }
+
+  /**
+   * @param dest if not null, where to store the result
+   * @return the bottom right corner
+   */
+  public Point bottomRight(Point dest) {
+    return MyMath.store(endX(), y, dest);
+  }
+
+  public void inset(float dx, float dy) {
+    mutate();
+    x += dx;
+    y += dy;
+    width -= 2 * dx;
+    height -= 2 * dy;
+  }
+
+  public Point topLeft() {
+    return topLeft(null);
+  }
+
+  public Point topLeft(Point dest) {
+    return MyMath.store(x, endY(), dest);
+  }
+
+  public Point bottomLeft() {
+    return bottomLeft(null);
+  }
+
+  public Point bottomLeft(Point dest) {
+    return MyMath.store(x, y, dest);
+  }
+
+  public Point topRight() {
+    return topRight(null);
+  }
+
+  public Point topRight(Point dest) {
+    return MyMath.store(endX(), endY(), dest);
+  }
+
+  public float endX() {
+    return x + width;
+  }
+
+  public float endY() {
+    return y + height;
+  }
+
+  public boolean contains(Rect r) {
+    return x <= r.x && y <= r.y && endX() >= r.endX() && endY() >= r.endY();
+  }
+
+  public void include(Rect r) {
+    include(r.x, r.endY());
+    include(r.endX(), r.y);
+  }
+
+  public void include(Point pt) {
+    include(pt.x, pt.y);
+  }
+
+  public void include(float px, float py) {
+    mutate();
+    float ex = endX(), ey = endY();
+    x = Math.min(x, px);
+    y = Math.min(y, py);
+    ex = Math.max(ex, px);
+    ey = Math.max(ey, py);
+    width = ex - x;
+    height = ey - y;
+  }
+
+  public float distanceFrom(Point pt) {
+    float dx = MyMath.clamp(pt.x, x, endX()) - pt.x;
+    float dy = MyMath.clamp(pt.y, y, endY()) - pt.y;
+    return (float) Math.sqrt(dx * dx + dy * dy);
+  }
+
+  /**
+   * Find the nearest point within the rectangle to a query point
+   * 
+   * @param queryPoint
+   */
+  public Point nearestPointTo(Point queryPoint) {
+    return nearestPointTo(queryPoint, null);
+  }
+
+  /**
+   * Find the nearest point within the rectangle to a query point
+   *
+   * @param dest if not null, where to store the result
+   * @return the nearest point
+   */
+  public Point nearestPointTo(Point queryPoint, Point dest) {
+    return MyMath.store(MyMath.clamp(queryPoint.x, x, endX()), MyMath.clamp(
+        queryPoint.y, y, endY()), dest);
+  }
+
+  public void translate(float dx, float dy) {
+    mutate();
+    x += dx;
+    y += dy;
+  }
+
+  public Point midPoint() {
+    return midPoint(null);
+  }
+
+  public Point midPoint(Point dest) {
+    return MyMath.store(midX(), midY(), dest);
+  }
+
+  public boolean contains(Point pt) {
+    return x <= pt.x && y <= pt.y && endX() >= pt.x && endY() >= pt.y;
+  }
+
+  public void translate(Point tr) {
+    translate(tr.x, tr.y);
+  }
+
+  /**
+   * Scale x,y,width,height by factor
+   * 
+   * @param f
+   */
+  public void scale(float f) {
+    mutate();
+    x *= f;
+    y *= f;
+    width *= f;
+    height *= f;
+  }
+
+  public void snapToGrid(float gridSize) {
+    mutate();
+    float x2 = endX();
+    float y2 = endY();
+    x = MyMath.snapToGrid(x, gridSize);
+    y = MyMath.snapToGrid(y, gridSize);
+    width = MyMath.snapToGrid(x2, gridSize) - x;
+    height = MyMath.snapToGrid(y2, gridSize) - y;
+  }
+
+  /**
+   * Get point for corner of rectangle
+   * 
+   * @param i
+   *          corner number (0..3), bottomleft ccw to topleft
+   * @return corner
+   */
+  public Point corner(int i) {
+    return corner(i, null);
+  }
+
+  /**
+   * Get point for corner of rectangle
+   *
+   * @param i    corner number (0..3), bottomleft ccw to topleft
+   * @param dest if not null, where to store the corner
+   * @return corner
+   */
+  public Point corner(int i, Point dest) {
+    switch (i) {
+    default:
+      throw new IllegalArgumentException();
+    case 0:
+      return bottomLeft(dest);
+    case 1:
+      return bottomRight(dest);
+    case 2:
+      return topRight(dest);
+    case 3:
+      return topLeft(dest);
+    }
+  }
+
+  public static Rect rectContainingPoints(List<Point> a) {
+    if (a.isEmpty())
+      throw new IllegalArgumentException();
+    float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY;
+    float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+    for (Point pt : a) {
+      minX = Math.min(minX, pt.x);
+      minY = Math.min(minY, pt.y);
+      maxX = Math.max(maxX, pt.x);
+      maxY = Math.max(maxY, pt.y);
+    }
+    return new Rect(minX, minY, maxX - minX, maxY - minY);
+  }
+
+  public static Rect rectContainingPoints(PointArray a) {
+    if (a.isEmpty())
+      throw new IllegalArgumentException();
+    float[] xs = a.xs();
+    float[] ys = a.ys();
+    int start = a.offset();
+    int end = start + a.size();
+    float minX = xs[start], minY = ys[start];
+    float maxX = minX, maxY = minY;
+    for (int i = start + 1; i < end; i++) {
+      float x = xs[i];
+      float y = ys[i];
+      if (x < minX)
+        minX = x;
+      else if (x > maxX)
+        maxX = x;
+      if (y < minY)
+        minY = y;
+      else if (y > maxY)
+        maxY = y;
+    }
+    return new Rect(minX, minY, maxX - minX, maxY - minY);
+  }
+
+  public static Rect rectContainingPoints(Point s1, Point s2) {
+    return new Rect(s1, s2);
+  }
+
+  public boolean intersects(Rect t) {
+    return (x < t.endX() && endX() > t.x && y < t.endY() && endY() > t.y);
+  }
+
+  public Point size() {
+    return size(null);
+  }
+
+  public Point size(Point dest) {
+    return MyMath.store(width, height, dest);
+  }
+
+  public float x, y, width, height;
+  private boolean mFrozen;
+
+}
\ No newline at end of file
@@ -0,0 +1,275 @@
+package com.js.basic;
+
+/**
+ * Orientation and incircle predicates whose signs are always correct, after
+ * J. R. Shewchuk, "Adaptive Precision Floating-Point Arithmetic and Fast
+ * Robust Geometric Predicates" (1997).
+ * <p/>
+ * Each predicate first evaluates its determinant in ordinary double
+ * arithmetic, and compares the result with a bound on the rounding error; in
+ * the common case that the sign is certain, that result is returned. Only
+ * near-degenerate inputs (e.g. almost collinear points) fall through to an
+ * exact evaluation using floating-point expansions: sums of nonoverlapping
+ * doubles that represent a value without error.
+ * <p/>
+ * Float inputs (Points) are converted to double without loss, so the
+ * predicates are exact for them too. Sign conventions follow
+ * MyMath.sideOfLine()
+ */
+public final strictfp class RobustPredicates {
+
+  /**
+   * Determine the orientation of three points
+   *
+   * @return a value that is positive if a, b, c are in counterclockwise order
+   * (i.e. c lies to the left of the directed line a->b), negative if
+   * clockwise, and zero if they are collinear; its magnitude approximates
+   * twice the area of the triangle
+   */
+  public static double orient2d(double ax, double ay, double bx, double by,
+                                double cx, double cy) {
+    double detLeft = (ax - cx) * (by - cy);
+    double detRight = (ay - cy) * (bx - cx);
+    double det = detLeft - detRight;
+    double detSum;
+    if (detLeft > 0) {
+      if (detRight <= 0)
+        return det;
+      detSum = detLeft + detRight;
+    } else if (detLeft < 0) {
+      if (detRight >= 0)
+        return det;
+      detSum = -detLeft - detRight;
+    } else {
+      return det;
+    }
+    double errorBound = CCW_ERROR_BOUND * detSum;
+    if (det >= errorBound || -det >= errorBound)
+      return det;
+    return orient2dExact(ax, ay, bx, by, cx, cy);
+  }
+
+  public static double orient2d(Point a, Point b, Point c) {
+    return orient2d(a.x, a.y, b.x, b.y, c.x, c.y);
+  }
+
+  public static double orient2d(DPoint a, DPoint b, DPoint c) {
+    return orient2d(a.x, a.y, b.x, b.y, c.x, c.y);
+  }
+
+  /**
+   * Determine whether a point lies within the circle through three others,
+   * which must be in counterclockwise order (otherwise, the sign of the result
+   * is reversed)
+   *
+   * @return a value that is positive if d is inside the circle, negative if
+   * outside, and zero if on it
+   */
+  public static double incircle(double ax, double ay, double bx, double by,
+                                double cx, double cy, double dx, double dy) {
+    double adx = ax - dx, ady = ay - dy;
+    double bdx = bx - dx, bdy = by - dy;
+    double cdx = cx - dx, cdy = cy - dy;
+
+    double bdxcdy = bdx * cdy, cdxbdy = cdx * bdy;
+    double alift = adx * adx + ady * ady;
+    double cdxady = cdx * ady, adxcdy = adx * cdy;
+    double blift = bdx * bdx + bdy * bdy;
+    double adxbdy = adx * bdy, bdxady = bdx * ady;
+    double clift = cdx * cdx + cdy * cdy;
+
+    double det = alift * (bdxcdy - cdxbdy) + blift * (cdxady - adxcdy) + clift
+        * (adxbdy - bdxady);
+    double permanent = (Math.abs(bdxcdy) + Math.abs(cdxbdy)) * alift
+        + (Math.abs(cdxady) + Math.abs(adxcdy)) * blift
+        + (Math.abs(adxbdy) + Math.abs(bdxady)) * clift;
+    double errorBound = INCIRCLE_ERROR_BOUND * permanent;
+    if (det > errorBound || -det > errorBound)
+      return det;
+    return incircleExact(ax, ay, bx, by, cx, cy, dx, dy);
+  }
+
+  public static double incircle(Point a, Point b, Point c, Point d) {
+    return incircle(a.x, a.y, b.x, b.y, c.x, c.y, d.x, d.y);
+  }
+
+  public static double incircle(DPoint a, DPoint b, DPoint c, DPoint d) {
+    return incircle(a.x, a.y, b.x, b.y, c.x, c.y, d.x, d.y);
+  }
+
+  private static double orient2dExact(double ax, double ay, double bx,
+                                      double by, double cx, double cy) {
+    // Expand the determinant into six products, each of which is exactly
+    // representable as a two-component expansion
+    Expansion sum = new Expansion(12);
+    sum.addProduct(ax, by);
+    sum.addProduct(-ax, cy);
+    sum.addProduct(-cx, by);
+    sum.addProduct(-ay, bx);
+    sum.addProduct(ay, cx);
+    sum.addProduct(cy, bx);
+    return sum.estimate();
+  }
+
+  private static double incircleExact(double ax, double ay, double bx,
+                                      double by, double cx, double cy, double dx, double dy) {
+    Expansion adx = Expansion.difference(ax, dx);
+    Expansion ady = Expansion.difference(ay, dy);
+    Expansion bdx = Expansion.difference(bx, dx);
+    Expansion bdy = Expansion.difference(by, dy);
+    Expansion cdx = Expansion.difference(cx, dx);
+    Expansion cdy = Expansion.difference(cy, dy);
+
+    Expansion alift = adx.times(adx).plus(ady.times(ady));
+    Expansion blift = bdx.times(bdx).plus(bdy.times(bdy));
+    Expansion clift = cdx.times(cdx).plus(cdy.times(cdy));
+    Expansion bc = bdx.times(cdy).minus(cdx.times(bdy));
+    Expansion ca = cdx.times(ady).minus(adx.times(cdy));
+    Expansion ab = adx.times(bdy).minus(bdx.times(ady));
+    return alift.times(bc).plus(blift.times(ca)).plus(clift.times(ab))
+        .estimate();
+  }
+
+  /**
+   * A floating-point expansion: a sum of doubles, ordered by increasing
+   * magnitude, whose nonzero components don't overlap
+   */
+  private static strictfp class Expansion {
+
+    public Expansion(int capacity) {
+      mComponents = new double[Math.max(capacity, 2)];
+    }
+
+    /**
+     * Construct the exact difference of two doubles
+     */
+    public static Expansion difference(double a, double b) {
+      Expansion e = new Expansion(2);
+      e.add(a);
+      e.add(-b);
+      return e;
+    }
+
+    /**
+     * Add a double to this expansion (Shewchuk's GROW-EXPANSION, eliminating
+     * zero components)
+     */
+    public void add(double b) {
+      double q = b;
+      int k = 0;
+      for (int i = 0; i < mSize; i++) {
+        double e = mComponents[i];
+        double sum = q + e;
+        double error = twoSumError(q, e, sum);
+        q = sum;
+        if (error != 0)
+          mComponents[k++] = error;
+      }
+      if (q != 0 || k == 0) {
+        ensureCapacity(k + 1);
+        mComponents[k++] = q;
+      }
+      mSize = k;
+    }
+
+    /**
+     * Add the exact product of two doubles
+     */
+    public void addProduct(double a, double b) {
+      double product = a * b;
+      add(twoProductError(a, b, product));
+      add(product);
+    }
+
+    public Expansion plus(Expansion f) {
+      Expansion sum = copy(mSize + f.mSize);
+      for (int i = 0; i < f.mSize; i++)
+        sum.add(f.mComponents[i]);
+      return sum;
+    }
+
+    public Expansion minus(Expansion f) {
+      Expansion sum = copy(mSize + f.mSize);
+      for (int i = 0; i < f.mSize; i++)
+        sum.add(-f.mComponents[i]);
+      return sum;
+    }
+
+    public Expansion times(Expansion f) {
+      Expansion product = new Expansion(2 * mSize * f.mSize);
+      for (int i = 0; i < mSize; i++)
+        for (int j = 0; j < f.mSize; j++)
+          product.addProduct(mComponents[i], f.mComponents[j]);
+      return product;
+    }
+
+    /**
+     * Approximate the expansion's value by a double with the same sign
+     */
+    public double estimate() {
+      double sum = 0;
+      for (int i = 0; i < mSize; i++)
+        sum += mComponents[i];
+      // The largest component determines the sign; the rounded sum should
+      // agree, but make sure
+      double largest = mComponents[mSize - 1];
+      if (Math.signum(sum) != Math.signum(largest))
+        return largest;
+      return sum;
+    }
+
+    private Expansion copy(int capacity) {
+      Expansion e = new Expansion(Math.max(capacity, mSize));
+      System.arraycopy(mComponents, 0, e.mComponents, 0, mSize);
+      e.mSize = mSize;
+      return e;
+    }
+
+    private void ensureCapacity(int capacity) {
+      if (capacity > mComponents.length)
+        mComponents = java.util.Arrays.copyOf(mComponents, Math.max(capacity,
+            mComponents.length * 2));
+    }
+
+    private double[] mComponents;
+    private int mSize;
+  }
+
+  /**
+   * Calculate the rounding error of a sum, i.e. (a + b) - sum, exactly
+   */
+  private static double twoSumError(double a, double b, double sum) {
+    double bVirtual = sum - a;
+    double aVirtual = sum - bVirtual;
+    double bRoundoff = b - bVirtual;
+    double aRoundoff = a - aVirtual;
+    return aRoundoff + bRoundoff;
+  }
+
+  /**
+   * Calculate the rounding error of a product, i.e. (a * b) - product, exactly
+   * (Dekker's algorithm, splitting each factor into two halves)
+   */
+  private static double twoProductError(double a, double b, double product) {
+    double c = SPLITTER * a;
+    double aHigh = c - (c - a);
+    double aLow = a - aHigh;
+    c = SPLITTER * b;
+    double bHigh = c - (c - b);
+    double bLow = b - bHigh;
+    double error = product - aHigh * bHigh;
+    error -= aLow * bHigh;
+    error -= aHigh * bLow;
+    return aLow * bLow - error;
+  }
+
+  // Half an ulp of 1, i.e. the relative rounding error of double arithmetic
+  private static final double EPSILON = Math.ulp(1.0) / 2;
+  private static final double SPLITTER = (1 << 27) + 1;
+  private static final double CCW_ERROR_BOUND = (3 + 16 * EPSILON) * EPSILON;
+  private static final double INCIRCLE_ERROR_BOUND = (10 + 96 * EPSILON)
+      * EPSILON;
+
+  private RobustPredicates() {
+  }
+}
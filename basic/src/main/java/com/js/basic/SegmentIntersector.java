@@ -0,0 +1,886 @@
+package com.js.basic;
+
+import java.util.Random;
+
+/**
+ * Finds all pairs of intersecting segments within a set of segments, using the
+ * Bentley-Ottmann sweep line algorithm; runs in O((n+k) log n) time, where k
+ * is the number of intersections.
+ * <p/>
+ * The segments are given as a PointArray, where segment i has endpoints 2i and
+ * 2i+1. Intersections are reported to a Listener as the sweep line
+ * encounters them, rather than being accumulated in a list.
+ * <p/>
+ * The crossing points are calculated by MyMath.segSegIntersection. Pairs of
+ * segments that are parallel or collinear (including overlapping collinear
+ * segments) are not reported, nor are zero-length segments.
+ * <p/>
+ * Each pair is reported while the sweep is at (or, allowing for rounding
+ * errors, near) its intersection point: a crossing when its event is
+ * processed, and a pair that merely touches when the sweep reaches the
+ * endpoint where they touch. A pair can be found more than once, so the pairs
+ * reported are remembered until the sweep moves past the end of either
+ * segment, after which the pair can't be found again; so rather than every
+ * pair reported, only those among segments near the sweep line are kept.
+ * <p/>
+ * The sweep line status is a balanced tree (a treap) whose nodes are
+ * referenced directly by the segments they contain; only insertions require
+ * comparisons of segments against the sweep line, so floating point
+ * inaccuracies in the crossing points cannot corrupt the structure of the
+ * tree
+ */
+public class SegmentIntersector {
+
+  /**
+   * Receives intersections found by the sweep
+   */
+  public interface Listener {
+    /**
+     * Report an intersection
+     *
+     * @param segmentA index of one segment
+     * @param segmentB index of the other (segmentA < segmentB)
+     * @param x        x coordinate of intersection point
+     * @param y        y coordinate of intersection point
+     */
+    void intersection(int segmentA, int segmentB, float x, float y);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param endpoints segment endpoints; segment i has endpoints 2i and 2i+1
+   */
+  public SegmentIntersector(PointArray endpoints) {
+    if ((endpoints.size() & 1) != 0)
+      throw new IllegalArgumentException("odd number of endpoints");
+    mEndpoints = endpoints;
+  }
+
+  /**
+   * Find all intersections, reporting them to a listener
+   */
+  public void find(Listener listener) {
+    prepare(listener);
+    while (mEventCount > 0) {
+      int event = popEvent();
+      // Don't let the sweep position move backward, which can happen if a
+      // crossing was calculated to lie (slightly) behind it
+      if (comparePoints(mEventX[event], mEventY[event], mSweepX, mSweepY) > 0) {
+        mSweepX = mEventX[event];
+        mSweepY = mEventY[event];
+      }
+      if (mEventType[event] == EVENT_CROSS)
+        processCross(mEventA[event], mEventB[event], mEventX[event],
+            mEventY[event]);
+      else
+        processEndpoints(event);
+    }
+    mListener = null;
+  }
+
+  private void prepare(Listener listener) {
+    mListener = listener;
+    mPairTable = new long[16];
+    mPairCount = 0;
+    mSweepX = Float.NEGATIVE_INFINITY;
+    mSweepY = Float.NEGATIVE_INFINITY;
+    int segCount = mEndpoints.size() / 2;
+    mX0 = new float[segCount];
+    mY0 = new float[segCount];
+    mX1 = new float[segCount];
+    mY1 = new float[segCount];
+
+    int capacity = segCount * 2 + 16;
+    mEventX = new double[capacity];
+    mEventY = new double[capacity];
+    mEventType = new int[capacity];
+    mEventA = new int[capacity];
+    mEventB = new int[capacity];
+    mHeap = new int[capacity];
+    mFreeEvents = new int[capacity];
+    mEventCount = 0;
+    mFreeEventCount = 0;
+    mEventsAllocated = 0;
+
+    mLeft = new int[segCount];
+    mRight = new int[segCount];
+    mParent = new int[segCount];
+    mPriority = new int[segCount];
+    mSegmentOfNode = new int[segCount];
+    mNodeOfSegment = new int[segCount];
+    mRoot = NIL;
+    Random random = new Random(1965);
+
+    for (int i = 0; i < segCount; i++) {
+      float ax = mEndpoints.x(2 * i);
+      float ay = mEndpoints.y(2 * i);
+      float bx = mEndpoints.x(2 * i + 1);
+      float by = mEndpoints.y(2 * i + 1);
+      // Orient each segment so its first endpoint is encountered first
+      if (comparePoints(ax, ay, bx, by) > 0) {
+        float tx = ax, ty = ay;
+        ax = bx;
+        ay = by;
+        bx = tx;
+        by = ty;
+      }
+      mX0[i] = ax;
+      mY0[i] = ay;
+      mX1[i] = bx;
+      mY1[i] = by;
+      mPriority[i] = random.nextInt();
+      mNodeOfSegment[i] = NIL;
+      // Zero-length segments aren't reported, so omit them from the sweep
+      if (ax == bx && ay == by)
+        continue;
+      pushEvent(ax, ay, EVENT_START, i, NIL);
+      pushEvent(bx, by, EVENT_END, i, NIL);
+    }
+  }
+
+  /**
+   * Process all the endpoint events at a particular point. Crossing events
+   * precede endpoint events at the same point, so the endpoint events are at
+   * the top of the queue
+   */
+  private void processEndpoints(int firstEvent) {
+    double x = mEventX[firstEvent];
+    double y = mEventY[firstEvent];
+    int groupSize = 0;
+    int event = firstEvent;
+    while (true) {
+      if (groupSize == mGroup.length)
+        mGroup = copyOf(mGroup, groupSize * 2);
+      // Store ending segments as negative values
+      int seg = mEventA[event];
+      mGroup[groupSize++] = (mEventType[event] == EVENT_END) ? -1 - seg : seg;
+      if (mEventCount == 0)
+        break;
+      int next = mHeap[0];
+      if (mEventX[next] != x || mEventY[next] != y)
+        break;
+      event = popEvent();
+    }
+
+    // Segments sharing an endpoint touch there, whether or not they ever
+    // become adjacent in the sweep line
+    for (int i = 0; i < groupSize; i++) {
+      int a = segmentOf(mGroup[i]);
+      for (int j = i + 1; j < groupSize; j++)
+        checkSegments(a, segmentOf(mGroup[j]));
+    }
+
+    // The events are ordered so the ending segments are processed before the
+    // starting ones
+    for (int i = 0; i < groupSize; i++) {
+      int seg = mGroup[i];
+      if (seg < 0)
+        processEnd(segmentOf(seg));
+      else
+        processStart(seg);
+    }
+  }
+
+  private static int segmentOf(int groupEntry) {
+    return groupEntry < 0 ? -1 - groupEntry : groupEntry;
+  }
+
+  private void processStart(int seg) {
+    int node = insert(seg);
+    checkPair(predecessor(node), node);
+    checkPair(node, successor(node));
+    checkSegmentsThroughSweepPoint(node);
+  }
+
+  private void processEnd(int seg) {
+    int node = mNodeOfSegment[seg];
+    int below = predecessor(node);
+    int above = successor(node);
+    // Segments touching the end point must be tested now, since pairs that
+    // merely touch are only reported when the sweep reaches the point where
+    // they touch
+    checkPair(below, node);
+    checkPair(node, above);
+    checkSegmentsThroughSweepPoint(node);
+    remove(node);
+    mNodeOfSegment[seg] = NIL;
+    checkPair(below, above);
+  }
+
+  private void processCross(int segA, int segB, double x, double y) {
+    // Drop the event if the pair has already been dealt with (e.g. it was
+    // scheduled more than once)
+    if (!report(segA, segB, x, y) && crossed(segA, segB))
+      return;
+
+    int nodeA = mNodeOfSegment[segA];
+    int nodeB = mNodeOfSegment[segB];
+    if (nodeA == NIL || nodeB == NIL)
+      return;
+
+    int lower, upper;
+    if (precedes(nodeA, nodeB)) {
+      lower = nodeA;
+      upper = nodeB;
+    } else if (precedes(nodeB, nodeA)) {
+      lower = nodeB;
+      upper = nodeA;
+    } else {
+      // Rounding errors have separated the pair; leave the order alone
+      return;
+    }
+
+    // Extend the run to include any neighbors that pass through (or within
+    // rounding error of) the sweep point
+    for (int i = 0; i < MAX_RUN_LENGTH; i++) {
+      int node = predecessor(lower);
+      if (node == NIL || !nearSweepPoint(mSegmentOfNode[node]))
+        break;
+      lower = node;
+    }
+    for (int i = 0; i < MAX_RUN_LENGTH; i++) {
+      int node = successor(upper);
+      if (node == NIL || !nearSweepPoint(mSegmentOfNode[node]))
+        break;
+      upper = node;
+    }
+
+    // Reorder the run of segments from lower to upper by slope, which is their
+    // order immediately beyond the crossing. Usually the run consists of just
+    // the pair; if not, the other segments in the run pass through (or very
+    // near) the crossing point as well, or are collinear with one of the pair.
+    // Note that this is harmless if the pair has already been reordered
+    int runLength = 0;
+    int node = lower;
+    while (true) {
+      if (runLength == mRun.length)
+        mRun = copyOf(mRun, runLength * 2);
+      mRun[runLength++] = mSegmentOfNode[node];
+      if (node == upper)
+        break;
+      node = successor(node);
+    }
+    // The other pairs in the run that haven't been reordered yet cross here
+    // too; test them before reordering, so their crossings are scheduled
+    if (runLength > 2) {
+      for (int i = 0; i < runLength; i++)
+        for (int j = i + 1; j < runLength; j++)
+          checkSegments(mRun[i], mRun[j]);
+    }
+    for (int i = 1; i < runLength; i++) {
+      int seg = mRun[i];
+      double slope = slope(seg);
+      int j = i;
+      for (; j > 0 && slope(mRun[j - 1]) > slope; j--)
+        mRun[j] = mRun[j - 1];
+      mRun[j] = seg;
+    }
+    node = lower;
+    for (int i = 0; i < runLength; i++) {
+      int seg = mRun[i];
+      mSegmentOfNode[node] = seg;
+      mNodeOfSegment[seg] = node;
+      node = successor(node);
+    }
+
+    checkPair(predecessor(lower), lower);
+    checkPair(upper, successor(upper));
+  }
+
+  /**
+   * Determine if one node is a (near) predecessor of another
+   */
+  private boolean precedes(int node, int other) {
+    for (int i = 0; i < MAX_RUN_LENGTH; i++) {
+      node = successor(node);
+      if (node == other)
+        return true;
+      if (node == NIL)
+        break;
+    }
+    return false;
+  }
+
+  /**
+   * Test a segment that has an endpoint at the sweep point against any
+   * segments that pass through (or within rounding error of) that point. Such
+   * segments may not be adjacent to it (if other segments also pass through
+   * the point)
+   */
+  private void checkSegmentsThroughSweepPoint(int node) {
+    int seg = mSegmentOfNode[node];
+    int other = predecessor(node);
+    while (other != NIL && nearSweepPoint(mSegmentOfNode[other])) {
+      checkSegments(seg, mSegmentOfNode[other]);
+      other = predecessor(other);
+    }
+    other = successor(node);
+    while (other != NIL && nearSweepPoint(mSegmentOfNode[other])) {
+      checkSegments(seg, mSegmentOfNode[other]);
+      other = successor(other);
+    }
+  }
+
+  /**
+   * Test whether the segments in two adjacent nodes intersect
+   */
+  private void checkPair(int nodeA, int nodeB) {
+    if (nodeA == NIL || nodeB == NIL)
+      return;
+    checkSegments(mSegmentOfNode[nodeA], mSegmentOfNode[nodeB]);
+  }
+
+  /**
+   * Test whether two segments intersect. If they cross (so their order in the
+   * sweep line must change), schedule an event for the crossing, unless it
+   * lies behind the sweep point and they have already been reordered. If they
+   * merely touch, report it if the sweep is at the point where they touch
+   */
+  private void checkSegments(int a, int b) {
+    if (a > b) {
+      int tmp = a;
+      a = b;
+      b = tmp;
+    }
+    // Use the segments as originally given, so the results are consistent
+    // with calling segSegIntersection directly
+    float[] xs = mEndpoints.xs();
+    float[] ys = mEndpoints.ys();
+    int i = mEndpoints.offset() + 2 * a;
+    int j = mEndpoints.offset() + 2 * b;
+    int status = MyMath.segSegIntersection(xs[i], ys[i], xs[i + 1], ys[i + 1],
+        xs[j], ys[j], xs[j + 1], ys[j + 1], mWorkPoint, mWorkParameters);
+    if (status != MyMath.INTERSECT_HIT)
+      return;
+
+    int endA = touchingEndpoint(i, mWorkParameters[0]);
+    int endB = touchingEndpoint(j, mWorkParameters[1]);
+    if (endA < 0 && endB < 0)
+      endA = sharedEndpoint(i, j);
+    if (endA >= 0 || endB >= 0) {
+      // The pair is sure to be tested when the sweep reaches the endpoint
+      // where they touch, so ignore it at other times
+      if (endpointAtSweep(endA) || endpointAtSweep(endB))
+        report(a, b, mWorkPoint.x, mWorkPoint.y);
+      return;
+    }
+    calcCrossing(a, b);
+    if (comparePoints(mCrossX, mCrossY, mSweepX, mSweepY) > 0)
+      pushEvent(mCrossX, mCrossY, EVENT_CROSS, a, b);
+    else if (!crossed(a, b))
+      // The crossing was calculated to lie (slightly) behind the sweep point,
+      // but hasn't been processed yet; it will be processed next
+      pushEvent(mCrossX, mCrossY, EVENT_CROSS, a, b);
+    else
+      // The pair is already in the order beyond the crossing, so no event is
+      // needed; but it may never have been reported, if it was ordered that
+      // way when one of them was inserted (e.g. if rounding errors put the
+      // crossing almost at its start point)
+      report(a, b, mWorkPoint.x, mWorkPoint.y);
+  }
+
+  /**
+   * Determine which endpoint of a segment, if any, an intersection lies at.
+   * The parameter may have been rounded away from 0 or 1, so one within
+   * ROUNDING_EPSILON of either counts as that endpoint
+   *
+   * @param index     index of the segment's first endpoint within the
+   *                  PointArray's arrays
+   * @param parameter parameter of the intersection along the segment
+   * @return index of the endpoint, or -1 if it lies in the segment's interior
+   */
+  private static int touchingEndpoint(int index, float parameter) {
+    if (parameter <= ROUNDING_EPSILON)
+      return index;
+    if (parameter >= 1 - ROUNDING_EPSILON)
+      return index + 1;
+    return -1;
+  }
+
+  /**
+   * Determine which endpoint of one segment, if any, is also an endpoint of
+   * another. Segments sharing an endpoint can only intersect there, though the
+   * parameters calculated for it may be far from 0 or 1 if the segments are
+   * nearly parallel
+   *
+   * @param i index of the first segment's first endpoint within the
+   *          PointArray's arrays
+   * @param j index of the second segment's first endpoint
+   * @return index of the first segment's shared endpoint, or -1
+   */
+  private int sharedEndpoint(int i, int j) {
+    float[] xs = mEndpoints.xs();
+    float[] ys = mEndpoints.ys();
+    for (int end = i; end < i + 2; end++) {
+      for (int other = j; other < j + 2; other++)
+        if (xs[end] == xs[other] && ys[end] == ys[other])
+          return end;
+    }
+    return -1;
+  }
+
+  /**
+   * Determine if an endpoint is at the sweep point
+   *
+   * @param index index of the endpoint within the PointArray's arrays, or -1
+   */
+  private boolean endpointAtSweep(int index) {
+    return index >= 0 && mEndpoints.xs()[index] == mSweepX
+        && mEndpoints.ys()[index] == mSweepY;
+  }
+
+  /**
+   * Determine if a pair of segments has already been reordered by their
+   * crossing; that is, if the lower one in the sweep line status has the
+   * smaller slope, so they diverge. Also returns true if the pair can't be
+   * reordered (since they are no longer near each other)
+   */
+  private boolean crossed(int a, int b) {
+    int nodeA = mNodeOfSegment[a];
+    int nodeB = mNodeOfSegment[b];
+    if (nodeA == NIL || nodeB == NIL)
+      return true;
+    if (precedes(nodeA, nodeB))
+      return slope(a) <= slope(b);
+    if (precedes(nodeB, nodeA))
+      return slope(b) <= slope(a);
+    return true;
+  }
+
+  // ------------------------------------------------------------------
+  // Pairs reported (an open addressing hash set)
+  // ------------------------------------------------------------------
+
+  /**
+   * Report an intersection, unless the pair has already been reported
+   *
+   * @return false if it was a duplicate
+   */
+  private boolean report(int a, int b, double x, double y) {
+    if (a > b) {
+      int tmp = a;
+      a = b;
+      b = tmp;
+    }
+    // Store keys plus one, so zero indicates an empty slot
+    long key = (((long) a << 32) | b) + 1;
+    int mask = mPairTable.length - 1;
+    int slot = hash(key) & mask;
+    while (mPairTable[slot] != 0) {
+      if (mPairTable[slot] == key)
+        return false;
+      slot = (slot + 1) & mask;
+    }
+    mPairTable[slot] = key;
+    mPairCount++;
+    if (mPairCount * 2 > mPairTable.length)
+      rebuildPairTable();
+    mListener.intersection(a, b, (float) x, (float) y);
+    return true;
+  }
+
+  private static int hash(long key) {
+    int h = (int) (key ^ (key >>> 32)) * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Rebuild the table, discarding pairs that can't be found again, and
+   * doubling its size if it is still more than a quarter full. A pair can't be
+   * found again once the sweep has moved past the end of either segment, so
+   * the table only holds pairs among segments near the sweep line
+   */
+  private void rebuildPairTable() {
+    long[] oldTable = mPairTable;
+    mPairCount = 0;
+    for (int i = 0; i < oldTable.length; i++) {
+      long key = oldTable[i] - 1;
+      if (key < 0 || finished((int) (key >>> 32)) || finished((int) key))
+        continue;
+      oldTable[mPairCount++] = key + 1;
+    }
+    int length = oldTable.length;
+    if (mPairCount * 4 > length)
+      length *= 2;
+    mPairTable = new long[length];
+    int mask = length - 1;
+    for (int i = 0; i < mPairCount; i++) {
+      long key = oldTable[i];
+      int slot = hash(key) & mask;
+      while (mPairTable[slot] != 0)
+        slot = (slot + 1) & mask;
+      mPairTable[slot] = key;
+    }
+  }
+
+  /**
+   * Determine if the sweep has moved past the end of a segment
+   */
+  private boolean finished(int seg) {
+    return mNodeOfSegment[seg] == NIL
+        && comparePoints(mX1[seg], mY1[seg], mSweepX, mSweepY) < 0;
+  }
+
+  // ------------------------------------------------------------------
+  // Geometry
+  // ------------------------------------------------------------------
+
+  /**
+   * Relative error allowed for in calculations done in single precision (a
+   * few ulps); an intersection parameter within this of 0 or 1 is taken to
+   * lie at that endpoint
+   */
+  private static final float ROUNDING_EPSILON = 1e-6f;
+
+  /**
+   * Calculate the point where two segments cross, with extra precision to
+   * reduce the chance that nearby crossings are processed in the wrong order.
+   * The point is constrained to lie between the segments' endpoints (in sweep
+   * order), so that it is processed while both are in the sweep line status.
+   * Result is stored in mCrossX, mCrossY
+   */
+  private void calcCrossing(int a, int b) {
+    // If either segment is vertical, make it the first
+    if (mX0[b] == mX1[b]) {
+      int tmp = a;
+      a = b;
+      b = tmp;
+    }
+    double sx = (double) mX1[a] - mX0[a];
+    double sy = (double) mY1[a] - mY0[a];
+    double tx = (double) mX1[b] - mX0[b];
+    double ty = (double) mY1[b] - mY0[b];
+    if (sx == 0) {
+      // Use the vertical segment's x coordinate exactly
+      mCrossX = mX0[a];
+      mCrossY = mY0[b] + (mCrossX - mX0[b]) * ty / tx;
+    } else {
+      double t = (tx * ((double) mY0[a] - mY0[b]) - ty
+          * ((double) mX0[a] - mX0[b])) / (ty * sx - tx * sy);
+      mCrossX = mX0[a] + t * sx;
+      mCrossY = mY0[a] + t * sy;
+    }
+
+    // Clamp to lie after both start points, and before both end points
+    for (int i = 0; i < 2; i++) {
+      int seg = (i == 0) ? a : b;
+      if (comparePoints(mCrossX, mCrossY, mX0[seg], mY0[seg]) < 0) {
+        mCrossX = mX0[seg];
+        mCrossY = mY0[seg];
+      }
+    }
+    for (int i = 0; i < 2; i++) {
+      int seg = (i == 0) ? a : b;
+      if (comparePoints(mCrossX, mCrossY, mX1[seg], mY1[seg]) > 0) {
+        mCrossX = mX1[seg];
+        mCrossY = mY1[seg];
+      }
+    }
+  }
+
+  /**
+   * Compare points by x coordinate, then by y
+   */
+  private static int comparePoints(double ax, double ay, double bx, double by) {
+    if (ax != bx)
+      return ax < bx ? -1 : 1;
+    if (ay != by)
+      return ay < by ? -1 : 1;
+    return 0;
+  }
+
+  /**
+   * Determine the y coordinate of a segment at the current sweep position
+   */
+  private double yAtSweep(int seg) {
+    double x0 = mX0[seg];
+    double x1 = mX1[seg];
+    if (x0 == x1)
+      return Math.min(Math.max(mSweepY, mY0[seg]), mY1[seg]);
+    if (mSweepX <= x0)
+      return mY0[seg];
+    if (mSweepX >= x1)
+      return mY1[seg];
+    return mY0[seg] + (mSweepX - x0) * (mY1[seg] - mY0[seg]) / (x1 - x0);
+  }
+
+  /**
+   * Determine if a segment passes through the sweep point, or within rounding
+   * error of it
+   */
+  private boolean nearSweepPoint(int seg) {
+    double error = Math.abs(yAtSweep(seg) - mSweepY);
+    if (error == 0)
+      return true;
+    // Allow for an error in the segment's position proportional to the
+    // magnitude of the coordinates involved; its y coordinate at the sweep
+    // can then be off by that much times its slope
+    double dx = Math.abs((double) mX1[seg] - mX0[seg]);
+    double dy = Math.abs((double) mY1[seg] - mY0[seg]);
+    double scale = Math.abs(mSweepX) + Math.abs(mSweepY) + dx + dy;
+    return error * dx <= ROUNDING_EPSILON * scale * (dx + dy);
+  }
+
+  private double slope(int seg) {
+    double dx = (double) mX1[seg] - mX0[seg];
+    if (dx == 0)
+      return Double.POSITIVE_INFINITY;
+    return ((double) mY1[seg] - mY0[seg]) / dx;
+  }
+
+  /**
+   * Compare a segment starting at the sweep point with one in the sweep line
+   * status, based on their order immediately to the right of the sweep point
+   *
+   * @return negative if the new segment is below the existing one
+   */
+  private int compareNewSegment(int newSeg, int seg) {
+    // If the segment passes (nearly) through the sweep point, the new segment
+    // touches it there, so only their slopes determine their order
+    if (!nearSweepPoint(seg))
+      return mSweepY < yAtSweep(seg) ? -1 : 1;
+    double slopeNew = slope(newSeg);
+    double slope = slope(seg);
+    if (slopeNew != slope)
+      return slopeNew < slope ? -1 : 1;
+    return newSeg < seg ? -1 : 1;
+  }
+
+  // ------------------------------------------------------------------
+  // Event queue (a binary heap of event indices)
+  // ------------------------------------------------------------------
+
+  private static final int EVENT_CROSS = 0;
+  private static final int EVENT_END = 1;
+  private static final int EVENT_START = 2;
+
+  private int compareEvents(int e1, int e2) {
+    int diff = comparePoints(mEventX[e1], mEventY[e1], mEventX[e2],
+        mEventY[e2]);
+    if (diff == 0)
+      diff = mEventType[e1] - mEventType[e2];
+    return diff;
+  }
+
+  private void pushEvent(double x, double y, int type, int a, int b) {
+    int event;
+    if (mFreeEventCount > 0) {
+      event = mFreeEvents[--mFreeEventCount];
+    } else {
+      if (mEventsAllocated == mEventX.length)
+        growEvents();
+      event = mEventsAllocated++;
+    }
+    mEventX[event] = x;
+    mEventY[event] = y;
+    mEventType[event] = type;
+    mEventA[event] = a;
+    mEventB[event] = b;
+
+    int i = mEventCount++;
+    while (i > 0) {
+      int parent = (i - 1) >> 1;
+      if (compareEvents(mHeap[parent], event) <= 0)
+        break;
+      mHeap[i] = mHeap[parent];
+      i = parent;
+    }
+    mHeap[i] = event;
+  }
+
+  private int popEvent() {
+    int top = mHeap[0];
+    int last = mHeap[--mEventCount];
+    int i = 0;
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= mEventCount)
+        break;
+      if (child + 1 < mEventCount
+          && compareEvents(mHeap[child + 1], mHeap[child]) < 0)
+        child++;
+      if (compareEvents(last, mHeap[child]) <= 0)
+        break;
+      mHeap[i] = mHeap[child];
+      i = child;
+    }
+    mHeap[i] = last;
+    mFreeEvents[mFreeEventCount++] = top;
+    return top;
+  }
+
+  private void growEvents() {
+    int capacity = mEventX.length * 2;
+    mEventX = copyOf(mEventX, capacity);
+    mEventY = copyOf(mEventY, capacity);
+    mEventType = copyOf(mEventType, capacity);
+    mEventA = copyOf(mEventA, capacity);
+    mEventB = copyOf(mEventB, capacity);
+    mHeap = copyOf(mHeap, capacity);
+    mFreeEvents = copyOf(mFreeEvents, capacity);
+  }
+
+  private static double[] copyOf(double[] array, int length) {
+    double[] copy = new double[length];
+    System.arraycopy(array, 0, copy, 0, array.length);
+    return copy;
+  }
+
+  private static int[] copyOf(int[] array, int length) {
+    int[] copy = new int[length];
+    System.arraycopy(array, 0, copy, 0, array.length);
+    return copy;
+  }
+
+  // ------------------------------------------------------------------
+  // Sweep line status (a treap with parent links)
+  // ------------------------------------------------------------------
+
+  private static final int NIL = -1;
+
+  /**
+   * Maximum number of segments in a run that is reordered by a crossing
+   */
+  private static final int MAX_RUN_LENGTH = 32;
+
+  private int insert(int seg) {
+    // Each segment is inserted exactly once, so it can use the node with the
+    // same index
+    int node = seg;
+    mSegmentOfNode[node] = seg;
+    mNodeOfSegment[seg] = node;
+    mLeft[node] = NIL;
+    mRight[node] = NIL;
+
+    int parent = NIL;
+    int cursor = mRoot;
+    boolean leftChild = false;
+    while (cursor != NIL) {
+      parent = cursor;
+      leftChild = compareNewSegment(seg, mSegmentOfNode[cursor]) < 0;
+      cursor = leftChild ? mLeft[cursor] : mRight[cursor];
+    }
+    mParent[node] = parent;
+    if (parent == NIL)
+      mRoot = node;
+    else if (leftChild)
+      mLeft[parent] = node;
+    else
+      mRight[parent] = node;
+
+    while (mParent[node] != NIL && mPriority[mParent[node]] < mPriority[node])
+      rotateUp(node);
+    return node;
+  }
+
+  private void remove(int node) {
+    // Rotate the node down until it has at most one child
+    while (mLeft[node] != NIL && mRight[node] != NIL) {
+      int child = mLeft[node];
+      if (mPriority[mRight[node]] > mPriority[child])
+        child = mRight[node];
+      rotateUp(child);
+    }
+    int child = mLeft[node] != NIL ? mLeft[node] : mRight[node];
+    replaceChild(mParent[node], node, child);
+  }
+
+  /**
+   * Rotate a node above its parent
+   */
+  private void rotateUp(int node) {
+    int parent = mParent[node];
+    int grandparent = mParent[parent];
+    if (mLeft[parent] == node) {
+      int inner = mRight[node];
+      mLeft[parent] = inner;
+      if (inner != NIL)
+        mParent[inner] = parent;
+      mRight[node] = parent;
+    } else {
+      int inner = mLeft[node];
+      mRight[parent] = inner;
+      if (inner != NIL)
+        mParent[inner] = parent;
+      mLeft[node] = parent;
+    }
+    mParent[parent] = node;
+    replaceChild(grandparent, parent, node);
+  }
+
+  /**
+   * Replace one child of a node with another (which may be NIL)
+   *
+   * @param parent parent node, or NIL if oldChild is the root
+   */
+  private void replaceChild(int parent, int oldChild, int newChild) {
+    if (parent == NIL)
+      mRoot = newChild;
+    else if (mLeft[parent] == oldChild)
+      mLeft[parent] = newChild;
+    else
+      mRight[parent] = newChild;
+    if (newChild != NIL)
+      mParent[newChild] = parent;
+  }
+
+  private int predecessor(int node) {
+    if (mLeft[node] != NIL) {
+      node = mLeft[node];
+      while (mRight[node] != NIL)
+        node = mRight[node];
+      return node;
+    }
+    int parent = mParent[node];
+    while (parent != NIL && mLeft[parent] == node) {
+      node = parent;
+      parent = mParent[node];
+    }
+    return parent;
+  }
+
+  private int successor(int node) {
+    if (mRight[node] != NIL) {
+      node = mRight[node];
+      while (mLeft[node] != NIL)
+        node = mLeft[node];
+      return node;
+    }
+    int parent = mParent[node];
+    while (parent != NIL && mRight[parent] == node) {
+      node = parent;
+      parent = mParent[node];
+    }
+    return parent;
+  }
+
+  private final PointArray mEndpoints;
+  private final Point mWorkPoint = new Point();
+  private final float[] mWorkParameters = new float[2];
+  private int[] mGroup = new int[8];
+  private int[] mRun = new int[8];
+  private Listener mListener;
+  // Pairs reported at the current sweep point, and the slots they occupy
+  private long[] mPairTable;
+  private int mPairCount;
+  private double mSweepX, mSweepY;
+  private double mCrossX, mCrossY;
+
+  // Segments, oriented so (x0,y0) precedes (x1,y1)
+  private float[] mX0, mY0, mX1, mY1;
+
+  // Events
+  private double[] mEventX, mEventY;
+  private int[] mEventType, mEventA, mEventB;
+  private int[] mHeap;
+  private int mEventCount;
+  private int[] mFreeEvents;
+  private int mFreeEventCount;
+  private int mEventsAllocated;
+
+  // Sweep line status
+  private int[] mLeft, mRight, mParent, mPriority;
+  private int[] mSegmentOfNode, mNodeOfSegment;
+  private int mRoot;
+}
@@ -0,0 +1,472 @@
+package com.js.basic;
+
+import java.util.Arrays;
+
+/**
+ * A uniform grid of square cells over the plane, storing points and rects in
+ * the cells they overlap. Only nonempty cells are stored, in a hash map keyed
+ * by the cell's coordinates (packed into a long; see IPoint.pack()).
+ * <p/>
+ * Cells are aligned with MyMath.snapToGrid(), so cell (i,j) contains the
+ * points that snap to (i * cellSize, j * cellSize). Items are identified by
+ * ids returned when they are inserted; ids of removed items are recycled.
+ * Items must lie within MAX_CELL cells of the origin, so that loops over cell
+ * coordinates can't overflow; queries are restricted to the cells that have
+ * held items.
+ * <p/>
+ * Queries are performed with a Cursor, which can be reused for any number of
+ * queries without allocating memory. An item is reported once per query, even
+ * if it occupies several cells. The grid must not be modified while a cursor
+ * is iterating over it
+ */
+public final class SpatialHashGrid {
+
+  /**
+   * Largest magnitude of an item's cell coordinates
+   */
+  public static final int MAX_CELL = 1 << 30;
+
+  public SpatialHashGrid(float cellSize) {
+    if (!(cellSize > 0))
+      throw new IllegalArgumentException("bad cell size: " + cellSize);
+    mCellSize = cellSize;
+    mCells = new LongIntMap();
+    mMinX = new float[16];
+    mMinY = new float[16];
+    mMaxX = new float[16];
+    mMaxY = new float[16];
+    mItemNext = new int[16];
+    for (int i = 0; i < 16; i++)
+      mItemNext[i] = (i + 1 < 16) ? i + 1 : NIL;
+    mItemFreeList = 0;
+    mEntryItem = new int[64];
+    mEntryNext = new int[64];
+    for (int i = 0; i < 64; i++)
+      mEntryNext[i] = (i + 1 < 64) ? i + 1 : NIL;
+    mEntryFreeList = 0;
+  }
+
+  public float cellSize() {
+    return mCellSize;
+  }
+
+  /**
+   * Get the number of items in the grid
+   */
+  public int size() {
+    return mSize;
+  }
+
+  /**
+   * Get the number of nonempty cells
+   */
+  public int cellCount() {
+    return mCells.size();
+  }
+
+  /**
+   * Add a point to the grid
+   *
+   * @return item id
+   * @throws IllegalArgumentException if point lies farther than MAX_CELL cells
+   *                                  from the origin
+   */
+  public int insert(Point pt) {
+    return insert(pt.x, pt.y, pt.x, pt.y);
+  }
+
+  /**
+   * Add a rect to the grid
+   *
+   * @return item id
+   * @throws IllegalArgumentException if rect extends farther than MAX_CELL
+   *                                  cells from the origin
+   */
+  public int insert(Rect r) {
+    return insert(r.x, r.y, r.endX(), r.endY());
+  }
+
+  /**
+   * Remove an item from the grid; its id becomes invalid
+   */
+  public void remove(int item) {
+    checkItem(item);
+    int cx0 = cell(mMinX[item]);
+    int cy0 = cell(mMinY[item]);
+    int cx1 = cell(mMaxX[item]);
+    int cy1 = cell(mMaxY[item]);
+    for (int cy = cy0; cy <= cy1; cy++)
+      for (int cx = cx0; cx <= cx1; cx++)
+        removeEntry(IPoint.pack(cx, cy), item);
+    mItemNext[item] = mItemFreeList;
+    mItemFreeList = item;
+    mSize--;
+  }
+
+  /**
+   * Get the bounds of an item
+   *
+   * @param dest where to store the bounds; if null, one is constructed
+   * @return dest
+   */
+  public Rect getBounds(int item, Rect dest) {
+    checkItem(item);
+    if (dest == null)
+      dest = new Rect();
+    dest.setTo(mMinX[item], mMinY[item], mMaxX[item] - mMinX[item],
+        mMaxY[item] - mMinY[item]);
+    return dest;
+  }
+
+  /**
+   * Iterates over the items found by a query
+   */
+  public static final class Cursor {
+
+    public boolean hasNext() {
+      if (mNextItem == NIL)
+        mNextItem = advance();
+      return mNextItem >= 0;
+    }
+
+    /**
+     * Get the id of the next item
+     */
+    public int next() {
+      if (!hasNext())
+        throw new IllegalStateException("no more items");
+      int item = mNextItem;
+      mNextItem = NIL;
+      return item;
+    }
+
+    private void start(SpatialHashGrid grid, float x0, float y0, float x1,
+                       float y1) {
+      mGrid = grid;
+      mX0 = x0;
+      mY0 = y0;
+      mX1 = x1;
+      mY1 = y1;
+      // Restrict the query to the cells that have held items
+      mCellX0 = Math.max(grid.cell(x0), grid.mMinCellX);
+      mCellY0 = Math.max(grid.cell(y0), grid.mMinCellY);
+      mCellX1 = Math.min(grid.cell(x1), grid.mMaxCellX);
+      mCellY1 = Math.min(grid.cell(y1), grid.mMaxCellY);
+      // Position just before the first cell
+      mCellX = mCellX0 - 1;
+      mCellY = mCellY0;
+      mEntry = NIL;
+      mNextItem = (mCellX0 > mCellX1 || mCellY0 > mCellY1) ? DONE : NIL;
+    }
+
+    /**
+     * Find the next item satisfying the query
+     *
+     * @return item, or DONE
+     */
+    private int advance() {
+      SpatialHashGrid g = mGrid;
+      while (true) {
+        while (mEntry == NIL) {
+          if (mCellX == mCellX1) {
+            if (mCellY == mCellY1)
+              return DONE;
+            mCellY++;
+            mCellX = mCellX0 - 1;
+          }
+          mCellX++;
+          mEntry = g.mCells.get(IPoint.pack(mCellX, mCellY));
+        }
+        int item = g.mEntryItem[mEntry];
+        mEntry = g.mEntryNext[mEntry];
+
+        // If the item occupies more than one of the query's cells, report it
+        // only from the first of them
+        if (mCellX != Math.max(mCellX0, g.cell(g.mMinX[item]))
+            || mCellY != Math.max(mCellY0, g.cell(g.mMinY[item])))
+          continue;
+        if (g.mMinX[item] > mX1 || g.mMaxX[item] < mX0 || g.mMinY[item] > mY1
+            || g.mMaxY[item] < mY0)
+          continue;
+        if (mRadiusQuery) {
+          float dx = MyMath.clamp(mCenterX, g.mMinX[item], g.mMaxX[item])
+              - mCenterX;
+          float dy = MyMath.clamp(mCenterY, g.mMinY[item], g.mMaxY[item])
+              - mCenterY;
+          if (dx * dx + dy * dy > mSquaredRadius)
+            continue;
+        }
+        return item;
+      }
+    }
+
+    private static final int DONE = -2;
+
+    private SpatialHashGrid mGrid;
+    private boolean mRadiusQuery;
+    private float mX0, mY0, mX1, mY1;
+    private float mCenterX, mCenterY, mSquaredRadius;
+    private int mCellX0, mCellY0, mCellX1, mCellY1;
+    private int mCellX, mCellY;
+    private int mEntry;
+    // Next item to report, NIL if not yet determined, or DONE
+    private int mNextItem = DONE;
+  }
+
+  /**
+   * Start a query for the items whose bounds intersect (or touch) a rect
+   *
+   * @param cursor cursor to iterate over the results; if null, one is
+   *               constructed
+   * @return cursor
+   */
+  public Cursor queryRect(Rect r, Cursor cursor) {
+    if (cursor == null)
+      cursor = new Cursor();
+    cursor.start(this, r.x, r.y, r.endX(), r.endY());
+    cursor.mRadiusQuery = false;
+    return cursor;
+  }
+
+  /**
+   * Start a query for the items whose bounds lie within some distance of a
+   * point
+   *
+   * @param cursor cursor to iterate over the results; if null, one is
+   *               constructed
+   * @return cursor
+   */
+  public Cursor queryRadius(Point center, float radius, Cursor cursor) {
+    if (cursor == null)
+      cursor = new Cursor();
+    cursor.start(this, center.x - radius, center.y - radius, center.x
+        + radius, center.y + radius);
+    cursor.mRadiusQuery = true;
+    cursor.mCenterX = center.x;
+    cursor.mCenterY = center.y;
+    cursor.mSquaredRadius = radius * radius;
+    return cursor;
+  }
+
+  /**
+   * Determine the cell containing a coordinate, clamped to within MAX_CELL of
+   * the origin
+   */
+  private int cell(float coordinate) {
+    return MyMath.clamp(MyMath.gridCell(coordinate, mCellSize), -MAX_CELL,
+        MAX_CELL);
+  }
+
+  private boolean withinCellRange(float coordinate) {
+    int cell = MyMath.gridCell(coordinate, mCellSize);
+    return cell >= -MAX_CELL && cell <= MAX_CELL;
+  }
+
+  private int insert(float x0, float y0, float x1, float y1) {
+    if (!(withinCellRange(x0) && withinCellRange(y0) && withinCellRange(x1)
+        && withinCellRange(y1)))
+      throw new IllegalArgumentException("bounds " + x0 + "," + y0 + " .. "
+          + x1 + "," + y1 + " out of range for cell size " + mCellSize);
+    if (mItemFreeList == NIL)
+      growItems();
+    int item = mItemFreeList;
+    mItemFreeList = mItemNext[item];
+    mItemNext[item] = ALLOCATED;
+    mMinX[item] = x0;
+    mMinY[item] = y0;
+    mMaxX[item] = x1;
+    mMaxY[item] = y1;
+    int cx0 = cell(x0);
+    int cy0 = cell(y0);
+    int cx1 = cell(x1);
+    int cy1 = cell(y1);
+    for (int cy = cy0; cy <= cy1; cy++)
+      for (int cx = cx0; cx <= cx1; cx++)
+        addEntry(IPoint.pack(cx, cy), item);
+    mMinCellX = Math.min(mMinCellX, cx0);
+    mMinCellY = Math.min(mMinCellY, cy0);
+    mMaxCellX = Math.max(mMaxCellX, cx1);
+    mMaxCellY = Math.max(mMaxCellY, cy1);
+    mSize++;
+    return item;
+  }
+
+  private void checkItem(int item) {
+    if (item < 0 || item >= mItemNext.length || mItemNext[item] != ALLOCATED)
+      throw new IllegalArgumentException("bad item: " + item);
+  }
+
+  private void addEntry(long cellKey, int item) {
+    if (mEntryFreeList == NIL)
+      growEntries();
+    int entry = mEntryFreeList;
+    mEntryFreeList = mEntryNext[entry];
+    mEntryItem[entry] = item;
+    mEntryNext[entry] = mCells.get(cellKey);
+    mCells.put(cellKey, entry);
+  }
+
+  private void removeEntry(long cellKey, int item) {
+    int prev = NIL;
+    int entry = mCells.get(cellKey);
+    while (mEntryItem[entry] != item) {
+      prev = entry;
+      entry = mEntryNext[entry];
+    }
+    int next = mEntryNext[entry];
+    if (prev != NIL)
+      mEntryNext[prev] = next;
+    else if (next != NIL)
+      mCells.put(cellKey, next);
+    else
+      mCells.remove(cellKey);
+    mEntryNext[entry] = mEntryFreeList;
+    mEntryFreeList = entry;
+  }
+
+  private void growItems() {
+    int oldCapacity = mItemNext.length;
+    int capacity = oldCapacity * 2;
+    mMinX = Arrays.copyOf(mMinX, capacity);
+    mMinY = Arrays.copyOf(mMinY, capacity);
+    mMaxX = Arrays.copyOf(mMaxX, capacity);
+    mMaxY = Arrays.copyOf(mMaxY, capacity);
+    mItemNext = Arrays.copyOf(mItemNext, capacity);
+    for (int i = oldCapacity; i < capacity; i++)
+      mItemNext[i] = (i + 1 < capacity) ? i + 1 : NIL;
+    mItemFreeList = oldCapacity;
+  }
+
+  private void growEntries() {
+    int oldCapacity = mEntryNext.length;
+    int capacity = oldCapacity * 2;
+    mEntryItem = Arrays.copyOf(mEntryItem, capacity);
+    mEntryNext = Arrays.copyOf(mEntryNext, capacity);
+    for (int i = oldCapacity; i < capacity; i++)
+      mEntryNext[i] = (i + 1 < capacity) ? i + 1 : NIL;
+    mEntryFreeList = oldCapacity;
+  }
+
+  /**
+   * A map from long keys to non-negative int values, using open addressing
+   * with linear probing
+   */
+  private static final class LongIntMap {
+
+    public LongIntMap() {
+      allocate(16);
+    }
+
+    public int size() {
+      return mSize;
+    }
+
+    /**
+     * Get the value associated with a key
+     *
+     * @return value, or NIL if key is not in the map
+     */
+    public int get(long key) {
+      int mask = mKeys.length - 1;
+      for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+        int value = mValues[slot];
+        if (value == NIL || mKeys[slot] == key)
+          return value;
+      }
+    }
+
+    public void put(long key, int value) {
+      int mask = mKeys.length - 1;
+      int slot = slot(key);
+      while (mValues[slot] != NIL && mKeys[slot] != key)
+        slot = (slot + 1) & mask;
+      if (mValues[slot] == NIL) {
+        // Keep the load factor at most 1/2
+        if (2 * (mSize + 1) > mKeys.length) {
+          rehash(mKeys.length * 2);
+          put(key, value);
+          return;
+        }
+        mSize++;
+        mKeys[slot] = key;
+      }
+      mValues[slot] = value;
+    }
+
+    public void remove(long key) {
+      int mask = mKeys.length - 1;
+      int slot = slot(key);
+      while (mKeys[slot] != key || mValues[slot] == NIL) {
+        if (mValues[slot] == NIL)
+          return;
+        slot = (slot + 1) & mask;
+      }
+      mSize--;
+      // Shift subsequent entries of the probe sequence back to fill the gap,
+      // so no tombstones are needed
+      int gap = slot;
+      for (slot = (slot + 1) & mask; mValues[slot] != NIL;
+           slot = (slot + 1) & mask) {
+        int home = slot(mKeys[slot]);
+        // Move the entry if its home slot doesn't lie cyclically within
+        // (gap, slot]
+        if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+          mKeys[gap] = mKeys[slot];
+          mValues[gap] = mValues[slot];
+          gap = slot;
+        }
+      }
+      mValues[gap] = NIL;
+    }
+
+    private int slot(long key) {
+      long h = key * 0x9E3779B97F4A7C15L;
+      return (int) (h >>> mShift);
+    }
+
+    private void allocate(int capacity) {
+      mKeys = new long[capacity];
+      mValues = new int[capacity];
+      Arrays.fill(mValues, NIL);
+      mShift = 64 - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    private void rehash(int capacity) {
+      long[] keys = mKeys;
+      int[] values = mValues;
+      allocate(capacity);
+      mSize = 0;
+      for (int i = 0; i < keys.length; i++)
+        if (values[i] != NIL)
+          put(keys[i], values[i]);
+    }
+
+    private long[] mKeys;
+    // NIL for empty slots
+    private int[] mValues;
+    private int mShift;
+    private int mSize;
+  }
+
+  private static final int NIL = -1;
+  // mItemNext value for items that are in use
+  private static final int ALLOCATED = -2;
+
+  private final float mCellSize;
+  private final LongIntMap mCells;
+  private int mSize;
+  // Range of cells that have held items (empty if none have)
+  private int mMinCellX = Integer.MAX_VALUE, mMinCellY = Integer.MAX_VALUE;
+  private int mMaxCellX = Integer.MIN_VALUE, mMaxCellY = Integer.MIN_VALUE;
+
+  // Bounds of each item
+  private float[] mMinX, mMinY, mMaxX, mMaxY;
+  // Free list links for unused items
+  private int[] mItemNext;
+  private int mItemFreeList;
+
+  // Each cell is a linked list of entries, each referring to an item
+  private int[] mEntryItem;
+  private int[] mEntryNext;
+  private int mEntryFreeList;
+}
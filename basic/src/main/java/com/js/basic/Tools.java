@@ -7,6 +7,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -1063,6 +1064,20 @@ public final class Tools {
     return sTesting;
   }
 
+  /**
+   * Get the ForkJoinPool shared by the classes that divide calculations among
+   * several threads (KDTree, ConvexHull, PolylineSimplifier), so they don't
+   * each start their own set of worker threads. It's constructed when first
+   * needed
+   */
+  public static ForkJoinPool sharedForkJoinPool() {
+    return SharedForkJoinPool.POOL;
+  }
+
+  private static class SharedForkJoinPool {
+    static final ForkJoinPool POOL = new ForkJoinPool();
+  }
+
   public static int[] toArray(List<Integer> list) {
     int[] ret = new int[list.size()];
     Iterator<Integer> iterator = list.iterator();
@@ -0,0 +1,183 @@
+package com.js.basic;
+
+import com.js.testUtils.MyTestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static com.js.basic.Tools.*;
+
+public class AABBTreeTest extends MyTestCase {
+
+  private Rect randomRect() {
+    Random r = random();
+    return new Rect(r.nextFloat() * 1000, r.nextFloat() * 1000,
+        r.nextFloat() * 40, r.nextFloat() * 40);
+  }
+
+  private Set<Long> treePairs(AABBTree tree) {
+    final Set<Long> pairs = new HashSet();
+    tree.findOverlappingPairs(new AABBTree.PairListener() {
+      @Override
+      public void overlap(int proxyA, int proxyB) {
+        assertTrue(proxyA < proxyB);
+        assertTrue(pairs.add(((long) proxyA << 32) | proxyB));
+      }
+    });
+    return pairs;
+  }
+
+  private static Set<Long> bruteForcePairs(Map<Integer, Rect> rects) {
+    Set<Long> pairs = new HashSet();
+    for (int a : rects.keySet())
+      for (int b : rects.keySet())
+        if (a < b && rects.get(a).intersects(rects.get(b)))
+          pairs.add(((long) a << 32) | b);
+    return pairs;
+  }
+
+  public void testEmpty() {
+    AABBTree tree = new AABBTree();
+    assertEquals(0, tree.size());
+    assertTrue(tree.query(new Rect(0, 0, 100, 100), null).isEmpty());
+    assertTrue(treePairs(tree).isEmpty());
+    tree.validate();
+  }
+
+  public void testInsertRemove() {
+    AABBTree tree = new AABBTree();
+    int a = tree.insert(new Rect(0, 0, 10, 10));
+    int b = tree.insert(new Rect(5, 5, 10, 10));
+    int c = tree.insert(new Rect(50, 50, 10, 10));
+    tree.validate();
+    assertEquals(3, tree.size());
+    assertEquals(1, treePairs(tree).size());
+    tree.remove(b);
+    tree.validate();
+    assertTrue(treePairs(tree).isEmpty());
+    assertEquals(1, tree.query(new Rect(55, 55, 1, 1), null).size());
+    assertTrue(tree.getBounds(a, null).equals(new Rect(0, 0, 10, 10)));
+    assertTrue(tree.getBounds(c, null).equals(new Rect(50, 50, 10, 10)));
+  }
+
+  public void testRemovedProxyRejected() {
+    AABBTree tree = new AABBTree();
+    int a = tree.insert(new Rect(0, 0, 10, 10));
+    tree.insert(new Rect(20, 0, 10, 10));
+    tree.remove(a);
+    try {
+      tree.remove(a);
+      failMissingException();
+    } catch (IllegalArgumentException e) {
+      doNothing();
+    }
+  }
+
+  public void testSmallMoveDoesNotReinsert() {
+    AABBTree tree = new AABBTree(5);
+    int a = tree.insert(new Rect(0, 0, 10, 10));
+    tree.insert(new Rect(100, 100, 10, 10));
+    assertFalse(tree.move(a, new Rect(2, 3, 10, 10)));
+    assertTrue(tree.move(a, new Rect(20, 3, 10, 10)));
+    tree.validate();
+  }
+
+  public void testRandomOperationsMatchBruteForce() {
+    AABBTree tree = new AABBTree(3);
+    Map<Integer, Rect> rects = new TreeMap();
+    Random r = random();
+    for (int step = 0; step < 3000; step++) {
+      int op = r.nextInt(10);
+      if (rects.isEmpty() || op < 4) {
+        Rect rect = randomRect();
+        rects.put(tree.insert(rect), rect);
+      } else {
+        List<Integer> proxies = new ArrayList(rects.keySet());
+        int proxy = proxies.get(r.nextInt(proxies.size()));
+        if (op < 6) {
+          tree.remove(proxy);
+          rects.remove(proxy);
+        } else {
+          Rect rect = new Rect(rects.get(proxy));
+          rect.translate(r.nextFloat() * 20 - 10, r.nextFloat() * 20 - 10);
+          tree.move(proxy, rect);
+          rects.put(proxy, rect);
+        }
+      }
+      if (step % 100 == 0) {
+        tree.validate();
+        assertEquals(rects.size(), tree.size());
+        assertEquals(bruteForcePairs(rects), treePairs(tree));
+
+        Rect window = randomRect();
+        window.width *= 4;
+        window.height *= 4;
+        int[] found = tree.query(window, null).toArray();
+        Arrays.sort(found);
+        IntArray expected = new IntArray();
+        for (int proxy : rects.keySet())
+          if (rects.get(proxy).intersects(window))
+            expected.add(proxy);
+        assertTrue(Arrays.equals(expected.toArray(), found));
+      }
+    }
+  }
+
+  public void testIncrementalPairsIncludeOverlaps() {
+    final AABBTree tree = new AABBTree(2);
+    Map<Integer, Rect> rects = new TreeMap();
+    final Set<Long> pairs = new HashSet();
+    AABBTree.PairListener listener = new AABBTree.PairListener() {
+      @Override
+      public void overlap(int proxyA, int proxyB) {
+        assertTrue(proxyA < proxyB);
+        pairs.add(((long) proxyA << 32) | proxyB);
+      }
+    };
+    for (int i = 0; i < 500; i++) {
+      Rect rect = randomRect();
+      rects.put(tree.insert(rect), rect);
+    }
+    Random r = random();
+    for (int frame = 0; frame < 50; frame++) {
+      for (int proxy : rects.keySet()) {
+        Rect rect = rects.get(proxy);
+        rect.translate(r.nextFloat() * 4 - 2, r.nextFloat() * 4 - 2);
+        tree.move(proxy, rect);
+      }
+      if (frame % 10 == 5) {
+        int proxy = rects.keySet().iterator().next();
+        tree.remove(proxy);
+        rects.remove(proxy);
+        Rect rect = randomRect();
+        rects.put(tree.insert(rect), rect);
+      }
+      tree.findNewPairs(listener);
+      // Discard pairs that no longer potentially overlap
+      for (Long pair : new ArrayList<Long>(pairs)) {
+        int a = (int) (pair >> 32);
+        int b = (int) (long) pair;
+        if (!rects.containsKey(a) || !rects.containsKey(b)
+            || !tree.fatBoundsOverlap(a, b))
+          pairs.remove(pair);
+      }
+      assertTrue(pairs.containsAll(bruteForcePairs(rects)));
+    }
+  }
+
+  public void testBalanced() {
+    AABBTree tree = new AABBTree();
+    // Insert rects in a pathological order
+    for (int i = 0; i < 4096; i++)
+      tree.insert(new Rect(i * 10, 0, 5, 5));
+    tree.validate();
+    assertTrue("height: " + tree.height(), tree.height() < 3 * 12);
+  }
+
+}
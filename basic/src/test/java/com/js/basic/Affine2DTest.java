@@ -0,0 +1,83 @@
+package com.js.basic;
+
+import com.js.testUtils.MyTestCase;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class Affine2DTest extends MyTestCase {
+
+  private static final float EPS = 1e-4f;
+
+  public void testRectFitMatchesComposedTransform() {
+    Rect r1 = new Rect(10, 20, 100, 50);
+    Rect r2 = new Rect(-5, 3, 30, 40);
+    Affine2D fit = new Affine2D().setRectFitRect(r1, r2, true);
+
+    Affine2D composed = new Affine2D().setTranslate(-r1.x, -r1.y);
+    float scale = Math.min(r2.width / r1.width, r2.height / r1.height);
+    composed.postConcat(new Affine2D().setScale(scale, scale));
+    composed.postTranslate(r2.x + (r2.width - scale * r1.width) / 2,
+        r2.y + (r2.height - scale * r1.height) / 2);
+
+    for (int i = 0; i < 4; i++) {
+      Point a = fit.map(r1.corner(i));
+      Point b = composed.map(r1.corner(i));
+      assertEqualsFloat(b.x, a.x, EPS);
+      assertEqualsFloat(b.y, a.y, EPS);
+      // Mapped corners must lie within (or on the boundary of) the fit rect
+      assertTrue(r2.distanceFrom(a) < EPS);
+    }
+  }
+
+  public void testInverse() {
+    Affine2D t = new Affine2D().setRotate(.7f);
+    t.postScale(2, 3);
+    t.postTranslate(5, -2);
+    Affine2D inv = new Affine2D();
+    assertTrue(t.invert(inv));
+    Point pt = new Point(12, 7);
+    Point pt2 = inv.map(t.map(pt, new Point()));
+    assertEqualsFloat(pt.x, pt2.x, EPS);
+    assertEqualsFloat(pt.y, pt2.y, EPS);
+  }
+
+  public void testSingularNotInverted() {
+    Affine2D t = new Affine2D().setScale(0, 1);
+    Affine2D inv = new Affine2D();
+    assertFalse(t.invert(inv));
+    assertEquals(new Affine2D(), inv);
+  }
+
+  public void testEqualsConsistentWithHashCode() {
+    Affine2D t = new Affine2D().setRotate(.7f);
+    Affine2D u = new Affine2D().setRotate(.7f);
+    assertEquals(t, u);
+    assertEquals(t.hashCode(), u.hashCode());
+    Set<Affine2D> set = new HashSet();
+    set.add(t);
+    assertTrue(set.contains(u));
+    u.postTranslate(1, 0);
+    assertFalse(t.equals(u));
+    assertFalse(t.equals(new Point()));
+  }
+
+  public void testBatchMatchesSingle() {
+    Affine2D t = new Affine2D().setRotate(1.2f);
+    t.postTranslate(3, 4);
+    float[] coords = {1, 2, 3, 4, -5, 6};
+    float[] mapped = new float[coords.length];
+    t.map(coords, mapped);
+    PointArray array = new PointArray();
+    for (int i = 0; i < coords.length; i += 2)
+      array.add(coords[i], coords[i + 1]);
+    t.map(array);
+    for (int i = 0; i < array.size(); i++) {
+      Point pt = t.map(new Point(coords[2 * i], coords[2 * i + 1]));
+      assertEqualsFloat(pt.x, mapped[2 * i]);
+      assertEqualsFloat(pt.y, mapped[2 * i + 1]);
+      assertEqualsFloat(pt.x, array.x(i));
+      assertEqualsFloat(pt.y, array.y(i));
+    }
+  }
+}
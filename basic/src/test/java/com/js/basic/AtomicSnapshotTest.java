@@ -0,0 +1,119 @@
+package com.js.basic;
+
+import com.js.testUtils.MyTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.js.basic.Tools.*;
+
+public class AtomicSnapshotTest extends MyTestCase {
+
+  public void testStoresFrozenCopies() {
+    Point p = new Point(1, 2);
+    AtomicSnapshot<Point> snapshot = new AtomicSnapshot(p);
+    assertTrue(snapshot.get().isFrozen());
+    assertNotSame(p, snapshot.get());
+    // Changes to the original don't affect the stored copy
+    p.setTo(3, 4);
+    assertEquals(new Point(1, 2), snapshot.get());
+
+    Point q = Point.ZERO;
+    assertSame(q, snapshot.set(q));
+    assertSame(q, snapshot.get());
+  }
+
+  public void testCompareAndSet() {
+    AtomicSnapshot<Point> snapshot = new AtomicSnapshot(new Point(1, 2));
+    Point original = snapshot.get();
+    // Comparison is by identity, not equality
+    assertFalse(snapshot.compareAndSet(new Point(1, 2), new Point(5, 5)));
+    assertSame(original, snapshot.get());
+    assertTrue(snapshot.compareAndSet(original, new Point(5, 5)));
+    assertEquals(new Point(5, 5), snapshot.get());
+    assertTrue(snapshot.get().isFrozen());
+  }
+
+  public void testUpdatePoint() {
+    AtomicSnapshot<Point> snapshot = new AtomicSnapshot(new Point(1, 2));
+    Point updated = snapshot.update(new AtomicSnapshot.Modifier<Point>() {
+      @Override
+      public void modify(Point point) {
+        point.add(point);
+      }
+    });
+    assertTrue(updated.isFrozen());
+    assertEquals(new Point(2, 4), snapshot.get());
+  }
+
+  public void testNullNotPermitted() {
+    try {
+      new AtomicSnapshot<Point>(null);
+      failMissingException();
+    } catch (IllegalArgumentException e) {
+      doNothing();
+    }
+  }
+
+  public void testConcurrentUpdates() throws InterruptedException {
+    final int writerCount = 4;
+    final int updatesPerWriter = 500;
+    final AtomicSnapshot<FrozenList<Integer>> snapshot = new AtomicSnapshot(
+        new FrozenList<Integer>());
+    final AtomicReference<String> problem = new AtomicReference<String>();
+    final AtomicReference<Boolean> writing = new AtomicReference<Boolean>(
+        true);
+
+    List<Thread> writers = new ArrayList();
+    for (int i = 0; i < writerCount; i++) {
+      writers.add(new Thread() {
+        @Override
+        public void run() {
+          for (int j = 0; j < updatesPerWriter; j++) {
+            snapshot.update(new AtomicSnapshot.Modifier<FrozenList<Integer>>() {
+              @Override
+              public void modify(FrozenList<Integer> list) {
+                list.add(list.size());
+              }
+            });
+          }
+        }
+      });
+    }
+    Thread reader = new Thread() {
+      @Override
+      public void run() {
+        while (writing.get()) {
+          // Every version seen must be complete and consistent
+          FrozenList<Integer> list = snapshot.get();
+          if (!list.isFrozen())
+            problem.set("not frozen");
+          int index = 0;
+          for (int value : list) {
+            if (value != index)
+              problem.set("expected " + index + ", got " + value);
+            index++;
+          }
+          if (index != list.size())
+            problem.set("size mismatch");
+        }
+      }
+    };
+
+    reader.start();
+    for (Thread t : writers)
+      t.start();
+    for (Thread t : writers)
+      t.join();
+    writing.set(false);
+    reader.join();
+
+    assertNull(problem.get());
+    FrozenList<Integer> result = snapshot.get();
+    assertEquals(writerCount * updatesPerWriter, result.size());
+    for (int i = 0; i < result.size(); i++)
+      assertEquals(i, (int) result.get(i));
+  }
+
+}
@@ -0,0 +1,116 @@
+package com.js.basic;
+
+import com.js.testUtils.MyTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class ConvexHullTest extends MyTestCase {
+
+  private static double orientation(Point a, Point b, Point p) {
+    return ((double) b.x - a.x) * ((double) p.y - a.y) - ((double) p.x - a.x)
+        * ((double) b.y - a.y);
+  }
+
+  /**
+   * Verify that a hull is strictly convex, counterclockwise, and contains all
+   * the points
+   */
+  private static void verifyHull(PointArray points, PointArray hull) {
+    int n = hull.size();
+    for (int i = 0; i < n; i++) {
+      Point a = hull.get(i);
+      Point b = hull.get((i + 1) % n);
+      if (n >= 3)
+        assertTrue(orientation(a, b, hull.get((i + 2) % n)) > 0);
+      for (int j = 0; j < points.size(); j++)
+        assertTrue(orientation(a, b, points.get(j)) >= 0);
+    }
+  }
+
+  private PointArray randomPoints(int count, boolean disc) {
+    Random r = random();
+    PointArray points = new PointArray();
+    while (points.size() < count) {
+      float x = r.nextFloat() * 2 - 1;
+      float y = r.nextFloat() * 2 - 1;
+      if (disc && x * x + y * y > 1)
+        continue;
+      points.add(x * 1000, y * 1000);
+    }
+    return points;
+  }
+
+  public void testEmpty() {
+    assertEquals(0, ConvexHull.hull(new PointArray()).size());
+  }
+
+  public void testDegenerate() {
+    PointArray points = new PointArray();
+    points.add(5, 5);
+    points.add(5, 5);
+    assertEquals(1, ConvexHull.hull(points).size());
+    for (int i = 0; i < 10; i++)
+      points.add(i, i);
+    PointArray hull = ConvexHull.hull(points);
+    assertEquals(2, hull.size());
+    assertEqualsFloat(0, hull.x(0));
+    assertEqualsFloat(9, hull.x(1));
+  }
+
+  public void testSquareWithCollinearPoints() {
+    List<Point> points = new ArrayList();
+    for (int i = 0; i <= 10; i++) {
+      points.add(new Point(i, 0));
+      points.add(new Point(i, 10));
+      points.add(new Point(0, i));
+      points.add(new Point(10, i));
+      points.add(new Point(5, i));
+    }
+    List<Point> hull = ConvexHull.hull(points);
+    assertEquals(4, hull.size());
+    float[] expected = {0, 0, 10, 0, 10, 10, 0, 10};
+    for (int i = 0; i < 4; i++) {
+      assertEqualsFloat(expected[2 * i], hull.get(i).x);
+      assertEqualsFloat(expected[2 * i + 1], hull.get(i).y);
+    }
+  }
+
+  public void testRandom() {
+    for (int trial = 0; trial < 20; trial++) {
+      PointArray points = randomPoints(20 + trial * 50, trial % 2 == 0);
+      verifyHull(points, ConvexHull.hull(points));
+    }
+  }
+
+  public void testIntegerGrid() {
+    Random r = random();
+    PointArray points = new PointArray();
+    for (int i = 0; i < 2000; i++)
+      points.add(r.nextInt(20), r.nextInt(20));
+    verifyHull(points, ConvexHull.hull(points));
+  }
+
+  public void testManyPointsWithEqualX() {
+    // Points on two vertical lines all survive the initial filtering, and
+    // must be sorted by y within each line efficiently
+    Random r = random();
+    PointArray points = new PointArray();
+    for (int i = 0; i < 100000; i++)
+      points.add((i & 1) * 10, r.nextInt(100000));
+    points.add(0, -1);
+    points.add(10, -1);
+    points.add(0, 100000);
+    points.add(10, 100000);
+    PointArray hull = ConvexHull.hull(points);
+    assertEquals(4, hull.size());
+    verifyHull(points, hull);
+  }
+
+  public void testLargeInputInParallel() {
+    PointArray points = randomPoints(500000, true);
+    verifyHull(points, ConvexHull.hull(points));
+  }
+
+}
@@ -0,0 +1,154 @@
+package com.js.basic;
+
+import com.js.testUtils.MyTestCase;
+
+import static com.js.basic.Tools.*;
+
+public class CurveFlattenerTest extends MyTestCase {
+
+  private static Point cubicPoint(Point p0, Point p1, Point p2, Point p3,
+                                  float t) {
+    float s = 1 - t;
+    float a = s * s * s, b = 3 * s * s * t, c = 3 * s * t * t, d = t * t * t;
+    return new Point(a * p0.x + b * p1.x + c * p2.x + d * p3.x, a * p0.y + b
+        * p1.y + c * p2.y + d * p3.y);
+  }
+
+  private static float distanceToPolyline(Point pt, PointArray polyline) {
+    float min = Float.MAX_VALUE;
+    for (int i = 0; i + 1 < polyline.size(); i++)
+      min = Math.min(min, MyMath.ptDistanceToSegment(pt, polyline.get(i),
+          polyline.get(i + 1), null));
+    return min;
+  }
+
+  private static void verifyCubic(Point p0, Point p1, Point p2, Point p3,
+                                  float tolerance, PointArray polyline) {
+    assertEqualsFloat(p0.x, polyline.x(0));
+    assertEqualsFloat(p0.y, polyline.y(0));
+    int last = polyline.size() - 1;
+    assertEqualsFloat(p3.x, polyline.x(last));
+    assertEqualsFloat(p3.y, polyline.y(last));
+    for (int i = 0; i <= 1000; i++) {
+      Point pt = cubicPoint(p0, p1, p2, p3, i / 1000f);
+      assertTrue(distanceToPolyline(pt, polyline) <= tolerance * 1.001f + 1e-4f);
+    }
+  }
+
+  public void testStraightCubic() {
+    CurveFlattener f = new CurveFlattener(.01f);
+    PointArray polyline = f.cubic(0, 0, 1, 1, 2, 2, 3, 3, null);
+    assertEquals(2, polyline.size());
+  }
+
+  public void testCubicWithinTolerance() {
+    Point p0 = new Point(0, 0), p1 = new Point(10, 50);
+    Point p2 = new Point(90, -40), p3 = new Point(100, 10);
+    for (float tolerance : new float[]{5, 1, .1f, .01f}) {
+      PointArray polyline = new CurveFlattener(tolerance).cubic(p0, p1, p2,
+          p3, null);
+      verifyCubic(p0, p1, p2, p3, tolerance, polyline);
+    }
+  }
+
+  public void testRandomCubics() {
+    CurveFlattener f = new CurveFlattener(.05f);
+    PointArray polyline = new PointArray();
+    for (int i = 0; i < 50; i++) {
+      Point[] p = new Point[4];
+      for (int j = 0; j < 4; j++)
+        p[j] = new Point(random().nextFloat() * 100, random().nextFloat() * 100);
+      polyline.clear();
+      f.cubic(p[0], p[1], p[2], p[3], polyline);
+      verifyCubic(p[0], p[1], p[2], p[3], f.tolerance(), polyline);
+    }
+  }
+
+  public void testAdaptiveVertexCount() {
+    // A curve with a tight turn at one end should have shorter segments there
+    CurveFlattener f = new CurveFlattener(.01f);
+    PointArray polyline = f.cubic(0, 0, 100, 0, 100, 0, 100, 5, null);
+    int last = polyline.size() - 1;
+    float firstLength = MyMath.distanceBetween(polyline.get(0),
+        polyline.get(1));
+    float lastLength = MyMath.distanceBetween(polyline.get(last - 1),
+        polyline.get(last));
+    assertTrue(lastLength < firstLength / 2);
+  }
+
+  public void testQuadratic() {
+    Point p0 = new Point(0, 0), p1 = new Point(50, 100), p2 = new Point(100, 0);
+    float tolerance = .1f;
+    PointArray polyline = new CurveFlattener(tolerance).quadratic(p0, p1, p2,
+        null);
+    // The equivalent cubic
+    Point c1 = new Point(p0.x + (p1.x - p0.x) * 2 / 3, p0.y + (p1.y - p0.y) * 2
+        / 3);
+    Point c2 = new Point(p2.x + (p1.x - p2.x) * 2 / 3, p2.y + (p1.y - p2.y) * 2
+        / 3);
+    verifyCubic(p0, c1, c2, p2, tolerance, polyline);
+  }
+
+  public void testArc() {
+    float tolerance = .01f;
+    float radius = 20;
+    Point center = new Point(5, 7);
+    PointArray polyline = new CurveFlattener(tolerance).arc(center, radius, 0,
+        -MyMath.PI * 1.5f, null);
+    for (int i = 0; i < polyline.size(); i++)
+      assertEquals(radius, MyMath.distanceBetween(center, polyline.get(i)),
+          1e-4f);
+    assertEquals(center.x + radius, polyline.x(0), 1e-4f);
+    int last = polyline.size() - 1;
+    assertEquals(center.x, polyline.x(last), 1e-4f);
+    assertEquals(center.y + radius, polyline.y(last), 1e-4f);
+    // Each chord's midpoint must be within tolerance of the arc
+    for (int i = 0; i < last; i++) {
+      Point mid = MyMath.interpolateBetween(polyline.get(i),
+          polyline.get(i + 1), .5f);
+      assertTrue(radius - MyMath.distanceBetween(center, mid) <= tolerance);
+    }
+    // Clockwise sweep: y decreases first
+    assertTrue(polyline.y(1) < center.y);
+  }
+
+  public void testArcVertexCount() {
+    CurveFlattener f = new CurveFlattener(.1f);
+    int small = f.arc(0, 0, 1, 0, MyMath.PI * 2, null).size();
+    int large = f.arc(0, 0, 100, 0, MyMath.PI * 2, null).size();
+    assertTrue(large > small * 5);
+  }
+
+  public void testFullCircleSmallerThanTolerance() {
+    float tolerance = 1;
+    float radius = .75f;
+    PointArray polyline = new CurveFlattener(tolerance).arc(0, 0, radius, 0,
+        MyMath.PI * 2, null);
+    assertTrue(polyline.size() >= 3);
+    for (int i = 0; i <= 100; i++) {
+      float angle = MyMath.PI * 2 * i / 100;
+      Point pt = new Point(radius * (float) Math.cos(angle), radius
+          * (float) Math.sin(angle));
+      assertTrue(distanceToPolyline(pt, polyline) <= tolerance);
+    }
+  }
+
+  public void testPathSharesJoints() {
+    CurveFlattener f = new CurveFlattener(1);
+    PointArray path = f.cubic(0, 0, 0, 0, 10, 0, 10, 0, null);
+    int size = path.size();
+    f.quadratic(10, 0, 20, 0, 20, 10, path);
+    // The quadratic's start point was not repeated
+    assertFalse(path.x(size) == 10 && path.y(size) == 0);
+  }
+
+  public void testBadTolerance() {
+    try {
+      new CurveFlattener(0);
+      failMissingException();
+    } catch (IllegalArgumentException e) {
+      doNothing();
+    }
+  }
+
+}
@@ -0,0 +1,196 @@
+package com.js.basic;
+
+import com.js.testUtils.MyTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.js.basic.Tools.*;
+
+public class DMathTest extends MyTestCase {
+
+  private static DPoint p(double x, double y) {
+    return new DPoint(x, y);
+  }
+
+  private static void assertMatches(double expected, double actual,
+                                    double tolerance) {
+    if (!Double.isNaN(expected))
+      assertEquals(expected, actual, tolerance);
+  }
+
+  /**
+   * Verify the segment intersection vectors, after mapping each coordinate c
+   * to c * scale + offset
+   */
+  private static void verifySegSegVectors(double scale, double offset) {
+    DPoint ipt = new DPoint();
+    double[] params = new double[2];
+    double tolerance = 1e-9 * Math.max(scale, Math.abs(offset));
+    for (double[] v : GeometryTestVectors.SEG_SEG) {
+      double[] c = new double[8];
+      for (int i = 0; i < 8; i++)
+        c[i] = v[i] * scale + offset;
+      int status = DMath.segSegIntersection(c[0], c[1], c[2], c[3], c[4], c[5],
+          c[6], c[7], ipt, params);
+      assertEquals((int) v[8], status);
+      if (status != MyMath.INTERSECT_HIT)
+        continue;
+      assertMatches(v[9] * scale + offset, ipt.x, tolerance);
+      assertMatches(v[10] * scale + offset, ipt.y, tolerance);
+      assertMatches(v[11], params[0], 1e-9);
+      assertMatches(v[12], params[1], 1e-9);
+    }
+  }
+
+  private static void verifyLineLineVectors(double scale, double offset) {
+    DPoint ipt = new DPoint();
+    double[] param = new double[1];
+    double tolerance = 1e-9 * Math.max(scale, Math.abs(offset));
+    for (double[] v : GeometryTestVectors.LINE_LINE) {
+      double[] c = new double[8];
+      for (int i = 0; i < 8; i++)
+        c[i] = v[i] * scale + offset;
+      int status = DMath.lineLineIntersection(c[0], c[1], c[2], c[3], c[4],
+          c[5], c[6], c[7], ipt, param);
+      assertEquals((int) v[8], status);
+      if (status != MyMath.INTERSECT_HIT)
+        continue;
+      assertMatches(v[9] * scale + offset, ipt.x, tolerance);
+      assertMatches(v[10] * scale + offset, ipt.y, tolerance);
+      assertMatches(v[11], param[0], 1e-9);
+    }
+  }
+
+  public void testSegSegVectors() {
+    verifySegSegVectors(1, 0);
+  }
+
+  public void testLineLineVectors() {
+    verifyLineLineVectors(1, 0);
+  }
+
+  public void testIntersectionsAtLargeAndSmallScales() {
+    // At these scales, MyMath's absolute thresholds misclassify the vectors
+    // (e.g. reporting intersecting segments as parallel)
+    double[] scales = {1e-6, 1e6};
+    for (double scale : scales) {
+      verifySegSegVectors(scale, 0);
+      verifyLineLineVectors(scale, 0);
+    }
+    verifySegSegVectors(1, 1e8);
+    verifyLineLineVectors(1, 1e8);
+  }
+
+  public void testFloatThresholdsAreScaleDependent() {
+    // The case that motivates DMath: a clear intersection, reported as
+    // collinear by MyMath since its denominator is tiny in absolute terms
+    float s = 1e-6f;
+    assertEquals(MyMath.INTERSECT_COLLINEAR, MyMath.segSegIntersection(0, 0,
+        10 * s, 10 * s, 0, 10 * s, 10 * s, 0, null, null));
+    assertEquals(MyMath.INTERSECT_HIT, DMath.segSegIntersection(0, 0, 10 * s,
+        10 * s, 0, 10 * s, 10 * s, 0, null, null));
+  }
+
+  public void testSegmentsTouchingAtEndpoints() {
+    // (MyMath misses these, since its bounding box tolerance is lost to
+    // rounding)
+    DPoint ipt = new DPoint();
+    double[] params = new double[2];
+    assertEquals(MyMath.INTERSECT_HIT, DMath.segSegIntersection(p(0, 0),
+        p(2, 2), p(2, 2), p(4, 0), ipt, params));
+    assertEquals(2.0, ipt.x);
+    assertEquals(2.0, ipt.y);
+    assertEquals(1.0, params[0]);
+    assertEquals(0.0, params[1], 0);
+  }
+
+  public void testSegHorzLineVectors() {
+    DPoint ipt = new DPoint();
+    double[] param = new double[1];
+    for (double[] v : GeometryTestVectors.SEG_HORZ_LINE) {
+      int status = DMath.segHorzLineIntersection(p(v[0], v[1]), p(v[2], v[3]),
+          v[4], ipt, param);
+      assertEquals((int) v[5], status);
+      if (status == MyMath.INTERSECT_HIT) {
+        assertMatches(v[6], ipt.x, 1e-12);
+        assertEquals(v[4], ipt.y);
+      }
+    }
+  }
+
+  public void testPtSegmentDistanceVectors() {
+    for (double[] v : GeometryTestVectors.PT_SEGMENT_DISTANCE) {
+      DPoint closest = new DPoint();
+      double distance = DMath.ptDistanceToSegment(p(v[0], v[1]),
+          p(v[2], v[3]), p(v[4], v[5]), closest);
+      assertMatches(v[6], distance, 1e-12);
+      assertMatches(v[6], DMath.distanceBetween(p(v[0], v[1]), closest), 1e-12);
+      double squared = DMath.squaredPtDistanceToSegment(v[0], v[1], v[2], v[3],
+          v[4], v[5]);
+      assertMatches(v[6] * v[6], squared, 1e-12);
+    }
+  }
+
+  public void testSideOfLineVectors() {
+    for (double[] v : GeometryTestVectors.SIDE_OF_LINE) {
+      double side = DMath.sideOfLine(p(v[0], v[1]), p(v[2], v[3]),
+          p(v[4], v[5]));
+      assertEquals((int) v[6], (int) Math.signum(side));
+    }
+  }
+
+  public void testPseudoPolarAngleVectors() {
+    for (double[] v : GeometryTestVectors.PSEUDO_POLAR_ANGLE)
+      assertMatches(v[2], DMath.pseudoPolarAngle(v[0], v[1]), 1e-12);
+  }
+
+  public void testAnglesOfZeroVector() {
+    try {
+      DMath.polarAngle(0, 0);
+      failMissingException();
+    } catch (GeometryException e) {
+      doNothing();
+    }
+    try {
+      DMath.pseudoPolarAngle(0, 0);
+      failMissingException();
+    } catch (GeometryException e) {
+      doNothing();
+    }
+    // A tiny (but nonzero) vector is fine
+    assertEquals(Math.PI / 4, DMath.polarAngle(1e-20, 1e-20), 1e-12);
+  }
+
+  public void testDRect() {
+    List<DPoint> points = new ArrayList();
+    points.add(p(1e9, 2));
+    points.add(p(1e9 + 3, -4));
+    points.add(p(1e9 + 1, 5));
+    DRect r = DRect.rectContainingPoints(points);
+    assertEquals(1e9, r.x);
+    assertEquals(-4.0, r.y);
+    assertEquals(3.0, r.width);
+    assertEquals(9.0, r.height);
+    assertTrue(r.contains(p(1e9 + 2, 0)));
+    assertFalse(r.contains(p(1e9 - .5, 0)));
+    assertEquals(.5, r.distanceFrom(p(1e9 - .5, 0)), 1e-12);
+    assertTrue(r.intersects(new DRect(1e9 + 2, 4, 10, 10)));
+    assertFalse(r.intersects(new DRect(1e9 + 4, 4, 10, 10)));
+
+    DRect r2 = new DRect(r);
+    r2.include(p(0, 0));
+    assertEquals(0.0, r2.x);
+    assertTrue(r2.contains(r));
+  }
+
+  public void testConversions() {
+    DPoint pt = new DPoint(new Point(1.5f, -2));
+    assertEquals(1.5, pt.x);
+    Point fp = p(3, 4).toPoint();
+    assertEqualsFloat(3, fp.x);
+    assertEqualsFloat(5, (float) p(3, 4).magnitude());
+    Rect r = new DRect(new Rect(1, 2, 3, 4)).toRect();
+    assertTrue(r.equals(new Rect(1, 2, 3, 4)));
+  }
+}
@@ -0,0 +1,166 @@
+package com.js.basic;
+
+import com.js.testUtils.MyTestCase;
+
+import java.util.Random;
+
+import static com.js.basic.Tools.*;
+
+public class FastTrigTest extends MyTestCase {
+
+  private static final float TWO_PI = (float) (2 * Math.PI);
+
+  private static void verifySinCos(FastTrig trig, float angle) {
+    float sinError = (float) Math.abs(trig.sin(angle) - Math.sin(angle));
+    float cosError = (float) Math.abs(trig.cos(angle) - Math.cos(angle));
+    if (sinError > trig.maxSinError() || cosError > trig.maxSinError())
+      fail("angle " + angle + " sin error " + sinError + " cos error "
+          + cosError + " exceeds " + trig.maxSinError());
+  }
+
+  private static void verifyAtan2(FastTrig trig, float y, float x) {
+    float error = (float) Math.abs(trig.atan2(y, x) - Math.atan2(y, x));
+    if (error > trig.maxAtanError())
+      fail("atan2(" + y + "," + x + ") error " + error + " exceeds "
+          + trig.maxAtanError());
+  }
+
+  public void testSinCosWithinErrorBound() {
+    Random r = random();
+    for (int size = 4; size <= 65536; size *= 4) {
+      FastTrig trig = new FastTrig(size);
+      for (int i = 0; i < 20000; i++)
+        verifySinCos(trig, (r.nextFloat() * 2 - 1) * 2 * TWO_PI);
+    }
+  }
+
+  public void testSinCosAtSpecialAngles() {
+    FastTrig trig = FastTrig.DEFAULT;
+    for (int i = -16; i <= 16; i++)
+      verifySinCos(trig, i * TWO_PI / 16);
+    verifySinCos(trig, 0);
+    verifySinCos(trig, -0.0f);
+    verifySinCos(trig, Float.MIN_VALUE);
+    verifySinCos(trig, -Float.MIN_VALUE);
+  }
+
+  public void testSinCosOfLargeAngles() {
+    Random r = random();
+    float[] angles = {FastTrig.MAX_TABLE_ANGLE, -FastTrig.MAX_TABLE_ANGLE,
+        Math.nextUp(FastTrig.MAX_TABLE_ANGLE), 3.3e6f, 4e6f, -4e6f, 1e9f,
+        1e20f, Float.MAX_VALUE, -Float.MAX_VALUE};
+    for (int size = 4; size <= 65536; size *= 4) {
+      FastTrig trig = new FastTrig(size);
+      for (float angle : angles)
+        verifySinCos(trig, angle);
+      for (int i = 0; i < 2000; i++)
+        verifySinCos(trig, (float) Math.pow(10, r.nextFloat() * 38)
+            * (r.nextBoolean() ? 1 : -1));
+    }
+    float[] output = new float[angles.length];
+    FastTrig.DEFAULT.sin(angles, output, angles.length);
+    for (int i = 0; i < angles.length; i++)
+      assertEquals(FastTrig.DEFAULT.sin(angles[i]), output[i]);
+    FastTrig.DEFAULT.cos(angles, output, angles.length);
+    for (int i = 0; i < angles.length; i++)
+      assertEquals(FastTrig.DEFAULT.cos(angles[i]), output[i]);
+    assertTrue(Float.isNaN(FastTrig.DEFAULT.sin(Float.POSITIVE_INFINITY)));
+    assertTrue(Float.isNaN(FastTrig.DEFAULT.cos(Float.NaN)));
+  }
+
+  public void testErrorBoundShrinksWithTableSize() {
+    float previous = Float.MAX_VALUE;
+    for (int size = 4; size <= 4096; size *= 2) {
+      float bound = new FastTrig(size).maxSinError();
+      assertTrue(bound < previous);
+      previous = bound;
+    }
+    assertTrue(FastTrig.DEFAULT.maxSinError() < 1e-6f);
+    assertTrue(FastTrig.DEFAULT.maxAtanError() < 1e-6f);
+  }
+
+  public void testAtan2WithinErrorBound() {
+    Random r = random();
+    for (int size = 4; size <= 65536; size *= 4) {
+      FastTrig trig = new FastTrig(size);
+      for (int i = 0; i < 20000; i++)
+        verifyAtan2(trig, r.nextFloat() * 200 - 100, r.nextFloat() * 200 - 100);
+    }
+  }
+
+  public void testAtan2OnAxesAndDiagonals() {
+    FastTrig trig = FastTrig.DEFAULT;
+    float[] values = {-3, -1, 0, 1, 3};
+    for (float y : values)
+      for (float x : values)
+        if (x != 0 || y != 0)
+          verifyAtan2(trig, y, x);
+    verifyAtan2(trig, 1e-30f, 1);
+    verifyAtan2(trig, 1, 1e-30f);
+    verifyAtan2(trig, 1e30f, -1e30f);
+  }
+
+  public void testAtan2OfZeroVector() {
+    assertEquals(0f, FastTrig.DEFAULT.atan2(0, 0));
+  }
+
+  public void testPointOnCircle() {
+    FastTrig trig = FastTrig.DEFAULT;
+    Point origin = new Point(10, -20);
+    Point dest = new Point();
+    Random r = random();
+    for (int i = 0; i < 100; i++) {
+      float angle = r.nextFloat() * TWO_PI;
+      float radius = r.nextFloat() * 50;
+      Point result = trig.pointOnCircle(origin, angle, radius, dest);
+      assertSame(dest, result);
+      Point expected = MyMath.pointOnCircle(origin, angle, radius);
+      assertEquals(expected.x, result.x, radius * 2e-6f + 1e-5f);
+      assertEquals(expected.y, result.y, radius * 2e-6f + 1e-5f);
+    }
+    assertNotNull(trig.pointOnCircle(origin, 1, 1, null));
+  }
+
+  public void testBulkMatchesScalar() {
+    FastTrig trig = FastTrig.DEFAULT;
+    Random r = random();
+    int count = 1000;
+    float[] angles = new float[count + 5];
+    float[] ys = new float[count];
+    float[] xs = new float[count];
+    for (int i = 0; i < count; i++) {
+      angles[i] = (r.nextFloat() * 2 - 1) * 10;
+      ys[i] = r.nextFloat() * 2 - 1;
+      xs[i] = r.nextFloat() * 2 - 1;
+    }
+    float[] output = new float[count];
+    trig.sin(angles, output, count);
+    for (int i = 0; i < count; i++)
+      assertEquals(trig.sin(angles[i]), output[i]);
+    trig.cos(angles, output, count);
+    for (int i = 0; i < count; i++)
+      assertEquals(trig.cos(angles[i]), output[i]);
+    trig.atan2(ys, xs, output, count);
+    for (int i = 0; i < count; i++)
+      assertEquals(trig.atan2(ys[i], xs[i]), output[i]);
+
+    // Output can overwrite input
+    float[] copy = angles.clone();
+    trig.sin(copy, copy, count);
+    for (int i = 0; i < count; i++)
+      assertEquals(trig.sin(angles[i]), copy[i]);
+  }
+
+  public void testBadTableSize() {
+    int[] sizes = {0, 2, 5, 100, -8};
+    for (int size : sizes) {
+      try {
+        new FastTrig(size);
+        failMissingException();
+      } catch (IllegalArgumentException e) {
+        doNothing();
+      }
+    }
+    assertEquals(64, new FastTrig(64).tableSize());
+  }
+}
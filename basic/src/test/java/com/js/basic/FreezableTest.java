@@ -86,7 +86,7 @@ public class FreezableTest extends MyTestCase {
     return mLiveThreadCount;
   }
 
-  private enum EvalType {SYNCHRONIZED, NONSYNCHRONIZED}
+  private enum EvalType {SYNCHRONIZED, NONSYNCHRONIZED, MEMO}
 
   private class AlphaEvaluator implements Runnable {
 
@@ -109,6 +109,9 @@ public class FreezableTest extends MyTestCase {
         case NONSYNCHRONIZED:
           mAlpha.getSecondName(this);
           break;
+        case MEMO:
+          mAlpha.getThirdName();
+          break;
       }
 
       adjustLiveThreadCount(-1);
@@ -182,6 +185,217 @@ public class FreezableTest extends MyTestCase {
     assertTrue(mLazyEvaluations > 1);
   }
 
+  public void testMemoEvaluatedOnceWhenShared() {
+    performLazyEvaluationOfType(EvalType.MEMO);
+    assertEquals(1, mLazyEvaluations);
+  }
+
+  public void testMemoRequiringFrozenThrowsWhenMutable() {
+    Alpha a = alpha();
+    try {
+      a.getThirdName();
+      fail();
+    } catch (IllegalStateException e) {
+      doNothing();
+    }
+  }
+
+  public void testMemoBypassedWhenMutable() {
+    Alpha a = alpha();
+    a.setValue(5);
+    assertEquals(10, a.doubledValue());
+    a.setValue(6);
+    assertEquals(12, a.doubledValue());
+    assertFalse(a.mDoubled.isCached());
+    a.freeze();
+    assertEquals(12, a.doubledValue());
+    assertTrue(a.mDoubled.isCached());
+    // A mutable copy has its own, uncached memo
+    Alpha b = mutableCopyOf(a);
+    b.setValue(7);
+    assertEquals(14, b.doubledValue());
+    assertEquals(12, a.doubledValue());
+  }
+
+  public void testVersionIncreasesWithChanges() {
+    Alpha a = alpha();
+    long version = a.version();
+    a.setValue(3);
+    assertTrue(a.version() > version);
+    version = a.version();
+    a.value();
+    assertEquals(version, a.version());
+  }
+
+  public void testChangeListeners() {
+    final ArrayList<Freezable.Mutable> notified = new ArrayList();
+    Freezable.Mutable.ChangeListener listener =
+        new Freezable.Mutable.ChangeListener() {
+      @Override
+      public void objectChanging(Freezable.Mutable object) {
+        notified.add(object);
+      }
+    };
+    Alpha a = alpha();
+    a.addChangeListener(listener);
+    a.setValue(3);
+    a.setValue(4);
+    assertEquals(2, notified.size());
+    assertSame(a, notified.get(0));
+
+    // Copies don't inherit listeners
+    Alpha b = mutableCopyOf(a);
+    b.setValue(0);
+    assertEquals(2, notified.size());
+
+    a.removeChangeListener(listener);
+    a.setValue(5);
+    assertEquals(2, notified.size());
+  }
+
+  public void testChangeTrackingEnabledOnDemand() {
+    Alpha a = alpha();
+    // Modifications before tracking is enabled aren't counted
+    a.setValue(1);
+    a.setValue(2);
+    assertEquals(0, a.version());
+    a.setValue(3);
+    assertEquals(1, a.version());
+    a.freeze();
+    assertEquals(1, a.version());
+    assertEquals(0, frozen(alpha()).version());
+  }
+
+  public void testFrozenListNotifiesOncePerChange() {
+    final int[] count = new int[1];
+    FrozenList<Integer> list = new FrozenList();
+    list.add(1);
+    list.addChangeListener(new Freezable.Mutable.ChangeListener() {
+      @Override
+      public void objectChanging(Freezable.Mutable object) {
+        count[0]++;
+      }
+    });
+    list.removeLast();
+    assertEquals(1, count[0]);
+    assertEquals(1, list.version());
+  }
+
+  public void testListenerMayRemoveItselfWhileNotified() {
+    Alpha a = alpha();
+    final int[] counts = new int[2];
+    a.addChangeListener(new Freezable.Mutable.ChangeListener() {
+      @Override
+      public void objectChanging(Freezable.Mutable object) {
+        counts[0]++;
+        object.removeChangeListener(this);
+      }
+    });
+    a.addChangeListener(new Freezable.Mutable.ChangeListener() {
+      @Override
+      public void objectChanging(Freezable.Mutable object) {
+        counts[1]++;
+      }
+    });
+    a.setValue(1);
+    a.setValue(2);
+    assertEquals(1, counts[0]);
+    assertEquals(2, counts[1]);
+  }
+
+  public void testFrozenPointAndRect() {
+    Point p = new Point(1, 2);
+    Point fp = frozen(p);
+    assertNotSame(p, fp);
+    assertSame(fp, frozen(fp));
+    assertSame(fp, copyOf(fp));
+    assertEquals(p, fp);
+    assertEquals(p.hashCode(), fp.hashCode());
+    try {
+      fp.setTo(3, 4);
+      fail();
+    } catch (Freezable.IllegalMutationException e) {
+      doNothing();
+    }
+    Point mp = mutableCopyOf(fp);
+    mp.add(p);
+    assertEqualsFloat(2, mp.x);
+
+    Rect r = frozen(new Rect(1, 2, 3, 4));
+    assertSame(r, copyOf(r));
+    assertEquals(new Rect(1, 2, 3, 4), r);
+    assertEquals(new Rect(1, 2, 3, 4).hashCode(), r.hashCode());
+    try {
+      r.translate(1, 1);
+      fail();
+    } catch (Freezable.IllegalMutationException e) {
+      doNothing();
+    }
+    try {
+      Point.ZERO.setTo(1, 1);
+      fail();
+    } catch (Freezable.IllegalMutationException e) {
+      doNothing();
+    }
+  }
+
+  public void testPointAndRectFrozenInPlace() {
+    Point p = new Point(1, 2);
+    assertTrue(frozen(p) instanceof FrozenPoint);
+    assertTrue(copyOf(p) != p && !copyOf(p).isFrozen());
+    assertSame(p, freeze(p));
+    assertTrue(p.isFrozen());
+    assertSame(p, frozen(p));
+    assertSame(p, copyOf(p));
+    try {
+      p.setTo(3, 4);
+      fail();
+    } catch (Freezable.IllegalMutationException e) {
+      doNothing();
+    }
+    Point mp = mutableCopyOf(p);
+    assertFalse(mp.isFrozen());
+    mp.setTo(3, 4);
+
+    Rect r = new Rect(1, 2, 3, 4);
+    r.freeze();
+    assertSame(r, frozen(r));
+    try {
+      r.translate(1, 1);
+      fail();
+    } catch (Freezable.IllegalMutationException e) {
+      doNothing();
+    }
+    assertFalse(mutableCopyOf(r).isFrozen());
+  }
+
+  public void testRectEqualsConsistentWithHashCode() {
+    Rect a = new Rect(0, 0, 1, 1);
+    Rect b = new Rect(-0.0f, 0, 1, 1);
+    // Overload resolution mustn't pick a method with different semantics
+    assertFalse(a.equals(b));
+    assertFalse(a.equals((Object) b));
+    Rect n = new Rect(Float.NaN, 0, 1, 1);
+    assertTrue(n.equals(new Rect(Float.NaN, 0, 1, 1)));
+    assertEquals(n.hashCode(), new Rect(Float.NaN, 0, 1, 1).hashCode());
+  }
+
+  public void testInterner() {
+    Interner<Point> interner = new Interner();
+    Point a = new Point(1, 2);
+    Point canonical = interner.intern(a);
+    assertTrue(canonical.isFrozen());
+    assertFalse(a.isFrozen());
+    assertSame(canonical, interner.intern(new Point(1, 2)));
+    assertSame(canonical, interner.intern(canonical));
+    assertNotSame(canonical, interner.intern(new Point(2, 1)));
+    assertEquals(2, interner.size());
+
+    Interner<Rect> rects = new Interner();
+    Rect r = rects.intern(new Rect(0, 0, 5, 5));
+    assertSame(r, rects.intern(new Rect(0, 0, 5, 5)));
+  }
+
   /**
    * Construct another Alpha object, with value one more than the previously constructed one
    */
@@ -287,9 +501,36 @@ public class FreezableTest extends MyTestCase {
       return mSecondName;
     }
 
+    /**
+     * Lazy-initialized property, using a Memo; only valid for frozen instances
+     */
+    public String getThirdName() {
+      return mThirdName.get();
+    }
+
+    public int doubledValue() {
+      return mDoubled.get();
+    }
+
     private int mValue;
     private volatile String mFirstName;
     private volatile String mSecondName;
+    private final Memo<String> mThirdName = new Memo<String>(this, true) {
+      @Override
+      protected String compute() {
+        sleep();
+        sleep();
+        sleep();
+        incrementEvaluationsCount(Alpha.this);
+        return "ThirdName(" + value() + ")";
+      }
+    };
+    private final Memo<Integer> mDoubled = new Memo<Integer>(this) {
+      @Override
+      protected Integer compute() {
+        return value() * 2;
+      }
+    };
   }
 
 }
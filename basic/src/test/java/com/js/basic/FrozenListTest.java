@@ -0,0 +1,126 @@
+package com.js.basic;
+
+import com.js.testUtils.MyTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.js.basic.Tools.*;
+
+public class FrozenListTest extends MyTestCase {
+
+  private static void verify(List<Integer> expected, FrozenList<Integer> list) {
+    assertEquals(expected.size(), list.size());
+    for (int i = 0; i < expected.size(); i++)
+      assertEquals(expected.get(i), list.get(i));
+    assertEquals(expected, list.toList());
+  }
+
+  public void testAddAndGet() {
+    FrozenList<Integer> list = new FrozenList();
+    List<Integer> expected = new ArrayList();
+    // Enough elements for a trie three levels deep
+    for (int i = 0; i < 40000; i++) {
+      list.add(i);
+      expected.add(i);
+    }
+    verify(expected, list);
+  }
+
+  public void testRandomOperationsMatchArrayList() {
+    FrozenList<Integer> list = new FrozenList();
+    List<Integer> expected = new ArrayList();
+    for (int step = 0; step < 20000; step++) {
+      int op = random().nextInt(10);
+      if (op < 6 || expected.isEmpty()) {
+        int value = random().nextInt();
+        list.add(value);
+        expected.add(value);
+      } else if (op < 8) {
+        int index = random().nextInt(expected.size());
+        int value = random().nextInt();
+        assertEquals(expected.set(index, value), list.set(index, value));
+      } else {
+        assertEquals(expected.remove(expected.size() - 1), list.removeLast());
+      }
+    }
+    verify(expected, list);
+    while (!expected.isEmpty())
+      assertEquals(expected.remove(expected.size() - 1), list.removeLast());
+    assertTrue(list.isEmpty());
+  }
+
+  public void testFrozenSnapshotUnaffectedByChanges() {
+    FrozenList<Integer> list = new FrozenList();
+    List<Integer> expected = new ArrayList();
+    for (int i = 0; i < 3000; i++) {
+      list.add(i);
+      expected.add(i);
+    }
+    FrozenList<Integer> snapshot = frozen(list);
+    List<Integer> snapshotExpected = new ArrayList(expected);
+
+    // Keep modifying the original
+    for (int i = 0; i < 3000; i += 7)
+      list.set(i, -i);
+    for (int i = 0; i < 1500; i++)
+      list.removeLast();
+    for (int i = 0; i < 100; i++)
+      list.add(i * 1000);
+
+    verify(snapshotExpected, snapshot);
+    assertTrue(snapshot.isFrozen());
+    assertSame(snapshot, frozen(snapshot));
+    assertSame(snapshot, copyOf(snapshot));
+  }
+
+  public void testMutableCopiesAreIndependent() {
+    FrozenList<String> a = new FrozenList();
+    for (int i = 0; i < 100; i++)
+      a.add("a" + i);
+    FrozenList<String> b = mutableCopyOf(a);
+    a.set(5, "changed in a");
+    b.set(5, "changed in b");
+    a.add("extra");
+    assertEquals("changed in a", a.get(5));
+    assertEquals("changed in b", b.get(5));
+    assertEquals(101, a.size());
+    assertEquals(100, b.size());
+    assertEquals("a6", b.get(6));
+  }
+
+  public void testFrozenListNotMutable() {
+    FrozenList<Integer> list = frozen(new FrozenList<Integer>());
+    try {
+      list.add(1);
+      fail();
+    } catch (Freezable.IllegalMutationException e) {
+      doNothing();
+    }
+  }
+
+  public void testEqualsAndNulls() {
+    List<String> elements = new ArrayList();
+    for (int i = 0; i < 50; i++)
+      elements.add(i % 3 == 0 ? null : "x" + i);
+    FrozenList<String> a = new FrozenList(elements);
+    FrozenList<String> b = frozen(new FrozenList(elements));
+    assertEquals(a, b);
+    assertEquals(a.hashCode(), b.hashCode());
+    assertEquals(elements.hashCode(), a.hashCode());
+    a.set(1, "different");
+    assertFalse(a.equals(b));
+  }
+
+  public void testIndexOutOfBounds() {
+    FrozenList<Integer> list = new FrozenList();
+    list.add(1);
+    try {
+      list.get(1);
+      fail();
+    } catch (IndexOutOfBoundsException e) {
+      doNothing();
+    }
+  }
+
+}
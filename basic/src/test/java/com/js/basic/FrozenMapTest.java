@@ -0,0 +1,147 @@
+package com.js.basic;
+
+import com.js.testUtils.MyTestCase;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.js.basic.Tools.*;
+
+public class FrozenMapTest extends MyTestCase {
+
+  /**
+   * A key whose hash code is deliberately poor, to produce collisions
+   */
+  private static class Key {
+    Key(int value) {
+      mValue = value;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof Key && ((Key) obj).mValue == mValue;
+    }
+
+    @Override
+    public int hashCode() {
+      return mValue % 7;
+    }
+
+    private final int mValue;
+  }
+
+  private static <K, V> void verify(Map<K, V> expected, FrozenMap<K, V> map) {
+    assertEquals(expected.size(), map.size());
+    for (Map.Entry<K, V> entry : expected.entrySet()) {
+      assertTrue(map.containsKey(entry.getKey()));
+      assertEquals(entry.getValue(), map.get(entry.getKey()));
+    }
+    assertEquals(expected, map.toMap());
+  }
+
+  public void testRandomOperationsMatchHashMap() {
+    FrozenMap<Integer, Integer> map = new FrozenMap();
+    Map<Integer, Integer> expected = new HashMap();
+    for (int step = 0; step < 30000; step++) {
+      int key = random().nextInt(5000);
+      if (random().nextInt(3) != 0) {
+        int value = random().nextInt();
+        assertEquals(expected.put(key, value), map.put(key, value));
+      } else {
+        assertEquals(expected.remove(key), map.remove(key));
+      }
+    }
+    verify(expected, map);
+    for (Integer key : new HashMap<Integer, Integer>(expected).keySet())
+      assertEquals(expected.remove(key), map.remove(key));
+    assertTrue(map.isEmpty());
+    assertFalse(map.iterator().hasNext());
+  }
+
+  public void testCollisions() {
+    FrozenMap<Key, Integer> map = new FrozenMap();
+    Map<Key, Integer> expected = new HashMap();
+    for (int i = 0; i < 200; i++) {
+      map.put(new Key(i), i);
+      expected.put(new Key(i), i);
+    }
+    verify(expected, map);
+    FrozenMap<Key, Integer> snapshot = frozen(map);
+    Map<Key, Integer> snapshotExpected = new HashMap(expected);
+    for (int i = 0; i < 200; i += 3) {
+      map.remove(new Key(i));
+      expected.remove(new Key(i));
+    }
+    verify(expected, map);
+    verify(snapshotExpected, snapshot);
+  }
+
+  public void testFrozenSnapshotUnaffectedByChanges() {
+    FrozenMap<String, Integer> map = new FrozenMap();
+    for (int i = 0; i < 1000; i++)
+      map.put("k" + i, i);
+    Map<String, Integer> snapshotExpected = map.toMap();
+    FrozenMap<String, Integer> snapshot = frozen(map);
+    assertSame(snapshot, copyOf(snapshot));
+
+    for (int i = 0; i < 1000; i += 2)
+      map.remove("k" + i);
+    for (int i = 1; i < 1000; i += 4)
+      map.put("k" + i, -i);
+    map.put("new", 0);
+
+    verify(snapshotExpected, snapshot);
+    assertEquals(501, map.size());
+  }
+
+  public void testMutableCopiesAreIndependent() {
+    FrozenMap<String, String> a = new FrozenMap();
+    for (int i = 0; i < 100; i++)
+      a.put("k" + i, "v" + i);
+    FrozenMap<String, String> b = mutableCopyOf(a);
+    a.put("k5", "a");
+    b.put("k5", "b");
+    a.remove("k6");
+    assertEquals("a", a.get("k5"));
+    assertEquals("b", b.get("k5"));
+    assertEquals("v6", b.get("k6"));
+    assertFalse(a.containsKey("k6"));
+  }
+
+  public void testNullValuesAndKeys() {
+    FrozenMap<String, String> map = new FrozenMap();
+    map.put("a", null);
+    assertTrue(map.containsKey("a"));
+    assertNull(map.get("a"));
+    assertEquals(1, map.size());
+    try {
+      map.put(null, "x");
+      failMissingException();
+    } catch (IllegalArgumentException e) {
+      doNothing();
+    }
+  }
+
+  public void testEquals() {
+    Map<String, Integer> source = new HashMap();
+    for (int i = 0; i < 300; i++)
+      source.put("k" + i, i);
+    FrozenMap<String, Integer> a = new FrozenMap(source);
+    FrozenMap<String, Integer> b = frozen(new FrozenMap(source));
+    assertEquals(a, b);
+    assertEquals(source.hashCode(), a.hashCode());
+    a.put("k0", -1);
+    assertFalse(a.equals(b));
+  }
+
+  public void testFrozenMapNotMutable() {
+    FrozenMap<String, String> map = frozen(new FrozenMap<String, String>());
+    try {
+      map.put("a", "b");
+      fail();
+    } catch (Freezable.IllegalMutationException e) {
+      doNothing();
+    }
+  }
+
+}
@@ -0,0 +1,175 @@
+package com.js.basic;
+
+import com.js.testUtils.MyTestCase;
+
+import static com.js.basic.Tools.*;
+
+public class GeometryPoolTest extends MyTestCase {
+
+  @Override
+  protected void tearDown() {
+    GeometryPool.setLeakDetection(false);
+    // Don't let a failed test leave scopes open for the next one
+    GeometryPool pool = GeometryPool.get();
+    while (pool.scopeDepth() > 0)
+      pool.end(pool.scopeDepth());
+    super.tearDown();
+  }
+
+  public void testObjectsReusedAfterScopeEnds() {
+    GeometryPool pool = GeometryPool.get();
+    int scope = pool.begin();
+    Point p1 = pool.point(1, 2);
+    Rect r1 = pool.rect(1, 2, 3, 4);
+    pool.end(scope);
+
+    scope = pool.begin();
+    Point p2 = pool.point();
+    Rect r2 = pool.rect();
+    assertSame(p1, p2);
+    assertSame(r1, r2);
+    assertEqualsFloat(0, p2.x);
+    assertEqualsFloat(0, r2.width);
+    pool.end(scope);
+  }
+
+  public void testFrozenObjectsNotReused() {
+    GeometryPool.setLeakDetection(true);
+    GeometryPool pool = GeometryPool.get();
+    int scope = pool.begin();
+    Point p1 = pool.point(1, 2);
+    Rect r1 = pool.rect(1, 2, 3, 4);
+    p1.freeze();
+    r1.freeze();
+    pool.end(scope);
+    // The frozen objects keep their values, and are replaced in the pool
+    assertEqualsFloat(1, p1.x);
+    assertEqualsFloat(3, r1.width);
+
+    scope = pool.begin();
+    Point p2 = pool.point(5, 6);
+    Rect r2 = pool.rect(5, 6, 7, 8);
+    assertNotSame(p1, p2);
+    assertNotSame(r1, r2);
+    assertEqualsFloat(5, p2.x);
+    assertEqualsFloat(7, r2.width);
+    pool.end(scope);
+  }
+
+  public void testNestedScopes() {
+    GeometryPool pool = GeometryPool.get();
+    int outer = pool.begin();
+    Point p1 = pool.point(1, 1);
+    int inner = pool.begin();
+    Point p2 = pool.point(2, 2);
+    assertNotSame(p1, p2);
+    pool.end(inner);
+    // The outer scope's point is still in use
+    assertSame(p2, pool.point());
+    assertEqualsFloat(1, p1.x);
+    pool.end(outer);
+    assertEquals(0, pool.scopeDepth());
+  }
+
+  public void testGrowth() {
+    GeometryPool pool = GeometryPool.get();
+    int scope = pool.begin();
+    Point[] points = new Point[1000];
+    for (int i = 0; i < points.length; i++)
+      points[i] = pool.point(i, i);
+    for (int i = 0; i < points.length; i++)
+      assertEqualsFloat(i, points[i].x);
+    pool.end(scope);
+  }
+
+  public void testAcquireOutsideScope() {
+    try {
+      GeometryPool.get().point();
+      failMissingException();
+    } catch (IllegalStateException e) {
+      doNothing();
+    }
+  }
+
+  public void testMismatchedEnd() {
+    GeometryPool pool = GeometryPool.get();
+    int outer = pool.begin();
+    pool.begin();
+    try {
+      pool.end(outer);
+      failMissingException();
+    } catch (IllegalStateException e) {
+      doNothing();
+    }
+  }
+
+  public void testVerifyReleased() {
+    GeometryPool pool = GeometryPool.get();
+    pool.verifyReleased();
+    GeometryPool.setLeakDetection(true);
+    pool.begin();
+    try {
+      pool.verifyReleased();
+      failMissingException();
+    } catch (IllegalStateException e) {
+      assertNotNull(e.getCause());
+    }
+  }
+
+  public void testLeakDetectionPoisonsReleasedObjects() {
+    GeometryPool.setLeakDetection(true);
+    GeometryPool pool = GeometryPool.get();
+    int scope = pool.begin();
+    Point escaped = pool.point(5, 5);
+    pool.end(scope);
+    assertTrue(Float.isNaN(escaped.x));
+  }
+
+  public void testPoolsArePerThread() throws InterruptedException {
+    final GeometryPool[] other = new GeometryPool[1];
+    Thread thread = new Thread() {
+      @Override
+      public void run() {
+        other[0] = GeometryPool.get();
+      }
+    };
+    thread.start();
+    thread.join();
+    assertNotSame(GeometryPool.get(), other[0]);
+  }
+
+  public void testIntoVariants() {
+    Rect r = new Rect(1, 2, 10, 20);
+    Point dest = new Point();
+    assertSame(dest, r.midPoint(dest));
+    assertEqualsFloat(6, dest.x);
+    assertEqualsFloat(12, dest.y);
+    for (int i = 0; i < 4; i++) {
+      Point expected = r.corner(i);
+      r.corner(i, dest);
+      assertEqualsFloat(expected.x, dest.x);
+      assertEqualsFloat(expected.y, dest.y);
+    }
+    r.topLeft(dest);
+    assertEqualsFloat(1, dest.x);
+    assertEqualsFloat(22, dest.y);
+    r.nearestPointTo(new Point(100, 0), dest);
+    assertEqualsFloat(11, dest.x);
+    assertEqualsFloat(2, dest.y);
+
+    Point a = new Point(1, 2), b = new Point(4, 6);
+    MyMath.subtract(b, a, dest);
+    assertEqualsFloat(3, dest.x);
+    assertEqualsFloat(4, dest.y);
+    MyMath.add(a, b, a);
+    assertEqualsFloat(5, a.x);
+    assertEqualsFloat(8, a.y);
+    MyMath.interpolateBetween(new Point(0, 0), b, .5f, dest);
+    assertEqualsFloat(2, dest.x);
+    assertEqualsFloat(3, dest.y);
+
+    assertEquals(r.toString(), r.toString(new StringBuilder(), false)
+        .toString());
+  }
+
+}
@@ -0,0 +1,89 @@
+package com.js.basic;
+
+import static com.js.basic.MyMath.*;
+
+/**
+ * Test cases shared by the float (MyMath) and double (DMath) geometry tests,
+ * so both precisions are held to the same expectations. NaN marks a value
+ * that isn't checked
+ */
+final class GeometryTestVectors {
+
+  private static final double NA = Double.NaN;
+
+  /**
+   * s1x, s1y, s2x, s2y, t1x, t1y, t2x, t2y; status, ix, iy, ua, ub
+   */
+  static final double[][] SEG_SEG = {
+      {0, 0, 10, 10, 0, 10, 10, 0, INTERSECT_HIT, 5, 5, .5, .5},
+      {0, 0, 4, 0, 1, -1, 1, 3, INTERSECT_HIT, 1, 0, .25, .25},
+      {0, 0, 10, 10, 0, 10, 4, 6, INTERSECT_MISS, NA, NA, NA, NA},
+      // Disjoint bounding boxes
+      {0, 0, 1, 1, 5, 5, 6, 7, INTERSECT_MISS, NA, NA, NA, NA},
+      {0, 0, 10, 10, 0, 1, 10, 11, INTERSECT_PARALLEL, NA, NA, NA, NA},
+      {0, 0, 10, 10, 5, 5, 15, 15, INTERSECT_COLLINEAR, NA, NA, NA, NA},
+      // Zero-length segments
+      {0, 0, 10, 10, 5, 0, 5, 0, INTERSECT_MISS, NA, NA, NA, NA},
+      {0, 0, 10, 10, 4, 4, 4, 4, INTERSECT_HIT, 4, 4, .4, 0},
+      {3, 3, 3, 3, 0, 0, 10, 10, INTERSECT_HIT, 3, 3, 0, .3},
+      {2, 2, 2, 2, 2, 3, 2, 3, INTERSECT_MISS, NA, NA, NA, NA},
+  };
+
+  /**
+   * s1x, s1y, s2x, s2y, t1x, t1y, t2x, t2y; status, ix, iy, ua
+   */
+  static final double[][] LINE_LINE = {
+      // Intersection lies outside both segments
+      {0, 0, 1, 0, 5, 1, 5, 2, INTERSECT_HIT, 5, 0, 5},
+      {0, 0, 2, 1, 0, 3, 1, 1, INTERSECT_HIT, 1.2, .6, .6},
+      {0, 0, 1, 0, 0, 1, 1, 1, INTERSECT_PARALLEL, NA, NA, NA},
+      {0, 0, 1, 1, 2, 2, 3, 3, INTERSECT_COLLINEAR, NA, NA, NA},
+  };
+
+  /**
+   * x1, y1, x2, y2, yLine; status, ix
+   */
+  static final double[][] SEG_HORZ_LINE = {
+      {0, 0, 4, 8, 2, INTERSECT_HIT, 1},
+      {0, 0, 4, 8, 9, INTERSECT_MISS, NA},
+      {0, 0, 4, 0, 9, INTERSECT_PARALLEL, NA},
+      {0, 0, 4, 0, 0, INTERSECT_COLLINEAR, NA},
+  };
+
+  /**
+   * px, py, x0, y0, x1, y1; distance from point to segment
+   */
+  static final double[][] PT_SEGMENT_DISTANCE = {
+      {0, 5, -1, 0, 1, 0, 5},
+      {4, 4, 0, 0, 1, 0, 5},
+      {-3, 4, 0, 0, 10, 0, 5},
+      {1, 1, 0, 0, 2, 2, 0},
+      // Degenerate segment
+      {3, 4, 0, 0, 0, 0, 5},
+  };
+
+  /**
+   * x0, y0, x1, y1, px, py; sign of side of line
+   */
+  static final double[][] SIDE_OF_LINE = {
+      {0, 0, 1, 0, 0, 1, 1},
+      {0, 0, 1, 0, 0, -1, -1},
+      {0, 0, 2, 2, 5, 5, 0},
+  };
+
+  /**
+   * x, y; pseudo polar angle
+   */
+  static final double[][] PSEUDO_POLAR_ANGLE = {
+      {1, 0, 0},
+      {1, 1, 1},
+      {0, 1, 2},
+      {-1, 1, 3},
+      {-1, 0, -4},
+      {0, -1, -2},
+      {1, -1, -1},
+  };
+
+  private GeometryTestVectors() {
+  }
+}
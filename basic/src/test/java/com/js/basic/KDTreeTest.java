@@ -0,0 +1,129 @@
+package com.js.basic;
+
+import com.js.testUtils.MyTestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class KDTreeTest extends MyTestCase {
+
+  private PointArray randomPoints(int count) {
+    Random r = random();
+    PointArray points = new PointArray();
+    for (int i = 0; i < count; i++)
+      points.add(r.nextFloat() * 1000, r.nextFloat() * 1000);
+    return points;
+  }
+
+  private Point randomQuery() {
+    Random r = random();
+    return new Point(r.nextFloat() * 1200 - 100, r.nextFloat() * 1200 - 100);
+  }
+
+  private static float[] sortedDistances(PointArray points, Point query) {
+    float[] distances = MyMath.squaredDistancesTo(points, query, null);
+    Arrays.sort(distances);
+    return distances;
+  }
+
+  public void testEmpty() {
+    KDTree tree = new KDTree(new ArrayList<Point>());
+    assertEquals(-1, tree.nearest(new Point(1, 2)));
+    assertTrue(tree.nearest(new Point(1, 2), 5, null).isEmpty());
+    assertTrue(tree.withinRadius(new Point(1, 2), 10, null).isEmpty());
+  }
+
+  public void testFromList() {
+    List<Point> points = new ArrayList();
+    points.add(new Point(0, 0));
+    points.add(new Point(10, 0));
+    points.add(new Point(5, 5));
+    KDTree tree = new KDTree(points);
+    assertEquals(1, tree.nearest(new Point(9, 1)));
+    assertEquals(2, tree.nearest(new Point(5, 4)));
+  }
+
+  public void testNearest() {
+    PointArray points = randomPoints(5000);
+    KDTree tree = new KDTree(points);
+    for (int q = 0; q < 500; q++) {
+      Point query = randomQuery();
+      int nearest = tree.nearest(query);
+      assertEqualsFloat(sortedDistances(points, query)[0],
+          MyMath.squaredDistanceBetween(query, points.get(nearest)));
+    }
+  }
+
+  public void testKNearest() {
+    PointArray points = randomPoints(5000);
+    KDTree tree = new KDTree(points);
+    IntArray results = new IntArray();
+    Random r = random();
+    for (int q = 0; q < 200; q++) {
+      Point query = randomQuery();
+      int k = 1 + r.nextInt(30);
+      tree.nearest(query, k, results);
+      assertEquals(k, results.size());
+      float[] expected = sortedDistances(points, query);
+      for (int i = 0; i < k; i++)
+        assertEqualsFloat(expected[i], MyMath.squaredDistanceBetween(query,
+            points.get(results.get(i))));
+    }
+  }
+
+  public void testKNearestExceedingSize() {
+    PointArray points = randomPoints(5);
+    assertEquals(5, new KDTree(points).nearest(new Point(0, 0), 10, null).size());
+  }
+
+  public void testWithinRadius() {
+    PointArray points = randomPoints(5000);
+    KDTree tree = new KDTree(points);
+    IntArray results = new IntArray();
+    for (int q = 0; q < 200; q++) {
+      Point query = randomQuery();
+      float radius = random().nextFloat() * 100;
+      int[] found = tree.withinRadius(query, radius, results).toArray();
+      Arrays.sort(found);
+      IntArray expected = new IntArray();
+      for (int i = 0; i < points.size(); i++)
+        if (MyMath.squaredDistanceBetween(query, points.get(i)) <= radius
+            * radius)
+          expected.add(i);
+      assertTrue(Arrays.equals(expected.toArray(), found));
+    }
+  }
+
+  public void testDuplicatePoints() {
+    PointArray points = new PointArray();
+    for (int i = 0; i < 1000; i++)
+      points.add(i % 3, 7);
+    KDTree tree = new KDTree(points);
+    assertEquals(334, tree.withinRadius(new Point(0, 7), 0, null).size());
+  }
+
+  public void testNearestWhenDistancesOverflow() {
+    PointArray points = new PointArray();
+    for (int i = 0; i < 20; i++)
+      points.add(3e19f + i * 1e18f, 3e19f);
+    KDTree tree = new KDTree(points);
+    Point query = new Point(-3e19f, -3e19f);
+    int nearest = tree.nearest(query);
+    assertTrue(nearest >= 0);
+    IntArray k = tree.nearest(query, 1, null);
+    assertEquals(1, k.size());
+    assertEquals(k.get(0), nearest);
+  }
+
+  public void testParallelBuild() {
+    PointArray points = randomPoints(200000);
+    KDTree tree = new KDTree(points);
+    for (int q = 0; q < 50; q++) {
+      Point query = randomQuery();
+      assertEquals(MyMath.nearestPoint(points, query), tree.nearest(query));
+    }
+  }
+
+}
@@ -0,0 +1,155 @@
+package com.js.basic;
+
+import com.js.testUtils.MyTestCase;
+
+import static com.js.basic.Tools.*;
+
+public class MyMathTest extends MyTestCase {
+
+  private static Point p(float x, float y) {
+    return new Point(x, y);
+  }
+
+  public void testSegSegHit() {
+    Point ipt = new Point();
+    float[] params = new float[2];
+    assertEquals(MyMath.INTERSECT_HIT, MyMath.segSegIntersection(p(0, 0), p(10, 10),
+        p(0, 10), p(10, 0), ipt, params));
+    assertEqualsFloat(5, ipt.x);
+    assertEqualsFloat(5, ipt.y);
+    assertEqualsFloat(.5f, params[0]);
+    assertEqualsFloat(.5f, params[1]);
+  }
+
+  public void testSegSegMiss() {
+    assertEquals(MyMath.INTERSECT_MISS, MyMath.segSegIntersection(p(0, 0), p(10, 10),
+        p(0, 10), p(4, 6), null, null));
+    assertNull(MyMath.segSegIntersection(p(0, 0), p(10, 10), p(0, 10), p(4, 6), null));
+  }
+
+  public void testSegSegParallel() {
+    assertEquals(MyMath.INTERSECT_PARALLEL, MyMath.segSegIntersection(p(0, 0), p(10, 10),
+        p(0, 1), p(10, 11), null, null));
+  }
+
+  public void testSegSegCollinear() {
+    assertEquals(MyMath.INTERSECT_COLLINEAR, MyMath.segSegIntersection(p(0, 0), p(10, 10),
+        p(5, 5), p(15, 15), null, null));
+  }
+
+  public void testSegSegWrapperThrowsWhenParallel() {
+    try {
+      MyMath.segSegIntersection(p(0, 0), p(10, 10), p(0, 1), p(10, 11), null);
+      failMissingException();
+    } catch (GeometryException e) {
+      doNothing();
+    }
+  }
+
+  public void testLineLineHitOutsideSegments() {
+    Point ipt = new Point();
+    float[] param = new float[1];
+    assertEquals(MyMath.INTERSECT_HIT, MyMath.lineLineIntersection(p(0, 0), p(1, 0),
+        p(5, 1), p(5, 2), ipt, param));
+    assertEqualsFloat(5, ipt.x);
+    assertEqualsFloat(0, ipt.y);
+    assertEqualsFloat(5, param[0]);
+  }
+
+  public void testLineLineWrapperThrowsWhenParallel() {
+    try {
+      MyMath.lineLineIntersection(p(0, 0), p(1, 0), p(0, 1), p(1, 1), null);
+      failMissingException();
+    } catch (GeometryException e) {
+      doNothing();
+    }
+  }
+
+  public void testSegHorzLine() {
+    Point ipt = new Point();
+    assertEquals(MyMath.INTERSECT_HIT, MyMath.segHorzLineIntersection(p(0, 0), p(4, 8),
+        2, ipt, null));
+    assertEqualsFloat(1, ipt.x);
+    assertEquals(MyMath.INTERSECT_MISS, MyMath.segHorzLineIntersection(p(0, 0), p(4, 8),
+        9, ipt, null));
+    assertEquals(MyMath.INTERSECT_PARALLEL, MyMath.segHorzLineIntersection(p(0, 0),
+        p(4, 0), 9, ipt, null));
+    assertEquals(MyMath.INTERSECT_COLLINEAR, MyMath.segHorzLineIntersection(p(0, 0),
+        p(4, 0), 0, ipt, null));
+  }
+
+  private static float f(double value) {
+    return (float) value;
+  }
+
+  private static void assertMatches(double expected, float actual) {
+    if (!Double.isNaN(expected))
+      assertEquals(expected, actual, 1e-5);
+  }
+
+  public void testSegSegVectors() {
+    Point ipt = new Point();
+    float[] params = new float[2];
+    for (double[] v : GeometryTestVectors.SEG_SEG) {
+      int status = MyMath.segSegIntersection(f(v[0]), f(v[1]), f(v[2]),
+          f(v[3]), f(v[4]), f(v[5]), f(v[6]), f(v[7]), ipt, params);
+      assertEquals((int) v[8], status);
+      if (status != MyMath.INTERSECT_HIT)
+        continue;
+      assertMatches(v[9], ipt.x);
+      assertMatches(v[10], ipt.y);
+      assertMatches(v[11], params[0]);
+      assertMatches(v[12], params[1]);
+    }
+  }
+
+  public void testLineLineVectors() {
+    Point ipt = new Point();
+    float[] param = new float[1];
+    for (double[] v : GeometryTestVectors.LINE_LINE) {
+      int status = MyMath.lineLineIntersection(f(v[0]), f(v[1]), f(v[2]),
+          f(v[3]), f(v[4]), f(v[5]), f(v[6]), f(v[7]), ipt, param);
+      assertEquals((int) v[8], status);
+      if (status != MyMath.INTERSECT_HIT)
+        continue;
+      assertMatches(v[9], ipt.x);
+      assertMatches(v[10], ipt.y);
+      assertMatches(v[11], param[0]);
+    }
+  }
+
+  public void testSegHorzLineVectors() {
+    Point ipt = new Point();
+    for (double[] v : GeometryTestVectors.SEG_HORZ_LINE) {
+      int status = MyMath.segHorzLineIntersection(p(f(v[0]), f(v[1])),
+          p(f(v[2]), f(v[3])), f(v[4]), ipt, null);
+      assertEquals((int) v[5], status);
+      if (status == MyMath.INTERSECT_HIT)
+        assertMatches(v[6], ipt.x);
+    }
+  }
+
+  public void testPtSegmentDistanceVectors() {
+    for (double[] v : GeometryTestVectors.PT_SEGMENT_DISTANCE) {
+      float distance = MyMath.ptDistanceToSegment(p(f(v[0]), f(v[1])),
+          p(f(v[2]), f(v[3])), p(f(v[4]), f(v[5])), null);
+      assertMatches(v[6], distance);
+      float squared = MyMath.squaredPtDistanceToSegment(f(v[0]), f(v[1]),
+          f(v[2]), f(v[3]), f(v[4]), f(v[5]));
+      assertMatches(v[6] * v[6], squared);
+    }
+  }
+
+  public void testSideOfLineVectors() {
+    for (double[] v : GeometryTestVectors.SIDE_OF_LINE) {
+      float side = MyMath.sideOfLine(p(f(v[0]), f(v[1])), p(f(v[2]), f(v[3])),
+          p(f(v[4]), f(v[5])));
+      assertEquals((int) v[6], (int) Math.signum(side));
+    }
+  }
+
+  public void testPseudoPolarAngleVectors() {
+    for (double[] v : GeometryTestVectors.PSEUDO_POLAR_ANGLE)
+      assertMatches(v[2], MyMath.pseudoPolarAngle(f(v[0]), f(v[1])));
+  }
+}
@@ -0,0 +1,101 @@
+package com.js.basic;
+
+import com.js.testUtils.MyTestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class PackedRTreeTest extends MyTestCase {
+
+  private List<Rect> randomRects(int count) {
+    Random r = random();
+    List<Rect> rects = new ArrayList();
+    for (int i = 0; i < count; i++)
+      rects.add(new Rect(r.nextFloat() * 1000, r.nextFloat() * 1000,
+          r.nextFloat() * 30, r.nextFloat() * 30));
+    return rects;
+  }
+
+  private static int[] sorted(IntArray a) {
+    int[] values = a.toArray();
+    Arrays.sort(values);
+    return values;
+  }
+
+  public void testEmpty() {
+    PackedRTree tree = new PackedRTree(new ArrayList<Rect>());
+    assertNull(tree.bounds());
+    assertTrue(tree.findIntersecting(new Rect(0, 0, 10, 10), null).isEmpty());
+    assertTrue(tree.findContaining(new Point(5, 5), null).isEmpty());
+    assertTrue(tree.findNearest(new Point(5, 5), 3, null).isEmpty());
+  }
+
+  public void testSingleRect() {
+    List<Rect> rects = new ArrayList();
+    rects.add(new Rect(10, 10, 5, 5));
+    PackedRTree tree = new PackedRTree(rects);
+    assertTrue(tree.bounds().equals(rects.get(0)));
+    assertEquals(1, tree.findContaining(new Point(12, 12), null).size());
+    assertEquals(0, tree.findContaining(new Point(2, 2), null).size());
+    assertEquals(0, tree.findNearest(new Point(2, 2), 5, null).get(0));
+  }
+
+  public void testWindowQueryMatchesLinearScan() {
+    List<Rect> rects = randomRects(5000);
+    PackedRTree tree = new PackedRTree(rects, 8);
+    IntArray results = new IntArray();
+    IntArray expected = new IntArray();
+    for (int q = 0; q < 200; q++) {
+      Rect window = randomRects(1).get(0);
+      window.width *= 5;
+      window.height *= 5;
+      tree.findIntersecting(window, results);
+      expected.clear();
+      for (int i = 0; i < rects.size(); i++)
+        if (rects.get(i).intersects(window))
+          expected.add(i);
+      assertTrue(Arrays.equals(sorted(expected), sorted(results)));
+    }
+  }
+
+  public void testPointQueryMatchesLinearScan() {
+    List<Rect> rects = randomRects(5000);
+    PackedRTree tree = new PackedRTree(rects);
+    IntArray results = new IntArray();
+    IntArray expected = new IntArray();
+    Random r = random();
+    for (int q = 0; q < 200; q++) {
+      Point pt = new Point(r.nextFloat() * 1000, r.nextFloat() * 1000);
+      tree.findContaining(pt, results);
+      expected.clear();
+      for (int i = 0; i < rects.size(); i++)
+        if (rects.get(i).contains(pt))
+          expected.add(i);
+      assertTrue(Arrays.equals(sorted(expected), sorted(results)));
+    }
+  }
+
+  public void testNearest() {
+    List<Rect> rects = randomRects(3000);
+    PackedRTree tree = new PackedRTree(rects);
+    IntArray results = new IntArray();
+    Random r = random();
+    for (int q = 0; q < 100; q++) {
+      Point pt = new Point(r.nextFloat() * 1200 - 100, r.nextFloat() * 1200 - 100);
+      int k = 1 + r.nextInt(20);
+      tree.findNearest(pt, k, results);
+      assertEquals(k, results.size());
+
+      float[] distances = new float[rects.size()];
+      for (int i = 0; i < rects.size(); i++)
+        distances[i] = rects.get(i).distanceFrom(pt);
+      Arrays.sort(distances);
+      for (int i = 0; i < k; i++)
+        assertEqualsFloat(distances[i], rects.get(results.get(i)).distanceFrom(pt),
+            1e-3);
+    }
+  }
+
+}
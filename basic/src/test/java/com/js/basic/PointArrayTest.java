@@ -0,0 +1,104 @@
+package com.js.basic;
+
+import com.js.testUtils.MyTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.js.basic.Tools.*;
+
+public class PointArrayTest extends MyTestCase {
+
+  private PointArray build(int size) {
+    PointArray a = new PointArray(2);
+    for (int i = 0; i < size; i++)
+      a.add(i, i * 10);
+    return a;
+  }
+
+  public void testGrowth() {
+    PointArray a = build(100);
+    assertEquals(100, a.size());
+    assertEqualsFloat(57, a.x(57));
+    assertEqualsFloat(570, a.y(57));
+  }
+
+  public void testViewSharesStorage() {
+    PointArray a = build(10);
+    PointArray v = a.view(3, 7);
+    assertEquals(4, v.size());
+    assertEqualsFloat(3, v.x(0));
+    v.set(1, -1, -2);
+    assertEqualsFloat(-1, a.x(4));
+    assertEqualsFloat(-2, a.y(4));
+  }
+
+  public void testViewCannotGrow() {
+    PointArray v = build(10).view(0, 5);
+    try {
+      v.add(1, 1);
+      failMissingException();
+    } catch (IllegalStateException e) {
+      doNothing();
+    }
+  }
+
+  public void testViewIndexChecked() {
+    PointArray v = build(10).view(2, 5);
+    try {
+      v.x(3);
+      failMissingException();
+    } catch (IndexOutOfBoundsException e) {
+      doNothing();
+    }
+  }
+
+  public void testTranslateAffectsViewOnly() {
+    PointArray a = build(10);
+    MyMath.translate(a.view(5, 10), 1, 2);
+    assertEqualsFloat(4, a.x(4));
+    assertEqualsFloat(6, a.x(5));
+    assertEqualsFloat(52, a.y(5));
+  }
+
+  public void testBoundsMatchesList() {
+    List<Point> list = new ArrayList();
+    for (int i = 0; i < 50; i++)
+      list.add(new Point(random().nextFloat() * 100 - 50, random().nextFloat() * 30));
+    Rect r1 = Rect.rectContainingPoints(list);
+    Rect r2 = Rect.rectContainingPoints(new PointArray(list));
+    assertTrue(r1.equals(r2));
+  }
+
+  public void testNearestPoint() {
+    PointArray a = build(10);
+    assertEquals(6, MyMath.nearestPoint(a, new Point(6.2f, 61)));
+    assertEquals(2, MyMath.nearestPoint(a.view(4, 10), new Point(6.2f, 61)));
+    assertEquals(-1, MyMath.nearestPoint(new PointArray(), Point.ZERO));
+  }
+
+  public void testNearestPointWhenDistancesOverflow() {
+    PointArray a = new PointArray();
+    a.add(3e19f, 3e19f);
+    a.add(3.1e19f, 3e19f);
+    assertEquals(0, MyMath.nearestPoint(a, new Point(-3e19f, -3e19f)));
+  }
+
+  public void testDistances() {
+    PointArray a = build(3);
+    float[] d = MyMath.distancesTo(a, new Point(0, 0), null);
+    assertEqualsFloat(MyMath.magnitudeOfRay(2, 20), d[2]);
+  }
+
+  public void testOverflowDetected() {
+    PointArray a = build(10);
+    MyMath.testForOverflow(a);
+    a.set(7, Float.NaN, 0);
+    try {
+      MyMath.testForOverflow(a);
+      failMissingException();
+    } catch (GeometryException e) {
+      doNothing();
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package com.js.basic;
+
+import com.js.testUtils.MyTestCase;
+
+import java.util.Random;
+
+import static com.js.basic.Tools.*;
+
+public class PolygonTest extends MyTestCase {
+
+  private static Polygon square() {
+    Polygon p = new Polygon();
+    p.add(0, 0);
+    p.add(10, 0);
+    p.add(10, 10);
+    p.add(0, 10);
+    return p;
+  }
+
+  /**
+   * Construct a star-shaped polygon with many vertices at random distances
+   * from the origin
+   */
+  private Polygon star(int vertexCount) {
+    Random r = random();
+    Polygon p = new Polygon();
+    for (int i = 0; i < vertexCount; i++) {
+      float angle = i * MyMath.PI * 2 / vertexCount;
+      float radius = 50 + r.nextFloat() * 50;
+      p.add(MyMath.pointOnCircle(Point.ZERO, angle, radius));
+    }
+    return p;
+  }
+
+  public void testArea() {
+    Polygon p = square();
+    assertEqualsFloat(100, p.signedArea());
+    assertTrue(p.isCounterClockwise());
+    Polygon q = new Polygon();
+    for (int i = p.size() - 1; i >= 0; i--)
+      q.add(p.vertex(i));
+    assertEqualsFloat(-100, q.signedArea());
+    assertEqualsFloat(100, q.area());
+    assertFalse(q.isCounterClockwise());
+  }
+
+  public void testCentroid() {
+    Polygon p = new Polygon();
+    p.add(0, 0);
+    p.add(10, 0);
+    p.add(10, 10);
+    p.add(5, 20);
+    p.add(0, 10);
+    // Square of area 100 with centroid (5,5), plus triangle of area 50 with
+    // centroid (5,13.333)
+    Point c = p.centroid();
+    assertEqualsFloat(5, c.x, 1e-4);
+    assertEqualsFloat((500 + 50 * 40 / 3f) / 150, c.y, 1e-4);
+  }
+
+  public void testCentroidOfDegeneratePolygon() {
+    Polygon p = new Polygon();
+    p.add(0, 0);
+    p.add(10, 10);
+    try {
+      p.centroid();
+      failMissingException();
+    } catch (GeometryException e) {
+      doNothing();
+    }
+  }
+
+  public void testBounds() {
+    Polygon p = star(50);
+    Rect bounds = p.bounds();
+    p.freeze();
+    assertTrue(bounds.equals(p.bounds()));
+    // Modifying the returned rect doesn't affect the polygon
+    p.bounds().translate(5, 5);
+    assertTrue(bounds.equals(p.bounds()));
+  }
+
+  public void testFrozenPolygonNotMutable() {
+    Polygon p = square();
+    p.freeze();
+    try {
+      p.add(3, 4);
+      failMissingException();
+    } catch (Freezable.IllegalMutationException e) {
+      doNothing();
+    }
+  }
+
+  public void testContains() {
+    Polygon p = square();
+    assertTrue(p.contains(new Point(5, 5)));
+    assertFalse(p.contains(new Point(15, 5)));
+    p.freeze();
+    assertTrue(p.contains(new Point(5, 5)));
+    assertFalse(p.contains(new Point(5, -5)));
+  }
+
+  public void testIndexedContainsMatchesLinear() {
+    Polygon mutable = star(500);
+    Polygon frozen = frozen(mutable);
+    Random r = random();
+    for (int i = 0; i < 5000; i++) {
+      Point pt = new Point(r.nextFloat() * 220 - 110, r.nextFloat() * 220 - 110);
+      // Include some queries exactly at vertex heights
+      if (i % 10 == 0)
+        pt.y = mutable.y(r.nextInt(mutable.size()));
+      assertEquals(mutable.contains(pt), frozen.contains(pt));
+    }
+  }
+
+}
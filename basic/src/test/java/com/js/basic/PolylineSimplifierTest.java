@@ -0,0 +1,156 @@
+package com.js.basic;
+
+import com.js.testUtils.MyTestCase;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class PolylineSimplifierTest extends MyTestCase {
+
+  /**
+   * Construct a random walk
+   */
+  private PointArray randomWalk(int count) {
+    Random r = random();
+    PointArray points = new PointArray(count);
+    float x = 0, y = 0, angle = 0;
+    for (int i = 0; i < count; i++) {
+      points.add(x, y);
+      angle += (r.nextFloat() - .5f) * .6f;
+      float step = r.nextFloat() * 3;
+      x += step * Math.cos(angle);
+      y += step * Math.sin(angle);
+    }
+    return points;
+  }
+
+  /**
+   * Reference implementation: recursive, using Points
+   */
+  private static void referenceDP(PointArray points, int first, int last,
+                                  float tolerance, boolean[] keep) {
+    Point a = points.get(first);
+    Point b = points.get(last);
+    int farthest = -1;
+    float maxDistance = tolerance;
+    for (int i = first + 1; i < last; i++) {
+      float d = MyMath.ptDistanceToSegment(points.get(i), a, b, null);
+      if (d > maxDistance) {
+        maxDistance = d;
+        farthest = i;
+      }
+    }
+    if (farthest < 0)
+      return;
+    keep[farthest] = true;
+    referenceDP(points, first, farthest, tolerance, keep);
+    referenceDP(points, farthest, last, tolerance, keep);
+  }
+
+  /**
+   * Verify that the simplification starts and ends with the endpoints, and
+   * that each discarded vertex is within the tolerance of its simplified
+   * segment
+   */
+  private static void verifyWithinTolerance(PointArray points, int[] kept,
+                                            float tolerance) {
+    assertEquals(0, kept[0]);
+    assertEquals(points.size() - 1, kept[kept.length - 1]);
+    for (int k = 0; k + 1 < kept.length; k++) {
+      assertTrue(kept[k] < kept[k + 1]);
+      Point a = points.get(kept[k]);
+      Point b = points.get(kept[k + 1]);
+      for (int i = kept[k] + 1; i < kept[k + 1]; i++)
+        assertTrue(MyMath.ptDistanceToSegment(points.get(i), a, b, null)
+            <= tolerance * 1.001f);
+    }
+  }
+
+  public void testSquaredDistanceToSegment() {
+    Random r = random();
+    for (int i = 0; i < 1000; i++) {
+      Point p = new Point(r.nextFloat() * 10, r.nextFloat() * 10);
+      Point a = new Point(r.nextFloat() * 10, r.nextFloat() * 10);
+      Point b = new Point(r.nextFloat() * 10, r.nextFloat() * 10);
+      float d = MyMath.ptDistanceToSegment(p, a, b, null);
+      assertEqualsFloat(d * d,
+          MyMath.squaredPtDistanceToSegment(p.x, p.y, a.x, a.y, b.x, b.y), 1e-3);
+    }
+  }
+
+  public void testTrivialInputs() {
+    assertEquals(0, PolylineSimplifier.douglasPeucker(new PointArray(), 1, null).size());
+    PointArray points = new PointArray();
+    points.add(1, 2);
+    assertEquals(1, PolylineSimplifier.douglasPeucker(points, 1, null).size());
+    assertEquals(1, PolylineSimplifier.visvalingam(points, 1, null).size());
+    points.add(3, 4);
+    assertEquals(2, PolylineSimplifier.visvalingam(points, 1, null).size());
+  }
+
+  public void testDouglasPeuckerMatchesReference() {
+    PointArray points = randomWalk(5000);
+    for (float tolerance : new float[]{.1f, 1, 5, 50}) {
+      boolean[] keep = new boolean[points.size()];
+      keep[0] = keep[points.size() - 1] = true;
+      referenceDP(points, 0, points.size() - 1, tolerance, keep);
+      IntArray expected = new IntArray();
+      for (int i = 0; i < keep.length; i++)
+        if (keep[i])
+          expected.add(i);
+      int[] kept = PolylineSimplifier.douglasPeucker(points, tolerance, null).toArray();
+      assertTrue(Arrays.equals(expected.toArray(), kept));
+      verifyWithinTolerance(points, kept, tolerance);
+    }
+  }
+
+  public void testParallelMatchesSequential() {
+    PointArray points = randomWalk(400000);
+    int[] sequential = PolylineSimplifier.douglasPeucker(points, 2, null).toArray();
+    int[] parallel = PolylineSimplifier.douglasPeuckerParallel(points, 2, null).toArray();
+    assertTrue(Arrays.equals(sequential, parallel));
+  }
+
+  public void testVisvalingam() {
+    PointArray points = randomWalk(5000);
+    int previousSize = points.size() + 1;
+    for (float area : new float[]{0, .5f, 5, 50, 500}) {
+      int[] kept = PolylineSimplifier.visvalingam(points, area, null).toArray();
+      assertEquals(0, kept[0]);
+      assertEquals(points.size() - 1, kept[kept.length - 1]);
+      assertTrue(kept.length < previousSize);
+      previousSize = kept.length;
+    }
+  }
+
+  public void testVisvalingamRemovesCollinearVertices() {
+    PointArray points = new PointArray();
+    for (int i = 0; i <= 10; i++)
+      points.add(i, 0);
+    points.add(10, 10);
+    int[] kept = PolylineSimplifier.visvalingam(points, .01f, null).toArray();
+    assertTrue(Arrays.equals(new int[]{0, 10, 11}, kept));
+  }
+
+  public void testStream() {
+    PointArray points = randomWalk(10000);
+    final float tolerance = 2;
+    final IntArray emitted = new IntArray();
+    PolylineSimplifier.Stream stream = new PolylineSimplifier.Stream(tolerance,
+        64, new PolylineSimplifier.Listener() {
+      @Override
+      public void vertex(int index, float x, float y) {
+        emitted.add(index);
+      }
+    });
+    for (int i = 0; i < points.size(); i++) {
+      stream.add(points.get(i));
+      // Vertices must be emitted before too many are buffered
+      assertTrue(i - emitted.get(emitted.size() - 1) < 64);
+    }
+    stream.finish();
+    verifyWithinTolerance(points, emitted.toArray(), tolerance);
+    assertTrue(emitted.size() < points.size() / 4);
+  }
+
+}
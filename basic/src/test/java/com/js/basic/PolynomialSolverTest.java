@@ -0,0 +1,134 @@
+package com.js.basic;
+
+import com.js.testUtils.MyTestCase;
+
+import static com.js.basic.Tools.*;
+
+public class PolynomialSolverTest extends MyTestCase {
+
+  private float[] mRoots = new float[3];
+
+  private void verifyRoots(int count, float... expected) {
+    assertEquals(expected.length, count);
+    for (int i = 0; i < count; i++)
+      assertEquals(expected[i], mRoots[i],
+          1e-4f * Math.max(1, Math.abs(expected[i])));
+  }
+
+  public void testQuadraticTwoRoots() {
+    verifyRoots(PolynomialSolver.solveQuadratic(2, -2, -12, mRoots, 0), -2, 3);
+  }
+
+  public void testQuadraticNoRoots() {
+    assertEquals(0, PolynomialSolver.solveQuadratic(1, 0, 1, mRoots, 0));
+  }
+
+  public void testQuadraticRepeatedRoot() {
+    verifyRoots(PolynomialSolver.solveQuadratic(1, -4, 4, mRoots, 0), 2);
+  }
+
+  public void testQuadraticLinear() {
+    verifyRoots(PolynomialSolver.solveQuadratic(0, 2, -3, mRoots, 0), 1.5f);
+    assertEquals(0, PolynomialSolver.solveQuadratic(0, 0, 1, mRoots, 0));
+    assertEquals(0, PolynomialSolver.solveQuadratic(0, 0, 0, mRoots, 0));
+  }
+
+  public void testQuadraticCancellation() {
+    // Roots 1e-4 and 1e4; the naive formula loses the small one
+    verifyRoots(PolynomialSolver.solveQuadratic(1, -(1e4f + 1e-4f), 1, mRoots,
+        0), 1e-4f, 1e4f);
+  }
+
+  public void testCubicThreeRoots() {
+    // (x + 1)(x - 2)(x - 5) = x^3 - 6x^2 + 3x + 10
+    verifyRoots(PolynomialSolver.solveCubic(1, -6, 3, 10, mRoots, 0), -1, 2, 5);
+    // Scaled and negated
+    verifyRoots(PolynomialSolver.solveCubic(-3, 18, -9, -30, mRoots, 0), -1,
+        2, 5);
+  }
+
+  public void testCubicOneRoot() {
+    // (x - 2)(x^2 + 1) = x^3 - 2x^2 + x - 2
+    verifyRoots(PolynomialSolver.solveCubic(1, -2, 1, -2, mRoots, 0), 2);
+  }
+
+  public void testCubicRepeatedRoots() {
+    // (x - 1)^2 (x - 2) = x^3 - 4x^2 + 5x - 2
+    verifyRoots(PolynomialSolver.solveCubic(1, -4, 5, -2, mRoots, 0), 1, 2);
+    // (x - 3)^3
+    verifyRoots(PolynomialSolver.solveCubic(1, -9, 27, -27, mRoots, 0), 3);
+  }
+
+  public void testCubicDegeneratesToQuadratic() {
+    verifyRoots(PolynomialSolver.solveCubic(0, 2, -2, -12, mRoots, 0), -2, 3);
+  }
+
+  public void testRandomCubics() {
+    for (int i = 0; i < 1000; i++) {
+      float r0 = random().nextFloat() * 20 - 10;
+      float r1 = r0 + 0.5f + random().nextFloat() * 5;
+      float r2 = r1 + 0.5f + random().nextFloat() * 5;
+      float a = 1 + random().nextFloat() * 3;
+      int count = PolynomialSolver.solveCubic(a, -a * (r0 + r1 + r2), a
+          * (r0 * r1 + r0 * r2 + r1 * r2), -a * r0 * r1 * r2, mRoots, 0);
+      assertEquals(3, count);
+      assertEquals(r0, mRoots[0], 2e-3f);
+      assertEquals(r1, mRoots[1], 2e-3f);
+      assertEquals(r2, mRoots[2], 2e-3f);
+    }
+  }
+
+  public void testBatchMatchesScalar() {
+    int count = 200;
+    float[] quadratics = new float[count * 3];
+    float[] cubics = new float[count * 4];
+    for (int i = 0; i < quadratics.length; i++)
+      quadratics[i] = random().nextFloat() * 10 - 5;
+    for (int i = 0; i < cubics.length; i++)
+      cubics[i] = random().nextFloat() * 10 - 5;
+
+    float[] roots = new float[count * 2];
+    int[] rootCounts = new int[count];
+    PolynomialSolver.solveQuadratics(quadratics, count, roots, rootCounts);
+    for (int i = 0; i < count; i++) {
+      int n = PolynomialSolver.solveQuadratic(quadratics[i * 3],
+          quadratics[i * 3 + 1], quadratics[i * 3 + 2], mRoots, 0);
+      assertEquals(n, rootCounts[i]);
+      for (int j = 0; j < n; j++)
+        assertEquals(mRoots[j], roots[i * 2 + j], 0);
+    }
+
+    roots = new float[count * 3];
+    PolynomialSolver.solveCubics(cubics, count, roots, rootCounts);
+    for (int i = 0; i < count; i++) {
+      int n = PolynomialSolver.solveCubic(cubics[i * 4], cubics[i * 4 + 1],
+          cubics[i * 4 + 2], cubics[i * 4 + 3], mRoots, 0);
+      assertEquals(n, rootCounts[i]);
+      for (int j = 0; j < n; j++)
+        assertEquals(mRoots[j], roots[i * 3 + j], 0);
+    }
+  }
+
+  public void testBatchArraysTooSmall() {
+    try {
+      PolynomialSolver.solveQuadratics(new float[6], 2, new float[3],
+          new int[2]);
+      failMissingException();
+    } catch (IllegalArgumentException e) {
+      doNothing();
+    }
+  }
+
+  public void testMyMathSolveQuadratic() {
+    float[] roots = MyMath.solveQuadratic(1, -4, 4, null);
+    assertEquals(2f, roots[0], 1e-5f);
+    assertEquals(2f, roots[1], 1e-5f);
+    try {
+      MyMath.solveQuadratic(1, 0, 1, null);
+      failMissingException();
+    } catch (GeometryException e) {
+      doNothing();
+    }
+  }
+
+}
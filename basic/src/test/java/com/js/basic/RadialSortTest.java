@@ -0,0 +1,185 @@
+package com.js.basic;
+
+import com.js.testUtils.MyTestCase;
+
+import java.util.Random;
+
+import static com.js.basic.Tools.*;
+
+public class RadialSortTest extends MyTestCase {
+
+  /**
+   * Verify that indices are a permutation of the points, in nondecreasing
+   * order of (exact) polar angle, with ties ordered by distance
+   */
+  private static void verifyOrder(PointArray points, Point pivot,
+                                  IntArray order) {
+    int n = points.size();
+    assertEquals(n, order.size());
+    boolean[] seen = new boolean[n];
+    double prevAngle = -1;
+    double prevDistance = 0;
+    for (int i = 0; i < n; i++) {
+      int index = order.get(i);
+      assertFalse(seen[index]);
+      seen[index] = true;
+      double dx = points.x(index) - pivot.x;
+      double dy = points.y(index) - pivot.y;
+      double distance = dx * dx + dy * dy;
+      double angle = 0;
+      if (distance != 0) {
+        angle = Math.atan2(dy, dx);
+        if (angle < 0)
+          angle += 2 * Math.PI;
+      }
+      assertTrue(angle >= prevAngle - 1e-5);
+      if (angle == prevAngle)
+        assertTrue(distance >= prevDistance);
+      prevAngle = angle;
+      prevDistance = distance;
+    }
+  }
+
+  public void testPseudoAngleRange() {
+    assertEqualsFloat(0, RadialSort.pseudoAngle(0, 0));
+    assertEqualsFloat(0, RadialSort.pseudoAngle(1, 0));
+    assertEqualsFloat(1, RadialSort.pseudoAngle(1, 1));
+    assertEqualsFloat(2, RadialSort.pseudoAngle(0, 1));
+    assertEqualsFloat(4, RadialSort.pseudoAngle(-1, 0));
+    assertEqualsFloat(6, RadialSort.pseudoAngle(0, -1));
+    assertEqualsFloat(7, RadialSort.pseudoAngle(1, -1));
+    float a = RadialSort.pseudoAngle(1, -1e-20f);
+    assertTrue(a > 7.9f && a < 8);
+  }
+
+  public void testPseudoAngleAgreesWithMyMath() {
+    Random r = random();
+    for (int i = 0; i < 1000; i++) {
+      float x = r.nextFloat() * 2 - 1;
+      float y = r.nextFloat() * 2 - 1;
+      float expected = MyMath.pseudoPolarAngle(x, y);
+      if (expected < 0)
+        expected += MyMath.PSEUDO_ANGLE_RANGE;
+      assertEquals(expected, RadialSort.pseudoAngle(x, y), 1e-5f);
+    }
+  }
+
+  public void testSortRandom() {
+    Random r = random();
+    PointArray points = new PointArray();
+    for (int i = 0; i < 5000; i++)
+      points.add(r.nextFloat() * 100 - 50, r.nextFloat() * 100 - 50);
+    Point pivot = new Point(3, -7);
+    verifyOrder(points, pivot, RadialSort.sort(points, pivot, null));
+  }
+
+  public void testSortCollinearAndCoincident() {
+    PointArray points = new PointArray();
+    Point pivot = new Point(10, 10);
+    // Points on a grid centered at the pivot; many share directions
+    for (int y = -5; y <= 5; y++)
+      for (int x = -5; x <= 5; x++)
+        points.add(pivot.x + x, pivot.y + y);
+    points.add(pivot);
+    IntArray order = RadialSort.sort(points, pivot, new IntArray());
+    verifyOrder(points, pivot, order);
+    // Both coincident points come first
+    for (int i = 0; i < 2; i++) {
+      Point p = points.get(order.get(i));
+      assertEqualsFloat(pivot.x, p.x);
+      assertEqualsFloat(pivot.y, p.y);
+    }
+  }
+
+  public void testSortReusesResults() {
+    PointArray points = new PointArray();
+    points.add(0, 1);
+    points.add(1, 0);
+    IntArray results = new IntArray();
+    results.add(42);
+    assertSame(results, RadialSort.sort(points, new Point(), results));
+    assertEquals(2, results.size());
+    assertEquals(1, results.get(0));
+    assertEquals(0, results.get(1));
+  }
+
+  public void testSortEmpty() {
+    assertTrue(RadialSort.sort(new PointArray(), new Point(), null).isEmpty());
+  }
+
+  public void testSweepWithStartAngle() {
+    PointArray points = new PointArray();
+    points.add(1, 0); // angle 0
+    points.add(0, 1); // 2
+    points.add(-1, 0); // 4
+    points.add(0, -1); // 6
+    points.add(0, 0); // coincident
+    points.add(0, 2); // 2, further away
+    RadialSort.Sweep sweep = new RadialSort.Sweep(points, new Point(), 3);
+    assertEquals(6, sweep.size());
+
+    int[] expected = {4, 2, 3, 0, 1, 5};
+    for (int e : expected) {
+      assertTrue(sweep.hasNext());
+      assertEquals(e, sweep.next());
+    }
+    assertFalse(sweep.hasNext());
+
+    sweep.reset();
+    assertEquals(4, sweep.next());
+    assertTrue(sweep.coincident());
+    assertEquals(2, sweep.next());
+    assertFalse(sweep.coincident());
+    assertEqualsFloat(4, sweep.angle());
+  }
+
+  public void testSweepRays() {
+    PointArray points = new PointArray();
+    points.add(0, 2);
+    points.add(0, 0);
+    points.add(1, 1);
+    points.add(0, 1);
+    points.add(0, 0);
+    points.add(3, 3);
+    RadialSort.Sweep sweep = new RadialSort.Sweep(points, new Point());
+    IntArray ray = new IntArray();
+
+    sweep.nextRay(ray);
+    assertEquals(2, ray.size());
+    assertTrue(sweep.coincident());
+
+    sweep.nextRay(ray);
+    assertEquals(2, ray.size());
+    assertEquals(2, ray.get(0));
+    assertEquals(5, ray.get(1));
+
+    sweep.nextRay(ray);
+    assertEquals(2, ray.size());
+    assertEquals(3, ray.get(0));
+    assertEquals(0, ray.get(1));
+    assertFalse(sweep.hasNext());
+  }
+
+  public void testSweepMisuse() {
+    PointArray points = new PointArray();
+    RadialSort.Sweep sweep = new RadialSort.Sweep(points, new Point());
+    try {
+      sweep.next();
+      failMissingException();
+    } catch (IllegalStateException e) {
+      doNothing();
+    }
+    try {
+      sweep.angle();
+      failMissingException();
+    } catch (IllegalStateException e) {
+      doNothing();
+    }
+    try {
+      new RadialSort.Sweep(points, new Point(), 8);
+      failMissingException();
+    } catch (IllegalArgumentException e) {
+      doNothing();
+    }
+  }
+}
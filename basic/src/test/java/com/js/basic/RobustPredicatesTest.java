@@ -0,0 +1,152 @@
+package com.js.basic;
+
+import com.js.testUtils.MyTestCase;
+
+import java.math.BigDecimal;
+
+public class RobustPredicatesTest extends MyTestCase {
+
+  private static BigDecimal big(double value) {
+    return new BigDecimal(value);
+  }
+
+  private static int exactOrientSign(double ax, double ay, double bx,
+                                     double by, double cx, double cy) {
+    BigDecimal left = big(ax).subtract(big(cx)).multiply(
+        big(by).subtract(big(cy)));
+    BigDecimal right = big(ay).subtract(big(cy)).multiply(
+        big(bx).subtract(big(cx)));
+    return left.subtract(right).signum();
+  }
+
+  private static int exactIncircleSign(double ax, double ay, double bx,
+                                       double by, double cx, double cy, double dx, double dy) {
+    BigDecimal adx = big(ax).subtract(big(dx)), ady = big(ay).subtract(big(dy));
+    BigDecimal bdx = big(bx).subtract(big(dx)), bdy = big(by).subtract(big(dy));
+    BigDecimal cdx = big(cx).subtract(big(dx)), cdy = big(cy).subtract(big(dy));
+    BigDecimal alift = adx.multiply(adx).add(ady.multiply(ady));
+    BigDecimal blift = bdx.multiply(bdx).add(bdy.multiply(bdy));
+    BigDecimal clift = cdx.multiply(cdx).add(cdy.multiply(cdy));
+    BigDecimal det = alift.multiply(
+        bdx.multiply(cdy).subtract(cdx.multiply(bdy))).add(
+        blift.multiply(cdx.multiply(ady).subtract(adx.multiply(cdy)))).add(
+        clift.multiply(adx.multiply(bdy).subtract(bdx.multiply(ady))));
+    return det.signum();
+  }
+
+  private static int sign(double value) {
+    return (int) Math.signum(value);
+  }
+
+  public void testOrientationSimple() {
+    assertTrue(RobustPredicates.orient2d(0, 0, 1, 0, 0, 1) > 0);
+    assertTrue(RobustPredicates.orient2d(0, 0, 0, 1, 1, 0) < 0);
+    assertEquals(0.0, RobustPredicates.orient2d(0, 0, 1, 1, 3, 3), 0);
+    // Magnitude is twice the triangle's area
+    assertEquals(12.0, RobustPredicates.orient2d(0, 0, 4, 0, 0, 3), 1e-12);
+  }
+
+  public void testOrientationAgreesWithSideOfLine() {
+    for (int i = 0; i < 200; i++) {
+      Point a = new Point(random().nextFloat() * 100, random().nextFloat() * 100);
+      Point b = new Point(random().nextFloat() * 100, random().nextFloat() * 100);
+      Point c = new Point(random().nextFloat() * 100, random().nextFloat() * 100);
+      float side = MyMath.sideOfLine(a, b, c);
+      if (Math.abs(side) < 1)
+        continue;
+      assertEquals(sign(side), sign(RobustPredicates.orient2d(a, b, c)));
+    }
+  }
+
+  /**
+   * Nearly collinear points, on a grid of neighbouring doubles (the classic
+   * example where naive evaluation produces a noisy pattern of signs)
+   */
+  public void testOrientationNearlyCollinear() {
+    double base = 0.5;
+    double step = Math.ulp(base);
+    int naiveErrors = 0;
+    for (int i = 0; i < 64; i++) {
+      for (int j = 0; j < 64; j++) {
+        double ax = base + i * step, ay = base + j * step;
+        double bx = 12, by = 12, cx = 24, cy = 24;
+        int expected = exactOrientSign(ax, ay, bx, by, cx, cy);
+        double result = RobustPredicates.orient2d(ax, ay, bx, by, cx, cy);
+        assertEquals(expected, sign(result));
+        // Permuting the points must change the sign consistently
+        assertEquals(expected,
+            sign(RobustPredicates.orient2d(bx, by, cx, cy, ax, ay)));
+        assertEquals(-expected,
+            sign(RobustPredicates.orient2d(bx, by, ax, ay, cx, cy)));
+
+        double naive = (ax - cx) * (by - cy) - (ay - cy) * (bx - cx);
+        if (sign(naive) != expected)
+          naiveErrors++;
+      }
+    }
+    // Make sure the test actually exercised the exact path
+    assertTrue(naiveErrors > 0);
+  }
+
+  public void testOrientationFloatPoints() {
+    // Float points along a line with an irrational slope, so none are exactly
+    // collinear
+    Point a = new Point(0.1f, 0.1f * (float) Math.sqrt(2));
+    for (int i = 0; i < 500; i++) {
+      float t = 1 + i * 0.37f;
+      Point b = new Point(0.1f * t, 0.1f * t * (float) Math.sqrt(2));
+      Point c = new Point(0.1f * t * 3, 0.1f * t * 3 * (float) Math.sqrt(2));
+      assertEquals(exactOrientSign(a.x, a.y, b.x, b.y, c.x, c.y),
+          sign(RobustPredicates.orient2d(a, b, c)));
+    }
+  }
+
+  public void testIncircleSimple() {
+    // Unit circle, counterclockwise
+    assertTrue(RobustPredicates.incircle(1, 0, 0, 1, -1, 0, 0, 0) > 0);
+    assertTrue(RobustPredicates.incircle(1, 0, 0, 1, -1, 0, 2, 2) < 0);
+    assertEquals(0.0, RobustPredicates.incircle(1, 0, 0, 1, -1, 0, 0, -1), 0);
+    // Clockwise order reverses the sign
+    assertTrue(RobustPredicates.incircle(-1, 0, 0, 1, 1, 0, 0, 0) < 0);
+  }
+
+  public void testIncircleCocircular() {
+    // Points on a circle of radius 5 (from Pythagorean triples), translated
+    // far from the origin; all are exactly representable
+    double ox = 1e6 + 0.5, oy = -3e5 + 0.25;
+    DPoint a = new DPoint(ox + 5, oy);
+    DPoint b = new DPoint(ox + 3, oy + 4);
+    DPoint c = new DPoint(ox - 4, oy + 3);
+    DPoint d = new DPoint(ox, oy - 5);
+    assertEquals(0.0, RobustPredicates.incircle(a, b, c, d), 0);
+
+    // Nudge the fourth point by single ulps in each direction
+    for (int i = -3; i <= 3; i++) {
+      for (int j = -3; j <= 3; j++) {
+        double dx = d.x + i * Math.ulp(d.x);
+        double dy = d.y + j * Math.ulp(d.y);
+        int expected = exactIncircleSign(a.x, a.y, b.x, b.y, c.x, c.y, dx, dy);
+        assertEquals(expected, sign(RobustPredicates.incircle(a.x, a.y, b.x,
+            b.y, c.x, c.y, dx, dy)));
+      }
+    }
+  }
+
+  public void testIncircleRandomNearDegenerate() {
+    for (int i = 0; i < 300; i++) {
+      double cx = random().nextDouble() * 1000, cy = random().nextDouble() * 1000;
+      double radius = 1 + random().nextDouble() * 100;
+      double[] p = new double[8];
+      for (int k = 0; k < 4; k++) {
+        double angle = k * Math.PI / 2 + random().nextDouble();
+        p[2 * k] = cx + radius * Math.cos(angle);
+        p[2 * k + 1] = cy + radius * Math.sin(angle);
+      }
+      int expected = exactIncircleSign(p[0], p[1], p[2], p[3], p[4], p[5],
+          p[6], p[7]);
+      assertEquals(expected, sign(RobustPredicates.incircle(p[0], p[1], p[2],
+          p[3], p[4], p[5], p[6], p[7])));
+    }
+  }
+
+}
@@ -0,0 +1,183 @@
+package com.js.basic;
+
+import com.js.testUtils.MyTestCase;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+
+public class SegmentIntersectorTest extends MyTestCase {
+
+  private Set<Long> sweep(PointArray endpoints) {
+    final Set<Long> pairs = new HashSet();
+    new SegmentIntersector(endpoints).find(new SegmentIntersector.Listener() {
+      @Override
+      public void intersection(int segmentA, int segmentB, float x, float y) {
+        assertTrue(segmentA < segmentB);
+        // Each pair must be reported only once
+        assertTrue(pairs.add(((long) segmentA << 32) | segmentB));
+      }
+    });
+    return pairs;
+  }
+
+  private Set<Long> bruteForce(PointArray endpoints) {
+    Set<Long> pairs = new HashSet();
+    int count = endpoints.size() / 2;
+    for (int i = 0; i < count; i++)
+      for (int j = i + 1; j < count; j++)
+        if (!isPoint(endpoints, i) && !isPoint(endpoints, j)
+            && MyMath.segSegIntersection(endpoints.get(2 * i),
+                endpoints.get(2 * i + 1), endpoints.get(2 * j),
+                endpoints.get(2 * j + 1), null, null) == MyMath.INTERSECT_HIT)
+          pairs.add(((long) i << 32) | j);
+    return pairs;
+  }
+
+  // The sweep doesn't report zero-length segments
+  private static boolean isPoint(PointArray endpoints, int segment) {
+    return endpoints.get(2 * segment).equals(endpoints.get(2 * segment + 1));
+  }
+
+  private PointArray randomSegments(int count, float maxLength) {
+    Random r = random();
+    PointArray endpoints = new PointArray();
+    for (int i = 0; i < count; i++) {
+      float x = r.nextFloat() * 1000;
+      float y = r.nextFloat() * 1000;
+      endpoints.add(x, y);
+      endpoints.add(x + (r.nextFloat() - .5f) * maxLength, y
+          + (r.nextFloat() - .5f) * maxLength);
+    }
+    return endpoints;
+  }
+
+  public void testNoSegments() {
+    assertTrue(sweep(new PointArray()).isEmpty());
+  }
+
+  public void testSingleCrossing() {
+    PointArray endpoints = new PointArray();
+    endpoints.add(0, 0);
+    endpoints.add(10, 10);
+    endpoints.add(10, 0);
+    endpoints.add(0, 10);
+    assertEquals(1, sweep(endpoints).size());
+  }
+
+  public void testMatchesBruteForceShortSegments() {
+    PointArray endpoints = randomSegments(400, 100);
+    assertEquals(bruteForce(endpoints), sweep(endpoints));
+  }
+
+  public void testMatchesBruteForceLongSegments() {
+    PointArray endpoints = randomSegments(150, 2000);
+    Set<Long> expected = bruteForce(endpoints);
+    assertTrue(expected.size() > 1000);
+    assertEquals(expected, sweep(endpoints));
+  }
+
+  public void testStarAndTouchingSegments() {
+    PointArray endpoints = new PointArray();
+    // Segments radiating from a common point
+    for (int i = 0; i < 40; i++) {
+      endpoints.add(50, 50);
+      endpoints.add(50 + 40 * (float) Math.cos(i * .15), 50 + 40
+          * (float) Math.sin(i * .15));
+    }
+    // Segments ending on the interior of a horizontal one
+    endpoints.add(0, 20);
+    endpoints.add(100, 20);
+    for (int i = 0; i < 10; i++) {
+      endpoints.add(i * 10, 20);
+      endpoints.add(i * 10 + 5, 30);
+      endpoints.add(i * 10 + 3, 10);
+      endpoints.add(i * 10 + 3, 20);
+    }
+    assertEquals(bruteForce(endpoints), sweep(endpoints));
+  }
+
+  public void testMatchesBruteForceOnIntegerGrid() {
+    // Integer coordinates produce many shared endpoints, touches, and
+    // several segments crossing at the same point
+    Random r = random();
+    for (int trial = 0; trial < 20; trial++) {
+      PointArray endpoints = new PointArray();
+      for (int i = 0; i < 60; i++) {
+        endpoints.add(r.nextInt(9), r.nextInt(9));
+        endpoints.add(r.nextInt(9), r.nextInt(9));
+      }
+      assertEquals(bruteForce(endpoints), sweep(endpoints));
+    }
+  }
+
+  public void testMatchesBruteForceOnDecimalGrid() {
+    // Coordinates that are multiples of .1 can't be represented exactly, so
+    // intersections at shared endpoints and touches have parameters that are
+    // only near 0 or 1
+    Random r = random();
+    for (int trial = 0; trial < 200; trial++) {
+      int[] coords = new int[80];
+      PointArray endpoints = new PointArray();
+      for (int i = 0; i < coords.length; i += 2) {
+        coords[i] = r.nextInt(10);
+        coords[i + 1] = r.nextInt(10);
+        endpoints.add(coords[i] * .1f, coords[i + 1] * .1f);
+      }
+      Set<Long> expected = bruteForce(endpoints);
+      Set<Long> actual = sweep(endpoints);
+      removeCollinearPairs(expected, coords);
+      removeCollinearPairs(actual, coords);
+      assertEquals(expected, actual);
+    }
+  }
+
+  /**
+   * Remove pairs that are collinear on the grid; after rounding, whether
+   * segSegIntersection reports them is arbitrary
+   */
+  private static void removeCollinearPairs(Set<Long> pairs, int[] coords) {
+    for (Iterator<Long> it = pairs.iterator(); it.hasNext(); ) {
+      long pair = it.next();
+      int i = 4 * (int) (pair >>> 32);
+      int j = 4 * (int) pair;
+      int cross = (coords[i + 2] - coords[i]) * (coords[j + 3] - coords[j + 1])
+          - (coords[i + 3] - coords[i + 1]) * (coords[j + 2] - coords[j]);
+      if (cross == 0)
+        it.remove();
+    }
+  }
+
+  public void testSharedEndpointWithRoundedParameters() {
+    // segSegIntersection reports these with parameters slightly less than 1
+    PointArray endpoints = new PointArray();
+    endpoints.add(.9f, .7f);
+    endpoints.add(.1f, .6f);
+    endpoints.add(.4f, .8f);
+    endpoints.add(.1f, .6f);
+    assertEquals(1, sweep(endpoints).size());
+  }
+
+  public void testNearlyCollinearPairReportedOnce() {
+    PointArray endpoints = new PointArray();
+    endpoints.add(.2f, .4f);
+    endpoints.add(.6f, 0);
+    endpoints.add(.8f, .1f);
+    endpoints.add(.3f, .5f);
+    endpoints.add(.4f, .2f);
+    endpoints.add(0, .6f);
+    assertEquals(bruteForce(endpoints), sweep(endpoints));
+  }
+
+  public void testGridWithVerticalSegments() {
+    PointArray endpoints = new PointArray();
+    for (int i = 0; i < 10; i++) {
+      endpoints.add(0, i + .5f);
+      endpoints.add(10, i + .5f);
+      endpoints.add(i + .5f, 0);
+      endpoints.add(i + .5f, 10);
+    }
+    assertEquals(100, sweep(endpoints).size());
+  }
+}
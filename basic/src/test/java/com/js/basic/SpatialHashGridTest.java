@@ -0,0 +1,137 @@
+package com.js.basic;
+
+import com.js.testUtils.MyTestCase;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static com.js.basic.Tools.*;
+
+public class SpatialHashGridTest extends MyTestCase {
+
+  private static int[] collect(SpatialHashGrid.Cursor cursor) {
+    IntArray items = new IntArray();
+    while (cursor.hasNext())
+      items.add(cursor.next());
+    int[] result = items.toArray();
+    Arrays.sort(result);
+    return result;
+  }
+
+  private static boolean overlaps(Rect a, Rect b) {
+    return a.x <= b.endX() && b.x <= a.endX() && a.y <= b.endY()
+        && b.y <= a.endY();
+  }
+
+  public void testPackIPoint() {
+    int[] values = {0, 1, -1, Integer.MAX_VALUE, Integer.MIN_VALUE, 12345};
+    for (int x : values)
+      for (int y : values) {
+        IPoint p = new IPoint(IPoint.pack(x, y));
+        assertEquals(x, p.x);
+        assertEquals(y, p.y);
+      }
+  }
+
+  public void testEmpty() {
+    SpatialHashGrid grid = new SpatialHashGrid(10);
+    assertEquals(0, collect(grid.queryRect(new Rect(-50, -50, 100, 100), null)).length);
+    SpatialHashGrid.Cursor cursor = new SpatialHashGrid.Cursor();
+    assertFalse(cursor.hasNext());
+  }
+
+  public void testPointsAndRects() {
+    SpatialHashGrid grid = new SpatialHashGrid(10);
+    int a = grid.insert(new Point(3, 4));
+    int b = grid.insert(new Rect(-25, -25, 50, 50));
+    int c = grid.insert(new Point(100, 100));
+    assertEquals(3, grid.size());
+    int[] found = collect(grid.queryRect(new Rect(0, 0, 10, 10), null));
+    assertTrue(Arrays.equals(new int[]{a, b}, found));
+    found = collect(grid.queryRadius(new Point(98, 98), 3, null));
+    assertTrue(Arrays.equals(new int[]{c}, found));
+    grid.remove(b);
+    found = collect(grid.queryRect(new Rect(0, 0, 10, 10), null));
+    assertTrue(Arrays.equals(new int[]{a}, found));
+  }
+
+  public void testRemovedItemRejected() {
+    SpatialHashGrid grid = new SpatialHashGrid(10);
+    int a = grid.insert(new Point(3, 4));
+    grid.remove(a);
+    assertEquals(0, grid.cellCount());
+    try {
+      grid.remove(a);
+      failMissingException();
+    } catch (IllegalArgumentException e) {
+      doNothing();
+    }
+  }
+
+  public void testCoordinatesOutOfCellRange() {
+    SpatialHashGrid grid = new SpatialHashGrid(.001f);
+    try {
+      grid.insert(new Point(3e6f, 5));
+      failMissingException();
+    } catch (IllegalArgumentException e) {
+      doNothing();
+    }
+    assertEquals(0, grid.size());
+    int a = grid.insert(new Point(1e6f, 5));
+    // Queries extending beyond the cell range are clamped to it
+    int[] found = collect(grid.queryRect(new Rect(-1e30f, -1e30f, 2e30f,
+        2e30f), null));
+    assertTrue(Arrays.equals(new int[]{a}, found));
+    found = collect(grid.queryRadius(new Point(3e6f, 5), 2.1e6f, null));
+    assertTrue(Arrays.equals(new int[]{a}, found));
+  }
+
+  public void testRandomOperationsMatchBruteForce() {
+    SpatialHashGrid grid = new SpatialHashGrid(7);
+    Map<Integer, Rect> items = new TreeMap();
+    Random r = random();
+    SpatialHashGrid.Cursor cursor = new SpatialHashGrid.Cursor();
+    for (int step = 0; step < 4000; step++) {
+      if (items.isEmpty() || r.nextInt(3) != 0) {
+        float x = r.nextFloat() * 400 - 200;
+        float y = r.nextFloat() * 400 - 200;
+        if (r.nextBoolean()) {
+          Point pt = new Point(x, y);
+          items.put(grid.insert(pt), new Rect(x, y, 0, 0));
+        } else {
+          Rect rect = new Rect(x, y, r.nextFloat() * 30, r.nextFloat() * 30);
+          items.put(grid.insert(rect), rect);
+        }
+      } else {
+        Integer[] ids = items.keySet().toArray(new Integer[0]);
+        int item = ids[r.nextInt(ids.length)];
+        grid.remove(item);
+        items.remove(item);
+      }
+      if (step % 50 != 0)
+        continue;
+      assertEquals(items.size(), grid.size());
+
+      Rect window = new Rect(r.nextFloat() * 400 - 200, r.nextFloat() * 400 - 200,
+          r.nextFloat() * 60, r.nextFloat() * 60);
+      IntArray expected = new IntArray();
+      for (int item : items.keySet())
+        if (overlaps(items.get(item), window))
+          expected.add(item);
+      assertTrue(Arrays.equals(expected.toArray(),
+          collect(grid.queryRect(window, cursor))));
+
+      Point center = new Point(r.nextFloat() * 400 - 200, r.nextFloat() * 400 - 200);
+      float radius = r.nextFloat() * 40;
+      expected.clear();
+      for (int item : items.keySet())
+        if (items.get(item).distanceFrom(center) <= radius)
+          expected.add(item);
+      assertTrue(Arrays.equals(expected.toArray(),
+          collect(grid.queryRadius(center, radius, cursor))));
+    }
+  }
+
+}